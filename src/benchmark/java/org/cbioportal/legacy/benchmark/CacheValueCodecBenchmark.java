@@ -0,0 +1,70 @@
+package org.cbioportal.legacy.benchmark;
+
+import org.cbioportal.legacy.model.ClinicalData;
+import org.cbioportal.legacy.persistence.util.CacheCompression;
+import org.cbioportal.legacy.persistence.util.CacheValueCodec;
+import org.cbioportal.legacy.persistence.util.CacheValueSerializer;
+import org.cbioportal.legacy.persistence.util.JavaCacheValueSerializer;
+import org.cbioportal.legacy.persistence.util.KryoCacheValueSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding of a cached clinical data list, as done by the CustomRedisCache on every put and on every
+ * hit that misses the near cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class CacheValueCodecBenchmark {
+
+    @Param({"java", "kryo"})
+    public String serializer;
+
+    @Param({"NONE", "GZIP", "LZ4"})
+    public CacheCompression compression;
+
+    @Param({"10000"})
+    public int entries;
+
+    private CacheValueCodec cacheValueCodec;
+    private List<ClinicalData> value;
+    private byte[] encodedValue;
+
+    @Setup
+    public void setup() {
+        CacheValueSerializer cacheValueSerializer = serializer.equals("kryo") ?
+            new KryoCacheValueSerializer() : new JavaCacheValueSerializer();
+        cacheValueCodec = new CacheValueCodec(cacheValueSerializer, compression);
+
+        SyntheticData syntheticData = new SyntheticData();
+        value = syntheticData.numericClinicalData(
+            syntheticData.samples(syntheticData.studyIds(1), entries), "AGE", 60, 12, 0.05);
+        encodedValue = cacheValueCodec.encode(value);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return cacheValueCodec.encode(value);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return cacheValueCodec.decode(encodedValue);
+    }
+}
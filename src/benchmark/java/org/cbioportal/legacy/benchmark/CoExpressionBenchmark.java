@@ -0,0 +1,54 @@
+package org.cbioportal.legacy.benchmark;
+
+import org.cbioportal.legacy.model.CoExpression;
+import org.cbioportal.legacy.service.util.CoExpressionAsyncMethods;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spearman correlation of one pair of genes, called once per gene of the co-expression table. The
+ * method is called directly, so it runs on the benchmark thread instead of the async executor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class CoExpressionBenchmark {
+
+    @Param({"1000", "10000"})
+    public int samples;
+
+    @Param({"0.1"})
+    public double naFraction;
+
+    private final CoExpressionAsyncMethods coExpressionAsyncMethods = new CoExpressionAsyncMethods();
+    private List<String> valuesA;
+    private List<String> valuesB;
+
+    @Setup
+    public void setup() {
+        SyntheticData syntheticData = new SyntheticData();
+        valuesA = syntheticData.expressionValues(samples, naFraction);
+        valuesB = syntheticData.expressionValues(samples, naFraction);
+    }
+
+    @Benchmark
+    public CompletableFuture<CoExpression> computeCoExpression() {
+        return coExpressionAsyncMethods.computeCoExpression("1", valuesA, valuesB, 0.0);
+    }
+}
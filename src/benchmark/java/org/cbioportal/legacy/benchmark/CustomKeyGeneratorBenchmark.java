@@ -0,0 +1,95 @@
+package org.cbioportal.legacy.benchmark;
+
+import org.cbioportal.legacy.model.CancerStudy;
+import org.cbioportal.legacy.model.Sample;
+import org.cbioportal.legacy.persistence.CacheEnabledConfig;
+import org.cbioportal.legacy.persistence.StudyRepository;
+import org.cbioportal.legacy.persistence.util.CustomKeyGenerator;
+import org.cbioportal.legacy.web.parameter.SampleIdentifier;
+import org.cbioportal.legacy.web.parameter.StudyViewFilter;
+import org.cbioportal.legacy.web.util.StudyViewFilterApplier;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Cache key of a study view filter. Short filters are kept as JSON, long ones are hashed and tagged with the ids
+ * of the studies they mention, which is a scan over all studies in the portal.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class CustomKeyGeneratorBenchmark {
+
+    @Param({"400"})
+    public int studies;
+
+    @Param({"10", "10000"})
+    public int sampleIdentifiers;
+
+    private CustomKeyGenerator customKeyGenerator;
+    private StudyViewFilterApplier target;
+    private Method method;
+    private StudyViewFilter studyViewFilter;
+
+    @Setup
+    public void setup() throws Exception {
+        SyntheticData syntheticData = new SyntheticData();
+        List<String> studyIds = syntheticData.studyIds(studies);
+
+        CacheEnabledConfig cacheEnabledConfig = new CacheEnabledConfig();
+        ReflectionTestUtils.setField(cacheEnabledConfig, "enabled", true);
+        StudyRepository studyRepository = Mockito.mock(StudyRepository.class);
+        Mockito.when(studyRepository.getAllStudies(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+            Mockito.any(), Mockito.any())).thenReturn(studyIds.stream().map(studyId -> {
+                CancerStudy cancerStudy = new CancerStudy();
+                cancerStudy.setCancerStudyIdentifier(studyId);
+                return cancerStudy;
+            }).collect(Collectors.toList()));
+
+        customKeyGenerator = new CustomKeyGenerator();
+        ReflectionTestUtils.setField(customKeyGenerator, "cacheEnabledConfig", cacheEnabledConfig);
+        ReflectionTestUtils.setField(customKeyGenerator, "studyRepository", studyRepository);
+
+        target = new StudyViewFilterApplier();
+        method = StudyViewFilterApplier.class.getMethod("cachedApply", StudyViewFilter.class);
+
+        // the samples of a few studies, as in a study view of a multi study query
+        List<SampleIdentifier> identifiers = syntheticData.samples(studyIds.subList(0, 5), sampleIdentifiers)
+            .stream()
+            .map(CustomKeyGeneratorBenchmark::toSampleIdentifier)
+            .collect(Collectors.toList());
+        studyViewFilter = new StudyViewFilter();
+        studyViewFilter.setSampleIdentifiers(identifiers);
+    }
+
+    @Benchmark
+    public Object generate() {
+        return customKeyGenerator.generate(target, method, studyViewFilter);
+    }
+
+    private static SampleIdentifier toSampleIdentifier(Sample sample) {
+        SampleIdentifier sampleIdentifier = new SampleIdentifier();
+        sampleIdentifier.setStudyId(sample.getCancerStudyIdentifier());
+        sampleIdentifier.setSampleId(sample.getStableId());
+        return sampleIdentifier;
+    }
+}
@@ -0,0 +1,99 @@
+package org.cbioportal.legacy.benchmark;
+
+import com.google.common.collect.Range;
+import org.cbioportal.legacy.model.Binnable;
+import org.cbioportal.legacy.model.DataBin;
+import org.cbioportal.legacy.web.parameter.ClinicalDataBinFilter;
+import org.cbioportal.legacy.web.util.DataBinHelper;
+import org.cbioportal.legacy.web.util.DataBinner;
+import org.cbioportal.legacy.web.util.DiscreteDataBinner;
+import org.cbioportal.legacy.web.util.LinearDataBinner;
+import org.cbioportal.legacy.web.util.LogScaleDataBinner;
+import org.cbioportal.legacy.web.util.ScientificSmallDataBinner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Binning of a numeric clinical attribute for the study view, on all samples of the studies and recounted on
+ * the filtered half of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class DataBinnerBenchmark {
+
+    @Param({"1000", "100000"})
+    public int values;
+
+    @Param({"0.05"})
+    public double naFraction;
+
+    private AnnotationConfigApplicationContext applicationContext;
+    private DataBinner dataBinner;
+    private ClinicalDataBinFilter clinicalDataBinFilter;
+    private List<Binnable> unfilteredClinicalData;
+    private List<Binnable> filteredClinicalData;
+    private List<BigDecimal> sortedValues;
+
+    @Setup
+    public void setup() {
+        applicationContext = new AnnotationConfigApplicationContext(DataBinner.class, DiscreteDataBinner.class,
+            LinearDataBinner.class, ScientificSmallDataBinner.class, LogScaleDataBinner.class);
+        dataBinner = applicationContext.getBean(DataBinner.class);
+
+        clinicalDataBinFilter = new ClinicalDataBinFilter();
+        clinicalDataBinFilter.setAttributeId("AGE");
+
+        SyntheticData syntheticData = new SyntheticData();
+        unfilteredClinicalData = new ArrayList<>(syntheticData.numericClinicalData(
+            syntheticData.samples(syntheticData.studyIds(10), values), "AGE", 60, 12, naFraction));
+        filteredClinicalData = new ArrayList<>();
+        for (int i = 0; i < unfilteredClinicalData.size(); i += 2) {
+            filteredClinicalData.add(unfilteredClinicalData.get(i));
+        }
+        sortedValues = dataBinner.filterNumericalValues(unfilteredClinicalData).stream()
+            .sorted()
+            .collect(Collectors.toList());
+    }
+
+    @TearDown
+    public void tearDown() {
+        applicationContext.close();
+    }
+
+    @Benchmark
+    public List<DataBin> calculateDataBins() {
+        return dataBinner.calculateDataBins(clinicalDataBinFilter, unfilteredClinicalData);
+    }
+
+    @Benchmark
+    public List<DataBin> calculateClinicalDataBins() {
+        return dataBinner.calculateClinicalDataBins(clinicalDataBinFilter, filteredClinicalData,
+            unfilteredClinicalData);
+    }
+
+    @Benchmark
+    public Range<BigDecimal> calcBoxRange() {
+        return DataBinHelper.calcBoxRange(sortedValues);
+    }
+}
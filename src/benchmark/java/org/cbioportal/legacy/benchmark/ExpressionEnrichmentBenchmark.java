@@ -0,0 +1,117 @@
+package org.cbioportal.legacy.benchmark;
+
+import org.cbioportal.legacy.model.EnrichmentType;
+import org.cbioportal.legacy.model.GeneMolecularAlteration;
+import org.cbioportal.legacy.model.GenomicEnrichment;
+import org.cbioportal.legacy.model.MolecularProfile;
+import org.cbioportal.legacy.model.MolecularProfileCaseIdentifier;
+import org.cbioportal.legacy.model.MolecularProfileSamples;
+import org.cbioportal.legacy.model.Sample;
+import org.cbioportal.legacy.persistence.MolecularDataRepository;
+import org.cbioportal.legacy.service.SampleService;
+import org.cbioportal.legacy.service.util.ExpressionEnrichmentUtil;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Expression enrichments of two groups of samples in an RNA-seq profile. The alterations are created from their
+ * comma separated values on every invocation, as they are read from the database for every request, so parsing
+ * the values is part of the measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ExpressionEnrichmentBenchmark {
+
+    private static final String MOLECULAR_PROFILE_ID = "study_0_rna_seq_v2_mrna";
+
+    @Param({"1000"})
+    public int samples;
+
+    @Param({"1000"})
+    public int genes;
+
+    @Param({"0.05"})
+    public double naFraction;
+
+    private final ExpressionEnrichmentUtil expressionEnrichmentUtil = new ExpressionEnrichmentUtil();
+    private MolecularProfile molecularProfile;
+    private Map<String, List<MolecularProfileCaseIdentifier>> molecularProfileCaseSets;
+    private List<String> values;
+
+    @Setup
+    public void setup() {
+        SyntheticData syntheticData = new SyntheticData();
+        List<Sample> sampleList = syntheticData.samples(syntheticData.studyIds(1), samples);
+
+        molecularProfile = new MolecularProfile();
+        molecularProfile.setStableId(MOLECULAR_PROFILE_ID);
+        molecularProfile.setCancerStudyIdentifier(sampleList.get(0).getCancerStudyIdentifier());
+
+        MolecularProfileSamples molecularProfileSamples = new MolecularProfileSamples();
+        molecularProfileSamples.setMolecularProfileId(MOLECULAR_PROFILE_ID);
+        molecularProfileSamples.setCommaSeparatedSampleIds(sampleList.stream()
+            .map(sample -> sample.getInternalId() + ",")
+            .collect(Collectors.joining()));
+
+        SampleService sampleService = Mockito.mock(SampleService.class);
+        Mockito.when(sampleService.fetchSamples(Mockito.anyList(), Mockito.anyList(), Mockito.anyString()))
+            .thenReturn(sampleList);
+        MolecularDataRepository molecularDataRepository = Mockito.mock(MolecularDataRepository.class);
+        Mockito.when(molecularDataRepository.getCommaSeparatedSampleIdsOfMolecularProfile(MOLECULAR_PROFILE_ID))
+            .thenReturn(molecularProfileSamples);
+        ReflectionTestUtils.setField(expressionEnrichmentUtil, "sampleService", sampleService);
+        ReflectionTestUtils.setField(expressionEnrichmentUtil, "molecularDataRepository", molecularDataRepository);
+
+        // the first half of the samples against the second half
+        molecularProfileCaseSets = new HashMap<>();
+        molecularProfileCaseSets.put("group_1", caseIdentifiers(sampleList.subList(0, samples / 2)));
+        molecularProfileCaseSets.put("group_2", caseIdentifiers(sampleList.subList(samples / 2, samples)));
+
+        values = new ArrayList<>(genes);
+        for (int i = 0; i < genes; i++) {
+            values.add(syntheticData.commaSeparatedExpressionValues(samples, naFraction));
+        }
+    }
+
+    @Benchmark
+    public List<GenomicEnrichment> getEnrichments() {
+        List<GeneMolecularAlteration> molecularAlterations = new ArrayList<>(genes);
+        for (int i = 0; i < genes; i++) {
+            GeneMolecularAlteration molecularAlteration = new GeneMolecularAlteration();
+            molecularAlteration.setEntrezGeneId(i + 1);
+            molecularAlteration.setMolecularProfileId(MOLECULAR_PROFILE_ID);
+            molecularAlteration.setValues(values.get(i));
+            molecularAlterations.add(molecularAlteration);
+        }
+        return expressionEnrichmentUtil.getEnrichments(molecularProfile, molecularProfileCaseSets,
+            EnrichmentType.SAMPLE, molecularAlterations);
+    }
+
+    private List<MolecularProfileCaseIdentifier> caseIdentifiers(List<Sample> samples) {
+        return samples.stream()
+            .map(sample -> new MolecularProfileCaseIdentifier(sample.getStableId(), MOLECULAR_PROFILE_ID))
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,63 @@
+package org.cbioportal.legacy.benchmark;
+
+import org.cbioportal.legacy.service.util.FisherExactTestCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fisher's exact test and q-values as computed for the alteration enrichments of one group comparison.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class FisherExactTestBenchmark {
+
+    @Param({"1000"})
+    public int genes;
+
+    @Param({"100", "1000"})
+    public int groupSize;
+
+    private final FisherExactTestCalculator fisherExactTestCalculator = new FisherExactTestCalculator();
+    private int[][] contingencyTables;
+    private BigDecimal[] pValuesInIncreasingOrder;
+
+    @Setup
+    public void setup() {
+        contingencyTables = new SyntheticData().contingencyTables(genes, groupSize);
+        pValuesInIncreasingOrder = Arrays.stream(contingencyTables)
+            .map(t -> BigDecimal.valueOf(fisherExactTestCalculator.getTwoTailedPValue(t[0], t[1], t[2], t[3])))
+            .sorted()
+            .toArray(BigDecimal[]::new);
+    }
+
+    @Benchmark
+    public void twoTailedPValues(Blackhole blackhole) {
+        for (int[] t : contingencyTables) {
+            blackhole.consume(fisherExactTestCalculator.getTwoTailedPValue(t[0], t[1], t[2], t[3]));
+        }
+    }
+
+    @Benchmark
+    public BigDecimal[] qValues() {
+        // calcqValue reverses its argument in place
+        return fisherExactTestCalculator.calcqValue(pValuesInIncreasingOrder.clone());
+    }
+}
@@ -0,0 +1,178 @@
+package org.cbioportal.legacy.benchmark;
+
+import org.cbioportal.legacy.model.ClinicalAttribute;
+import org.cbioportal.legacy.model.ClinicalData;
+import org.cbioportal.legacy.model.Patient;
+import org.cbioportal.legacy.model.Sample;
+import org.cbioportal.legacy.model.SampleList;
+import org.cbioportal.legacy.service.ClinicalAttributeService;
+import org.cbioportal.legacy.service.ClinicalDataService;
+import org.cbioportal.legacy.service.GeneService;
+import org.cbioportal.legacy.service.PatientService;
+import org.cbioportal.legacy.service.SampleListService;
+import org.cbioportal.legacy.service.SampleService;
+import org.cbioportal.legacy.web.parameter.ClinicalDataFilter;
+import org.cbioportal.legacy.web.parameter.DataFilterValue;
+import org.cbioportal.legacy.web.parameter.SampleIdentifier;
+import org.cbioportal.legacy.web.parameter.StudyViewFilter;
+import org.cbioportal.legacy.web.util.ClinicalDataEqualityFilterApplier;
+import org.cbioportal.legacy.web.util.ClinicalDataIntervalFilterApplier;
+import org.cbioportal.legacy.web.util.StudyViewFilterApplier;
+import org.cbioportal.legacy.web.util.StudyViewFilterUtil;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * A study view filter with a categorical and a numeric clinical data filter and a case list filter, applied to
+ * the samples of several studies. The services return synthetic data from memory, so the measurement covers the
+ * filter logic only and none of the database access.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class StudyViewFilterApplierBenchmark {
+
+    private static final String CATEGORICAL_ATTRIBUTE_ID = "SUBTYPE";
+    private static final String NUMERIC_ATTRIBUTE_ID = "AGE";
+    private static final String CASE_LIST_TYPE = "sequenced";
+
+    @Param({"10"})
+    public int studies;
+
+    @Param({"10000", "100000"})
+    public int samples;
+
+    private StudyViewFilterApplier studyViewFilterApplier;
+    private StudyViewFilter studyViewFilter;
+
+    @Setup
+    public void setup() {
+        SyntheticData syntheticData = new SyntheticData();
+        List<String> studyIds = syntheticData.studyIds(studies);
+        List<Sample> sampleList = syntheticData.samples(studyIds, samples);
+
+        List<ClinicalData> clinicalData = new ArrayList<>();
+        clinicalData.addAll(syntheticData.categoricalClinicalData(sampleList, CATEGORICAL_ATTRIBUTE_ID,
+            Arrays.asList("LUMINAL_A", "LUMINAL_B", "HER2", "BASAL", "NA")));
+        clinicalData.addAll(syntheticData.numericClinicalData(sampleList, NUMERIC_ATTRIBUTE_ID, 60, 12, 0.05));
+
+        SampleService sampleService = Mockito.mock(SampleService.class);
+        Mockito.when(sampleService.getAllSamplesInStudies(Mockito.anyList(), Mockito.anyString(), Mockito.any(),
+            Mockito.any(), Mockito.any(), Mockito.any())).thenReturn(sampleList);
+        PatientService patientService = Mockito.mock(PatientService.class);
+        Mockito.when(patientService.getPatientsOfSamples(Mockito.anyList(), Mockito.anyList()))
+            .thenReturn(sampleList.stream().map(StudyViewFilterApplierBenchmark::toPatient).collect(Collectors.toList()));
+        ClinicalDataService clinicalDataService = Mockito.mock(ClinicalDataService.class);
+        Mockito.when(clinicalDataService.fetchClinicalData(Mockito.anyList(), Mockito.anyList(), Mockito.anyList(),
+            Mockito.anyString(), Mockito.anyString())).thenReturn(clinicalData);
+        Mockito.when(clinicalDataService.getPatientClinicalDataDetailedToSample(Mockito.anyList(), Mockito.anyList(),
+            Mockito.anyList())).thenReturn(Collections.emptyList());
+        ClinicalAttributeService clinicalAttributeService = Mockito.mock(ClinicalAttributeService.class);
+        Mockito.when(clinicalAttributeService.getClinicalAttributesByStudyIdsAndAttributeIds(Mockito.anyList(),
+            Mockito.anyList())).thenReturn(Arrays.asList(clinicalAttribute(CATEGORICAL_ATTRIBUTE_ID, "STRING"),
+                clinicalAttribute(NUMERIC_ATTRIBUTE_ID, "NUMBER")));
+        SampleListService sampleListService = Mockito.mock(SampleListService.class);
+        Mockito.when(sampleListService.getAllSampleListsInStudies(Mockito.anyList(), Mockito.anyString()))
+            .thenReturn(studyIds.stream().map(studyId -> sampleList(studyId, sampleList)).collect(Collectors.toList()));
+
+        StudyViewFilterUtil studyViewFilterUtil = new StudyViewFilterUtil(Mockito.mock(GeneService.class));
+        ClinicalDataEqualityFilterApplier clinicalDataEqualityFilterApplier =
+            new ClinicalDataEqualityFilterApplier(patientService, clinicalDataService, studyViewFilterUtil);
+        ReflectionTestUtils.setField(clinicalDataEqualityFilterApplier, "studyViewFilterUtil", studyViewFilterUtil);
+        ClinicalDataIntervalFilterApplier clinicalDataIntervalFilterApplier =
+            new ClinicalDataIntervalFilterApplier(patientService, clinicalDataService, studyViewFilterUtil);
+
+        studyViewFilterApplier = new StudyViewFilterApplier();
+        ReflectionTestUtils.setField(studyViewFilterApplier, "sampleService", sampleService);
+        ReflectionTestUtils.setField(studyViewFilterApplier, "clinicalAttributeService", clinicalAttributeService);
+        ReflectionTestUtils.setField(studyViewFilterApplier, "sampleListService", sampleListService);
+        ReflectionTestUtils.setField(studyViewFilterApplier, "studyViewFilterUtil", studyViewFilterUtil);
+        ReflectionTestUtils.setField(studyViewFilterApplier, "clinicalDataEqualityFilterApplier",
+            clinicalDataEqualityFilterApplier);
+        ReflectionTestUtils.setField(studyViewFilterApplier, "clinicalDataIntervalFilterApplier",
+            clinicalDataIntervalFilterApplier);
+
+        studyViewFilter = new StudyViewFilter();
+        studyViewFilter.setStudyIds(studyIds);
+        studyViewFilter.setClinicalDataFilters(Arrays.asList(
+            clinicalDataFilter(CATEGORICAL_ATTRIBUTE_ID, equalityValue("LUMINAL_A"), equalityValue("HER2")),
+            clinicalDataFilter(NUMERIC_ATTRIBUTE_ID, intervalValue(40, 70))));
+        studyViewFilter.setCaseLists(Collections.singletonList(Collections.singletonList(CASE_LIST_TYPE)));
+    }
+
+    @Benchmark
+    public List<SampleIdentifier> apply() {
+        return studyViewFilterApplier.apply(studyViewFilter, false);
+    }
+
+    private static Patient toPatient(Sample sample) {
+        Patient patient = new Patient();
+        patient.setStableId(sample.getPatientStableId());
+        patient.setCancerStudyIdentifier(sample.getCancerStudyIdentifier());
+        return patient;
+    }
+
+    private static ClinicalAttribute clinicalAttribute(String attributeId, String datatype) {
+        ClinicalAttribute clinicalAttribute = new ClinicalAttribute();
+        clinicalAttribute.setAttrId(attributeId);
+        clinicalAttribute.setDatatype(datatype);
+        return clinicalAttribute;
+    }
+
+    // every other sample of the study is in the case list
+    private static SampleList sampleList(String studyId, List<Sample> samples) {
+        SampleList sampleList = new SampleList();
+        sampleList.setStableId(studyId + "_" + CASE_LIST_TYPE);
+        sampleList.setCancerStudyIdentifier(studyId);
+        List<String> sampleIds = new ArrayList<>();
+        for (int i = 0; i < samples.size(); i += 2) {
+            if (samples.get(i).getCancerStudyIdentifier().equals(studyId)) {
+                sampleIds.add(samples.get(i).getStableId());
+            }
+        }
+        sampleList.setSampleIds(sampleIds);
+        return sampleList;
+    }
+
+    private static ClinicalDataFilter clinicalDataFilter(String attributeId, DataFilterValue... values) {
+        ClinicalDataFilter clinicalDataFilter = new ClinicalDataFilter();
+        clinicalDataFilter.setAttributeId(attributeId);
+        clinicalDataFilter.setValues(Arrays.asList(values));
+        return clinicalDataFilter;
+    }
+
+    private static DataFilterValue equalityValue(String value) {
+        DataFilterValue dataFilterValue = new DataFilterValue();
+        dataFilterValue.setValue(value);
+        return dataFilterValue;
+    }
+
+    private static DataFilterValue intervalValue(int start, int end) {
+        DataFilterValue dataFilterValue = new DataFilterValue();
+        dataFilterValue.setStart(BigDecimal.valueOf(start));
+        dataFilterValue.setEnd(BigDecimal.valueOf(end));
+        return dataFilterValue;
+    }
+}
@@ -0,0 +1,113 @@
+package org.cbioportal.legacy.benchmark;
+
+import org.cbioportal.legacy.model.ClinicalData;
+import org.cbioportal.legacy.model.Sample;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Generates reproducible datasets for the benchmarks. Every instance starts from the same seed, so two runs with
+ * the same parameters measure the same data.
+ */
+public class SyntheticData {
+
+    private static final long SEED = 42;
+    private static final String NA = "NA";
+
+    private final Random random = new Random(SEED);
+
+    public List<String> studyIds(int count) {
+        List<String> studyIds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            studyIds.add("study_" + i);
+        }
+        return studyIds;
+    }
+
+    /**
+     * @return samples spread evenly over the studies, with one patient per sample
+     */
+    public List<Sample> samples(List<String> studyIds, int count) {
+        List<Sample> samples = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Sample sample = new Sample();
+            sample.setInternalId(i + 1);
+            sample.setStableId("sample_" + i);
+            sample.setPatientStableId("patient_" + i);
+            sample.setCancerStudyIdentifier(studyIds.get(i % studyIds.size()));
+            samples.add(sample);
+        }
+        return samples;
+    }
+
+    /**
+     * @return normally distributed values of the attribute, a fraction of them NA
+     */
+    public List<ClinicalData> numericClinicalData(List<Sample> samples, String attributeId, double mean,
+                                                  double standardDeviation, double naFraction) {
+        List<ClinicalData> clinicalData = new ArrayList<>(samples.size());
+        for (Sample sample : samples) {
+            String value = random.nextDouble() < naFraction ? NA :
+                String.format(Locale.ROOT, "%.2f", mean + random.nextGaussian() * standardDeviation);
+            clinicalData.add(clinicalData(sample, attributeId, value));
+        }
+        return clinicalData;
+    }
+
+    /**
+     * @return values of the attribute drawn uniformly from the categories
+     */
+    public List<ClinicalData> categoricalClinicalData(List<Sample> samples, String attributeId, List<String> categories) {
+        List<ClinicalData> clinicalData = new ArrayList<>(samples.size());
+        for (Sample sample : samples) {
+            clinicalData.add(clinicalData(sample, attributeId, categories.get(random.nextInt(categories.size()))));
+        }
+        return clinicalData;
+    }
+
+    /**
+     * @return log-normally distributed expression values, a fraction of them NA
+     */
+    public List<String> expressionValues(int count, double naFraction) {
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(random.nextDouble() < naFraction ? NA :
+                String.format(Locale.ROOT, "%.4f", Math.exp(random.nextGaussian() * 2 + 5)));
+        }
+        return values;
+    }
+
+    /**
+     * @return expression values in the format of the genetic_alteration.VALUES column
+     */
+    public String commaSeparatedExpressionValues(int count, double naFraction) {
+        return String.join(",", expressionValues(count, naFraction));
+    }
+
+    /**
+     * @return {altered in group 1, unaltered in group 1, altered in group 2, unaltered in group 2} per gene, with
+     * alteration frequencies typical for a cohort
+     */
+    public int[][] contingencyTables(int count, int groupSize) {
+        int[][] tables = new int[count][];
+        for (int i = 0; i < count; i++) {
+            int altered1 = (int) (groupSize * random.nextDouble() * 0.3);
+            int altered2 = (int) (groupSize * random.nextDouble() * 0.3);
+            tables[i] = new int[] {altered1, groupSize - altered1, altered2, groupSize - altered2};
+        }
+        return tables;
+    }
+
+    private ClinicalData clinicalData(Sample sample, String attributeId, String value) {
+        ClinicalData clinicalData = new ClinicalData();
+        clinicalData.setStudyId(sample.getCancerStudyIdentifier());
+        clinicalData.setSampleId(sample.getStableId());
+        clinicalData.setPatientId(sample.getPatientStableId());
+        clinicalData.setAttrId(attributeId);
+        clinicalData.setAttrValue(value);
+        return clinicalData;
+    }
+}
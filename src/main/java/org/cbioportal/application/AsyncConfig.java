@@ -1,28 +1,26 @@
 package org.cbioportal.application;
 
-import org.springframework.beans.factory.annotation.Value;
+import org.cbioportal.legacy.utils.concurrent.Workload;
+import org.cbioportal.legacy.utils.concurrent.WorkloadExecutors;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
 
 @Configuration
 @EnableAsync
 public class AsyncConfig implements AsyncConfigurer {
-    
 
-    @Value("${multithread.core_pool_size:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}")
-    private int corePoolSize;
+    @Autowired
+    private WorkloadExecutors workloadExecutors;
 
+    // the only @Async methods are the per-gene co-expression tasks, which run on the bounded pool of their workload
+    // (sized by multithread.core_pool_size unless workload.co_expression.pool_size is set)
     @Override
     public Executor getAsyncExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(corePoolSize);
-        executor.setThreadNamePrefix("ThreadPoolTaskExecutor-");
-        executor.initialize();
-        return executor;
+        return workloadExecutors.executor(Workload.CO_EXPRESSION);
     }
 
 }
@@ -2,11 +2,18 @@ package org.cbioportal.application;
 
 import java.util.List;
 
+import org.cbioportal.legacy.utils.concurrent.Workload;
+import org.cbioportal.legacy.utils.concurrent.WorkloadExecutors;
+import org.cbioportal.legacy.utils.metrics.ApplicationMetrics;
 import org.cbioportal.legacy.web.ExecuterTimeInterceptor;
 import org.cbioportal.legacy.web.util.InvolvedCancerStudyExtractorInterceptor;
+import org.cbioportal.legacy.web.util.RequestTimingInterceptor;
+import org.cbioportal.legacy.web.util.WorkloadAdmissionInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.PathMatchConfigurer;
@@ -26,6 +33,12 @@ public class WebAppConfig implements WebMvcConfigurer {
 	@Value("${springdoc.swagger-ui.path:/swagger-ui.html}")
 	private String swaggerRedirectUrl;
 
+	@Autowired
+	private WorkloadExecutors workloadExecutors;
+
+	@Autowired
+	private ApplicationMetrics applicationMetrics;
+
 	@Override
 	public void addResourceHandlers(ResourceHandlerRegistry registry) {
 		registry.addResourceHandler("/images/**").addResourceLocations("classpath:/webapp/images/");
@@ -76,10 +89,20 @@ public class WebAppConfig implements WebMvcConfigurer {
 
 	@Override
 	public void addInterceptors(InterceptorRegistry registry) {
+		// the timing interceptor wraps all others, which count as the filter phase of the request
+		RequestTimingInterceptor requestTimingInterceptor = new RequestTimingInterceptor(applicationMetrics);
+		registry.addInterceptor(requestTimingInterceptor).order(Ordered.HIGHEST_PRECEDENCE);
+		registry.addInterceptor(requestTimingInterceptor.handlerStart()).order(Ordered.LOWEST_PRECEDENCE);
 		registry.addInterceptor(involvedCancerStudyExtractorInterceptor());
         registry.addInterceptor(new WebRequestHandlerInterceptorAdapter(
             new ExecuterTimeInterceptor()
         )).addPathPatterns("/**");
+        registry.addInterceptor(new WorkloadAdmissionInterceptor(workloadExecutors, Workload.CO_EXPRESSION))
+            .addPathPatterns("/api/molecular-profiles/co-expressions/fetch");
+        registry.addInterceptor(new WorkloadAdmissionInterceptor(workloadExecutors, Workload.ENRICHMENT))
+            .addPathPatterns("/api/*-enrichments/fetch");
+        registry.addInterceptor(new WorkloadAdmissionInterceptor(workloadExecutors, Workload.STUDY_VIEW))
+            .addPathPatterns("/api/column-store/study-view-charts/fetch");
 	}
 
 	@Override
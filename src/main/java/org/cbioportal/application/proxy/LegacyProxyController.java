@@ -41,6 +41,8 @@ import java.util.Map;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.cbioportal.legacy.utils.http.OutboundHttpClients;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
@@ -62,6 +64,9 @@ public class LegacyProxyController {
     private String sessionServiceURL;
     private Boolean enableOncokb;
 
+    @Autowired
+    private OutboundHttpClients outboundHttpClients;
+
     @Value("${bitly.url:''}")
     public void setBitlyURL(String property) {
         this.bitlyURL = property;
@@ -109,7 +114,7 @@ public class LegacyProxyController {
 
     private String respProxy(String url, HttpMethod method, Object body, HttpServletResponse response) throws IOException {
         try {
-            RestTemplate restTemplate = new RestTemplate();
+            RestTemplate restTemplate = outboundHttpClients.restTemplate(OutboundHttpClients.PROXY);
             URI uri = new URI(url);
             ResponseEntity<String> responseEntity = restTemplate.exchange(uri, method, new HttpEntity<>(body), String.class);
             return responseEntity.getBody();
@@ -0,0 +1,77 @@
+package org.cbioportal.application.proxy;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.cbioportal.legacy.persistence.util.GuavaCacheUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of the OncoKB responses that the proxy passes on. Many users look at the same variants, and the
+ * results view sends the same annotation requests for them. The responses are keyed by a hash of the method, the
+ * decoded URI, the body and the headers sent to OncoKB, which include the token, so that the responses for one
+ * token are never returned for another. Concurrent identical requests wait for a single call to OncoKB.
+ *
+ * Only the responses of GET and POST requests are cached, POST being used for annotation queries. Failed calls are
+ * not cached.
+ */
+@Component
+public class OncokbResponseCache {
+
+    private static final List<HttpMethod> CACHED_METHODS = List.of(HttpMethod.GET, HttpMethod.POST);
+    private static final List<String> KEY_HEADERS = List.of(HttpHeaders.AUTHORIZATION, HttpHeaders.CONTENT_TYPE);
+
+    // null if the cache is disabled
+    private final Cache<String, Optional<String>> responses;
+
+    @Autowired
+    public OncokbResponseCache(@Value("${oncokb.proxy_cache.ttl_secs:600}") long ttlSeconds,
+                               @Value("${oncokb.proxy_cache.max_mega_bytes:64}") long maxMegaBytes) {
+        if (ttlSeconds > 0 && maxMegaBytes > 0) {
+            this.responses = CacheBuilder.newBuilder()
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .maximumWeight(maxMegaBytes * 1024 * 1024)
+                .weigher((String key, Optional<String> response) ->
+                    key.length() * 2 + response.map(body -> body.length() * 2).orElse(0))
+                .build();
+        } else {
+            this.responses = null;
+        }
+    }
+
+    /**
+     * @param exchange calls OncoKB and returns the body of its response
+     */
+    public String get(HttpMethod method, URI uri, String body, HttpHeaders httpHeaders, Supplier<String> exchange) {
+        if (responses == null || !CACHED_METHODS.contains(method)) {
+            return exchange.get();
+        }
+        // client errors thrown by the exchange are passed on as is
+        return GuavaCacheUtils.get(responses, createKey(method, uri, body, httpHeaders),
+            () -> Optional.ofNullable(exchange.get())).orElse(null);
+    }
+
+    private static String createKey(HttpMethod method, URI uri, String body, HttpHeaders httpHeaders) {
+        Hasher hasher = Hashing.sha256().newHasher()
+            .putString(method.name(), StandardCharsets.UTF_8).putByte((byte) 0)
+            .putString(uri.toString(), StandardCharsets.UTF_8).putByte((byte) 0);
+        for (String header : KEY_HEADERS) {
+            hasher.putString(String.valueOf(httpHeaders.get(header)), StandardCharsets.UTF_8).putByte((byte) 0);
+        }
+        // a missing body differs from an empty one
+        hasher.putBoolean(body != null).putString(body == null ? "" : body, StandardCharsets.UTF_8);
+        return hasher.hash().toString();
+    }
+}
@@ -1,8 +1,10 @@
 package org.cbioportal.application.proxy;
 
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
 import org.apache.commons.lang3.StringUtils;
 import org.cbioportal.application.proxy.util.CheckDarwinAccessUtil;
+import org.cbioportal.legacy.utils.http.OutboundHttpClients;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
@@ -36,6 +38,12 @@ public class ProxyController {
 
     @Autowired
     private Monkifier monkifier;
+
+    @Autowired
+    private OutboundHttpClients outboundHttpClients;
+
+    @Autowired
+    private OncokbResponseCache oncokbResponseCache;
     
     @Value("${oncokb.token:}")
     private String oncokbToken;
@@ -58,6 +66,15 @@ public class ProxyController {
     @Value("${darwin.regex:Test}")
     private String darwinRegex;
 
+    private RestTemplate restTemplate;
+
+    @PostConstruct
+    public void init() {
+        // a template of its own, as the shared ones must not be modified
+        restTemplate = new RestTemplate(outboundHttpClients.requestFactory(OutboundHttpClients.PROXY));
+        restTemplate.getMessageConverters().add(0, new StringHttpMessageConverter(StandardCharsets.UTF_8));
+    }
+
     /**
      * This dev endpoint can be used (with a personal access token) instead of the production endpoint.
      * This is useful when debugging the frontend proxy API calls.
@@ -118,13 +135,14 @@ public class ProxyController {
         HttpMethod method,
         HttpHeaders httpHeaders
     ) throws URISyntaxException {
-        return exchangeData(
+        URI uri = buildUri(this.oncokbApiUrl + pathInfo, queryString);
+        return oncokbResponseCache.get(method, uri, body, httpHeaders, () -> exchangeData(
             body,
-            buildUri(this.oncokbApiUrl + pathInfo, queryString),
+            uri,
             method,
             httpHeaders,
             String.class
-        ).getBody();
+        ).getBody());
     }
     
     private HttpHeaders getOncokbHeaders(HttpServletRequest request) {
@@ -150,7 +168,8 @@ public class ProxyController {
     @GetMapping("/checkDarwinAccess")
     public ResponseEntity<String> checkDarwinAccess(HttpServletRequest request, Authentication authentication) {
         String user = authentication != null ? authentication.getName(): "anonymousUser";
-        String darwinResponse = CheckDarwinAccessUtil.checkAccess(request, darwinAuthUrl, ddpResponseUrl, cisUser, Pattern.compile(darwinRegex), user); 
+        String darwinResponse = CheckDarwinAccessUtil.checkAccess(
+            outboundHttpClients.restTemplate(OutboundHttpClients.DARWIN), request, darwinAuthUrl, ddpResponseUrl, cisUser, Pattern.compile(darwinRegex), user); 
         return new ResponseEntity<>(darwinResponse, HttpStatus.OK); 
     }
 
@@ -174,8 +193,6 @@ public class ProxyController {
     }
 
     private <T> ResponseEntity<T> exchangeData(String body, URI uri, HttpMethod method, HttpHeaders httpHeaders, Class<T> responseType) {
-        RestTemplate restTemplate = new RestTemplate();
-        restTemplate.getMessageConverters().add(0, new StringHttpMessageConverter(StandardCharsets.UTF_8));
         return restTemplate.exchange(uri, method, new HttpEntity<>(body, httpHeaders), responseType);
     }
 
@@ -32,7 +32,7 @@ public final class CheckDarwinAccessUtil {
         throw new IllegalStateException("Utility class"); 
     }
     
-    public static String checkAccess(HttpServletRequest request, String darwinAuthUrl, String ddpResponseUrl, String cisUser, Pattern sampleIdRegex, String user) {
+    public static String checkAccess(RestTemplate restTemplate, HttpServletRequest request, String darwinAuthUrl, String ddpResponseUrl, String cisUser, Pattern sampleIdRegex, String user) {
         logger.debug("checkDarwinAccess Requested");
         if (!existsDarwinProperties(darwinAuthUrl, ddpResponseUrl, cisUser, sampleIdRegex)) {
             logger.debug("Darwin Properties do not exists");
@@ -45,7 +45,7 @@ public final class CheckDarwinAccessUtil {
             String[] sampleIds = request.getParameter(SAMPLE_ID).split(",");
             if (sampleIdRegex.matcher(sampleIds[0]).find() && !cisUser.equals(userName)) {
                 String patientId = request.getParameter(PATIENT_ID);
-                darwinResponse = getResponse(userName, patientId, darwinAuthUrl, ddpResponseUrl);
+                darwinResponse = getResponse(restTemplate, userName, patientId, darwinAuthUrl, ddpResponseUrl);
             }
         } catch (NullPointerException ignored) {
             logger.debug("Error Sending CheckDarwinAccess API");
@@ -54,8 +54,7 @@ public final class CheckDarwinAccessUtil {
         return darwinResponse;
     }
 
-    public static String getResponse(String userName, String patientId, String darwinAuthUrl, String ddpResponseUrl) {
-        RestTemplate restTemplate = new RestTemplate();
+    public static String getResponse(RestTemplate restTemplate, String userName, String patientId, String darwinAuthUrl, String ddpResponseUrl) {
         HttpEntity<LinkedMultiValueMap<String, Object>> requestEntity = getRequestEntity(userName, patientId);
         ResponseEntity<DarwinAccess> responseEntity = restTemplate.exchange(darwinAuthUrl, HttpMethod.POST, requestEntity, DarwinAccess.class);
         String darwinResponse = Objects.requireNonNull(responseEntity.getBody()).getDarwinAuthResponse();
@@ -34,13 +34,19 @@ package org.cbioportal.application.security;
 
 import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import org.cbioportal.legacy.model.CancerStudy;
 import org.cbioportal.legacy.model.MolecularProfile;
 import org.cbioportal.legacy.model.Patient;
 import org.cbioportal.legacy.model.SampleList;
 import org.cbioportal.legacy.persistence.cachemaputil.CacheMapUtil;
+import org.cbioportal.legacy.persistence.cachemaputil.StaticRefCacheMapUtil;
 import org.cbioportal.legacy.utils.security.AccessLevel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -54,6 +60,10 @@ import org.springframework.security.core.authority.AuthorityUtils;
  *
  * Anonymous users will only get access to public studies.
  *
+ * When the cache maps are kept in memory, the studies that a set of authorities can read are computed once for all
+ * studies, and the checks of single studies, e.g. of each element of a post-filtered list, look them up. These
+ * snapshots are shared by the users with the same authorities and recomputed when the cache maps are refreshed.
+ *
  * @author Benjamin Gross
  */
 public class CancerStudyPermissionEvaluator implements PermissionEvaluator {
@@ -72,6 +82,8 @@ public class CancerStudyPermissionEvaluator implements PermissionEvaluator {
     private static final String TARGET_TYPE_COLLECTION_OF_MOLECULAR_PROFILE_IDS = "Collection<MolecularProfileId>";
     private static final String TARGET_TYPE_COLLECTION_OF_GENETIC_PROFILE_IDS = "Collection<GeneticProfileId>";
     private static final Logger log = LoggerFactory.getLogger(CancerStudyPermissionEvaluator.class);
+    private static final int MAX_ACCESS_SNAPSHOTS = 10000;
+    private static final long ACCESS_SNAPSHOT_IDLE_MINUTES = 60;
 
     private final String APP_NAME;
     private String DEFAULT_APP_NAME = "public_portal";
@@ -79,6 +91,9 @@ public class CancerStudyPermissionEvaluator implements PermissionEvaluator {
     private final String FILTER_GROUPS_BY_APP_NAME;
 
     private final String PUBLIC_CANCER_STUDIES_GROUP;
+
+    // readable studies by granted authorities, null if the cache maps are not kept in memory
+    private final Cache<Set<String>, AccessSnapshot> accessSnapshots;
 //    @Value("${always_show_study_group:}")
 //    private void setPublicCancerStudiesGroup(String property) {
 //        PUBLIC_CANCER_STUDIES_GROUP = property;
@@ -95,6 +110,11 @@ public class CancerStudyPermissionEvaluator implements PermissionEvaluator {
         this.FILTER_GROUPS_BY_APP_NAME = doFilterGroupsByAppName;
         this.PUBLIC_CANCER_STUDIES_GROUP = alwaysShowCancerStudyGroup;
         this.cacheMapUtil = cacheMapUtil;
+        // with other implementations the maps can be new objects on every call, so it is unknown when they change
+        this.accessSnapshots = cacheMapUtil instanceof StaticRefCacheMapUtil ? CacheBuilder.newBuilder()
+            .maximumSize(MAX_ACCESS_SNAPSHOTS)
+            .expireAfterAccess(ACCESS_SNAPSHOT_IDLE_MINUTES, TimeUnit.MINUTES)
+            .build() : null;
     }
     /**
      * Implementation of {@code PermissionEvaluator}.
@@ -242,11 +262,29 @@ public class CancerStudyPermissionEvaluator implements PermissionEvaluator {
             return true;
         }
 
+        AccessSnapshot accessSnapshot = getAccessSnapshot(authentication);
+        if (accessSnapshot != null && accessSnapshot.contains(cancerStudy)) {
+            return accessSnapshot.isReadable(cancerStudy);
+        }
+
         Set<String> grantedAuthorities = getGrantedAuthorities(authentication);
+        if (log.isDebugEnabled()) {
+            log.debug("hasAccessToCancerStudy(), user: " + authentication.getPrincipal().toString());
+        }
+        return hasAccessToCancerStudy(grantedAuthorities, cancerStudy);
+    }
+
+    /**
+     * Helper function to determine if given granted authorities give access to given cancer study.
+     *
+     * @param grantedAuthorities granted authorities of the logged-in user, see {@link #getGrantedAuthorities}
+     * @param cancerStudy cancer study to check for
+     * @return boolean
+     */
+    private boolean hasAccessToCancerStudy(Set<String> grantedAuthorities, CancerStudy cancerStudy) {
         String stableStudyID = cancerStudy.getCancerStudyIdentifier();
         if (log.isDebugEnabled()) {
             log.debug("hasAccessToCancerStudy(), cancer study stable id: " + stableStudyID);
-            log.debug("hasAccessToCancerStudy(), user: " + authentication.getPrincipal().toString());
             for (String authority : grantedAuthorities) {
                 log.debug("hasAccessToCancerStudy(), authority: " + authority);
             }
@@ -363,6 +401,42 @@ public class CancerStudyPermissionEvaluator implements PermissionEvaluator {
         return true;
     }
 
+    private AccessSnapshot getAccessSnapshot(Authentication authentication) {
+        if (accessSnapshots == null) {
+            return null;
+        }
+        Map<String, CancerStudy> cancerStudyMap = cacheMapUtil.getCancerStudyMap();
+        if (cancerStudyMap == null) {
+            return null;
+        }
+        // equal granted authorities give access to the same studies, whatever the order or prefixes they came in
+        Set<String> grantedAuthorities = Set.copyOf(getGrantedAuthorities(authentication));
+        try {
+            AccessSnapshot accessSnapshot = accessSnapshots.get(grantedAuthorities,
+                () -> createAccessSnapshot(grantedAuthorities, cancerStudyMap));
+            if (accessSnapshot.cancerStudyMap != cancerStudyMap) {
+                // the cache maps have been refreshed since
+                accessSnapshot = createAccessSnapshot(grantedAuthorities, cancerStudyMap);
+                accessSnapshots.put(grantedAuthorities, accessSnapshot);
+            }
+            return accessSnapshot;
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            log.warn("Could not create access snapshot, checking studies one by one", e.getCause());
+            return null;
+        }
+    }
+
+    private AccessSnapshot createAccessSnapshot(Set<String> grantedAuthorities,
+                                                Map<String, CancerStudy> cancerStudyMap) {
+        Set<String> readableStudyIds = new HashSet<>();
+        for (CancerStudy cancerStudy : cancerStudyMap.values()) {
+            if (hasAccessToCancerStudy(grantedAuthorities, cancerStudy)) {
+                readableStudyIds.add(cancerStudy.getCancerStudyIdentifier());
+            }
+        }
+        return new AccessSnapshot(cancerStudyMap, readableStudyIds);
+    }
+
     private Set<String> getGrantedAuthorities(Authentication authentication) {
         String appName = getAppName().toUpperCase();
         // need to filter out empty authorities, this can cause issue if grantedAuthorities and groups both contain empty string
@@ -406,4 +480,24 @@ public class CancerStudyPermissionEvaluator implements PermissionEvaluator {
         }
         return FILTER_GROUPS_BY_APP_NAME == null || Boolean.parseBoolean(FILTER_GROUPS_BY_APP_NAME);
     }
-}
\ No newline at end of file
+
+    private static class AccessSnapshot {
+
+        private final Map<String, CancerStudy> cancerStudyMap;
+        private final Set<String> readableStudyIds;
+
+        AccessSnapshot(Map<String, CancerStudy> cancerStudyMap, Set<String> readableStudyIds) {
+            this.cancerStudyMap = cancerStudyMap;
+            this.readableStudyIds = readableStudyIds;
+        }
+
+        // studies that are not in the cache maps, e.g. imported since they were built, are checked one by one
+        boolean contains(CancerStudy cancerStudy) {
+            return cancerStudyMap.containsKey(cancerStudy.getCancerStudyIdentifier());
+        }
+
+        boolean isReadable(CancerStudy cancerStudy) {
+            return readableStudyIds.contains(cancerStudy.getCancerStudyIdentifier());
+        }
+    }
+}
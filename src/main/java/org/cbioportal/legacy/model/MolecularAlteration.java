@@ -1,11 +1,15 @@
 package org.cbioportal.legacy.model;
 
+import org.cbioportal.legacy.model.util.CommaSeparatedValues;
+import org.cbioportal.legacy.model.util.NumericValues;
+
 import java.io.Serializable;
 
 public abstract class MolecularAlteration implements Serializable {
     
     private String values;
     private String[] splitValues = null;
+    private transient NumericValues numericValues = null;
 
     /**
      * Set the values for all samples.
@@ -32,5 +36,20 @@ public abstract class MolecularAlteration implements Serializable {
         return splitValues;
     }
 
+    /**
+     * Returns the values attribute decoded as numbers, parsed directly from
+     * the comma separated string. Non numeric values are flagged as missing.
+     * 
+     * Remembers the decoded values to avoid parsing them again.
+     * 
+     * @return numeric values for all samples
+     */
+    public NumericValues getNumericValues() {
+        if (numericValues == null) {
+            numericValues = CommaSeparatedValues.parseNumeric(values);
+        }
+        return numericValues;
+    }
+
     public abstract String getStableId();
 }
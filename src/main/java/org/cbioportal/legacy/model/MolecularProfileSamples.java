@@ -1,12 +1,17 @@
 package org.cbioportal.legacy.model;
 
+import org.cbioportal.legacy.model.util.CommaSeparatedValues;
+
 import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
 
 public class MolecularProfileSamples implements Serializable {
 
     private String molecularProfileId;
     private String commaSeparatedSampleIds;
     private String[] splitSampleIds = null;
+    private transient int[] orderedSampleIds = null;
 
     public String getMolecularProfileId() {
         return molecularProfileId;
@@ -43,4 +48,34 @@ public class MolecularProfileSamples implements Serializable {
         return splitSampleIds;
     }
 
+    /**
+     * Returns the internal sample ids parsed directly from the comma separated
+     * string, in the order of the genetic_alteration.VALUES column.
+     * 
+     * Remembers the parsed ids to avoid parsing them again.
+     * 
+     * @return internal sample ids
+     */
+    public int[] getOrderedSampleIds() {
+        if (orderedSampleIds == null) {
+            orderedSampleIds = CommaSeparatedValues.parseIntegers(commaSeparatedSampleIds);
+        }
+        return orderedSampleIds;
+    }
+
+    /**
+     * Returns a map of internal sample id to its index in the
+     * genetic_alteration.VALUES column.
+     * 
+     * @return internal sample id to index map
+     */
+    public Map<Integer, Integer> getSampleIdToIndexMap() {
+        int[] sampleIds = getOrderedSampleIds();
+        Map<Integer, Integer> sampleIdToIndexMap = new HashMap<>(sampleIds.length * 2);
+        for (int index = 0; index < sampleIds.length; index++) {
+            sampleIdToIndexMap.put(sampleIds[index], index);
+        }
+        return sampleIdToIndexMap;
+    }
+
 }
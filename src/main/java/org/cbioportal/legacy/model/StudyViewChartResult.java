@@ -0,0 +1,49 @@
+package org.cbioportal.legacy.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.io.Serializable;
+
+/**
+ * The result of a chart of a batch, which has either data or an error if computing the chart failed.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StudyViewChartResult implements Serializable {
+
+    private String id;
+    private Object data;
+    private String error;
+
+    public StudyViewChartResult() {
+    }
+
+    public StudyViewChartResult(String id, Object data, String error) {
+        this.id = id;
+        this.data = data;
+        this.error = error;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Object getData() {
+        return data;
+    }
+
+    public void setData(Object data) {
+        this.data = data;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,70 @@
+package org.cbioportal.legacy.model;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Survival curves of groups of patients and the log-rank test of their difference. The statistics are null when they
+ * cannot be computed, e.g. when fewer than two groups have patients or no patient had an event.
+ */
+public class SurvivalComparison implements Serializable {
+
+    @NotNull
+    private List<SurvivalCurve> curves;
+    private Double logRankChiSquare;
+    private Double logRankPValue;
+    // only for two groups: hazard of the second group relative to the first one, with its 95% confidence interval
+    private Double hazardRatio;
+    private Double hazardRatioLowerBound;
+    private Double hazardRatioUpperBound;
+
+    public List<SurvivalCurve> getCurves() {
+        return curves;
+    }
+
+    public void setCurves(List<SurvivalCurve> curves) {
+        this.curves = curves;
+    }
+
+    public Double getLogRankChiSquare() {
+        return logRankChiSquare;
+    }
+
+    public void setLogRankChiSquare(Double logRankChiSquare) {
+        this.logRankChiSquare = logRankChiSquare;
+    }
+
+    public Double getLogRankPValue() {
+        return logRankPValue;
+    }
+
+    public void setLogRankPValue(Double logRankPValue) {
+        this.logRankPValue = logRankPValue;
+    }
+
+    public Double getHazardRatio() {
+        return hazardRatio;
+    }
+
+    public void setHazardRatio(Double hazardRatio) {
+        this.hazardRatio = hazardRatio;
+    }
+
+    public Double getHazardRatioLowerBound() {
+        return hazardRatioLowerBound;
+    }
+
+    public void setHazardRatioLowerBound(Double hazardRatioLowerBound) {
+        this.hazardRatioLowerBound = hazardRatioLowerBound;
+    }
+
+    public Double getHazardRatioUpperBound() {
+        return hazardRatioUpperBound;
+    }
+
+    public void setHazardRatioUpperBound(Double hazardRatioUpperBound) {
+        this.hazardRatioUpperBound = hazardRatioUpperBound;
+    }
+}
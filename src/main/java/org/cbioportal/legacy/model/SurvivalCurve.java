@@ -0,0 +1,107 @@
+package org.cbioportal.legacy.model;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.io.Serializable;
+
+/**
+ * Kaplan-Meier estimate of one group. The curve is given as steps: element i of the arrays describes the distinct
+ * time at which patients of the group had an event or were censored, sorted by time.
+ */
+public class SurvivalCurve implements Serializable {
+
+    @NotNull
+    private String name;
+    private int numberOfPatients;
+    private int numberOfEvents;
+    // events expected under the hypothesis that all groups have the same survival, see the log-rank test
+    private Double expectedNumberOfEvents;
+    // null if the survival probability does not fall to one half
+    private Double medianMonths;
+    private double[] months;
+    private double[] survivalProbabilities;
+    // patients at risk just before the time of the step
+    private int[] numbersAtRisk;
+    private int[] numbersOfEvents;
+    private int[] numbersOfCensored;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getNumberOfPatients() {
+        return numberOfPatients;
+    }
+
+    public void setNumberOfPatients(int numberOfPatients) {
+        this.numberOfPatients = numberOfPatients;
+    }
+
+    public int getNumberOfEvents() {
+        return numberOfEvents;
+    }
+
+    public void setNumberOfEvents(int numberOfEvents) {
+        this.numberOfEvents = numberOfEvents;
+    }
+
+    public Double getExpectedNumberOfEvents() {
+        return expectedNumberOfEvents;
+    }
+
+    public void setExpectedNumberOfEvents(Double expectedNumberOfEvents) {
+        this.expectedNumberOfEvents = expectedNumberOfEvents;
+    }
+
+    public Double getMedianMonths() {
+        return medianMonths;
+    }
+
+    public void setMedianMonths(Double medianMonths) {
+        this.medianMonths = medianMonths;
+    }
+
+    public double[] getMonths() {
+        return months;
+    }
+
+    public void setMonths(double[] months) {
+        this.months = months;
+    }
+
+    public double[] getSurvivalProbabilities() {
+        return survivalProbabilities;
+    }
+
+    public void setSurvivalProbabilities(double[] survivalProbabilities) {
+        this.survivalProbabilities = survivalProbabilities;
+    }
+
+    public int[] getNumbersAtRisk() {
+        return numbersAtRisk;
+    }
+
+    public void setNumbersAtRisk(int[] numbersAtRisk) {
+        this.numbersAtRisk = numbersAtRisk;
+    }
+
+    public int[] getNumbersOfEvents() {
+        return numbersOfEvents;
+    }
+
+    public void setNumbersOfEvents(int[] numbersOfEvents) {
+        this.numbersOfEvents = numbersOfEvents;
+    }
+
+    public int[] getNumbersOfCensored() {
+        return numbersOfCensored;
+    }
+
+    public void setNumbersOfCensored(int[] numbersOfCensored) {
+        this.numbersOfCensored = numbersOfCensored;
+    }
+}
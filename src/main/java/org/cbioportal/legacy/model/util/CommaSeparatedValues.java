@@ -0,0 +1,213 @@
+package org.cbioportal.legacy.model.util;
+
+import org.apache.commons.lang3.math.NumberUtils;
+
+import java.util.BitSet;
+
+/**
+ * Decodes the comma separated columns of the genetic_alteration and
+ * genetic_profile_samples tables straight into primitive arrays, without
+ * splitting them into intermediate String[] first.
+ */
+public final class CommaSeparatedValues {
+
+    private static final char SEPARATOR = ',';
+    // largest mantissa that is exactly representable as a double
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    // powers of ten that are exactly representable as a double
+    private static final double[] EXACT_POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private CommaSeparatedValues() {
+    }
+
+    /**
+     * Decodes the genetic_profile_samples.ORDERED_SAMPLE_LIST column. Trailing
+     * separators are ignored, like {@link String#split(String)} does.
+     *
+     * @param values comma separated list of internal sample ids
+     * @return internal sample ids in column order
+     * @throws NumberFormatException if an entry is not an integer
+     */
+    public static int[] parseIntegers(String values) {
+        int end = values.length();
+        while (end > 0 && values.charAt(end - 1) == SEPARATOR) {
+            end--;
+        }
+        if (end == 0) {
+            return new int[0];
+        }
+
+        int[] result = new int[countSeparators(values, end) + 1];
+        int start = 0;
+        for (int i = 0; i < result.length; i++) {
+            int tokenEnd = values.indexOf(SEPARATOR, start);
+            if (tokenEnd < 0 || tokenEnd > end) {
+                tokenEnd = end;
+            }
+            result[i] = parseInteger(values, start, tokenEnd);
+            start = tokenEnd + 1;
+        }
+        return result;
+    }
+
+    /**
+     * Decodes the genetic_alteration.VALUES column. The number of decoded entries
+     * equals the length of {@code values.split(",", Integer.MIN_VALUE)}, so
+     * indices into the ordered sample list stay valid. Entries that are not
+     * numbers are stored as NaN and flagged as missing.
+     *
+     * @param values comma separated list of values
+     * @return decoded values
+     */
+    public static NumericValues parseNumeric(String values) {
+        int size = countSeparators(values, values.length()) + 1;
+        double[] decoded = new double[size];
+        BitSet missing = new BitSet(size);
+        int start = 0;
+        for (int i = 0; i < size; i++) {
+            int end = values.indexOf(SEPARATOR, start);
+            if (end < 0) {
+                end = values.length();
+            }
+            double value = parseDouble(values, start, end);
+            if (Double.isNaN(value)) {
+                missing.set(i);
+            }
+            decoded[i] = value;
+            start = end + 1;
+        }
+        return new NumericValues(decoded, missing);
+    }
+
+    private static int countSeparators(String values, int end) {
+        int count = 0;
+        for (int i = 0; i < end; i++) {
+            if (values.charAt(i) == SEPARATOR) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int parseInteger(String values, int start, int end) {
+        int pos = start;
+        boolean negative = pos < end && values.charAt(pos) == '-';
+        if (negative) {
+            pos++;
+        }
+        if (pos == end) {
+            // let Integer.parseInt report the error
+            return Integer.parseInt(values.substring(start, end));
+        }
+        long result = 0;
+        for (; pos < end; pos++) {
+            int digit = values.charAt(pos) - '0';
+            if (digit < 0 || digit > 9 || result > Integer.MAX_VALUE) {
+                return Integer.parseInt(values.substring(start, end));
+            }
+            result = result * 10 + digit;
+        }
+        result = negative ? -result : result;
+        if (result < Integer.MIN_VALUE || result > Integer.MAX_VALUE) {
+            return Integer.parseInt(values.substring(start, end));
+        }
+        return (int) result;
+    }
+
+    /**
+     * Parses plain decimal numbers without allocating. A value is decoded on the
+     * fast path only when the result is guaranteed to be identical to
+     * {@link Double#parseDouble(String)}: the mantissa fits in 53 bits and the
+     * decimal exponent is an exactly representable power of ten. Anything else
+     * is handed over to {@link #parseDoubleSlow(String, int, int)}.
+     */
+    private static double parseDouble(String values, int start, int end) {
+        int pos = start;
+        boolean negative = pos < end && values.charAt(pos) == '-';
+        if (negative) {
+            pos++;
+        }
+        // leading zeros without a decimal point are treated as octal by NumberUtils
+        if (pos + 1 < end && values.charAt(pos) == '0' && isDigit(values.charAt(pos + 1))) {
+            return parseDoubleSlow(values, start, end);
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        for (; pos < end && isDigit(values.charAt(pos)); pos++) {
+            int digit = values.charAt(pos) - '0';
+            if (mantissa > (MAX_EXACT_MANTISSA - digit) / 10) {
+                return parseDoubleSlow(values, start, end);
+            }
+            mantissa = mantissa * 10 + digit;
+            digits++;
+        }
+        if (pos < end && values.charAt(pos) == '.') {
+            pos++;
+            for (; pos < end && isDigit(values.charAt(pos)); pos++) {
+                int digit = values.charAt(pos) - '0';
+                if (mantissa > (MAX_EXACT_MANTISSA - digit) / 10) {
+                    return parseDoubleSlow(values, start, end);
+                }
+                mantissa = mantissa * 10 + digit;
+                digits++;
+                exponent--;
+            }
+        }
+        if (digits == 0) {
+            return parseDoubleSlow(values, start, end);
+        }
+        if (pos < end && (values.charAt(pos) == 'e' || values.charAt(pos) == 'E')) {
+            pos++;
+            boolean negativeExponent = pos < end && values.charAt(pos) == '-';
+            if (pos < end && (values.charAt(pos) == '-' || values.charAt(pos) == '+')) {
+                pos++;
+            }
+            int exponentDigits = 0;
+            int explicitExponent = 0;
+            for (; pos < end && isDigit(values.charAt(pos)); pos++) {
+                if (exponentDigits++ > 3) {
+                    return parseDoubleSlow(values, start, end);
+                }
+                explicitExponent = explicitExponent * 10 + (values.charAt(pos) - '0');
+            }
+            if (exponentDigits == 0) {
+                return parseDoubleSlow(values, start, end);
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+        if (pos != end) {
+            return parseDoubleSlow(values, start, end);
+        }
+
+        double value = mantissa;
+        if (mantissa != 0 && exponent != 0) {
+            if (Math.abs(exponent) >= EXACT_POWERS_OF_TEN.length) {
+                return parseDoubleSlow(values, start, end);
+            }
+            value = exponent < 0 ? value / EXACT_POWERS_OF_TEN[-exponent] : value * EXACT_POWERS_OF_TEN[exponent];
+        }
+        return negative ? -value : value;
+    }
+
+    // same semantics as the NumberUtils.isCreatable + Double.parseDouble combination used by the services
+    private static double parseDoubleSlow(String values, int start, int end) {
+        String value = values.substring(start, end);
+        if (!NumberUtils.isCreatable(value)) {
+            return Double.NaN;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
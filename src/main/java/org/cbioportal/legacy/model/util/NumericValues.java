@@ -0,0 +1,62 @@
+package org.cbioportal.legacy.model.util;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Decoded representation of a genetic_alteration.VALUES column.
+ *
+ * Values are kept in a primitive vector in the same order as the
+ * genetic_profile_samples.ORDERED_SAMPLE_LIST column. Entries that are not
+ * numbers (NA, empty, etc.) are stored as NaN and flagged in the missing bitmap.
+ *
+ * Instances are immutable; the arrays are not copied so callers must not modify them.
+ */
+public final class NumericValues {
+
+    private final double[] values;
+    private final BitSet missing;
+
+    public NumericValues(double[] values, BitSet missing) {
+        this.values = values;
+        this.missing = missing;
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public double get(int index) {
+        return values[index];
+    }
+
+    public boolean isMissing(int index) {
+        return missing.get(index);
+    }
+
+    public double[] getValues() {
+        return values;
+    }
+
+    public BitSet getMissing() {
+        return missing;
+    }
+
+    /**
+     * Returns the values at the given indices, skipping missing entries and
+     * indices that are out of range.
+     *
+     * @param indices positions into the ordered sample list
+     * @return present values in the order of the indices
+     */
+    public double[] selectPresent(int[] indices) {
+        double[] selected = new double[indices.length];
+        int count = 0;
+        for (int index : indices) {
+            if (index < values.length && !missing.get(index)) {
+                selected[count++] = values[index];
+            }
+        }
+        return count == selected.length ? selected : Arrays.copyOf(selected, count);
+    }
+}
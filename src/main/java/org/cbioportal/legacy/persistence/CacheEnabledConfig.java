@@ -18,6 +18,8 @@ public class CacheEnabledConfig {
     private String cacheType;
     @Value("${persistence.cache_type_clickhouse:no-cache}")
     private String cacheTypeClickhouse;
+    @Value("${persistence.cache_filtered_queries:false}")
+    private boolean cacheFilteredQueries;
 
     private boolean enabled;
     private boolean enabledClickhouse;
@@ -35,6 +37,7 @@ public class CacheEnabledConfig {
         LOG.info("Cache is enabled: " + this.enabled);
         this.enabledClickhouse = enableCache(cacheTypeClickhouse);
         LOG.info("Cache is enabled for clickhouse: " + this.enabledClickhouse);
+        LOG.info("Cache is enabled for filtered study view queries: " + this.cacheFilteredQueries);
     }
 
     public static boolean enableCache(String cacheType) {
@@ -70,4 +73,12 @@ public class CacheEnabledConfig {
         return enabledClickhouse;
     }
 
+    /**
+     * @return whether study view queries with filters beyond the selected studies are cached as well, in the
+     * separate filtered study view cache
+     */
+    public boolean isCacheFilteredQueries() {
+        return cacheFilteredQueries;
+    }
+
 }
@@ -66,4 +66,10 @@ public interface ClinicalDataRepository {
     List<ClinicalData> getSampleClinicalDataBySampleInternalIds(List<Integer> visibleSampleInternalIds);
 
     List<ClinicalData> getPatientClinicalDataBySampleInternalIds(List<Integer> visibleSampleInternalIds);
+
+    // Not cached, the data is read once to build the search index of the clinical data table
+    List<ClinicalData> getSampleClinicalDataOfStudyBySample(String studyId);
+
+    // Not cached, the data is read once to build the search index of the clinical data table
+    List<ClinicalData> getPatientClinicalDataOfStudyBySample(String studyId);
 }
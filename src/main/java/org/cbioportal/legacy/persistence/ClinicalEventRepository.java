@@ -42,4 +42,10 @@ public interface ClinicalEventRepository {
 
     @Cacheable(cacheResolver = "generalRepositoryCacheResolver", condition = "@cacheEnabledConfig.getEnabled()")
     List<ClinicalEvent> getClinicalEventsMeta(List<String> studyIds, List<String> patientIds, List<ClinicalEvent> clinicalEvents);
+
+    // Not cached, the events are read once to load the timeline store of the study
+    List<ClinicalEvent> getClinicalEventsOfStudy(String studyId);
+
+    // Not cached, the data is read once to load the timeline store of the study
+    List<ClinicalEventData> getDataOfClinicalEventsOfStudy(String studyId);
 }
@@ -31,6 +31,12 @@ public interface MolecularDataRepository {
     // entrezGeneIds is null or empty AND projection is "SUMMARY"
     Iterable<GeneMolecularAlteration> getGeneMolecularAlterationsIterableFast(String molecularProfileId);
 
+    // Same as getGeneMolecularAlterationsIterable above, except that the rows are streamed from the database, so no
+    // other query can run in the transaction until the iterator is exhausted
+    Iterable<GeneMolecularAlteration> getGeneMolecularAlterationsStreamed(String molecularProfileId,
+                                                                          List<Integer> entrezGeneIds,
+                                                                          String projection);
+
     @Cacheable(cacheResolver = "generalRepositoryCacheResolver", condition = "@cacheEnabledConfig.getEnabled()")
     List<GeneMolecularAlteration> getGeneMolecularAlterationsInMultipleMolecularProfiles(Set<String> molecularProfileIds,
                                                                                          List<Integer> entrezGeneIds,
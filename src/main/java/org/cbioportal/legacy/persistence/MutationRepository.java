@@ -28,6 +28,12 @@ public interface MutationRepository {
                                                            Integer pageSize, Integer pageNumber,
                                                            String sortBy, String direction);
 
+    // Not cached, the mutations are read from a cursor while they are written to the response
+    Iterable<Mutation> getMutationsInMultipleMolecularProfilesIterable(List<String> molecularProfileIds,
+                                                                       List<String> sampleIds,
+                                                                       List<Integer> entrezGeneIds, String projection,
+                                                                       String sortBy, String direction);
+
     @Cacheable(cacheResolver = "generalRepositoryCacheResolver", condition = "@cacheEnabledConfig.getEnabled()")
     List<Mutation> getMutationsInMultipleMolecularProfilesByGeneQueries(List<String> molecularProfileIds,
                                                                       List<String> sampleIds,
@@ -25,7 +25,19 @@ public interface TreatmentRepository {
     @Cacheable(cacheResolver = "generalRepositoryCacheResolver", condition = "@cacheEnabledConfig.getEnabled()")
     public Boolean hasTreatmentData(List<String> studies, ClinicalEventKeyCode key);
 
+    @Cacheable(cacheResolver = "generalRepositoryCacheResolver", condition = "@cacheEnabledConfig.getEnabled()")
+    public List<String> getStudiesWithTreatmentData(List<String> studies, ClinicalEventKeyCode key);
+
     @Cacheable(cacheResolver = "generalRepositoryCacheResolver", condition = "@cacheEnabledConfig.getEnabled()")
     public Boolean hasSampleTimelineData(List<String> studies);
 
+    // Not cached, the treatments are read once to build the treatment rollups of the study
+    public List<Treatment> getTreatmentsOfStudy(String studyId, ClinicalEventKeyCode key);
+
+    // Not cached, the samples are read once to build the treatment rollups of the study
+    public List<ClinicalEventSample> getSamplesOfStudy(String studyId);
+
+    // Not cached, the samples are read once to build the treatment rollups of the study
+    public List<ClinicalEventSample> getShallowSamplesOfStudy(String studyId);
+
 }
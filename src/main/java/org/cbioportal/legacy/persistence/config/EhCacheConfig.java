@@ -6,7 +6,6 @@ import org.cbioportal.legacy.utils.config.annotation.ConditionalOnProperty;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CachingConfigurerSupport;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.interceptor.KeyGenerator;
 import org.springframework.cache.interceptor.NamedCacheResolver;
 import org.springframework.cache.jcache.JCacheCacheManager;
 import org.springframework.context.annotation.Bean;
@@ -27,7 +26,7 @@ public class EhCacheConfig extends CachingConfigurerSupport {
     
     @Bean
     @Override
-    public KeyGenerator keyGenerator() {
+    public CustomKeyGenerator keyGenerator() {
         return new CustomKeyGenerator();
     }
 
@@ -45,5 +44,10 @@ public class EhCacheConfig extends CachingConfigurerSupport {
     public NamedCacheResolver staticRepositoryCacheOneResolver() {
         return new NamedCacheResolver(cacheManager(), "StaticRepositoryCacheOne");
     }
+
+    @Bean
+    public NamedCacheResolver filteredStudyViewCacheResolver() {
+        return new NamedCacheResolver(cacheManager(), "FilteredStudyViewCache");
+    }
     
 }
@@ -10,7 +10,6 @@ import org.springframework.cache.annotation.CachingConfigurerSupport;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.interceptor.CacheErrorHandler;
 import org.springframework.cache.interceptor.CacheResolver;
-import org.springframework.cache.interceptor.KeyGenerator;
 import org.springframework.cache.interceptor.NamedCacheResolver;
 
 import org.springframework.context.annotation.Bean;
@@ -30,7 +29,8 @@ public class RedisConfig extends CachingConfigurerSupport {
     @Override
     public CacheManager cacheManager() {
         return customRedisCachingProvider().getCacheManager(
-            customRedisCachingProvider().getRedissonClient()
+            customRedisCachingProvider().getRedissonClient(),
+            keyGenerator()::getStudyIds
         );
     }
 
@@ -41,7 +41,7 @@ public class RedisConfig extends CachingConfigurerSupport {
 
     @Bean
     @Override
-    public KeyGenerator keyGenerator() {
+    public CustomKeyGenerator keyGenerator() {
         return new CustomKeyGenerator();
     }
     
@@ -60,4 +60,9 @@ public class RedisConfig extends CachingConfigurerSupport {
         return new NamedCacheResolver(cacheManager(), redisName + "StaticRepositoryCacheOne");
     }
 
+    @Bean
+    public CacheResolver filteredStudyViewCacheResolver() {
+        return new NamedCacheResolver(cacheManager(), redisName + "FilteredStudyViewCache");
+    }
+
 }
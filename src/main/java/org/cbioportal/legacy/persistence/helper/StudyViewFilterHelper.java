@@ -56,6 +56,8 @@ public final class StudyViewFilterHelper {
     private final CategorizedGenericAssayDataCountFilter categorizedGenericAssayDataCountFilter;
     private final List<CustomSampleIdentifier> customDataSamples;
     private final List<String> involvedCancerStudies;
+    // the sample unique ids the filter was resolved to beforehand, if any, see StudyViewFilterSnapshotCache
+    private final String[] resolvedSampleUniqueIds;
 
     private StudyViewFilterHelper(@NonNull StudyViewFilter studyViewFilter, 
                                   @NonNull Map<DataSource, List<MolecularProfile>> genericAssayProfilesMap,
@@ -65,6 +67,23 @@ public final class StudyViewFilterHelper {
         this.categorizedGenericAssayDataCountFilter = extractGenericAssayDataCountFilters(studyViewFilter, genericAssayProfilesMap);
         this.customDataSamples = customDataSamples;
         this.involvedCancerStudies = involvedCancerStudies;
+        this.resolvedSampleUniqueIds = null;
+    }
+
+    private StudyViewFilterHelper(@NonNull StudyViewFilterHelper studyViewFilterHelper,
+                                  @NonNull String[] resolvedSampleUniqueIds) {
+        this.studyViewFilter = studyViewFilterHelper.studyViewFilter;
+        this.categorizedGenericAssayDataCountFilter = studyViewFilterHelper.categorizedGenericAssayDataCountFilter;
+        this.customDataSamples = studyViewFilterHelper.customDataSamples;
+        this.involvedCancerStudies = studyViewFilterHelper.involvedCancerStudies;
+        this.resolvedSampleUniqueIds = resolvedSampleUniqueIds;
+    }
+
+    /**
+     * @return a copy of this helper whose queries select the given samples instead of evaluating the filter again
+     */
+    public StudyViewFilterHelper withResolvedSampleUniqueIds(@NonNull String[] resolvedSampleUniqueIds) {
+        return new StudyViewFilterHelper(this, resolvedSampleUniqueIds);
     }
 
     public StudyViewFilter studyViewFilter() {
@@ -93,6 +112,11 @@ public final class StudyViewFilterHelper {
         return involvedCancerStudies;
     }
 
+    @Nullable
+    public String[] resolvedSampleUniqueIds() {
+        return resolvedSampleUniqueIds;
+    }
+
     private CategorizedGenericAssayDataCountFilter extractGenericAssayDataCountFilters(final StudyViewFilter studyViewFilter, Map<DataSource, List<MolecularProfile>> genericAssayProfilesMap) {
         if ((studyViewFilter.getGenericAssayDataFilters() == null || genericAssayProfilesMap.isEmpty()))
         {
@@ -46,4 +46,8 @@ public interface ClinicalDataMapper {
     List<ClinicalData> getSampleClinicalDataBySampleInternalIds(List<Integer> sampleInternalIds);
 
     List<ClinicalData> getPatientClinicalDataBySampleInternalIds(List<Integer> sampleInternalIds);
+
+    List<ClinicalData> getSampleClinicalDataOfStudyBySample(String studyId);
+
+    List<ClinicalData> getPatientClinicalDataOfStudyBySample(String studyId);
 }
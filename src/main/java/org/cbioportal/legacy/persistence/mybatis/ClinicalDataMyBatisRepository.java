@@ -232,4 +232,14 @@ public class ClinicalDataMyBatisRepository implements ClinicalDataRepository {
         return sampleInternalIds == null || sampleInternalIds.isEmpty() ?
             new ArrayList<>() : clinicalDataMapper.getPatientClinicalDataBySampleInternalIds(sampleInternalIds);
     }
+
+    @Override
+    public List<ClinicalData> getSampleClinicalDataOfStudyBySample(String studyId) {
+        return clinicalDataMapper.getSampleClinicalDataOfStudyBySample(studyId);
+    }
+
+    @Override
+    public List<ClinicalData> getPatientClinicalDataOfStudyBySample(String studyId) {
+        return clinicalDataMapper.getPatientClinicalDataOfStudyBySample(studyId);
+    }
 }
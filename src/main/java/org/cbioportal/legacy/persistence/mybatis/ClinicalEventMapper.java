@@ -27,4 +27,8 @@ public interface ClinicalEventMapper {
     List<ClinicalEvent> getTimelineEvents(List<String> studyIds, List<String> patientIds, List<ClinicalEvent> clinicalEvents);
 
     List<ClinicalEvent> getClinicalEventsMeta(List<String> studyIds, List<String> patientIds, List<ClinicalEvent> clinicalEvents);
+
+    List<ClinicalEvent> getClinicalEventsOfStudy(String studyId);
+
+    List<ClinicalEventData> getDataOfClinicalEventsOfStudy(String studyId);
 }
@@ -78,4 +78,14 @@ public class ClinicalEventMyBatisRepository implements ClinicalEventRepository {
     public List<ClinicalEvent> getClinicalEventsMeta(List<String> studyIds, List<String> patientIds, List<ClinicalEvent> clinicalEvents) {
         return clinicalEventMapper.getClinicalEventsMeta(studyIds, patientIds, clinicalEvents);
     }
+
+    @Override
+    public List<ClinicalEvent> getClinicalEventsOfStudy(String studyId) {
+        return clinicalEventMapper.getClinicalEventsOfStudy(studyId);
+    }
+
+    @Override
+    public List<ClinicalEventData> getDataOfClinicalEventsOfStudy(String studyId) {
+        return clinicalEventMapper.getDataOfClinicalEventsOfStudy(studyId);
+    }
 }
@@ -25,6 +25,11 @@ public interface MolecularDataMapper {
     // entrezGeneIds is null or empty AND projection is "SUMMARY"
     Cursor<GeneMolecularAlteration> getGeneMolecularAlterationsIterFast(String molecularProfileId);
 
+    // Same as getGeneMolecularAlterationsIter above, except that the driver streams the rows
+    Cursor<GeneMolecularAlteration> getGeneMolecularAlterationsStreamed(String molecularProfileId,
+                                                                        List<Integer> entrezGeneIds,
+                                                                        String projection);
+
     List<GeneMolecularAlteration> getGeneMolecularAlterationsInMultipleMolecularProfiles(Set<String> molecularProfileIds, 
                                                                                          List<Integer> entrezGeneIds, String projection);
 
@@ -59,6 +59,14 @@ public class MolecularDataMyBatisRepository implements MolecularDataRepository {
         return molecularDataMapper.getGeneMolecularAlterationsIterFast(molecularProfileId);
     }
 
+    @Override
+    public Iterable<GeneMolecularAlteration> getGeneMolecularAlterationsStreamed(String molecularProfileId,
+                                                                                 List<Integer> entrezGeneIds,
+                                                                                 String projection) {
+
+        return molecularDataMapper.getGeneMolecularAlterationsStreamed(molecularProfileId, entrezGeneIds, projection);
+    }
+
     @Override
     public List<GeneMolecularAlteration> getGeneMolecularAlterationsInMultipleMolecularProfiles(Set<String> molecularProfileIds, 
                                                                                                 List<Integer> entrezGeneIds, 
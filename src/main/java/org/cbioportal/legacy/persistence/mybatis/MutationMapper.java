@@ -1,5 +1,6 @@
 package org.cbioportal.legacy.persistence.mybatis;
 
+import org.apache.ibatis.cursor.Cursor;
 import org.cbioportal.legacy.model.GeneFilterQuery;
 import org.cbioportal.legacy.model.GenomicDataCountItem;
 import org.cbioportal.legacy.model.Mutation;
@@ -23,6 +24,12 @@ public interface MutationMapper {
                                                                         String projection, Integer limit,
                                                                         Integer offset, String sortBy, String direction);
 
+    Cursor<Mutation> getMutationsInMultipleMolecularProfilesIter(List<String> molecularProfileIds,
+                                                                 List<String> sampleIds,
+                                                                 List<Integer> entrezGeneIds, boolean snpOnly,
+                                                                 String projection, Integer limit,
+                                                                 Integer offset, String sortBy, String direction);
+
     List<Mutation> getMutationsInMultipleMolecularProfilesByGeneQueries(List<String> molecularProfileIds,
                                                                         List<String> sampleIds,
                                                                         boolean snpOnly,
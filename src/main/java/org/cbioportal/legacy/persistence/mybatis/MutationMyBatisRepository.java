@@ -1,5 +1,6 @@
 package org.cbioportal.legacy.persistence.mybatis;
 
+import com.google.common.collect.Iterables;
 import org.cbioportal.legacy.model.GeneFilterQuery;
 import org.cbioportal.legacy.model.GenomicDataCountItem;
 import org.cbioportal.legacy.model.Mutation;
@@ -63,6 +64,29 @@ public class MutationMyBatisRepository implements MutationRepository {
             .collect(Collectors.toList());
     }
 
+    @Override
+    public Iterable<Mutation> getMutationsInMultipleMolecularProfilesIterable(List<String> molecularProfileIds,
+                                                                              List<String> sampleIds,
+                                                                              List<Integer> entrezGeneIds,
+                                                                              String projection, String sortBy,
+                                                                              String direction) {
+
+        // one cursor per molecular profile, each opened when the previous one is exhausted
+        return Iterables.concat(Iterables.transform(
+            molecularProfileCaseIdentifierUtil.getGroupedCasesByMolecularProfileId(molecularProfileIds, sampleIds)
+                .entrySet(),
+            entry -> mutationMapper.getMutationsInMultipleMolecularProfilesIter(
+                Arrays.asList(entry.getKey()),
+                new ArrayList<>(entry.getValue()),
+                entrezGeneIds,
+                false,
+                projection,
+                null,
+                null,
+                sortBy,
+                direction)));
+    }
+
     @Override
     public List<Mutation> getMutationsInMultipleMolecularProfilesByGeneQueries(List<String> molecularProfileIds,
                                                                                List<String> sampleIds,
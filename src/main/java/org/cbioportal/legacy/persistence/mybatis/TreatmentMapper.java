@@ -15,5 +15,7 @@ public interface TreatmentMapper {
 
     Boolean hasTreatmentData(List<String> sampleIds, List<String> studyIds, String key);
 
+    List<String> getStudiesWithTreatmentData(List<String> studyIds, String key);
+
     Boolean hasSampleTimelineData(List<String> sampleIds, List<String> studyIds);
 }
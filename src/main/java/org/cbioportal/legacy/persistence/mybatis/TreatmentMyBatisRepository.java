@@ -52,12 +52,16 @@ public class TreatmentMyBatisRepository implements TreatmentRepository {
 
     @Override
     public Map<String, List<ClinicalEventSample>> getSamplesByPatientId(List<String> sampleIds, List<String> studyIds) {
+        return getEarliestSamples(sampleIds, studyIds)
+            .collect(groupingBy(ClinicalEventSample::getPatientId));
+    }
+
+    // combined, the sort and distinct produce the earliest clinical event row for each unique sample
+    private Stream<ClinicalEventSample> getEarliestSamples(List<String> sampleIds, List<String> studyIds) {
         return treatmentMapper.getAllSamples(sampleIds, studyIds)
             .stream()
             .sorted(Comparator.comparing(ClinicalEventSample::getTimeTaken)) // put earliest events first
-            .distinct() // uniqueness determined by sample id, patient id, and study id
-            // combined, the sort and distinct produce the earliest clinical event row for each unique sample
-            .collect(groupingBy(ClinicalEventSample::getPatientId));
+            .distinct(); // uniqueness determined by sample id, patient id, and study id
     }
 
     public Map<String, List<ClinicalEventSample>> getShallowSamplesByPatientId(List<String> sampleIds, List<String> studyIds) {
@@ -67,11 +71,35 @@ public class TreatmentMyBatisRepository implements TreatmentRepository {
             .collect(groupingBy(ClinicalEventSample::getPatientId));
     }
 
+    @Override
+    public List<Treatment> getTreatmentsOfStudy(String studyId, ClinicalEventKeyCode key) {
+        return getTreatments(null, Collections.singletonList(studyId), key);
+    }
+
+    @Override
+    public List<ClinicalEventSample> getSamplesOfStudy(String studyId) {
+        return getEarliestSamples(null, Collections.singletonList(studyId))
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ClinicalEventSample> getShallowSamplesOfStudy(String studyId) {
+        return treatmentMapper.getAllShallowSamples(null, Collections.singletonList(studyId))
+            .stream()
+            .distinct()
+            .collect(Collectors.toList());
+    }
+
     @Override
     public Boolean hasTreatmentData(List<String> studies, ClinicalEventKeyCode key) {
         return treatmentMapper.hasTreatmentData(null, studies, key.getKey());
     }
 
+    @Override
+    public List<String> getStudiesWithTreatmentData(List<String> studies, ClinicalEventKeyCode key) {
+        return treatmentMapper.getStudiesWithTreatmentData(studies, key.getKey());
+    }
+
     @Override
     public Boolean hasSampleTimelineData(List<String> studies) {
         return treatmentMapper.hasSampleTimelineData(null, studies);
@@ -2,7 +2,9 @@ package org.cbioportal.legacy.persistence.mybatis.config;
 
 import org.cbioportal.legacy.model.Sample;
 import org.cbioportal.legacy.persistence.mybatis.typehandler.SampleTypeTypeHandler;
+import org.cbioportal.legacy.persistence.mybatis.util.StatementTimingInterceptor;
 import org.cbioportal.legacy.utils.config.annotation.ConditionalOnProperty;
+import org.cbioportal.legacy.utils.metrics.ApplicationMetrics;
 import org.mybatis.spring.SqlSessionFactoryBean;
 import org.mybatis.spring.annotation.MapperScan;
 import org.mybatis.spring.boot.autoconfigure.ConfigurationCustomizer;
@@ -36,24 +38,25 @@ public class PersistenceConfig {
 
     @Bean("sqlSessionFactory")
     @ConditionalOnProperty(name = "clickhouse_mode", havingValue = "true")
-    public SqlSessionFactoryBean sqlSessionFactorySpecifyDataSource(@Qualifier("mysqlDataSource") DataSource dataSource, ApplicationContext applicationContext) throws IOException {
-        return sqlSessionFactory(dataSource, applicationContext);
+    public SqlSessionFactoryBean sqlSessionFactorySpecifyDataSource(@Qualifier("mysqlDataSource") DataSource dataSource, ApplicationContext applicationContext, ApplicationMetrics applicationMetrics) throws IOException {
+        return sqlSessionFactory(dataSource, applicationContext, applicationMetrics);
     }
 
     @Bean("sqlSessionFactory")
     @ConditionalOnProperty(name = "clickhouse_mode", havingValue = "false", matchIfMissing = true)
-    public SqlSessionFactoryBean sqlSessionFactoryDefault(DataSource dataSource, ApplicationContext applicationContext) throws IOException {
-        return sqlSessionFactory(dataSource, applicationContext);
+    public SqlSessionFactoryBean sqlSessionFactoryDefault(DataSource dataSource, ApplicationContext applicationContext, ApplicationMetrics applicationMetrics) throws IOException {
+        return sqlSessionFactory(dataSource, applicationContext, applicationMetrics);
     }
     
     
-    private SqlSessionFactoryBean sqlSessionFactory(DataSource dataSource, ApplicationContext applicationContext) throws IOException {
+    private SqlSessionFactoryBean sqlSessionFactory(DataSource dataSource, ApplicationContext applicationContext, ApplicationMetrics applicationMetrics) throws IOException {
         SqlSessionFactoryBean sessionFactory = new SqlSessionFactoryBean();
         sessionFactory.setDataSource(dataSource);
         sessionFactory.setMapperLocations(
             applicationContext.getResources("classpath:org/cbioportal/legacy/persistence/mybatis/*.xml")
         );
         sessionFactory.setTypeHandlers(new SampleTypeTypeHandler());
+        sessionFactory.setPlugins(new StatementTimingInterceptor(applicationMetrics, "mysql"));
         return sessionFactory;
     }
 
@@ -0,0 +1,52 @@
+package org.cbioportal.legacy.persistence.mybatis.util;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.cbioportal.legacy.utils.metrics.ApplicationMetrics;
+import org.cbioportal.legacy.utils.metrics.RequestTimer;
+
+/**
+ * Records the time of every mapped statement per mapper method, and counts it as the database phase of the request
+ * that runs it. The time of a statement that returns a cursor is the time until the first rows can be read, as the
+ * rest is read by the caller.
+ *
+ * The sessions call the executor with the short signature of query, which calls the long one on itself, so only the
+ * short one is intercepted to count every statement once.
+ */
+@Intercepts({
+    @Signature(type = Executor.class, method = "query",
+        args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+    @Signature(type = Executor.class, method = "queryCursor",
+        args = {MappedStatement.class, Object.class, RowBounds.class}),
+    @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class})
+})
+public class StatementTimingInterceptor implements Interceptor {
+
+    private final ApplicationMetrics applicationMetrics;
+    private final String database;
+
+    /**
+     * @param database the name of the database of the session factory, e.g. mysql
+     */
+    public StatementTimingInterceptor(ApplicationMetrics applicationMetrics, String database) {
+        this.applicationMetrics = applicationMetrics;
+        this.database = database;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement mappedStatement = (MappedStatement) invocation.getArgs()[0];
+        long start = System.nanoTime();
+        try (RequestTimer.Scope scope = RequestTimer.enter(RequestTimer.Phase.DATABASE)) {
+            return invocation.proceed();
+        } finally {
+            applicationMetrics.recordStatement(database, mappedStatement.getId(), System.nanoTime() - start);
+        }
+    }
+}
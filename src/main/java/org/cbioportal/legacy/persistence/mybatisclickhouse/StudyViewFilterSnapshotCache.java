@@ -0,0 +1,120 @@
+package org.cbioportal.legacy.persistence.mybatisclickhouse;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import org.cbioportal.legacy.persistence.helper.StudyViewFilterHelper;
+import org.cbioportal.legacy.persistence.util.GuavaCacheUtils;
+import org.cbioportal.legacy.utils.config.annotation.ConditionalOnProperty;
+import org.cbioportal.legacy.utils.metrics.RequestTimer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * Short-lived snapshots of the samples that study view filters select. A study view page sends a request per chart,
+ * all with the same filter, and each query would otherwise evaluate the whole filter again. The first request
+ * resolves the filter to its sample unique ids, and the queries for the same filter pass these ids instead until
+ * the snapshot expires. Concurrent requests for a filter that is not resolved yet wait for a single resolution.
+ *
+ * Filters that select more than the maximum number of samples are not snapshotted, as passing that many ids costs
+ * more than evaluating the filter.
+ */
+@Component
+@ConditionalOnProperty(name = "clickhouse_mode", havingValue = "true")
+public class StudyViewFilterSnapshotCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StudyViewFilterSnapshotCache.class);
+
+    // the total number of ids kept, in multiples of the maximum size of one snapshot
+    private static final int MAX_SNAPSHOTS_OF_MAX_SIZE = 10;
+
+    // properties and map entries are sorted, so that equal filters give equal keys
+    private static final ObjectMapper KEY_MAPPER = JsonMapper.builder()
+        .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+        .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+        .build();
+
+    private final int maxSamples;
+    // null if snapshots are disabled
+    private final Cache<String, Optional<String[]>> snapshots;
+
+    @Autowired
+    public StudyViewFilterSnapshotCache(@Value("${clickhouse.filter_snapshot.ttl_secs:30}") long ttlSeconds,
+                                        @Value("${clickhouse.filter_snapshot.max_samples:50000}") int maxSamples) {
+        this.maxSamples = maxSamples;
+        if (ttlSeconds > 0 && maxSamples > 0) {
+            this.snapshots = CacheBuilder.newBuilder()
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .maximumWeight((long) maxSamples * MAX_SNAPSHOTS_OF_MAX_SIZE)
+                .weigher((String key, Optional<String[]> sampleUniqueIds) -> sampleUniqueIds.map(ids -> ids.length).orElse(0) + 1)
+                .build();
+        } else {
+            this.snapshots = null;
+        }
+    }
+
+    /**
+     * @param resolver selects the sample unique ids of a filter, at most the given number of them
+     * @return the helper with the samples of its filter resolved, or the helper itself if the filter is not
+     * snapshotted
+     */
+    public StudyViewFilterHelper snapshot(StudyViewFilterHelper studyViewFilterHelper,
+                                         BiFunction<StudyViewFilterHelper, Integer, List<String>> resolver) {
+        if (snapshots == null || studyViewFilterHelper.resolvedSampleUniqueIds() != null) {
+            return studyViewFilterHelper;
+        }
+        try (RequestTimer.Scope scope = RequestTimer.enter(RequestTimer.Phase.FILTER)) {
+            return resolveSnapshot(studyViewFilterHelper, resolver);
+        }
+    }
+
+    private StudyViewFilterHelper resolveSnapshot(StudyViewFilterHelper studyViewFilterHelper,
+                                                  BiFunction<StudyViewFilterHelper, Integer, List<String>> resolver) {
+        String key;
+        try {
+            key = createKey(studyViewFilterHelper);
+        } catch (JsonProcessingException e) {
+            LOG.warn("Could not create snapshot key for study view filter: ", e);
+            return studyViewFilterHelper;
+        }
+
+        Optional<String[]> sampleUniqueIds = GuavaCacheUtils.get(snapshots, key,
+            () -> resolve(studyViewFilterHelper, resolver));
+        return sampleUniqueIds.map(studyViewFilterHelper::withResolvedSampleUniqueIds).orElse(studyViewFilterHelper);
+    }
+
+    private Optional<String[]> resolve(StudyViewFilterHelper studyViewFilterHelper,
+                                       BiFunction<StudyViewFilterHelper, Integer, List<String>> resolver) {
+        // one sample more than the maximum tells whether the filter selects too many of them
+        List<String> sampleUniqueIds = resolver.apply(studyViewFilterHelper, maxSamples + 1);
+        // an empty array cannot be passed to the IN clause
+        if (sampleUniqueIds.isEmpty() || sampleUniqueIds.size() > maxSamples) {
+            return Optional.empty();
+        }
+        return Optional.of(sampleUniqueIds.toArray(String[]::new));
+    }
+
+    private static String createKey(StudyViewFilterHelper studyViewFilterHelper) throws JsonProcessingException {
+        String json = KEY_MAPPER.writeValueAsString(Arrays.asList(
+            studyViewFilterHelper.studyViewFilter(),
+            studyViewFilterHelper.customDataSamples(),
+            studyViewFilterHelper.involvedCancerStudies(),
+            studyViewFilterHelper.categorizedGenericAssayDataCountFilter()
+        ));
+        return Hashing.sha256().hashUnencodedChars(json).toString();
+    }
+}
@@ -33,6 +33,8 @@ public interface StudyViewMapper {
     
     List<String> getFilteredStudyIds(@Param("studyViewFilterHelper") StudyViewFilterHelper studyViewFilterHelper);
 
+    List<String> getFilteredSampleUniqueIds(@Param("studyViewFilterHelper") StudyViewFilterHelper studyViewFilterHelper, @Param("limit") int limit);
+
     List<GenomicDataCount> getMolecularProfileSampleCounts(@Param("studyViewFilterHelper") StudyViewFilterHelper studyViewFilterHelper);
     
     List<AlterationCountByGene> getMutatedGenes(StudyViewFilterHelper studyViewFilterHelper, AlterationFilterHelper alterationFilterHelper);
@@ -48,11 +48,14 @@ public class StudyViewMyBatisRepository implements StudyViewRepository {
     
     private static final List<String> FILTERED_CLINICAL_ATTR_VALUES = Collections.emptyList();
     private final StudyViewMapper mapper;
+    private final StudyViewFilterSnapshotCache studyViewFilterSnapshotCache;
    
     @Autowired
-    public StudyViewMyBatisRepository(StudyViewMapper mapper, StudyViewMapper studyViewMapper) {
+    public StudyViewMyBatisRepository(StudyViewMapper mapper, StudyViewMapper studyViewMapper,
+                                      StudyViewFilterSnapshotCache studyViewFilterSnapshotCache) {
         this.mapper = mapper;
         this.studyViewMapper = studyViewMapper;
+        this.studyViewFilterSnapshotCache = studyViewFilterSnapshotCache;
     }
     
     @Override
@@ -97,12 +100,13 @@ public class StudyViewMyBatisRepository implements StudyViewRepository {
     }
     
     public StudyViewFilterHelper createStudyViewFilterHelper(StudyViewFilterContext studyViewFilterContext) {
-        return StudyViewFilterHelper.build(
+        StudyViewFilterHelper studyViewFilterHelper = StudyViewFilterHelper.build(
             studyViewFilterContext.studyViewFilter(),
             getGenericAssayProfilesMap(),
             studyViewFilterContext.customDataFilterSamples(),
             studyViewFilterContext.involvedCancerStudies()
-        );    
+        );
+        return studyViewFilterSnapshotCache.snapshot(studyViewFilterHelper, mapper::getFilteredSampleUniqueIds);
     }
     
     @Override
@@ -1,7 +1,9 @@
 package org.cbioportal.legacy.persistence.mybatisclickhouse.config;
 
 import org.cbioportal.legacy.persistence.mybatis.typehandler.SampleTypeTypeHandler;
+import org.cbioportal.legacy.persistence.mybatis.util.StatementTimingInterceptor;
 import org.cbioportal.legacy.utils.config.annotation.ConditionalOnProperty;
+import org.cbioportal.legacy.utils.metrics.ApplicationMetrics;
 import org.mybatis.spring.SqlSessionFactoryBean;
 import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -22,7 +24,7 @@ import java.io.IOException;
 public class PersistenceColumnarConfig {
 
     @Bean("sqlColumnarSessionFactory")
-    public SqlSessionFactoryBean sqlColumnarSessionFactory(@Qualifier("clickhouseDataSource") DataSource dataSource, ApplicationContext applicationContext) throws IOException {
+    public SqlSessionFactoryBean sqlColumnarSessionFactory(@Qualifier("clickhouseDataSource") DataSource dataSource, ApplicationContext applicationContext, ApplicationMetrics applicationMetrics) throws IOException {
         SqlSessionFactoryBean sessionFactory = new SqlSessionFactoryBean();
         sessionFactory.setDataSource(dataSource);
         sessionFactory.setMapperLocations(
@@ -32,6 +34,7 @@ public class PersistenceColumnarConfig {
             applicationContext.getResources("classpath:mappers/clickhouse/**/*.xml"));
         
         sessionFactory.setTypeHandlers(new SampleTypeTypeHandler());
+        sessionFactory.setPlugins(new StatementTimingInterceptor(applicationMetrics, "clickhouse"));
         return sessionFactory;
     }
     
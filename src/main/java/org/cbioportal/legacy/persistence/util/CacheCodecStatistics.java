@@ -0,0 +1,73 @@
+package org.cbioportal.legacy.persistence.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for the values encoded and decoded by a {@link CacheValueCodec}.
+ */
+public class CacheCodecStatistics {
+
+    private final LongAdder encodeCount = new LongAdder();
+    private final LongAdder encodedBytes = new LongAdder();
+    private final LongAdder encodeNanos = new LongAdder();
+    private final LongAdder decodeCount = new LongAdder();
+    private final LongAdder decodedBytes = new LongAdder();
+    private final LongAdder decodeNanos = new LongAdder();
+    private final LongAdder errorCount = new LongAdder();
+
+    void recordEncode(long bytes, long nanos) {
+        encodeCount.increment();
+        encodedBytes.add(bytes);
+        encodeNanos.add(nanos);
+    }
+
+    void recordDecode(long bytes, long nanos) {
+        decodeCount.increment();
+        decodedBytes.add(bytes);
+        decodeNanos.add(nanos);
+    }
+
+    void recordError() {
+        errorCount.increment();
+    }
+
+    public long getEncodeCount() {
+        return encodeCount.sum();
+    }
+
+    public long getEncodedBytes() {
+        return encodedBytes.sum();
+    }
+
+    public long getEncodeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(encodeNanos.sum());
+    }
+
+    public long getDecodeCount() {
+        return decodeCount.sum();
+    }
+
+    public long getDecodedBytes() {
+        return decodedBytes.sum();
+    }
+
+    public long getDecodeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(decodeNanos.sum());
+    }
+
+    public long getErrorCount() {
+        return errorCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        long encodes = getEncodeCount();
+        long decodes = getDecodeCount();
+        return "Encoded: " + encodes + " values, " + getEncodedBytes() + " bytes"
+            + " (avg " + (encodes == 0 ? 0 : getEncodedBytes() / encodes) + " bytes), " + getEncodeMillis() + " ms\n"
+            + "Decoded: " + decodes + " values, " + getDecodedBytes() + " bytes"
+            + " (avg " + (decodes == 0 ? 0 : getDecodedBytes() / decodes) + " bytes), " + getDecodeMillis() + " ms\n"
+            + "Errors: " + getErrorCount() + "\n";
+    }
+}
@@ -0,0 +1,60 @@
+package org.cbioportal.legacy.persistence.util;
+
+import net.jpountz.lz4.LZ4FrameInputStream;
+import net.jpountz.lz4.LZ4FrameOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streaming compression of values stored in a {@link CustomRedisCache}.
+ */
+public enum CacheCompression {
+
+    NONE {
+        @Override
+        public OutputStream compress(OutputStream out) {
+            return out;
+        }
+
+        @Override
+        public InputStream decompress(InputStream in) {
+            return in;
+        }
+    },
+    GZIP {
+        @Override
+        public OutputStream compress(OutputStream out) throws IOException {
+            return new GZIPOutputStream(out, BUFFER_SIZE);
+        }
+
+        @Override
+        public InputStream decompress(InputStream in) throws IOException {
+            return new GZIPInputStream(in, BUFFER_SIZE);
+        }
+    },
+    // much faster than gzip at a somewhat lower compression ratio
+    LZ4 {
+        @Override
+        public OutputStream compress(OutputStream out) throws IOException {
+            return new LZ4FrameOutputStream(out);
+        }
+
+        @Override
+        public InputStream decompress(InputStream in) throws IOException {
+            return new LZ4FrameInputStream(in);
+        }
+    };
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * @return a stream that compresses into out; closing it finishes the compressed data and closes out
+     */
+    public abstract OutputStream compress(OutputStream out) throws IOException;
+
+    public abstract InputStream decompress(InputStream in) throws IOException;
+}
@@ -5,4 +5,9 @@ import java.util.List;
 public interface CacheUtils {
     List<String> getKeys(String cacheName);
     void evictByPattern(String cacheName, String pattern);
+
+    /**
+     * Evicts the keys that refer to the study and the keys that refer to no study at all.
+     */
+    void evictByStudy(String cacheName, String studyId);
 }
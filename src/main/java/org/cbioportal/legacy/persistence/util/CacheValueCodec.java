@@ -0,0 +1,75 @@
+package org.cbioportal.legacy.persistence.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Converts values of a {@link CustomRedisCache} to and from the bytes stored in Redis. The serializer writes
+ * straight into the compressing stream and reads straight from the decompressing stream, so the uncompressed
+ * value is never held in a buffer of its own.
+ */
+public class CacheValueCodec {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CacheValueCodec.class);
+
+    private final CacheValueSerializer serializer;
+    private final CacheCompression compression;
+    private final CacheCodecStatistics statistics = new CacheCodecStatistics();
+
+    public CacheValueCodec(CacheValueSerializer serializer, CacheCompression compression) {
+        this.serializer = serializer;
+        this.compression = compression;
+    }
+
+    /**
+     * Java serialization and gzip, the format used before the codec was configurable.
+     */
+    public static CacheValueCodec defaultCodec() {
+        return new CacheValueCodec(new JavaCacheValueSerializer(), CacheCompression.GZIP);
+    }
+
+    /**
+     * @return the encoded value, or null if the value could not be encoded
+     */
+    public byte[] encode(Object value) {
+        long start = System.nanoTime();
+        ByteArrayOutputStream byteOut = new ByteArrayOutputStream();
+        try (OutputStream out = compression.compress(byteOut)) {
+            serializer.serialize(value, out);
+        } catch (IOException e) {
+            statistics.recordError();
+            LOG.warn("Error compressing object for cache: ", e);
+            return null;
+        }
+        byte[] bytes = byteOut.toByteArray();
+        statistics.recordEncode(bytes.length, System.nanoTime() - start);
+        return bytes;
+    }
+
+    /**
+     * @return the decoded value, or null if the value could not be decoded
+     */
+    public Object decode(byte[] bytes) {
+        long start = System.nanoTime();
+        Object value;
+        try (InputStream in = compression.decompress(new ByteArrayInputStream(bytes))) {
+            value = serializer.deserialize(in);
+        } catch (IOException e) {
+            statistics.recordError();
+            LOG.warn("Error inflating object from cache: ", e);
+            return null;
+        }
+        statistics.recordDecode(bytes.length, System.nanoTime() - start);
+        return value;
+    }
+
+    public CacheCodecStatistics getStatistics() {
+        return statistics;
+    }
+}
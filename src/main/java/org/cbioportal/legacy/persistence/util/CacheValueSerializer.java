@@ -0,0 +1,17 @@
+package org.cbioportal.legacy.persistence.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Serializes values stored in a {@link CustomRedisCache}. Implementations write to and read from streams so
+ * that they can be chained with a {@link CacheCompression} without intermediate buffers, and must be safe
+ * for concurrent use.
+ */
+public interface CacheValueSerializer {
+
+    void serialize(Object value, OutputStream out) throws IOException;
+
+    Object deserialize(InputStream in) throws IOException;
+}
@@ -67,6 +67,9 @@ public class CustomEhcachingProvider extends EhcacheCachingProvider {
     @Value("${ehcache.static_repository_cache_one.max_mega_bytes_heap:30}")
     private Integer staticRepositoryCacheOneMaxMegaBytes;
 
+    @Value("${ehcache.filtered_study_view_cache.max_mega_bytes_heap:256}")
+    private Integer filteredStudyViewCacheMaxMegaBytes;
+
     @Value("${ehcache.persistence_path:/tmp/}")
     private String persistencePath;
 
@@ -75,6 +78,9 @@ public class CustomEhcachingProvider extends EhcacheCachingProvider {
 
     @Value("${ehcache.static_repository_cache_one.max_mega_bytes_local_disk:32}")
     private Integer staticRepositoryCacheOneMaxMegaBytesLocalDisk;
+
+    @Value("${ehcache.filtered_study_view_cache.max_mega_bytes_local_disk:1024}")
+    private Integer filteredStudyViewCacheMaxMegaBytesLocalDisk;
     
     @Autowired
     private CacheEnabledConfig cacheEnabledConfig;
@@ -93,17 +99,20 @@ public class CustomEhcachingProvider extends EhcacheCachingProvider {
                 // to add new cache - create cache configuration with its own resource pool + template
                 ResourcePoolsBuilder generalRepositoryCacheResourcePoolsBuilder = ResourcePoolsBuilder.newResourcePoolsBuilder();
                 ResourcePoolsBuilder staticRepositoryCacheOneResourcePoolsBuilder = ResourcePoolsBuilder.newResourcePoolsBuilder();
+                ResourcePoolsBuilder filteredStudyViewCacheResourcePoolsBuilder = ResourcePoolsBuilder.newResourcePoolsBuilder();
 
                 // Set up heap resources as long as not disk-only
                 if (!cacheType.equalsIgnoreCase(CacheEnabledConfig.EHCACHE_DISK)) {
                     generalRepositoryCacheResourcePoolsBuilder = generalRepositoryCacheResourcePoolsBuilder.heap(generalRepositoryCacheMaxMegaBytes, MemoryUnit.MB);
                     staticRepositoryCacheOneResourcePoolsBuilder = staticRepositoryCacheOneResourcePoolsBuilder.heap(staticRepositoryCacheOneMaxMegaBytes, MemoryUnit.MB);
+                    filteredStudyViewCacheResourcePoolsBuilder = filteredStudyViewCacheResourcePoolsBuilder.heap(filteredStudyViewCacheMaxMegaBytes, MemoryUnit.MB);
                 }
                 // Set up disk resources as long as not heap-only
                 // will default to using /tmp -- let Ehcache throw exception if persistence path is invalid (locked or otherwise)
                 if (!cacheType.equalsIgnoreCase(CacheEnabledConfig.EHCACHE_HEAP)) {
                     generalRepositoryCacheResourcePoolsBuilder = generalRepositoryCacheResourcePoolsBuilder.disk(generalRepositoryCacheMaxMegaBytesLocalDisk, MemoryUnit.MB);
                     staticRepositoryCacheOneResourcePoolsBuilder = staticRepositoryCacheOneResourcePoolsBuilder.disk(staticRepositoryCacheOneMaxMegaBytesLocalDisk, MemoryUnit.MB);
+                    filteredStudyViewCacheResourcePoolsBuilder = filteredStudyViewCacheResourcePoolsBuilder.disk(filteredStudyViewCacheMaxMegaBytesLocalDisk, MemoryUnit.MB);
                 }
 
                 CacheConfiguration<Object, Object> generalRepositoryCacheConfiguration = xmlConfiguration.newCacheConfigurationBuilderFromTemplate("RepositoryCacheTemplate",
@@ -116,11 +125,17 @@ public class CustomEhcachingProvider extends EhcacheCachingProvider {
                     .withSizeOfMaxObjectGraph(Long.MAX_VALUE)
                     .withSizeOfMaxObjectSize(Long.MAX_VALUE, MemoryUnit.B)
                     .build();
+                CacheConfiguration<Object, Object> filteredStudyViewCacheConfiguration = xmlConfiguration.newCacheConfigurationBuilderFromTemplate("RepositoryCacheTemplate",
+                        Object.class, Object.class, filteredStudyViewCacheResourcePoolsBuilder)
+                    .withSizeOfMaxObjectGraph(Long.MAX_VALUE)
+                    .withSizeOfMaxObjectSize(Long.MAX_VALUE, MemoryUnit.B)
+                    .build();
 
                 // places caches in a map which will be used to create cache manager
                 Map<String, CacheConfiguration<?, ?>> caches = new HashMap<>();
                 caches.put("GeneralRepositoryCache", generalRepositoryCacheConfiguration);
                 caches.put("StaticRepositoryCacheOne", staticRepositoryCacheOneConfiguration);
+                caches.put("FilteredStudyViewCache", filteredStudyViewCacheConfiguration);
 
                 Configuration configuration = null;
                 if (cacheType.equalsIgnoreCase(CacheEnabledConfig.EHCACHE_HEAP)) {
@@ -142,10 +157,14 @@ public class CustomEhcachingProvider extends EhcacheCachingProvider {
                 CacheConfiguration<Object, Object> staticRepositoryCacheOneConfiguration = CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class,
                     Object.class,
                     ResourcePoolsBuilder.newResourcePoolsBuilder().heap(1, MemoryUnit.B)).build();
+                CacheConfiguration<Object, Object> filteredStudyViewCacheConfiguration = CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class,
+                    Object.class,
+                    ResourcePoolsBuilder.newResourcePoolsBuilder().heap(1, MemoryUnit.B)).build();
 
                 Map<String, CacheConfiguration<?, ?>> caches = new HashMap<>();
                 caches.put("GeneralRepositoryCache", generalRepositoryCacheConfiguration);
                 caches.put("StaticRepositoryCacheOne", staticRepositoryCacheOneConfiguration);
+                caches.put("FilteredStudyViewCache", filteredStudyViewCacheConfiguration);
 
                 Configuration configuration = new DefaultConfiguration(caches, this.getDefaultClassLoader());
 
@@ -235,6 +254,13 @@ public class CustomEhcachingProvider extends EhcacheCachingProvider {
                     messages.append("\n  property ehcache.static_repository_cache_one.max_mega_bytes_local_disk must be greater than zero but is not");
                 }
             }
+            if (filteredStudyViewCacheMaxMegaBytesLocalDisk == null) {
+                messages.append("\n  property ehcache.filtered_study_view_cache.max_mega_bytes_local_disk is required to be set, but has no value");
+            } else {
+                if (filteredStudyViewCacheMaxMegaBytesLocalDisk <= 0) {
+                    messages.append("\n  property ehcache.filtered_study_view_cache.max_mega_bytes_local_disk must be greater than zero but is not");
+                }
+            }
             if (persistencePath == null || persistencePath.trim().length() == 0) {
                 messages.append("\n  property ehcache.persistence_path is required when using a disk resource but is unset");
             } else {
@@ -268,6 +294,13 @@ public class CustomEhcachingProvider extends EhcacheCachingProvider {
                     messages.append("\n  property ehcache.static_repository_cache_one.max_mega_bytes_heap must be greater than zero but is not");
                 }
             }
+            if (filteredStudyViewCacheMaxMegaBytes == null) {
+                messages.append("\n  property ehcache.filtered_study_view_cache.max_mega_bytes_heap is required to be set, but has no value");
+            } else {
+                if (filteredStudyViewCacheMaxMegaBytes <= 0) {
+                    messages.append("\n  property ehcache.filtered_study_view_cache.max_mega_bytes_heap must be greater than zero but is not");
+                }
+            }
         }
         if (usesHeap && usesDisk) {
             if (generalRepositoryCacheMaxMegaBytesLocalDisk != null
@@ -288,6 +321,15 @@ public class CustomEhcachingProvider extends EhcacheCachingProvider {
                 messages.append(" is not less than ");
                 messages.append(staticRepositoryCacheOneMaxMegaBytesLocalDisk);
             }
+            if (filteredStudyViewCacheMaxMegaBytesLocalDisk != null
+                    && filteredStudyViewCacheMaxMegaBytes != null
+                    && filteredStudyViewCacheMaxMegaBytesLocalDisk <= filteredStudyViewCacheMaxMegaBytes) {
+                messages.append("\n  property ehcache.filtered_study_view_cache.max_mega_bytes_heap must be set to a value less than the value of ");
+                messages.append("property ehcache.filtered_study_view_cache.max_mega_bytes_local_disk, however ");
+                messages.append(filteredStudyViewCacheMaxMegaBytes);
+                messages.append(" is not less than ");
+                messages.append(filteredStudyViewCacheMaxMegaBytesLocalDisk);
+            }
         }
         if (messages.length() > MESSAGE_PREFIX.length()) {
             LOG.error(messages.toString());
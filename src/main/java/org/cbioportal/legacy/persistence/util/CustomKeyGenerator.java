@@ -38,6 +38,7 @@ import org.cbioportal.legacy.model.CancerStudy;
 import org.cbioportal.legacy.model.util.Select;
 import org.cbioportal.legacy.persistence.CacheEnabledConfig;
 import org.cbioportal.legacy.persistence.StudyRepository;
+import org.cbioportal.legacy.web.parameter.StudyViewFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -46,12 +47,18 @@ import org.springframework.util.DigestUtils;
 
 import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 
 public class CustomKeyGenerator implements KeyGenerator {
     public static final String CACHE_KEY_PARAM_DELIMITER = "_";
     public static final int PARAM_LENGTH_HASH_LIMIT = 1024;
+    private static final long STUDY_IDS_REFRESH_MILLIS = TimeUnit.MINUTES.toMillis(10);
 
     @Autowired
     private CacheEnabledConfig cacheEnabledConfig;
@@ -63,6 +70,12 @@ public class CustomKeyGenerator implements KeyGenerator {
 
     private static final Logger LOG = LoggerFactory.getLogger(CustomKeyGenerator.class);
 
+    // ids of all studies in the portal, so that keys can be tagged without going to the database every time
+    private volatile List<String> studyIds;
+    private volatile long studyIdsLoadedAt;
+    // loading the study ids goes through the cache, which generates a key of its own
+    private final ThreadLocal<Boolean> loadingStudyIds = ThreadLocal.withInitial(() -> false);
+
     public Object generate(Object target, Method method, Object... params) {
         if (!cacheEnabledConfig.isEnabled() && !cacheEnabledConfig.isEnabledClickhouse()) {
             return "";
@@ -83,16 +96,12 @@ public class CustomKeyGenerator implements KeyGenerator {
             return "Select.ALL";
         }
         try {
-            String json = mapper.writeValueAsString(toSerialize);
+            String json = mapper.writeValueAsString(toSerialize instanceof StudyViewFilter studyViewFilter ?
+                canonicalize(studyViewFilter) : toSerialize);
             if (json.length() > PARAM_LENGTH_HASH_LIMIT) {
                 // To allow study-specific cache eviction, extract relevant
                 // study identifiers and add these to the cache keys.
-                String matchedStudyIds = studyRepository.getAllStudies(null, "SUMMARY", null, null, null, null)
-                    .stream()
-                    .map(CancerStudy::getCancerStudyIdentifier)
-                    .distinct()
-                    .filter(json::contains)
-                    .collect(Collectors.joining(CACHE_KEY_PARAM_DELIMITER));
+                String matchedStudyIds = String.join(CACHE_KEY_PARAM_DELIMITER, getStudyIds(json));
                 return matchedStudyIds + CACHE_KEY_PARAM_DELIMITER + DigestUtils.md5DigestAsHex(json.getBytes());
             } else {
                 // leave short keys intact, but remove semicolons to make things look cleaner in redis
@@ -103,4 +112,63 @@ public class CustomKeyGenerator implements KeyGenerator {
             return "";
         }
     }
+
+    // equal filters in a different notation get equal keys, so that they share cache entries
+    private Object canonicalize(StudyViewFilter studyViewFilter) {
+        try {
+            return StudyViewFilterCanonicalizer.canonicalize(mapper, studyViewFilter);
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Could not canonicalize study view filter, using it as is: ", e);
+            return studyViewFilter;
+        }
+    }
+
+    /**
+     * @return the ids of the studies the cache key refers to, in the order of the studies in the portal. The
+     * cache uses these to index its keys per study, so that evicting a study does not have to scan all keys.
+     */
+    public Set<String> getStudyIds(String key) {
+        Set<String> matchedStudyIds = new LinkedHashSet<>();
+        for (String studyId : getAllStudyIds()) {
+            if (key.contains(studyId)) {
+                matchedStudyIds.add(studyId);
+            }
+        }
+        return matchedStudyIds;
+    }
+
+    /**
+     * Makes the next key reload the study ids, to pick up studies that were imported or deleted.
+     */
+    public void resetStudyIds() {
+        studyIds = null;
+    }
+
+    private List<String> getAllStudyIds() {
+        List<String> allStudyIds = studyIds;
+        if (allStudyIds != null && System.currentTimeMillis() - studyIdsLoadedAt < STUDY_IDS_REFRESH_MILLIS) {
+            return allStudyIds;
+        }
+        if (loadingStudyIds.get()) {
+            return allStudyIds != null ? allStudyIds : Collections.emptyList();
+        }
+        synchronized (this) {
+            allStudyIds = studyIds;
+            if (allStudyIds == null || System.currentTimeMillis() - studyIdsLoadedAt >= STUDY_IDS_REFRESH_MILLIS) {
+                loadingStudyIds.set(true);
+                try {
+                    allStudyIds = studyRepository.getAllStudies(null, "SUMMARY", null, null, null, null)
+                        .stream()
+                        .map(CancerStudy::getCancerStudyIdentifier)
+                        .distinct()
+                        .collect(Collectors.toList());
+                } finally {
+                    loadingStudyIds.remove();
+                }
+                studyIds = allStudyIds;
+                studyIdsLoadedAt = System.currentTimeMillis();
+            }
+            return allStudyIds;
+        }
+    }
 }
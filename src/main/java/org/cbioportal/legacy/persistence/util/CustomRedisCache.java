@@ -1,6 +1,11 @@
 package org.cbioportal.legacy.persistence.util;
 
+import com.google.common.base.Ticker;
+import com.google.common.cache.CacheBuilder;
+import org.redisson.api.RSet;
+import org.redisson.api.RTopic;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.Cache;
@@ -8,30 +13,116 @@ import org.springframework.cache.support.AbstractValueAdaptingCache;
 import org.springframework.cache.support.SimpleValueWrapper;
 import org.springframework.lang.Nullable;
 
-import java.io.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
 
 public class CustomRedisCache extends AbstractValueAdaptingCache {
     private static final Logger LOG = LoggerFactory.getLogger(CustomRedisCache.class);
     public static final String DELIMITER = ":";
     public static final int INFINITE_TTL = -1;
+    private static final String INVALIDATION_TOPIC_PREFIX = "near_cache_invalidation" + DELIMITER;
+    private static final String CLEAR_MESSAGE = "clear";
+    private static final String EVICT_MESSAGE_PREFIX = "evict" + DELIMITER;
+    private static final String STUDY_MESSAGE_PREFIX = "study" + DELIMITER;
+    private static final String STUDY_INDEX_SUFFIX = "_study_index";
+    private static final String NO_STUDY_INDEX_SUFFIX = "_no_study_index";
+    private static final int DELETE_BATCH_SIZE = 1000;
+    private static final int RECENTLY_INDEXED_KEYS_MAX_SIZE = 10000;
 
     private final String name;
     private final long ttlMinutes;
     private final RedissonClient redissonClient;
+    private final CacheValueCodec codec;
+    @Nullable
+    private final NearCache nearCache;
+    @Nullable
+    private final RTopic invalidationTopic;
+    @Nullable
+    private final Function<String, ? extends Collection<String>> keyStudyIds;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    // reads refresh the time-to-live of the study index sets at most once per half time-to-live, per key and per set,
+    // so that a hit does not look up the study ids of its key nor send an expire per set every time
+    private final LongSupplier clock;
+    private final long indexRefreshIntervalNanos;
+    private final ConcurrentMap<String, Long> indexRefreshedAt = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Boolean> recentlyIndexedKeys;
 
     /**
      * Create a new ConcurrentMapCache with the specified name.
      * @param name the name of the cache
      */
     public CustomRedisCache(String name, RedissonClient client, long ttlMinutes) {
+        this(name, client, ttlMinutes, CacheValueCodec.defaultCodec());
+    }
+
+    /**
+     * @param codec converts values to and from the bytes stored in Redis
+     */
+    public CustomRedisCache(String name, RedissonClient client, long ttlMinutes, CacheValueCodec codec) {
+        this(name, client, ttlMinutes, codec, null);
+    }
+
+    /**
+     * @param nearCache in-process tier consulted before Redis, or null to always go to Redis. Evictions and
+     *                  clears are published on a Redis topic, so that every node drops them from its near cache.
+     */
+    public CustomRedisCache(String name, RedissonClient client, long ttlMinutes, CacheValueCodec codec,
+                            @Nullable NearCache nearCache) {
+        this(name, client, ttlMinutes, codec, nearCache, null);
+    }
+
+    /**
+     * @param keyStudyIds the ids of the studies a key refers to, or null to not index keys per study. Every key
+     *                    is added to a Redis set per study it refers to, or to a set of keys that refer to no
+     *                    study, so that {@link #evictStudy(String)} only touches the keys of that study.
+     */
+    public CustomRedisCache(String name, RedissonClient client, long ttlMinutes, CacheValueCodec codec,
+                            @Nullable NearCache nearCache,
+                            @Nullable Function<String, ? extends Collection<String>> keyStudyIds) {
+        this(name, client, ttlMinutes, codec, nearCache, keyStudyIds, System::nanoTime);
+    }
+
+    CustomRedisCache(String name, RedissonClient client, long ttlMinutes, CacheValueCodec codec,
+                     @Nullable NearCache nearCache,
+                     @Nullable Function<String, ? extends Collection<String>> keyStudyIds, LongSupplier clock) {
         super(true);
+        this.keyStudyIds = keyStudyIds;
         this.name = name;
         this.redissonClient = client;
         this.ttlMinutes = ttlMinutes;
+        this.codec = codec;
+        this.nearCache = nearCache;
+        this.clock = clock;
+        this.indexRefreshIntervalNanos = Math.max(0, TimeUnit.MINUTES.toNanos(ttlMinutes) / 2);
+        this.recentlyIndexedKeys = CacheBuilder.newBuilder()
+            .maximumSize(RECENTLY_INDEXED_KEYS_MAX_SIZE)
+            .expireAfterWrite(indexRefreshIntervalNanos, TimeUnit.NANOSECONDS)
+            .ticker(new Ticker() {
+                @Override
+                public long read() {
+                    return clock.getAsLong();
+                }
+            })
+            .<String, Boolean>build()
+            .asMap();
+        if (nearCache != null) {
+            this.invalidationTopic = client.getTopic(INVALIDATION_TOPIC_PREFIX + name, StringCodec.INSTANCE);
+            this.invalidationTopic.addListener(String.class, (channel, message) -> invalidateNearCache(message));
+        } else {
+            this.invalidationTopic = null;
+        }
     }
 
     @Override
@@ -43,32 +134,85 @@ public class CustomRedisCache extends AbstractValueAdaptingCache {
         return this.redissonClient;
     }
 
+    public CacheCodecStatistics getCodecStatistics() {
+        return codec.getStatistics();
+    }
+
+    /**
+     * @return the number of lookups that found a value, in the near cache or in Redis
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
     @Override
     @Nullable
     protected Object lookup(Object key) {
-        Object value = this.redissonClient.getBucket(name + DELIMITER + key).get();
-        if (value != null){
-            value = fromStoreValue(value);
+        if (nearCache != null) {
+            Object value = fromStoreValue(nearCache.get(name + DELIMITER + key));
+            if (value != null) {
+                hitCount.increment();
+                return value;
+            }
+        }
+        Object storeValue = this.redissonClient.getBucket(name + DELIMITER + key).get();
+        Object value = null;
+        if (storeValue != null){
+            hitCount.increment();
+            value = fromStoreValue(storeValue);
             asyncRefresh(key);
+            if (value != null) {
+                putNearCache(key, (byte[]) storeValue);
+            }
+        } else {
+            missCount.increment();
         }
         return value;
     }
+
+    // the near cache keeps the encoded value, so that its weight is the heap it takes, and decodes it on every hit,
+    // so that callers cannot change the cached value through the object they got
+    private void putNearCache(Object key, byte[] storeValue) {
+        if (nearCache != null) {
+            nearCache.put(name + DELIMITER + key, storeValue, storeValue.length);
+        }
+    }
     
     private void asyncRefresh(Object key) {
         if (ttlMinutes != INFINITE_TTL) {
             this.redissonClient.getBucket(name + DELIMITER + key).expireAsync(ttlMinutes, TimeUnit.MINUTES);
+            // the index sets must outlive the values in them, or evictStudy would miss keys that are read but not
+            // put anymore. A key is skipped for half a time-to-live after its sets were refreshed, and so is a set,
+            // so a set was refreshed at most one time-to-live before any read and lives two of them.
+            if (keyStudyIds != null && recentlyIndexedKeys.putIfAbsent(key.toString(), Boolean.TRUE) == null) {
+                for (String indexName : getIndexNames(key.toString())) {
+                    refreshIndex(indexName);
+                }
+            }
+        }
+    }
+
+    private void refreshIndex(String indexName) {
+        long now = clock.getAsLong();
+        Long refreshedAt = indexRefreshedAt.get(indexName);
+        if (refreshedAt == null || now - refreshedAt >= indexRefreshIntervalNanos) {
+            indexRefreshedAt.put(indexName, now);
+            redissonClient.getSet(indexName, StringCodec.INSTANCE).expireAsync(getIndexTtlMinutes(), TimeUnit.MINUTES);
         }
     }
 
+    private long getIndexTtlMinutes() {
+        return 2 * ttlMinutes;
+    }
+
     @Override
     @Nullable
     public <T> T get(Object key, Callable<T> valueLoader) {
-        Object zippedValue = this.redissonClient.getBucket(name + DELIMITER + key).get();
-        T value = null;
-        if (zippedValue != null) {
-            value = (T) fromStoreValue(zippedValue);
-            asyncRefresh(key);
-        }
+        T value = (T) lookup(key);
         try {
             return value == null ? valueLoader.call() : value;
         } catch (Exception ex) {
@@ -81,11 +225,58 @@ public class CustomRedisCache extends AbstractValueAdaptingCache {
         if (value == null) {
             LOG.warn("Storing null value for key {} in cache. That's probably not great.", key);
         }
+        Object storeValue = toStoreValue(value);
         if (ttlMinutes == INFINITE_TTL) {
-            this.redissonClient.getBucket(name + DELIMITER + key).setAsync(toStoreValue(value));
+            this.redissonClient.getBucket(name + DELIMITER + key).setAsync(storeValue);
         } else {
-            this.redissonClient.getBucket(name + DELIMITER + key).setAsync(toStoreValue(value), ttlMinutes, TimeUnit.MINUTES);
+            this.redissonClient.getBucket(name + DELIMITER + key).setAsync(storeValue, ttlMinutes, TimeUnit.MINUTES);
+        }
+        if (storeValue != null) {
+            putNearCache(key, (byte[]) storeValue);
         }
+        indexKey(key.toString());
+    }
+
+    private void indexKey(String key) {
+        for (String indexName : getIndexNames(key)) {
+            addToIndex(indexName, key);
+        }
+        if (keyStudyIds != null && ttlMinutes != INFINITE_TTL) {
+            recentlyIndexedKeys.put(key, Boolean.TRUE);
+        }
+    }
+
+    private List<String> getIndexNames(String key) {
+        if (keyStudyIds == null) {
+            return Collections.emptyList();
+        }
+        Collection<String> studyIds = keyStudyIds.apply(key);
+        if (studyIds.isEmpty()) {
+            return Collections.singletonList(getNoStudyIndexName());
+        }
+        List<String> indexNames = new ArrayList<>(studyIds.size());
+        for (String studyId : studyIds) {
+            indexNames.add(getStudyIndexName(studyId));
+        }
+        return indexNames;
+    }
+
+    private void addToIndex(String indexName, String key) {
+        RSet<String> index = redissonClient.getSet(indexName, StringCodec.INSTANCE);
+        index.addAsync(name + DELIMITER + key);
+        if (ttlMinutes != INFINITE_TTL) {
+            // members that outlive their value are harmless, deleting a missing key is a no-op
+            index.expireAsync(getIndexTtlMinutes(), TimeUnit.MINUTES);
+            indexRefreshedAt.put(indexName, clock.getAsLong());
+        }
+    }
+
+    private String getStudyIndexName(String studyId) {
+        return name + STUDY_INDEX_SUFFIX + DELIMITER + studyId;
+    }
+
+    private String getNoStudyIndexName() {
+        return name + NO_STUDY_INDEX_SUFFIX;
     }
 
     @Override
@@ -113,23 +304,101 @@ public class CustomRedisCache extends AbstractValueAdaptingCache {
                 .filter(key -> key.startsWith(name))
                 .filter(key -> key.matches((String) pattern))
                 .toArray(String[]::new);
+            boolean evicted = false;
             // Calling delete() with empty array causes an error in the Redisson client.
             if (keys.length > 0)
-                return redissonClient.getKeys().delete(keys) > 0;
+                evicted = redissonClient.getKeys().delete(keys) > 0;
+            publishInvalidation(EVICT_MESSAGE_PREFIX + pattern);
+            return evicted;
         } else {
             LOG.warn("Pattern passed for cache key eviction is not of String type. Cache eviction could not be performed.");
         }
         return false;
     }
 
+    /**
+     * Evicts the keys that refer to the study, and the keys that refer to no study at all, as these may
+     * aggregate over all studies. Without a study index this clears the whole cache.
+     */
+    public void evictStudy(String studyId) {
+        if (keyStudyIds == null) {
+            invalidate();
+            return;
+        }
+        RSet<String> studyIndex = redissonClient.getSet(getStudyIndexName(studyId), StringCodec.INSTANCE);
+        RSet<String> noStudyIndex = redissonClient.getSet(getNoStudyIndexName(), StringCodec.INSTANCE);
+        Set<String> studyKeys = studyIndex.readAll();
+        Set<String> noStudyKeys = noStudyIndex.readAll();
+        Set<String> keys = new HashSet<>(studyKeys);
+        keys.addAll(noStudyKeys);
+        // delete in batches, so that a large study does not block Redis for other clients
+        List<String> batch = new ArrayList<>(DELETE_BATCH_SIZE);
+        for (String key : keys) {
+            batch.add(key);
+            if (batch.size() == DELETE_BATCH_SIZE) {
+                redissonClient.getKeys().delete(batch.toArray(new String[0]));
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            redissonClient.getKeys().delete(batch.toArray(new String[0]));
+        }
+        // only remove what was read, keys that were added in the meantime stay indexed
+        if (!studyKeys.isEmpty()) {
+            studyIndex.removeAll(studyKeys);
+        }
+        if (!noStudyKeys.isEmpty()) {
+            noStudyIndex.removeAll(noStudyKeys);
+        }
+        publishInvalidation(STUDY_MESSAGE_PREFIX + studyId);
+    }
+
     @Override
     public void clear() {
         this.redissonClient.getKeys().deleteByPattern(name + DELIMITER + "*");
+        deleteStudyIndexes();
+        publishInvalidation(CLEAR_MESSAGE);
     }
 
     @Override
     public boolean invalidate() {
-        return this.redissonClient.getKeys().deleteByPattern(name + DELIMITER + "*") > 0;
+        boolean invalidated = this.redissonClient.getKeys().deleteByPattern(name + DELIMITER + "*") > 0;
+        deleteStudyIndexes();
+        publishInvalidation(CLEAR_MESSAGE);
+        return invalidated;
+    }
+
+    private void deleteStudyIndexes() {
+        if (keyStudyIds != null) {
+            this.redissonClient.getKeys().deleteByPattern(getStudyIndexName("*"));
+            this.redissonClient.getKeys().delete(getNoStudyIndexName());
+            indexRefreshedAt.clear();
+            recentlyIndexedKeys.clear();
+        }
+    }
+
+    private void publishInvalidation(String message) {
+        if (nearCache != null) {
+            // drop the entries here right away, the other nodes follow when the message arrives; Redis has
+            // already been updated, so a node cannot reload a stale value after receiving the message
+            invalidateNearCache(message);
+            invalidationTopic.publish(message);
+        }
+    }
+
+    private void invalidateNearCache(String message) {
+        if (CLEAR_MESSAGE.equals(message)) {
+            nearCache.clear();
+        } else if (message.startsWith(EVICT_MESSAGE_PREFIX)) {
+            String pattern = message.substring(EVICT_MESSAGE_PREFIX.length());
+            nearCache.removeIf(key -> key.matches(pattern));
+        } else if (message.startsWith(STUDY_MESSAGE_PREFIX)) {
+            String studyId = message.substring(STUDY_MESSAGE_PREFIX.length());
+            nearCache.removeIf(key -> {
+                Collection<String> studyIds = keyStudyIds.apply(key.substring(name.length() + DELIMITER.length()));
+                return studyIds.isEmpty() || studyIds.contains(studyId);
+            });
+        }
     }
 
     @Override
@@ -137,26 +406,7 @@ public class CustomRedisCache extends AbstractValueAdaptingCache {
         if (userValue == null) {
             return null;
         }
-        
-        ByteArrayOutputStream byteOut = new ByteArrayOutputStream();
-        ObjectOutputStream objectOut;
-        try {
-            // serialize to byte array
-            objectOut = new ObjectOutputStream(byteOut);
-            objectOut.writeObject(userValue);
-            objectOut.flush();
-            byte[] uncompressedByteArray = byteOut.toByteArray();
-            
-            // compress byte array
-            byteOut = new ByteArrayOutputStream(uncompressedByteArray.length);
-            GZIPOutputStream g = new GZIPOutputStream(byteOut);
-            g.write(uncompressedByteArray);
-            g.close();
-            return byteOut.toByteArray();
-        } catch (IOException e) {
-            LOG.warn("Error compressing object for cache: ", e);
-            return null;
-        }
+        return codec.encode(userValue);
     }
 
     @Override
@@ -164,29 +414,7 @@ public class CustomRedisCache extends AbstractValueAdaptingCache {
         if (storeValue == null) {
             return null;
         }
-        
-        byte[] bytes = (byte[]) storeValue;
-        ByteArrayInputStream byteIn = new ByteArrayInputStream(bytes);
-        ByteArrayOutputStream byteOut = new ByteArrayOutputStream();
-        GZIPInputStream gzipIn;
-        try {
-            // inflate to byte array
-            gzipIn = new GZIPInputStream(byteIn);
-            byte[] buffer = new byte[1024];
-            int len;
-            while ((len = gzipIn.read(buffer)) != -1) {
-                byteOut.write(buffer, 0, len);
-            }
-            byte[] unzippedBytes = byteOut.toByteArray();
-            
-            // deserialize byte array to object
-            byteIn = new ByteArrayInputStream(unzippedBytes);
-            ObjectInputStream oi = new ObjectInputStream(byteIn);
-            return oi.readObject();
-        } catch (IOException | ClassNotFoundException e) {
-            LOG.warn("Error inflating object from cache: ", e);
-            return null;
-        }
+        return codec.decode((byte[]) storeValue);
     }
 
     @Nullable
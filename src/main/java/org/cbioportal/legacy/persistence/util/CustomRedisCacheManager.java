@@ -6,6 +6,7 @@ import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 
 import java.util.Collection;
+import java.util.function.Function;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -14,10 +15,51 @@ public class CustomRedisCacheManager implements CacheManager {
     private final ConcurrentMap<String, CustomRedisCache> caches = new ConcurrentHashMap<>();
     private final RedissonClient client;
     private final long ttlInMins;
+    private final CacheValueSerializer serializer;
+    private final CacheCompression compression;
+    private final long nearCacheMaxBytes;
+    private final long nearCacheTtlSecs;
+    private final long staticNearCacheTtlSecs;
+    private final Function<String, ? extends Collection<String>> keyStudyIds;
 
     public CustomRedisCacheManager(RedissonClient client, long ttlInMins) {
+        this(client, ttlInMins, new JavaCacheValueSerializer(), CacheCompression.GZIP);
+    }
+
+    public CustomRedisCacheManager(RedissonClient client, long ttlInMins, CacheValueSerializer serializer,
+                                   CacheCompression compression) {
+        this(client, ttlInMins, serializer, compression, 0, 0, 0);
+    }
+
+    /**
+     * @param nearCacheMaxBytes      heap each cache takes for the encoded values it keeps in process, or 0 to disable
+     *                               the near cache
+     * @param nearCacheTtlSecs       time to live of near cache entries of expiring caches
+     * @param staticNearCacheTtlSecs time to live of near cache entries of static caches
+     */
+    public CustomRedisCacheManager(RedissonClient client, long ttlInMins, CacheValueSerializer serializer,
+                                   CacheCompression compression, long nearCacheMaxBytes, long nearCacheTtlSecs,
+                                   long staticNearCacheTtlSecs) {
+        this(client, ttlInMins, serializer, compression, nearCacheMaxBytes, nearCacheTtlSecs, staticNearCacheTtlSecs,
+            null);
+    }
+
+    /**
+     * @param keyStudyIds the ids of the studies a cache key refers to, used to index the keys of every cache per
+     *                    study; null to not index keys
+     */
+    public CustomRedisCacheManager(RedissonClient client, long ttlInMins, CacheValueSerializer serializer,
+                                   CacheCompression compression, long nearCacheMaxBytes, long nearCacheTtlSecs,
+                                   long staticNearCacheTtlSecs,
+                                   Function<String, ? extends Collection<String>> keyStudyIds) {
+        this.keyStudyIds = keyStudyIds;
         this.client = client;
         this.ttlInMins = ttlInMins;
+        this.serializer = serializer;
+        this.compression = compression;
+        this.nearCacheMaxBytes = nearCacheMaxBytes;
+        this.nearCacheTtlSecs = nearCacheTtlSecs;
+        this.staticNearCacheTtlSecs = staticNearCacheTtlSecs;
     }
 
     /**
@@ -42,7 +84,16 @@ public class CustomRedisCacheManager implements CacheManager {
     @NotNull
     public Cache getCache(String name, boolean expires) {
         long clientTTLInMinutes = expires ? ttlInMins : CustomRedisCache.INFINITE_TTL;
-        return caches.computeIfAbsent(name, k -> new CustomRedisCache(name, client, clientTTLInMinutes));
+        // every cache gets a codec of its own, so that its statistics are per cache
+        return caches.computeIfAbsent(name, k -> new CustomRedisCache(name, client, clientTTLInMinutes,
+            new CacheValueCodec(serializer, compression), createNearCache(expires), keyStudyIds));
+    }
+
+    private NearCache createNearCache(boolean expires) {
+        if (nearCacheMaxBytes <= 0) {
+            return null;
+        }
+        return new NearCache(nearCacheMaxBytes, expires ? nearCacheTtlSecs : staticNearCacheTtlSecs);
     }
 
     /**
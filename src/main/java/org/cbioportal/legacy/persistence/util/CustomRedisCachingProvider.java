@@ -41,6 +41,9 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 
+import java.util.Collection;
+import java.util.function.Function;
+
 public class CustomRedisCachingProvider {
 
     private static final Logger LOG = LoggerFactory.getLogger(CustomRedisCachingProvider.class);
@@ -65,6 +68,21 @@ public class CustomRedisCachingProvider {
 
     @Value("${redis.clear_on_startup:true}")
     private boolean clearOnStartup;
+
+    @Value("${redis.serializer:java}")
+    private String serializer;
+
+    @Value("${redis.compression:gzip}")
+    private String compression;
+
+    @Value("${redis.near_cache.max_size_mb:0}")
+    private Long nearCacheMaxSizeMb;
+
+    @Value("${redis.near_cache.ttl_secs:300}")
+    private Long nearCacheTtlSecs;
+
+    @Value("${redis.near_cache.static_ttl_secs:3600}")
+    private Long staticNearCacheTtlSecs;
     
     public RedissonClient getRedissonClient() {
         if (leaderAddress == null || "".equals(leaderAddress)) {
@@ -86,7 +104,18 @@ public class CustomRedisCachingProvider {
     }
 
     public CacheManager getCacheManager(RedissonClient redissonClient) {
-        CustomRedisCacheManager manager = new CustomRedisCacheManager(redissonClient, expiryMins);
+        return getCacheManager(redissonClient, null);
+    }
+
+    /**
+     * @param keyStudyIds the ids of the studies a cache key refers to, used to evict studies without scanning
+     *                    all keys in Redis
+     */
+    public CacheManager getCacheManager(RedissonClient redissonClient,
+                                        Function<String, ? extends Collection<String>> keyStudyIds) {
+        CustomRedisCacheManager manager = new CustomRedisCacheManager(redissonClient, expiryMins,
+            getSerializer(), CacheCompression.valueOf(compression.trim().toUpperCase()),
+            nearCacheMaxSizeMb * 1024 * 1024, nearCacheTtlSecs, staticNearCacheTtlSecs, keyStudyIds);
         
         if (clearOnStartup) {
         	Cache generalCache = manager.getCache(redisName + "GeneralRepositoryCache");
@@ -98,7 +127,23 @@ public class CustomRedisCachingProvider {
             if(staticRepositoryCache != null) {
             	staticRepositoryCache.clear();
             }
+
+            Cache filteredStudyViewCache = manager.getCache(redisName + "FilteredStudyViewCache");
+            if (filteredStudyViewCache != null) {
+                filteredStudyViewCache.clear();
+            }
         }
         return manager;
     }
+
+    private CacheValueSerializer getSerializer() {
+        switch (serializer.trim().toLowerCase()) {
+            case "java":
+                return new JavaCacheValueSerializer();
+            case "kryo":
+                return new KryoCacheValueSerializer();
+            default:
+                throw new IllegalArgumentException("Unknown redis.serializer: " + serializer);
+        }
+    }
 }
@@ -16,6 +16,9 @@ public class EhCacheUtils implements CacheUtils {
     
     @Autowired
     private CustomEhcachingProvider customEhcachingProvider;
+
+    @Autowired
+    private CustomKeyGenerator customKeyGenerator;
     private CacheManager cacheManager;
 
     @PostConstruct
@@ -43,4 +46,14 @@ public class EhCacheUtils implements CacheUtils {
                 cache.remove(key);
             });
     }
+
+    @Override
+    public void evictByStudy(String cacheName, String studyId) {
+        // the keys are in memory, so they are matched against the study ids of the portal
+        // instead of keeping a separate index per study
+        javax.cache.Cache<String, Object> cache = cacheManager.getCache(cacheName);
+        this.getKeys(cacheName).stream()
+            .filter(key -> key.contains(studyId) || customKeyGenerator.getStudyIds(key).isEmpty())
+            .forEach(cache::remove);
+    }
 }
@@ -34,6 +34,7 @@ package org.cbioportal.legacy.persistence.util;
 
 import jakarta.annotation.PostConstruct;
 import org.cbioportal.legacy.utils.config.annotation.ConditionalOnProperty;
+import org.cbioportal.legacy.utils.metrics.CacheLookupSource;
 import org.ehcache.core.statistics.*;
 import org.ehcache.config.ResourceType;
 import org.ehcache.impl.internal.statistics.DefaultStatisticsService;
@@ -41,11 +42,13 @@ import org.ehcache.impl.internal.statistics.DefaultStatisticsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 @Component
 @ConditionalOnProperty(name = "persistence.cache_type", havingValue = {"ehcache-heap", "ehcache-disk", "ehcache-hybrid"})
-public class EhcacheStatistics {
+public class EhcacheStatistics implements CacheLookupSource {
 
     private static String TIER_NOT_IN_USE = "Tier not in use";
 
@@ -83,12 +86,28 @@ public class EhcacheStatistics {
             builder.append("Occupied (heap): " + getOccupiedBytes(cacheName, "OnHeap", ResourceType.Core.HEAP) + "\n");
             builder.append("Allocated (disk): " + getAllocatedBytes(cacheName, ResourceType.Core.DISK) + "\n");
             builder.append("Occupied (disk): " + getOccupiedBytes(cacheName, "Disk", ResourceType.Core.DISK) + "\n");
+            builder.append("Hits: " + statisticsService.getCacheStatistics(cacheName).getCacheHits() + "\n");
+            builder.append("Misses: " + statisticsService.getCacheStatistics(cacheName).getCacheMisses() + "\n");
             builder.append("\n");
         }
         builder.append("CACHE_STATISTICS END\n");
         return builder.toString();
     }
 
+    @Override
+    public List<CacheLookups> getCacheLookups() {
+        List<CacheLookups> cacheLookups = new ArrayList<>();
+        if (statisticsService == null) {
+            return cacheLookups;
+        }
+        for (String cacheName : cacheManager.getCacheNames()) {
+            CacheStatistics cacheStatistics = statisticsService.getCacheStatistics(cacheName);
+            cacheLookups.add(new CacheLookups(cacheName, cacheStatistics.getCacheHits(),
+                cacheStatistics.getCacheMisses()));
+        }
+        return cacheLookups;
+    }
+
     private String getAllocatedBytes(String cacheName, ResourceType.Core resourceType)
     {
         try {
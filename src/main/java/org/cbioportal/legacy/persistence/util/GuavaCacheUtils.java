@@ -0,0 +1,33 @@
+package org.cbioportal.legacy.persistence.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Loading values into in-memory Guava caches from code that throws runtime exceptions only, such as data access
+ * exceptions, without the checked and unchecked wrappers Guava puts around them.
+ */
+public final class GuavaCacheUtils {
+
+    private GuavaCacheUtils() {
+    }
+
+    /**
+     * @return the value of the key, loaded once by the loader if it is not cached yet; concurrent calls for a key
+     * that is being loaded wait for that load
+     * @throws RuntimeException the exception thrown by the loader, as is
+     */
+    public static <K, V> V get(Cache<K, V> cache, K key, Callable<? extends V> loader) {
+        try {
+            return cache.get(key, loader);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
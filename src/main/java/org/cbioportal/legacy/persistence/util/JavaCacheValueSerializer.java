@@ -0,0 +1,29 @@
+package org.cbioportal.legacy.persistence.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+
+/**
+ * Standard Java serialization. Works for every {@link java.io.Serializable} value, but is slow and verbose.
+ */
+public class JavaCacheValueSerializer implements CacheValueSerializer {
+
+    @Override
+    public void serialize(Object value, OutputStream out) throws IOException {
+        ObjectOutputStream objectOut = new ObjectOutputStream(out);
+        objectOut.writeObject(value);
+        objectOut.flush();
+    }
+
+    @Override
+    public Object deserialize(InputStream in) throws IOException {
+        try {
+            return new ObjectInputStream(in).readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException(e);
+        }
+    }
+}
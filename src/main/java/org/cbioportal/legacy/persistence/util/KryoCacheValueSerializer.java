@@ -0,0 +1,69 @@
+package org.cbioportal.legacy.persistence.util;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.esotericsoftware.kryo.serializers.ImmutableCollectionsSerializers;
+import com.esotericsoftware.kryo.util.DefaultInstantiatorStrategy;
+import com.esotericsoftware.kryo.util.Pool;
+import org.objenesis.strategy.StdInstantiatorStrategy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Kryo binary serialization. Objects are written field by field from their class layout, which is several
+ * times faster and more compact than Java serialization. Cached values written by one version of the portal
+ * can therefore not be read by a version with different model classes, so the cache should be cleared on
+ * upgrades (redis.clear_on_startup).
+ */
+public class KryoCacheValueSerializer implements CacheValueSerializer {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    // Kryo instances are not thread safe
+    private final Pool<Kryo> kryoPool = new Pool<>(true, false) {
+        @Override
+        protected Kryo create() {
+            Kryo kryo = new Kryo();
+            // cached values are arbitrary model objects, which are not registered up front
+            kryo.setRegistrationRequired(false);
+            kryo.setReferences(true);
+            // model objects without a no-arg constructor are instantiated without calling a constructor
+            kryo.setInstantiatorStrategy(new DefaultInstantiatorStrategy(new StdInstantiatorStrategy()));
+            kryo.setClassLoader(KryoCacheValueSerializer.class.getClassLoader());
+            // List.of, Map.of, Stream.toList and the like cannot be rebuilt by adding their elements one by one
+            ImmutableCollectionsSerializers.addDefaultSerializers(kryo);
+            return kryo;
+        }
+    };
+
+    @Override
+    public void serialize(Object value, OutputStream out) throws IOException {
+        Kryo kryo = kryoPool.obtain();
+        try {
+            Output output = new Output(out, BUFFER_SIZE);
+            kryo.writeClassAndObject(output, value);
+            output.flush();
+        } catch (RuntimeException e) {
+            // e.g. a collection that does not support add, which must fail the cache access, not the request
+            throw new IOException(e);
+        } finally {
+            kryoPool.free(kryo);
+        }
+    }
+
+    @Override
+    public Object deserialize(InputStream in) throws IOException {
+        Kryo kryo = kryoPool.obtain();
+        try {
+            return kryo.readClassAndObject(new Input(in, BUFFER_SIZE));
+        } catch (RuntimeException e) {
+            // e.g. a collection that does not support add, which must fail the cache access, not the request
+            throw new IOException(e);
+        } finally {
+            kryoPool.free(kryo);
+        }
+    }
+}
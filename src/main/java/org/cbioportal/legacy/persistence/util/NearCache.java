@@ -0,0 +1,107 @@
+package org.cbioportal.legacy.persistence.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Bounded in-process tier in front of a {@link CustomRedisCache}. It holds the values as they are encoded in Redis,
+ * weighed by their size in bytes, so the maximum weight bounds the heap it takes. The least recently used entries are
+ * evicted once the total weight exceeds the maximum, and every entry expires a fixed time after it was loaded.
+ */
+public class NearCache {
+
+    private final long maxWeight;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+
+    public NearCache(long maxWeight, long ttlSeconds) {
+        this(maxWeight, ttlSeconds, System::nanoTime);
+    }
+
+    NearCache(long maxWeight, long ttlSeconds, LongSupplier clock) {
+        this.maxWeight = maxWeight;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.clock = clock;
+    }
+
+    /**
+     * @return the cached value, or null if it is absent or expired
+     */
+    public synchronized Object get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (clock.getAsLong() - entry.loadedAt >= ttlNanos) {
+            remove(key);
+            return null;
+        }
+        return entry.value;
+    }
+
+    /**
+     * Values heavier than the whole cache are not stored.
+     */
+    public synchronized void put(String key, Object value, long valueWeight) {
+        remove(key);
+        if (value == null || valueWeight > maxWeight) {
+            return;
+        }
+        entries.put(key, new Entry(value, valueWeight, clock.getAsLong()));
+        weight += valueWeight;
+        Iterator<Entry> leastRecentlyUsed = entries.values().iterator();
+        while (weight > maxWeight && leastRecentlyUsed.hasNext()) {
+            weight -= leastRecentlyUsed.next().weight;
+            leastRecentlyUsed.remove();
+        }
+    }
+
+    public synchronized void remove(String key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            weight -= entry.weight;
+        }
+    }
+
+    public synchronized void removeIf(Predicate<String> keyPredicate) {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Entry> entry = iterator.next();
+            if (keyPredicate.test(entry.getKey())) {
+                weight -= entry.getValue().weight;
+                iterator.remove();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    private static class Entry {
+        private final Object value;
+        private final long weight;
+        private final long loadedAt;
+
+        private Entry(Object value, long weight, long loadedAt) {
+            this.value = value;
+            this.weight = weight;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
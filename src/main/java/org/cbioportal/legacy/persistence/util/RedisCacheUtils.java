@@ -48,4 +48,14 @@ public class RedisCacheUtils implements CacheUtils {
         	cache.evict(pattern);
         }
     }
+
+    @Override
+    public void evictByStudy(String cacheName, String studyId) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache instanceof CustomRedisCache) {
+            ((CustomRedisCache) cache).evictStudy(studyId);
+        } else if (cache != null) {
+            cache.clear();
+        }
+    }
 }
@@ -0,0 +1,85 @@
+package org.cbioportal.legacy.persistence.util;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.cbioportal.legacy.persistence.helper.StudyViewFilterHelper;
+import org.cbioportal.legacy.web.parameter.DataFilter;
+import org.cbioportal.legacy.web.parameter.DataFilterValue;
+import org.cbioportal.legacy.web.parameter.StudyViewFilter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Canonical JSON form of a study view filter for cache keys, so that filters which only differ in notation share
+ * cache entries. The filters that are combined with AND are sorted, as are the values of each filter, which are
+ * combined with OR, and consecutive numerical ranges are merged as in {@link StudyViewFilterHelper#mergeDataFilters}.
+ * The order of the study ids and sample identifiers is kept, as it can determine the order of results.
+ */
+public final class StudyViewFilterCanonicalizer {
+
+    // filters with a list of values that select the samples matching any of them
+    private static final List<String> DATA_FILTER_FIELDS = List.of("clinicalDataFilters", "genomicDataFilters",
+        "genericAssayDataFilters", "customDataFilters", "clinicalEventFilters");
+    // filters that select the samples matching all of them
+    private static final List<String> AND_FIELDS = List.of("clinicalDataFilters", "genomicDataFilters",
+        "genericAssayDataFilters", "customDataFilters", "clinicalEventFilters", "geneFilters", "mutationDataFilters",
+        "structuralVariantFilters", "caseLists", "genomicProfiles");
+    // groups of case lists and profiles that select the samples in any of them
+    private static final List<String> OR_GROUP_FIELDS = List.of("caseLists", "genomicProfiles");
+
+    private static final TypeReference<List<DataFilterValue>> DATA_FILTER_VALUES = new TypeReference<>() {};
+    private static final Comparator<JsonNode> BY_JSON = Comparator.comparing(JsonNode::toString);
+
+    private StudyViewFilterCanonicalizer() {
+    }
+
+    public static JsonNode canonicalize(ObjectMapper mapper, StudyViewFilter studyViewFilter) {
+        ObjectNode filter = mapper.valueToTree(studyViewFilter);
+        for (String field : DATA_FILTER_FIELDS) {
+            for (JsonNode dataFilter : elements(filter, field)) {
+                if (dataFilter.get("values") instanceof ArrayNode values) {
+                    ((ObjectNode) dataFilter).set("values", sorted(mapper.valueToTree(mergeValues(mapper, values))));
+                }
+            }
+        }
+        for (String field : OR_GROUP_FIELDS) {
+            ArrayNode groups = elements(filter, field);
+            for (int i = 0; i < groups.size(); i++) {
+                if (groups.get(i) instanceof ArrayNode group) {
+                    groups.set(i, sorted(group));
+                }
+            }
+        }
+        for (String field : AND_FIELDS) {
+            if (filter.get(field) instanceof ArrayNode filters) {
+                filter.set(field, sorted(filters));
+            }
+        }
+        return filter;
+    }
+
+    private static List<DataFilterValue> mergeValues(ObjectMapper mapper, ArrayNode values) {
+        // merge a copy, as mergeDataFilters replaces the values of the filter
+        DataFilter dataFilter = new DataFilter();
+        dataFilter.setValues(mapper.convertValue(values, DATA_FILTER_VALUES));
+        return StudyViewFilterHelper.mergeDataFilters(List.of(dataFilter)).getFirst().getValues();
+    }
+
+    private static ArrayNode elements(ObjectNode filter, String field) {
+        return filter.get(field) instanceof ArrayNode elements ? elements : filter.arrayNode();
+    }
+
+    private static ArrayNode sorted(ArrayNode elements) {
+        List<JsonNode> sortedElements = new ArrayList<>();
+        elements.forEach(sortedElements::add);
+        sortedElements.sort(BY_JSON);
+        ArrayNode sorted = elements.arrayNode();
+        sorted.addAll(sortedElements);
+        return sorted;
+    }
+}
@@ -3,9 +3,11 @@ package org.cbioportal.legacy.service;
 import org.cbioportal.legacy.model.ClinicalData;
 import org.cbioportal.legacy.model.ClinicalEvent;
 import org.cbioportal.legacy.model.ClinicalEventTypeCount;
+import org.cbioportal.legacy.model.SurvivalComparison;
 import org.cbioportal.legacy.model.meta.BaseMeta;
 import org.cbioportal.legacy.service.exception.PatientNotFoundException;
 import org.cbioportal.legacy.service.exception.StudyNotFoundException;
+import org.cbioportal.legacy.web.parameter.SurvivalCurveRequest;
 import org.cbioportal.legacy.web.parameter.SurvivalRequest;
 
 import java.util.List;
@@ -36,6 +38,9 @@ public interface ClinicalEventService {
                                        String attributeIdPrefix,
                                        SurvivalRequest survivalRequest);
 
+    SurvivalComparison getSurvivalComparison(List<String> studyIds, List<String> patientIds,
+                                             SurvivalCurveRequest survivalCurveRequest);
+
     List<ClinicalEvent> getClinicalEventsMeta(List<String> studyIds, List<String> patientIds,
                                        List<ClinicalEvent> clinicalEvents);
 }
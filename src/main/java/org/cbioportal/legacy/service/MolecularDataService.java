@@ -7,6 +7,7 @@ import org.cbioportal.legacy.model.meta.BaseMeta;
 import org.cbioportal.legacy.service.exception.MolecularProfileNotFoundException;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface MolecularDataService {
 
@@ -24,6 +25,20 @@ public interface MolecularDataService {
     BaseMeta fetchMetaMolecularData(String molecularProfileId, List<String> sampleIds, List<Integer> entrezGeneIds)
         throws MolecularProfileNotFoundException;
 
+    /**
+     * Passes the molecular data to the consumer gene by gene, as the alterations are read from the database.
+     */
+    void streamMolecularData(String molecularProfileId, String sampleListId, List<Integer> entrezGeneIds,
+                             String projection, Consumer<GeneMolecularData> consumer)
+        throws MolecularProfileNotFoundException;
+
+    /**
+     * Passes the molecular data to the consumer gene by gene, as the alterations are read from the database.
+     */
+    void streamFetchedMolecularData(String molecularProfileId, List<String> sampleIds, List<Integer> entrezGeneIds,
+                                    String projection, Consumer<GeneMolecularData> consumer)
+        throws MolecularProfileNotFoundException;
+
     Iterable<GeneMolecularAlteration> getMolecularAlterations(String molecularProfileId, List<Integer> entrezGeneIds,
                                                               String projection) throws MolecularProfileNotFoundException;
 
@@ -34,6 +49,14 @@ public interface MolecularDataService {
                                                                         List<Integer> entrezGeneIds,
                                                                         String projection);
 
+    /**
+     * Passes the molecular data to the consumer profile by profile and gene by gene, as the alterations are read
+     * from the database.
+     */
+    void streamMolecularDataInMultipleMolecularProfiles(List<String> molecularProfileIds, List<String> sampleIds,
+                                                        List<Integer> entrezGeneIds, String projection,
+                                                        Consumer<GeneMolecularData> consumer);
+
     List<GeneMolecularData> getMolecularDataInMultipleMolecularProfilesByGeneQueries(List<String> molecularProfileIds,
                                                                                      List<String> sampleIds,
                                                                                      List<GeneFilterQuery> geneQueries,
@@ -8,6 +8,7 @@ import org.cbioportal.legacy.model.meta.MutationMeta;
 import org.cbioportal.legacy.service.exception.MolecularProfileNotFoundException;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface MutationService {
 
@@ -26,6 +27,13 @@ public interface MutationService {
                                                            Integer pageSize, Integer pageNumber,
                                                            String sortBy, String direction);
 
+    /**
+     * Passes the mutations to the consumer as they are read from the database, without paging.
+     */
+    void streamMutationsInMultipleMolecularProfiles(List<String> molecularProfileIds, List<String> sampleIds,
+                                                    List<Integer> entrezGeneIds, String projection, String sortBy,
+                                                    String direction, Consumer<Mutation> consumer);
+
     List<Mutation> getMutationsInMultipleMolecularProfilesByGeneQueries(List<String> molecularProfileIds, List<String> sampleIds,
                                                                       List<GeneFilterQuery> geneQueries,
                                                                       String projection, Integer pageSize, Integer pageNumber,
@@ -10,4 +10,11 @@ public interface StaticDataTimestampService {
     Map<String, String> getTimestamps(List<String> tables);
     
     Map<String, Date> getTimestampsAsDates(List<String> tables);
+
+    /**
+     * @return a version of the data in the tables that changes whenever one of them is updated, or null if the update
+     * time of one of them is unknown, e.g. because the timestamps are only available on MySQL. Data kept in memory
+     * without a version can never be invalidated, so it must not be kept at all.
+     */
+    String getVersion(List<String> tables);
 }
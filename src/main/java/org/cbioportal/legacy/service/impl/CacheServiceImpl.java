@@ -2,19 +2,17 @@ package org.cbioportal.legacy.service.impl;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.cbioportal.legacy.persistence.StudyRepository;
 import org.cbioportal.legacy.persistence.cachemaputil.CacheMapUtil;
 import org.cbioportal.legacy.persistence.cachemaputil.StaticRefCacheMapUtil;
 import org.cbioportal.legacy.persistence.util.CacheUtils;
+import org.cbioportal.legacy.persistence.util.CustomKeyGenerator;
 import org.cbioportal.legacy.service.CacheService;
 import org.cbioportal.legacy.service.exception.CacheOperationException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 @Component
 public class CacheServiceImpl implements CacheService {
@@ -31,15 +29,16 @@ public class CacheServiceImpl implements CacheService {
     @Autowired(required = false)
     private CacheUtils cacheUtils;
 
-    @Autowired
-    private StudyRepository studyRepository;
+    // When caching is disabled there is no key generator bean.
+    @Autowired(required = false)
+    private CustomKeyGenerator customKeyGenerator;
     
     @Override
     public void clearCaches(boolean clearSpringManagedCache) throws CacheOperationException {
         
         // Flush Spring-managed caches (only when cache strategy has been defined).
         if (clearSpringManagedCache) {
-            attemptEvictSpringManagedCache(".*");
+            attemptEvictSpringManagedCache(cacheName -> cacheUtils.evictByPattern(cacheName, ".*"));
         }
 
         // Flush cache used for user permission evaluation.
@@ -57,14 +56,9 @@ public class CacheServiceImpl implements CacheService {
     // This evicts keys from the general and static caches when updating/adding/deleting a study.
     public void clearCachesForStudy(String studyId, boolean clearSpringManagedCache) throws CacheOperationException {
 
-        List<String> allStudyIds = studyRepository.getAllStudies(null, "SUMMARY", null, null, null, null)
-            .stream()
-            .map(study -> study.getCancerStudyIdentifier())
-            .collect(Collectors.toList());
-            
         // Flush Spring-managed caches (only when cache strategy has been defined).
         if (clearSpringManagedCache) {
-            attemptEvictSpringManagedCache(buildEvictionRegex(studyId, allStudyIds));
+            attemptEvictSpringManagedCache(cacheName -> cacheUtils.evictByStudy(cacheName, studyId));
         }
 
         // Flush cache used for user permission evaluation.
@@ -75,37 +69,25 @@ public class CacheServiceImpl implements CacheService {
         
     }
     
-    private void attemptEvictSpringManagedCache(String pattern) throws CacheOperationException {
+    private void attemptEvictSpringManagedCache(Consumer<String> evictCache) throws CacheOperationException {
         try {
             if (cacheManager != null) {
                 cacheManager.getCacheNames().stream()
-                    .forEach(cacheName -> {
-                        cacheUtils.evictByPattern(cacheName, pattern);
-                    });
+                    .forEach(evictCache);
             }
         } catch (RuntimeException e) {
             e.printStackTrace();
             LOG.error("Error while evicting cache." + e.getMessage());
             throw new CacheOperationException("Error while evicting cache.", e);
         }
+        resetCacheKeyStudyIds();
     }
-    
-    // Regex that selects keys that match id of deleted study
-    // or lacking any study id completely. For example:
-    // ^(?=.*study_id_1).*|^(?!.*study_id_1)(?!.*study_id_2)(?!.*study_id_3).*
-    // https://stackoverflow.com/a/8240998/11651683
-    private String buildEvictionRegex(String studyId, List<String> allStudyIds) {
-        
-        // make sure imported studyId is in all studies.
-        List<String> all = new ArrayList<>();
-        all.add(studyId);
-        all.addAll(allStudyIds);
-
-        String allIdsRegex = all.stream()
-            .map(id -> "(?!.*" + id + ")")
-            .collect(Collectors.joining(""));
 
-        return "^(?=.*" + studyId + ").*|^" + allIdsRegex + ".*";
+    // Studies may have been added or removed, so cache keys have to be matched against the new list of studies.
+    private void resetCacheKeyStudyIds() {
+        if (customKeyGenerator != null) {
+            customKeyGenerator.resetStudyIds();
+        }
     }
     
 }
@@ -19,6 +19,7 @@ import org.cbioportal.legacy.model.meta.BaseMeta;
 import org.cbioportal.legacy.persistence.ClinicalDataRepository;
 import org.cbioportal.legacy.persistence.mybatis.util.PaginationCalculator;
 import org.cbioportal.legacy.service.util.ClinicalAttributeUtil;
+import org.cbioportal.legacy.service.util.ClinicalDataSearchIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -44,6 +45,8 @@ public class ClinicalDataServiceImpl implements ClinicalDataService {
     private ClinicalAttributeService clinicalAttributeService;
     @Autowired
     private ClinicalAttributeUtil clinicalAttributeUtil;
+    @Autowired
+    private ClinicalDataSearchIndex clinicalDataSearchIndex;
 
     @Override
     public List<ClinicalData> getAllClinicalDataOfSampleInStudy(String studyId, String sampleId, String attributeId,
@@ -248,12 +251,21 @@ public class ClinicalDataServiceImpl implements ClinicalDataService {
             return new ImmutablePair<>(SampleClinicalDataCollection.builder().build(), 0);
         }
 
+        // Search the index instead of the database, if the term can be searched there.
+        BitSet searchedSampleInternalIds = searchTerm == null || searchTerm.isBlank() ? null :
+            clinicalDataSearchIndex.search(studyIds, searchTerm);
+
         // Request un-paginated data.
         List<Integer> allSampleInternalIds = clinicalDataRepository.getVisibleSampleInternalIdsForClinicalTable(
             studyIds, sampleIds,
             null, null,
-            searchTerm, sortBy, direction
+            searchedSampleInternalIds == null ? searchTerm : null, sortBy, direction
         );
+        if (searchedSampleInternalIds != null) {
+            allSampleInternalIds = allSampleInternalIds.stream()
+                .filter(searchedSampleInternalIds::get)
+                .toList();
+        }
         Integer offset = PaginationCalculator.offset(pageSize, pageNumber);
 
         if (allSampleInternalIds.isEmpty() || offset >= allSampleInternalIds.size()) {
@@ -6,14 +6,20 @@ import org.cbioportal.legacy.model.ClinicalEvent;
 import org.cbioportal.legacy.model.ClinicalEventData;
 import org.cbioportal.legacy.model.ClinicalEventTypeCount;
 import org.cbioportal.legacy.model.Patient;
+import org.cbioportal.legacy.model.SurvivalComparison;
 import org.cbioportal.legacy.model.meta.BaseMeta;
 import org.cbioportal.legacy.persistence.ClinicalEventRepository;
 import org.cbioportal.legacy.service.ClinicalEventService;
 import org.cbioportal.legacy.service.PatientService;
 import org.cbioportal.legacy.service.exception.PatientNotFoundException;
 import org.cbioportal.legacy.service.exception.StudyNotFoundException;
+import org.cbioportal.legacy.service.util.ClinicalEventTimelineStore;
+import org.cbioportal.legacy.service.util.ClinicalEventTimelineStore.Timelines;
+import org.cbioportal.legacy.service.util.SurvivalCalculator;
 import org.cbioportal.legacy.web.parameter.ClinicalEventRequestIdentifier;
 import org.cbioportal.legacy.web.parameter.OccurrencePosition;
+import org.cbioportal.legacy.web.parameter.PatientGroup;
+import org.cbioportal.legacy.web.parameter.SurvivalCurveRequest;
 import org.cbioportal.legacy.web.parameter.SurvivalRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -22,12 +28,12 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Service
 public class ClinicalEventServiceImpl implements ClinicalEventService {
@@ -36,6 +42,8 @@ public class ClinicalEventServiceImpl implements ClinicalEventService {
     private ClinicalEventRepository clinicalEventRepository;
     @Autowired
     private PatientService patientService;
+    @Autowired
+    private ClinicalEventTimelineStore clinicalEventTimelineStore;
     
     @Override
     public List<ClinicalEvent> getAllClinicalEventsOfPatientInStudy(String studyId, String patientId, String projection, 
@@ -109,6 +117,14 @@ public class ClinicalEventServiceImpl implements ClinicalEventService {
             .collect(Collectors.toList());
         List<String> patientIds = patients.stream().map(Patient::getStableId)
             .collect(Collectors.toList());
+
+        Timelines timelines = clinicalEventTimelineStore.getTimelines(studies);
+        if (timelines != null) {
+            return timelines.getPatientCountsPerEventType(studies, patientIds).entrySet()
+                .stream()
+                .map(e -> new ClinicalEventTypeCount(e.getKey(), e.getValue()))
+                .collect(Collectors.toList());
+        }
         
         List<ClinicalEvent> clinicalEvents = clinicalEventRepository.getPatientsDistinctClinicalEventInStudies(studies, patientIds);
         
@@ -130,11 +146,61 @@ public class ClinicalEventServiceImpl implements ClinicalEventService {
                                               List<String> patientIds,
                                               String attributeIdPrefix,
                                               SurvivalRequest survivalRequest) {
+        List<ClinicalData> survivalData = new ArrayList<>();
+        forEachPatientSurvival(studyIds, patientIds, survivalRequest, (event, months, isEvent) -> {
+            survivalData.add(buildClinicalSurvivalMonths(attributeIdPrefix, event, months));
+            survivalData.add(buildClinicalSurvivalStatus(attributeIdPrefix, event, isEvent));
+        });
+        return survivalData;
+    }
+
+    @Override
+    public SurvivalComparison getSurvivalComparison(List<String> studyIds,
+                                                    List<String> patientIds,
+                                                    SurvivalCurveRequest survivalCurveRequest) {
+        // survival times are collected in primitive arrays, indexed in the order the patients are found.
+        // There is at most one start event per requested patient.
+        Map<String, Integer> patientIndexes = new HashMap<>();
+        double[] months = new double[patientIds.size()];
+        boolean[] events = new boolean[patientIds.size()];
+        forEachPatientSurvival(studyIds, patientIds, survivalCurveRequest, (event, patientMonths, isEvent) -> {
+            int index = patientIndexes.computeIfAbsent(getKey(event), key -> patientIndexes.size());
+            months[index] = patientMonths;
+            events[index] = isEvent;
+        });
+
+        List<String> groupNames = new ArrayList<>();
+        int[][] groupMembers = new int[survivalCurveRequest.getGroups().size()][];
+        for (int group = 0; group < groupMembers.length; group++) {
+            PatientGroup patientGroup = survivalCurveRequest.getGroups().get(group);
+            groupNames.add(patientGroup.getName());
+            // patients without survival data, or outside of the request, are left out
+            groupMembers[group] = patientGroup.getPatientIdentifiers().stream()
+                .map(patient -> patientIndexes.get(getKey(patient.getStudyId(), patient.getPatientId())))
+                .filter(Objects::nonNull)
+                .distinct()
+                .mapToInt(Integer::intValue)
+                .toArray();
+        }
+        return SurvivalCalculator.compare(months, events, groupNames, groupMembers);
+    }
+
+    @FunctionalInterface
+    private interface PatientSurvivalConsumer {
+        void accept(ClinicalEvent startEvent, double months, boolean isEvent);
+    }
+
+    private void forEachPatientSurvival(List<String> studyIds,
+                                        List<String> patientIds,
+                                        SurvivalRequest survivalRequest,
+                                        PatientSurvivalConsumer consumer) {
+        // the start, end and censored events are all read from the same version of the timelines
+        Timelines timelines = clinicalEventTimelineStore.getTimelines(studyIds);
         List<ClinicalEvent> startClinicalEventsMeta = getToClinicalEvents(survivalRequest.getStartEventRequestIdentifier());
-        List<ClinicalEvent> patientStartEvents = clinicalEventRepository.getTimelineEvents(studyIds, patientIds, startClinicalEventsMeta);
+        List<ClinicalEvent> patientStartEvents = getTimelineEvents(timelines, studyIds, patientIds, startClinicalEventsMeta);
 
         // only fetch end timeline events for patients that have endClinicalEventsMeta and start timeline events
-        List<ClinicalEvent> patientEndEvents = filterClinicalEvents(patientStartEvents, survivalRequest.getEndEventRequestIdentifier());
+        List<ClinicalEvent> patientEndEvents = filterClinicalEvents(timelines, patientStartEvents, survivalRequest.getEndEventRequestIdentifier());
 
         ToIntFunction<ClinicalEvent> startPositionIdentifier = getPositionIdentifier(survivalRequest.getStartEventRequestIdentifier().getPosition());
         ToIntFunction<ClinicalEvent> endPositionIdentifier = getPositionIdentifier(survivalRequest.getEndEventRequestIdentifier().getPosition());
@@ -149,17 +215,27 @@ public class ClinicalEventServiceImpl implements ClinicalEventService {
                     .orElse(true)
             ).toList();
 
-        List<ClinicalEvent> patientCensoredEvents = filterClinicalEvents(patientStartEvents, survivalRequest.getCensoredEventRequestIdentifier());
+        List<ClinicalEvent> patientCensoredEvents = filterClinicalEvents(timelines, patientStartEvents, survivalRequest.getCensoredEventRequestIdentifier());
         Map<String, ClinicalEvent> patientCensoredEventsById = patientCensoredEvents.stream().collect(Collectors.toMap(ClinicalEventServiceImpl::getKey, Function.identity()));
+        ToIntFunction<ClinicalEvent> censoredPositionIdentifier = survivalRequest.getCensoredEventRequestIdentifier() == null ? ClinicalEvent::getStopDate : getPositionIdentifier(survivalRequest.getCensoredEventRequestIdentifier().getPosition());
 
-        return patientStartEvents.stream()
-            .flatMap(event -> {
-                ClinicalData clinicalDataMonths = buildClinicalSurvivalMonths(attributeIdPrefix, event, survivalRequest, patientEndEventsById, patientCensoredEventsById);
-                if (clinicalDataMonths == null) return Stream.empty();
-                ClinicalData clinicalDataStatus = buildClinicalSurvivalStatus(attributeIdPrefix, event, patientEndEventsById);
-
-                return Stream.of(clinicalDataMonths, clinicalDataStatus);
-            }).toList();
+        for (ClinicalEvent event : patientStartEvents) {
+            int startDate = startPositionIdentifier.applyAsInt(event);
+            int endDate;
+            ClinicalEvent endEvent = patientEndEventsById.get(getKey(event));
+            if (endEvent != null) {
+                endDate = endPositionIdentifier.applyAsInt(endEvent);
+            } else {
+                // ignore cases where patient does not have censored timeline events or
+                // stop date of start event is less than start date of censored events
+                ClinicalEvent censoredEvent = patientCensoredEventsById.get(getKey(event));
+                if (censoredEvent == null || startDate >= censoredPositionIdentifier.applyAsInt(censoredEvent)) {
+                    continue;
+                }
+                endDate = censoredPositionIdentifier.applyAsInt(censoredEvent);
+            }
+            consumer.accept(event, (endDate - startDate) / 30.4, endEvent != null);
+        }
     }
 
     @Override
@@ -168,7 +244,11 @@ public class ClinicalEventServiceImpl implements ClinicalEventService {
     }
 
     private static String getKey(ClinicalEvent clinicalEvent) {
-        return clinicalEvent.getStudyId() + clinicalEvent.getPatientId();
+        return getKey(clinicalEvent.getStudyId(), clinicalEvent.getPatientId());
+    }
+
+    private static String getKey(String studyId, String patientId) {
+        return studyId + patientId;
     }
 
     private static List<ClinicalEvent> getToClinicalEvents(ClinicalEventRequestIdentifier clinicalEventRequestIdentifier) {
@@ -185,7 +265,16 @@ public class ClinicalEventServiceImpl implements ClinicalEventService {
         return position.equals(OccurrencePosition.FIRST) ? ClinicalEvent::getStartDate : ClinicalEvent::getStopDate;
     }
 
-    private List<ClinicalEvent> filterClinicalEvents(List<ClinicalEvent> patientEvents,
+    // served by the timeline store if it has the studies, otherwise by the database
+    private List<ClinicalEvent> getTimelineEvents(Timelines timelines, List<String> studyIds, List<String> patientIds,
+                                                  List<ClinicalEvent> clinicalEvents) {
+        if (timelines != null) {
+            return timelines.getTimelineEvents(studyIds, patientIds, clinicalEvents);
+        }
+        return clinicalEventRepository.getTimelineEvents(studyIds, patientIds, clinicalEvents);
+    }
+
+    private List<ClinicalEvent> filterClinicalEvents(Timelines timelines, List<ClinicalEvent> patientEvents,
                                                      ClinicalEventRequestIdentifier clinicalEventRequestIdentifier) {
         List<String> filteredStudyIds = new ArrayList<>();
         List<String> filteredPatientIds = new ArrayList<>();
@@ -202,51 +291,30 @@ public class ClinicalEventServiceImpl implements ClinicalEventService {
         // only fetch end timeline events for patients that have endClinicalEventsMeta and start timeline events
         List<ClinicalEvent> queriedPatientEvents = new ArrayList<>();
         if (CollectionUtils.isNotEmpty(filteredStudyIds)) {
-            queriedPatientEvents = clinicalEventRepository.getTimelineEvents(filteredStudyIds, filteredPatientIds, clinicalEventsMeta);
+            queriedPatientEvents = getTimelineEvents(timelines, filteredStudyIds, filteredPatientIds, clinicalEventsMeta);
         }
         return queriedPatientEvents;
     }
 
-    private ClinicalData buildClinicalSurvivalMonths(String attributeIdPrefix, ClinicalEvent event, SurvivalRequest survivalRequest, Map<String, ClinicalEvent> patientEndEventsById, Map<String, ClinicalEvent> patientCensoredEventsById) {
+    private ClinicalData buildClinicalSurvivalMonths(String attributeIdPrefix, ClinicalEvent event, double months) {
         final String SURVIVAL_MONTH_ATTRIBUTE = attributeIdPrefix + "_MONTHS";
         ClinicalData clinicalDataMonths = new ClinicalData();
         clinicalDataMonths.setStudyId(event.getStudyId());
         clinicalDataMonths.setPatientId(event.getPatientId());
         clinicalDataMonths.setAttrId(SURVIVAL_MONTH_ATTRIBUTE);
-
-        ToIntFunction<ClinicalEvent> startPositionIdentifier = getPositionIdentifier(survivalRequest.getStartEventRequestIdentifier().getPosition());
-        ToIntFunction<ClinicalEvent> endPositionIdentifier = survivalRequest.getEndEventRequestIdentifier() == null ? ClinicalEvent::getStopDate : getPositionIdentifier(survivalRequest.getEndEventRequestIdentifier().getPosition());
-        ToIntFunction<ClinicalEvent> censoredPositionIdentifier = survivalRequest.getCensoredEventRequestIdentifier() == null ? ClinicalEvent::getStopDate : getPositionIdentifier(survivalRequest.getCensoredEventRequestIdentifier().getPosition());
-
-        int startDate = startPositionIdentifier.applyAsInt(event);
-        int endDate;
-        if (patientEndEventsById.containsKey(getKey(event))) {
-            endDate = endPositionIdentifier.applyAsInt(patientEndEventsById.get(getKey(event)));
-        } else {
-            // ignore cases where patient does not have censored timeline events or
-            // stop date of start event is less than start date of censored events
-            if (!patientCensoredEventsById.containsKey(getKey(event)) ||
-                startDate >= censoredPositionIdentifier.applyAsInt(patientCensoredEventsById.get(getKey(event)))
-            ) {
-                return null;
-            }
-
-            endDate = censoredPositionIdentifier.applyAsInt(patientCensoredEventsById.get(getKey(event)));
-        }
-        final String SURVIVAL_MONTH = String.valueOf((endDate - startDate) / 30.4);
-        clinicalDataMonths.setAttrValue(SURVIVAL_MONTH);
+        clinicalDataMonths.setAttrValue(String.valueOf(months));
 
         return clinicalDataMonths;
     }
 
-    private ClinicalData buildClinicalSurvivalStatus(String attributeIdPrefix, ClinicalEvent event, Map<String, ClinicalEvent> patientEndEventsById) {
+    private ClinicalData buildClinicalSurvivalStatus(String attributeIdPrefix, ClinicalEvent event, boolean isEvent) {
 
         ClinicalData clinicalDataStatus = new ClinicalData();
         clinicalDataStatus.setStudyId(event.getStudyId());
         clinicalDataStatus.setPatientId(event.getPatientId());
         clinicalDataStatus.setAttrId(attributeIdPrefix + "_STATUS");
 
-        if (patientEndEventsById.containsKey(getKey(event))) {
+        if (isEvent) {
             clinicalDataStatus.setAttrValue("1:EVENT");
         } else {
             clinicalDataStatus.setAttrValue("0:CENSORED");
@@ -19,6 +19,10 @@ import org.cbioportal.legacy.service.exception.SampleListNotFoundException;
 import org.cbioportal.legacy.persistence.MolecularDataRepository;
 import org.cbioportal.legacy.persistence.SampleListRepository;
 import org.cbioportal.legacy.service.util.CoExpressionAsyncMethods;
+import org.cbioportal.legacy.service.util.CoExpressionCalculator;
+import org.cbioportal.legacy.service.util.CoExpressionIndex;
+import org.cbioportal.legacy.utils.concurrent.Workload;
+import org.cbioportal.legacy.utils.concurrent.WorkloadExecutors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.stereotype.Service;
@@ -27,6 +31,7 @@ import java.util.*;
 import java.util.Map.Entry;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.concurrent.CompletableFuture;
 
 @Service
@@ -35,6 +40,10 @@ public class CoExpressionServiceImpl implements CoExpressionService {
     @Autowired
     private CoExpressionAsyncMethods asyncMethods;
     @Autowired
+    private CoExpressionCalculator coExpressionCalculator;
+    @Autowired
+    private CoExpressionIndex coExpressionIndex;
+    @Autowired
     private MolecularDataService molecularDataService;
     @Autowired
     private GenesetDataService genesetDataService;
@@ -46,6 +55,8 @@ public class CoExpressionServiceImpl implements CoExpressionService {
     private MolecularDataRepository molecularDataRepository;
     @Autowired
     private SampleService sampleService;
+    @Autowired
+    private WorkloadExecutors workloadExecutors;
 
     @Override
     // transaction needs to be setup here in order to return Iterable from molecularDataService in fetchCoExpressions
@@ -136,65 +147,62 @@ public class CoExpressionServiceImpl implements CoExpressionService {
         // the genetic_profile_samples.ORDERED_SAMPLE_LIST column.
         MolecularProfileSamples commaSeparatedSampleIdsOfMolecularProfile = molecularDataRepository
             .getCommaSeparatedSampleIdsOfMolecularProfile(molecularProfileId);
-        List<Integer> internalSampleIds = Arrays.stream(commaSeparatedSampleIdsOfMolecularProfile.getSplitSampleIds())
-            .mapToInt(Integer::parseInt).boxed().collect(Collectors.toList());
-        Map<Integer, Integer> internalSampleIdToIndexMap = new HashMap<>();
-        for (int lc = 0; lc < internalSampleIds.size(); lc++) {
-            internalSampleIdToIndexMap.put(internalSampleIds.get(lc), lc);
-        }
+        int[] internalSampleIds = commaSeparatedSampleIdsOfMolecularProfile.getOrderedSampleIds();
 
         // These next few lines build a list of Sample from the sampleIds method parameter (the user query).
-        // A map is then built of internal sample ids to indices into the Sample list (although the map is
-        // only used to quickly identify if a sample in the molecular profile is part of the user query - see below).
+        // A set of internal sample ids is then built to quickly identify if a sample in the molecular
+        // profile is part of the user query - see below.
         MolecularProfile molecularProfile = molecularProfileService.getMolecularProfile(molecularProfileId);
         List<String> studyIds = new ArrayList<>();
         sampleIds.forEach(s -> studyIds.add(molecularProfile.getCancerStudyIdentifier()));
         List<Sample> samples = sampleService.fetchSamples(studyIds, sampleIds, "ID");
-        Map<Integer, Integer> selectedSampleIdsMap = new HashMap<>();
-        for (int lc = 0; lc < samples.size(); lc++) {
-            selectedSampleIdsMap.put(samples.get(lc).getInternalId(), lc);
-        }
+        Set<Integer> selectedInternalSampleIds = samples.stream().map(Sample::getInternalId).collect(Collectors.toSet());
 
         // These next few lines build a list of indices into the genetic_alteration.VALUES
         // column by iterating over all the samples in the molecular profile (method parameter)
         // and selecting only samples that are included in the user query.
-        Set<Integer> includedIndexes = new HashSet<>();
-        for (Integer internalSampleId : internalSampleIds) {
-            if (selectedSampleIdsMap.containsKey(internalSampleId)) {
-                includedIndexes.add(internalSampleIdToIndexMap.get(internalSampleId));
+        int[] includedIndexes = IntStream.range(0, internalSampleIds.length)
+            .filter(index -> selectedInternalSampleIds.contains(internalSampleIds[index]))
+            .toArray();
+
+        // When enabled, compute the CoExpressions from the pre-ranked matrix of the profile.
+        // The matrix is built from a single scan of the profile the first time it is needed.
+        if (coExpressionIndex.isEnabled()) {
+            CoExpressionIndex.RankMatrix rankMatrix = coExpressionIndex.getRankMatrix(molecularProfileId,
+                internalSampleIds.length);
+            if (rankMatrix == null) {
+                rankMatrix = coExpressionIndex.buildRankMatrix(molecularProfileId, internalSampleIds.length,
+                    getMolecularAlterations(molecularProfileId, geneticEntityType));
+            }
+            if (rankMatrix != null) {
+                List<CoExpression> coExpressions = coExpressionCalculator.computeCoExpressions(rankMatrix,
+                    queryGeneticEntityId, includedIndexes, threshold);
+                if (coExpressions != null) {
+                    return coExpressions;
+                }
             }
         }
 
-        // These next few lines filter out genetic_alteration values from the query gene/geneset
-        // genetic_alteration.VALUES column by considering only the indices of the samples in the user query.
-        List<String> queryValues = Arrays.asList(queryMolecularDataList.getSplitValues());
-        List<String> includedQueryValues = includedIndexes.stream().map(index -> queryValues.get(index))
-            .collect(Collectors.toList());
-
         // Get an iterator to all the MolecularAlteration (genetic_alteration table records) in the profile
-        if (geneticEntityType.equals(EntityType.GENE)) {
-            maItr = molecularDataService.getMolecularAlterations(molecularProfileId, null, "SUMMARY");
-        } else if (geneticEntityType.equals(EntityType.GENESET)) {
-            maItr = genesetDataService.getGenesetAlterations(molecularProfileId, null);
-        }
+        maItr = getMolecularAlterations(molecularProfileId, geneticEntityType);
 
         // For each MolecularAlteration in the profile, compute a CoExpression to return.
-        // If the MolecularAlteration is for the query gene/geneset, skip it.  Otherwise,
-        // filter out genetic_alteration values from genetic_alteration.VALUES
-        // by considering oly the indices of the samples in the user query.
-        List<CompletableFuture<CoExpression>> returnFutures = new ArrayList<>();
-        for (MolecularAlteration ma : maItr) {
-            String entityId = ma.getStableId();
-            if (entityId.equals(queryGeneticEntityId)) {
-                continue;
-            }
-            List<String> internalValues = new ArrayList<>(Arrays.asList(ma.getSplitValues()));
-            List<String> values = includedIndexes.stream().map(index -> internalValues.get(index)).collect(Collectors.toList());
+        // The calculator skips the MolecularAlteration of the query gene/geneset and considers
+        // only the genetic_alteration.VALUES at the indices of the samples in the user query.
+        return coExpressionCalculator.computeCoExpressions(queryMolecularDataList.getNumericValues(), maItr,
+            queryGeneticEntityId, includedIndexes, threshold);
+    }
 
-            CompletableFuture<CoExpression> future = asyncMethods.computeCoExpression(entityId, values, includedQueryValues, threshold);
-            returnFutures.add(future);
+    private Iterable<? extends MolecularAlteration> getMolecularAlterations(String molecularProfileId,
+                                                                            EntityType geneticEntityType)
+        throws MolecularProfileNotFoundException {
+
+        if (geneticEntityType.equals(EntityType.GENE)) {
+            return molecularDataService.getMolecularAlterations(molecularProfileId, null, "SUMMARY");
+        } else if (geneticEntityType.equals(EntityType.GENESET)) {
+            return genesetDataService.getGenesetAlterations(molecularProfileId, null);
         }
-        return returnFutures.stream().map(CompletableFuture::join).filter(Objects::nonNull).collect(Collectors.toList());
+        return null;
     }
 
     @Override
@@ -253,7 +261,11 @@ public class CoExpressionServiceImpl implements CoExpressionService {
             }
         }
 
-        List<CompletableFuture<CoExpression>> returnFutures = new ArrayList<>();
+        List<CoExpression> coExpressions = new ArrayList<>();
+        // bound the number of tasks a single request keeps in the queue of the co-expression workload
+        int maxPendingTasks = Math.max(1,
+            WorkloadExecutors.PENDING_TASKS_PER_THREAD * workloadExecutors.getPoolSize(Workload.CO_EXPRESSION));
+        Deque<CompletableFuture<CoExpression>> pendingFutures = new ArrayDeque<>();
 
         Map<String, ? extends MolecularData> dataMapA = finalMolecularDataListA.stream()
                 .collect(Collectors.toMap(MolecularData::getSampleId, Function.identity()));
@@ -269,11 +281,23 @@ public class CoExpressionServiceImpl implements CoExpressionService {
                 }
             });
 
-            CompletableFuture<CoExpression> future = asyncMethods.computeCoExpression(entry.getKey(), valuesA, valuesB, threshold);
-            returnFutures.add(future);
+            while (pendingFutures.size() >= maxPendingTasks) {
+                addCoExpression(pendingFutures.removeFirst(), coExpressions);
+            }
+            pendingFutures.addLast(asyncMethods.computeCoExpression(entry.getKey(), valuesA, valuesB, threshold));
+        }
+        while (!pendingFutures.isEmpty()) {
+            addCoExpression(pendingFutures.removeFirst(), coExpressions);
         }
 
-        return returnFutures.stream().map(CompletableFuture::join).filter(Objects::nonNull).collect(Collectors.toList());
+        return coExpressions;
+    }
+
+    private void addCoExpression(CompletableFuture<CoExpression> future, List<CoExpression> coExpressions) {
+        CoExpression coExpression = future.join();
+        if (coExpression != null) {
+            coExpressions.add(coExpression);
+        }
     }
 
 }
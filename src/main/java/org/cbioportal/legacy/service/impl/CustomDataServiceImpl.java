@@ -4,6 +4,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.cbioportal.legacy.service.CustomDataService;
 import org.cbioportal.legacy.service.util.CustomDataSession;
 import org.cbioportal.legacy.service.util.SessionServiceRequestHandler;
+import org.cbioportal.legacy.utils.concurrent.Workload;
+import org.cbioportal.legacy.utils.concurrent.WorkloadExecutors;
 import org.cbioportal.legacy.utils.removeme.Session;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -21,6 +23,9 @@ public class CustomDataServiceImpl implements CustomDataService {
     @Autowired
     private ObjectMapper sessionServiceObjectMapper;
 
+    @Autowired
+    private WorkloadExecutors workloadExecutors;
+
     /**
      * Retrieve CustomDataSession from session service for custom data attributes. 
      * @param customAttributeIds - attribute id/hash of custom data used as session service key.
@@ -41,7 +46,7 @@ public class CustomDataServiceImpl implements CustomDataService {
                     } catch (Exception e) {
                         return null;
                     }
-                })
+                }, workloadExecutors.executor(Workload.SESSION_SERVICE))
             ));
 
         CompletableFuture.allOf(postFuturesMap.values().toArray(new CompletableFuture[postFuturesMap.size()])).join();
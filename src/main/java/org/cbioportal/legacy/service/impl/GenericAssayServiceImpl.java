@@ -114,15 +114,12 @@ public class GenericAssayServiceImpl implements GenericAssayService {
         List<Integer> allInternalSampleIds = new ArrayList<>();
 
         for (String molecularProfileId : distinctMolecularProfileIds) {
-            List<Integer> internalSampleIds = Arrays
-                    .stream(commaSeparatedSampleIdsOfMolecularProfilesMap.get(molecularProfileId).getSplitSampleIds())
-                    .mapToInt(Integer::parseInt).boxed().collect(Collectors.toList());
-            HashMap<Integer, Integer> molecularProfileSampleMap = new HashMap<Integer, Integer>();
-            for (int lc = 0; lc < internalSampleIds.size(); lc++) {
-                molecularProfileSampleMap.put(internalSampleIds.get(lc), lc);
+            MolecularProfileSamples molecularProfileSamples = commaSeparatedSampleIdsOfMolecularProfilesMap
+                    .get(molecularProfileId);
+            internalSampleIdsMap.put(molecularProfileId, molecularProfileSamples.getSampleIdToIndexMap());
+            for (int internalSampleId : molecularProfileSamples.getOrderedSampleIds()) {
+                allInternalSampleIds.add(internalSampleId);
             }
-            internalSampleIdsMap.put(molecularProfileId, molecularProfileSampleMap);
-            allInternalSampleIds.addAll(internalSampleIds);
         }
     
         List<MolecularProfile> molecularProfiles = new ArrayList<>();
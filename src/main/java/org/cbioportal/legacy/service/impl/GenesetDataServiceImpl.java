@@ -26,6 +26,7 @@ package org.cbioportal.legacy.service.impl;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.cbioportal.legacy.model.GenesetMolecularAlteration;
@@ -69,11 +70,12 @@ public class GenesetDataServiceImpl implements GenesetDataService {
         	//no data, return empty list:
             return genesetDataList;
         }
-        List<Integer> internalSampleIds = Arrays.stream(commaSeparatedSampleIdsOfGeneticProfile.getSplitSampleIds())
-            .mapToInt(Integer::parseInt).boxed().collect(Collectors.toList());
+        Map<Integer, Integer> internalSampleIdsMap = commaSeparatedSampleIdsOfGeneticProfile.getSampleIdToIndexMap();
 
         List<Sample> samples;
         if (sampleIds == null) {
+            List<Integer> internalSampleIds = Arrays.stream(commaSeparatedSampleIdsOfGeneticProfile.getOrderedSampleIds())
+                .boxed().collect(Collectors.toList());
             samples = sampleService.getSamplesByInternalIds(internalSampleIds);
         } else {
             List<String> studyIds = new ArrayList<>();
@@ -85,8 +87,8 @@ public class GenesetDataServiceImpl implements GenesetDataService {
                 genesetIds, "SUMMARY");
 
         for (Sample sample : samples) {
-            int indexOfSampleId = internalSampleIds.indexOf(sample.getInternalId());
-            if (indexOfSampleId != -1) {
+            Integer indexOfSampleId = internalSampleIdsMap.get(sample.getInternalId());
+            if (indexOfSampleId != null) {
                 for (GenesetMolecularAlteration genesetAlteration : genesetAlterations) {
                     GenesetMolecularData genesetData = new GenesetMolecularData();
                     genesetData.setMolecularProfileId(molecularProfileId);
@@ -19,8 +19,10 @@ import org.cbioportal.legacy.service.exception.MolecularProfileNotFoundException
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -76,22 +78,9 @@ public class MolecularDataServiceImpl implements MolecularDataService {
         if (commaSeparatedSampleIdsOfMolecularProfile == null) {
             return molecularDataList;
         }
-        List<Integer> internalSampleIds = Arrays.stream(commaSeparatedSampleIdsOfMolecularProfile.getSplitSampleIds())
-            .mapToInt(Integer::parseInt).boxed().collect(Collectors.toList());
-        Map<Integer, Integer> internalSampleIdsMap = new HashMap<>();
-        for (int lc = 0; lc < internalSampleIds.size(); lc++) {
-            internalSampleIdsMap.put(internalSampleIds.get(lc), lc);
-        }
+        Map<Integer, Integer> internalSampleIdsMap = commaSeparatedSampleIdsOfMolecularProfile.getSampleIdToIndexMap();
 
-        List<Sample> samples;
-        if (sampleIds == null) {
-            samples = sampleService.getSamplesByInternalIds(internalSampleIds);
-        } else {
-            MolecularProfile molecularProfile = molecularProfileService.getMolecularProfile(molecularProfileId);
-            List<String> studyIds = new ArrayList<>();
-            sampleIds.forEach(s -> studyIds.add(molecularProfile.getCancerStudyIdentifier()));
-            samples = sampleService.fetchSamples(studyIds, sampleIds, "ID");
-        }
+        List<Sample> samples = getSamples(molecularProfileId, commaSeparatedSampleIdsOfMolecularProfile, sampleIds);
 
         List<GeneMolecularAlteration> molecularAlterations = molecularDataRepository.getGeneMolecularAlterations(
             molecularProfileId, entrezGeneIds, projection);
@@ -116,6 +105,93 @@ public class MolecularDataServiceImpl implements MolecularDataService {
         return molecularDataList;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void streamMolecularData(String molecularProfileId, String sampleListId, List<Integer> entrezGeneIds,
+                                    String projection, Consumer<GeneMolecularData> consumer)
+        throws MolecularProfileNotFoundException {
+
+        validateMolecularProfile(molecularProfileId);
+        List<String> sampleIds = sampleListRepository.getAllSampleIdsInSampleList(sampleListId);
+        if (!sampleIds.isEmpty()) {
+            streamFetchedMolecularData(molecularProfileId, sampleIds, entrezGeneIds, projection, consumer);
+        }
+    }
+
+    @Override
+    // the cursor stays open until the transaction ends, which also closes it when the client goes away mid-way
+    @Transactional(readOnly = true)
+    public void streamFetchedMolecularData(String molecularProfileId, List<String> sampleIds,
+                                           List<Integer> entrezGeneIds, String projection,
+                                           Consumer<GeneMolecularData> consumer)
+        throws MolecularProfileNotFoundException {
+
+        validateMolecularProfile(molecularProfileId);
+        MolecularProfileSamples commaSeparatedSampleIdsOfMolecularProfile = molecularDataRepository
+            .getCommaSeparatedSampleIdsOfMolecularProfile(molecularProfileId);
+        if (commaSeparatedSampleIdsOfMolecularProfile == null) {
+            return;
+        }
+        streamMolecularData(molecularProfileId, commaSeparatedSampleIdsOfMolecularProfile.getSampleIdToIndexMap(),
+            getSamples(molecularProfileId, commaSeparatedSampleIdsOfMolecularProfile, sampleIds), entrezGeneIds,
+            projection, consumer);
+    }
+
+    private List<Sample> getSamples(String molecularProfileId, MolecularProfileSamples molecularProfileSamples,
+                                    List<String> sampleIds) {
+
+        if (sampleIds == null) {
+            List<Integer> internalSampleIds = Arrays.stream(molecularProfileSamples.getOrderedSampleIds())
+                .boxed().collect(Collectors.toList());
+            return sampleService.getSamplesByInternalIds(internalSampleIds);
+        } else {
+            MolecularProfile molecularProfile = molecularProfileService.getMolecularProfile(molecularProfileId);
+            List<String> studyIds = new ArrayList<>();
+            sampleIds.forEach(s -> studyIds.add(molecularProfile.getCancerStudyIdentifier()));
+            return sampleService.fetchSamples(studyIds, sampleIds, "ID");
+        }
+    }
+
+    // Reads the alterations of the profile one gene at a time, so that only one row of values is in memory
+    private void streamMolecularData(String molecularProfileId, Map<Integer, Integer> internalSampleIdsMap,
+                                     List<Sample> samples, List<Integer> entrezGeneIds, String projection,
+                                     Consumer<GeneMolecularData> consumer) {
+
+        List<Sample> profiledSamples = new ArrayList<>();
+        List<Integer> indexesOfSampleIds = new ArrayList<>();
+        for (Sample sample : samples) {
+            Integer indexOfSampleId = internalSampleIdsMap.get(sample.getInternalId());
+            if (indexOfSampleId != null) {
+                profiledSamples.add(sample);
+                indexesOfSampleIds.add(indexOfSampleId);
+            }
+        }
+        if (profiledSamples.isEmpty()) {
+            return;
+        }
+
+        // no query may run until the alterations are read, the rows are streamed over the connection
+        Iterable<GeneMolecularAlteration> molecularAlterations =
+            molecularDataRepository.getGeneMolecularAlterationsStreamed(molecularProfileId, entrezGeneIds, projection);
+
+        for (GeneMolecularAlteration molecularAlteration : molecularAlterations) {
+            String[] values = molecularAlteration.getSplitValues();
+            for (int i = 0; i < profiledSamples.size(); i++) {
+                Sample sample = profiledSamples.get(i);
+                int indexOfSampleId = indexesOfSampleIds.get(i);
+                GeneMolecularData molecularData = new GeneMolecularData();
+                molecularData.setMolecularProfileId(molecularProfileId);
+                molecularData.setSampleId(sample.getStableId());
+                molecularData.setPatientId(sample.getPatientStableId());
+                molecularData.setStudyId(sample.getCancerStudyIdentifier());
+                molecularData.setEntrezGeneId(molecularAlteration.getEntrezGeneId());
+                molecularData.setValue(indexOfSampleId < values.length ? values[indexOfSampleId] : null);
+                molecularData.setGene(molecularAlteration.getGene());
+                consumer.accept(molecularData);
+            }
+        }
+    }
+
     @Override
     public BaseMeta fetchMetaMolecularData(String molecularProfileId, List<String> sampleIds, 
                                            List<Integer> entrezGeneIds) throws MolecularProfileNotFoundException {
@@ -146,7 +222,7 @@ public class MolecularDataServiceImpl implements MolecularDataService {
             return null;
         }
 
-        return commaSeparatedSampleIdsOfMolecularProfile.getSplitSampleIds().length;
+        return commaSeparatedSampleIdsOfMolecularProfile.getOrderedSampleIds().length;
     }
 
     @Override
@@ -166,15 +242,12 @@ public class MolecularDataServiceImpl implements MolecularDataService {
         List<Integer> allInternalSampleIds = new ArrayList<>();
 
         for (String molecularProfileId : distinctMolecularProfileIds) {
-            List<Integer> internalSampleIds = Arrays
-                    .stream(commaSeparatedSampleIdsOfMolecularProfilesMap.get(molecularProfileId).getSplitSampleIds())
-                    .mapToInt(Integer::parseInt).boxed().collect(Collectors.toList());
-            HashMap<Integer, Integer> molecularProfileSampleMap = new HashMap<Integer, Integer>();
-            for (int lc = 0; lc < internalSampleIds.size(); lc++) {
-                molecularProfileSampleMap.put(internalSampleIds.get(lc), lc);
+            MolecularProfileSamples molecularProfileSamples = commaSeparatedSampleIdsOfMolecularProfilesMap
+                    .get(molecularProfileId);
+            internalSampleIdsMap.put(molecularProfileId, molecularProfileSamples.getSampleIdToIndexMap());
+            for (int internalSampleId : molecularProfileSamples.getOrderedSampleIds()) {
+                allInternalSampleIds.add(internalSampleId);
             }
-            internalSampleIdsMap.put(molecularProfileId, molecularProfileSampleMap);
-            allInternalSampleIds.addAll(internalSampleIds);
         }
 
         List<MolecularProfile> molecularProfiles = new ArrayList<>();
@@ -237,6 +310,64 @@ public class MolecularDataServiceImpl implements MolecularDataService {
         return molecularDataList;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void streamMolecularDataInMultipleMolecularProfiles(List<String> molecularProfileIds,
+                                                               List<String> sampleIds, List<Integer> entrezGeneIds,
+                                                               String projection,
+                                                               Consumer<GeneMolecularData> consumer) {
+
+        SortedSet<String> distinctMolecularProfileIds = new TreeSet<>(molecularProfileIds);
+        Map<String, MolecularProfileSamples> commaSeparatedSampleIdsOfMolecularProfilesMap = molecularDataRepository
+            .commaSeparatedSampleIdsOfMolecularProfilesMap(distinctMolecularProfileIds);
+        if (commaSeparatedSampleIdsOfMolecularProfilesMap.size() == 0) {
+            return;
+        }
+
+        // samples are resolved the same way as in getMolecularDataInMultipleMolecularProfiles, but grouped per profile
+        Map<String, List<Sample>> samplesByMolecularProfileId = new HashMap<>();
+        if (sampleIds == null) {
+            List<Integer> allInternalSampleIds = new ArrayList<>();
+            for (String molecularProfileId : distinctMolecularProfileIds) {
+                for (int internalSampleId : commaSeparatedSampleIdsOfMolecularProfilesMap.get(molecularProfileId)
+                    .getOrderedSampleIds()) {
+                    allInternalSampleIds.add(internalSampleId);
+                }
+            }
+            List<Sample> samples = sampleService.getSamplesByInternalIds(allInternalSampleIds);
+            for (String molecularProfileId : distinctMolecularProfileIds) {
+                samplesByMolecularProfileId.put(molecularProfileId, samples);
+            }
+        } else {
+            List<MolecularProfile> distinctMolecularProfiles = molecularProfileService.getMolecularProfiles(
+                distinctMolecularProfileIds, "SUMMARY");
+            Map<String, MolecularProfile> molecularProfileMapById = distinctMolecularProfiles.stream().collect(
+                Collectors.toMap(MolecularProfile::getStableId, Function.identity()));
+            Map<String, List<MolecularProfile>> molecularProfileMapByStudyId = distinctMolecularProfiles.stream()
+                .collect(groupingBy(MolecularProfile::getCancerStudyIdentifier));
+            List<String> studyIds = molecularProfileIds.stream()
+                .map(molecularProfileId -> molecularProfileMapById.get(molecularProfileId).getCancerStudyIdentifier())
+                .collect(Collectors.toList());
+            for (Sample sample : sampleService.fetchSamples(studyIds, sampleIds, "ID")) {
+                for (MolecularProfile molecularProfile :
+                    molecularProfileMapByStudyId.get(sample.getCancerStudyIdentifier())) {
+                    samplesByMolecularProfileId.computeIfAbsent(molecularProfile.getStableId(), k -> new ArrayList<>())
+                        .add(sample);
+                }
+            }
+        }
+
+        for (String molecularProfileId : distinctMolecularProfileIds) {
+            MolecularProfileSamples molecularProfileSamples = commaSeparatedSampleIdsOfMolecularProfilesMap
+                .get(molecularProfileId);
+            List<Sample> samples = samplesByMolecularProfileId.get(molecularProfileId);
+            if (molecularProfileSamples != null && samples != null) {
+                streamMolecularData(molecularProfileId, molecularProfileSamples.getSampleIdToIndexMap(), samples,
+                    entrezGeneIds, projection, consumer);
+            }
+        }
+    }
+
     @Override
     public List<GeneMolecularData> getMolecularDataInMultipleMolecularProfilesByGeneQueries(List<String> molecularProfileIds,
                                                                                             List<String> sampleIds,
@@ -12,9 +12,11 @@ import org.cbioportal.legacy.service.MutationService;
 import org.cbioportal.legacy.service.exception.MolecularProfileNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 public class MutationServiceImpl implements MutationService {
@@ -74,6 +76,18 @@ public class MutationServiceImpl implements MutationService {
         return mutationList;
     }
 
+    @Override
+    // the cursors stay open until the transaction ends, which also closes them when the client goes away mid-way
+    @Transactional(readOnly = true)
+    public void streamMutationsInMultipleMolecularProfiles(List<String> molecularProfileIds, List<String> sampleIds,
+                                                           List<Integer> entrezGeneIds, String projection,
+                                                           String sortBy, String direction,
+                                                           Consumer<Mutation> consumer) {
+
+        mutationRepository.getMutationsInMultipleMolecularProfilesIterable(molecularProfileIds, sampleIds,
+            entrezGeneIds, projection, sortBy, direction).forEach(consumer);
+    }
+
     @Override
     public MutationMeta getMetaMutationsInMultipleMolecularProfiles(List<String> molecularProfileIds, 
                                                                     List<String> sampleIds, 
@@ -5,6 +5,7 @@ import org.cbioportal.legacy.persistence.util.CustomRedisCache;
 import org.cbioportal.legacy.service.CacheStatisticsService;
 import org.cbioportal.legacy.service.exception.CacheNotFoundException;
 import org.cbioportal.legacy.utils.config.annotation.ConditionalOnProperty;
+import org.cbioportal.legacy.utils.metrics.CacheLookupSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
@@ -23,7 +24,7 @@ import java.util.stream.Collectors;
 @ConditionalOnExpression(
     "#{environment['persistence.cache_type'] == 'redis' or environment['persistence.cache_type_clickhouse'] == 'redis'}"
 )
-public class RedisCacheStatisticsServiceImpl implements CacheStatisticsService {
+public class RedisCacheStatisticsServiceImpl implements CacheStatisticsService, CacheLookupSource {
 
     @Autowired
     public CacheManager cacheManager;
@@ -88,6 +89,34 @@ public class RedisCacheStatisticsServiceImpl implements CacheStatisticsService {
 
     @Override
     public String getCacheStatistics() {
-        throw new UnsupportedOperationException("Requested API is not implemented yet");
+        checkIfCacheStatisticsEndpointEnabled();
+        StringBuilder builder = new StringBuilder();
+        builder.append("\n\nCACHE_STATISTICS START\n\n");
+        for (String cacheName : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache instanceof CustomRedisCache) {
+                CustomRedisCache redisCache = (CustomRedisCache) cache;
+                builder.append("Cache: " + cacheName + "\n");
+                builder.append("Hits: " + redisCache.getHitCount() + "\n");
+                builder.append("Misses: " + redisCache.getMissCount() + "\n");
+                builder.append(redisCache.getCodecStatistics());
+                builder.append("\n");
+            }
+        }
+        builder.append("CACHE_STATISTICS END\n");
+        return builder.toString();
+    }
+
+    @Override
+    public List<CacheLookups> getCacheLookups() {
+        List<CacheLookups> cacheLookups = new ArrayList<>();
+        for (String cacheName : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache instanceof CustomRedisCache) {
+                CustomRedisCache redisCache = (CustomRedisCache) cache;
+                cacheLookups.add(new CacheLookups(cacheName, redisCache.getHitCount(), redisCache.getMissCount()));
+            }
+        }
+        return cacheLookups;
     }
 }
@@ -9,8 +9,10 @@ import org.springframework.stereotype.Service;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,10 +23,12 @@ public class StaticDataTimestampServiceImpl implements StaticDataTimestampServic
     @Override
     public Map<String, String> getTimestamps(List<String> tables) {
         List<TableTimestampPair> timestamps = staticDataTimeStampRepository.getTimestamps(tables);
-        return timestamps.stream()
-                .collect(Collectors.toMap(
-                        TableTimestampPair::getTableName,
-                        TableTimestampPair::getUpdateTime));
+        // a table that was not updated since the database started has no update time
+        Map<String, String> timestampsByTable = new HashMap<>();
+        for (TableTimestampPair timestamp : timestamps) {
+            timestampsByTable.put(timestamp.getTableName(), timestamp.getUpdateTime());
+        }
+        return timestampsByTable;
     }
     
     @Override
@@ -36,6 +40,15 @@ public class StaticDataTimestampServiceImpl implements StaticDataTimestampServic
                 (pair) -> toDate(pair.getUpdateTime())));
     }
     
+    @Override
+    public String getVersion(List<String> tables) {
+        Map<String, String> timestamps = new TreeMap<>(getTimestamps(tables));
+        if (!timestamps.keySet().containsAll(tables) || timestamps.containsValue(null)) {
+            return null;
+        }
+        return timestamps.toString();
+    }
+
     private Date toDate(String date) {
         try {
             return new SimpleDateFormat("yyyy-MM-dd hh:mm:ss.sss").parse(date);
@@ -21,6 +21,7 @@ import org.cbioportal.legacy.service.alteration.AlterationCountByGeneService;
 import org.cbioportal.legacy.service.exception.StudyNotFoundException;
 import org.cbioportal.legacy.service.treatment.TreatmentCountReportService;
 import org.cbioportal.legacy.service.util.StudyViewColumnarServiceUtil;
+import org.cbioportal.legacy.service.util.StudyViewFilterCacheable;
 import org.cbioportal.legacy.utils.config.annotation.ConditionalOnProperty;
 import org.cbioportal.legacy.web.parameter.ClinicalDataType;
 import org.cbioportal.legacy.web.parameter.CustomSampleIdentifier;
@@ -61,74 +62,50 @@ public class StudyViewColumnarServiceImpl implements StudyViewColumnarService {
         this.customDataFilterUtil = customDataFilterUtil;
     }
     
-    @Cacheable(
-        cacheResolver = "staticRepositoryCacheOneResolver",
-        condition = "@cacheEnabledConfig.getEnabledClickhouse() && @studyViewFilterUtil.isUnfilteredQuery(#studyViewFilter)"
-    )
+    @StudyViewFilterCacheable
     @Override
     public List<Sample> getFilteredSamples(StudyViewFilter studyViewFilter) {
         
         return studyViewRepository.getFilteredSamples(createContext(studyViewFilter));
     }
 
-    @Cacheable(
-        cacheResolver = "staticRepositoryCacheOneResolver",
-        condition = "@cacheEnabledConfig.getEnabledClickhouse() && @studyViewFilterUtil.isUnfilteredQuery(#studyViewFilter)"
-    )
+    @StudyViewFilterCacheable
     @Override
     public List<AlterationCountByGene> getMutatedGenes(StudyViewFilter studyViewFilter) throws StudyNotFoundException {
         return alterationCountByGeneService.getMutatedGenes(createContext(studyViewFilter));
     }
 
-    @Cacheable(
-        cacheResolver = "staticRepositoryCacheOneResolver",
-        condition = "@cacheEnabledConfig.getEnabledClickhouse() && @studyViewFilterUtil.isUnfilteredQuery(#studyViewFilter)"
-    )
+    @StudyViewFilterCacheable
     @Override
     public List<GenomicDataCount> getMolecularProfileSampleCounts(StudyViewFilter studyViewFilter) {
         return studyViewRepository.getMolecularProfileSampleCounts(createContext(studyViewFilter));
     }
 
-    @Cacheable(
-        cacheResolver = "staticRepositoryCacheOneResolver",
-        condition = "@cacheEnabledConfig.getEnabledClickhouse() && @studyViewFilterUtil.isUnfilteredQuery(#studyViewFilter)"
-    )
+    @StudyViewFilterCacheable
     @Override
     public List<ClinicalEventTypeCount> getClinicalEventTypeCounts(StudyViewFilter studyViewFilter) {
         return studyViewRepository.getClinicalEventTypeCounts(createContext(studyViewFilter));
     }
 
-    @Cacheable(
-        cacheResolver = "staticRepositoryCacheOneResolver",
-        condition = "@cacheEnabledConfig.getEnabledClickhouse() && @studyViewFilterUtil.isUnfilteredQuery(#studyViewFilter)"
-    )
+    @StudyViewFilterCacheable
     @Override
     public PatientTreatmentReport getPatientTreatmentReport(StudyViewFilter studyViewFilter) {
         return treatmentCountReportService.getPatientTreatmentReport(createContext(studyViewFilter));
     }
 
-    @Cacheable(
-        cacheResolver = "staticRepositoryCacheOneResolver",
-        condition = "@cacheEnabledConfig.getEnabledClickhouse() && @studyViewFilterUtil.isUnfilteredQuery(#studyViewFilter)"
-    )
+    @StudyViewFilterCacheable
     @Override
     public SampleTreatmentReport getSampleTreatmentReport(StudyViewFilter studyViewFilter) {
         return treatmentCountReportService.getSampleTreatmentReport(createContext(studyViewFilter));
     }
 
-    @Cacheable(
-        cacheResolver = "staticRepositoryCacheOneResolver",
-        condition = "@cacheEnabledConfig.getEnabledClickhouse() && @studyViewFilterUtil.isUnfilteredQuery(#studyViewFilter)"
-    )
+    @StudyViewFilterCacheable
     @Override
     public List<ClinicalDataCountItem> getGenomicDataBinCounts(StudyViewFilter studyViewFilter, List<GenomicDataBinFilter> genomicDataBinFilters) {
         return generateDataCountItemsFromDataCounts(studyViewRepository.getGenomicDataBinCounts(createContext(studyViewFilter), genomicDataBinFilters));
     }
 
-    @Cacheable(
-        cacheResolver = "staticRepositoryCacheOneResolver",
-        condition = "@cacheEnabledConfig.getEnabledClickhouse() && @studyViewFilterUtil.isUnfilteredQuery(#studyViewFilter)"
-    )
+    @StudyViewFilterCacheable
     @Override
     public List<ClinicalDataCountItem> getGenericAssayDataBinCounts(StudyViewFilter studyViewFilter, List<GenericAssayDataBinFilter> genericAssayDataBinFilters) {
         return generateDataCountItemsFromDataCounts(studyViewRepository.getGenericAssayDataBinCounts(createContext(studyViewFilter), genericAssayDataBinFilters));
@@ -138,28 +115,19 @@ public class StudyViewColumnarServiceImpl implements StudyViewColumnarService {
         return alterationCountByGeneService.getCnaGenes(createContext(studyViewFilter));
     }
 
-    @Cacheable(
-        cacheResolver = "staticRepositoryCacheOneResolver",
-        condition = "@cacheEnabledConfig.getEnabledClickhouse() && @studyViewFilterUtil.isUnfilteredQuery(#studyViewFilter)"
-    )
+    @StudyViewFilterCacheable
     @Override
     public List<AlterationCountByGene> getStructuralVariantGenes(StudyViewFilter studyViewFilter) throws StudyNotFoundException {
         return alterationCountByGeneService.getStructuralVariantGenes(createContext(studyViewFilter));
     }
 
-    @Cacheable(
-        cacheResolver = "staticRepositoryCacheOneResolver",
-        condition = "@cacheEnabledConfig.getEnabledClickhouse() && @studyViewFilterUtil.isUnfilteredQuery(#studyViewFilter)"
-    )
+    @StudyViewFilterCacheable
     @Override
     public Map<String, ClinicalDataType> getClinicalAttributeDatatypeMap(StudyViewFilter studyViewFilter) {
         return studyViewRepository.getClinicalAttributeDatatypeMap();
     }
     
-    @Cacheable(
-        cacheResolver = "staticRepositoryCacheOneResolver",
-        condition = "@cacheEnabledConfig.getEnabledClickhouse() && @studyViewFilterUtil.isUnfilteredQuery(#studyViewFilter)"
-    )
+    @StudyViewFilterCacheable
     @Override
     public List<ClinicalDataCountItem> getClinicalDataCounts(StudyViewFilter studyViewFilter, List<String> filteredAttributes) {
 
@@ -205,10 +173,7 @@ public class StudyViewColumnarServiceImpl implements StudyViewColumnarService {
         return studyViewRepository.getClinicalAttributesForStudies(studyIds).stream().toList();
     }
 
-    @Cacheable(
-        cacheResolver = "staticRepositoryCacheOneResolver",
-        condition = "@cacheEnabledConfig.getEnabledClickhouse() && @studyViewFilterUtil.isUnfilteredQuery(#studyViewFilter)"
-    )
+    @StudyViewFilterCacheable
     @Override
     public List<CaseListDataCount> getCaseListDataCounts(StudyViewFilter studyViewFilter) {
         // the study view merges case lists by type across studies
@@ -217,46 +182,31 @@ public class StudyViewColumnarServiceImpl implements StudyViewColumnarService {
         return StudyViewColumnarServiceUtil.mergeCaseListCounts(caseListDataCountsPerStudy);
     }
 
-    @Cacheable(
-        cacheResolver = "staticRepositoryCacheOneResolver",
-        condition = "@cacheEnabledConfig.getEnabledClickhouse() && @studyViewFilterUtil.isUnfilteredQuery(#studyViewFilter)"
-    )
+    @StudyViewFilterCacheable
     @Override
     public List<ClinicalData> getPatientClinicalData(StudyViewFilter studyViewFilter, List<String> attributeIds) {
         return studyViewRepository.getPatientClinicalData(createContext(studyViewFilter), attributeIds);
     }
 
-    @Cacheable(
-        cacheResolver = "staticRepositoryCacheOneResolver",
-        condition = "@cacheEnabledConfig.getEnabledClickhouse() && @studyViewFilterUtil.isUnfilteredQuery(#studyViewFilter)"
-    )
+    @StudyViewFilterCacheable
     @Override
     public List<ClinicalData> getSampleClinicalData(StudyViewFilter studyViewFilter, List<String> attributeIds) {
         return studyViewRepository.getSampleClinicalData(createContext(studyViewFilter), attributeIds);
     }
 
-    @Cacheable(
-        cacheResolver = "staticRepositoryCacheOneResolver",
-        condition = "@cacheEnabledConfig.getEnabledClickhouse() && @studyViewFilterUtil.isUnfilteredQuery(#studyViewFilter)"
-    )
+    @StudyViewFilterCacheable
     @Override
     public List<GenomicDataCountItem> getCNACountsByGeneSpecific(StudyViewFilter studyViewFilter, List<GenomicDataFilter> genomicDataFilters) {
         return studyViewRepository.getCNACounts(createContext(studyViewFilter), genomicDataFilters);
     }
 
-    @Cacheable(
-        cacheResolver = "staticRepositoryCacheOneResolver",
-        condition = "@cacheEnabledConfig.getEnabledClickhouse() && @studyViewFilterUtil.isUnfilteredQuery(#studyViewFilter)"
-    )
+    @StudyViewFilterCacheable
     @Override
     public List<GenericAssayDataCountItem> getGenericAssayDataCounts(StudyViewFilter studyViewFilter, List<GenericAssayDataFilter> genericAssayDataFilters) {
         return studyViewRepository.getGenericAssayDataCounts(createContext(studyViewFilter), genericAssayDataFilters);
     }
     
-    @Cacheable(
-        cacheResolver = "staticRepositoryCacheOneResolver",
-        condition = "@cacheEnabledConfig.getEnabledClickhouse() && @studyViewFilterUtil.isUnfilteredQuery(#studyViewFilter)"
-    )
+    @StudyViewFilterCacheable
     @Override
     public List<GenomicDataCountItem> getMutationCountsByGeneSpecific(StudyViewFilter studyViewFilter, List<GenomicDataFilter> genomicDataFilters) {
         List<GenomicDataCountItem> genomicDataCountItemList = new ArrayList<>();
@@ -267,19 +217,13 @@ public class StudyViewColumnarServiceImpl implements StudyViewColumnarService {
         return genomicDataCountItemList;
     }
 
-    @Cacheable(
-        cacheResolver = "staticRepositoryCacheOneResolver",
-        condition = "@cacheEnabledConfig.getEnabledClickhouse() && @studyViewFilterUtil.isUnfilteredQuery(#studyViewFilter)"
-    )
+    @StudyViewFilterCacheable
     @Override
     public List<GenomicDataCountItem> getMutationTypeCountsByGeneSpecific(StudyViewFilter studyViewFilter, List<GenomicDataFilter> genomicDataFilters) {
         return studyViewRepository.getMutationCountsByType(createContext(studyViewFilter), genomicDataFilters);
     }
     
-    @Cacheable(
-        cacheResolver = "staticRepositoryCacheOneResolver",
-        condition = "@cacheEnabledConfig.getEnabledClickhouse() && @studyViewFilterUtil.isUnfilteredQuery(#studyViewFilter)"
-    )
+    @StudyViewFilterCacheable
     @Override
     public List<ClinicalData> fetchClinicalDataForXyPlot(
         StudyViewFilter studyViewFilter,
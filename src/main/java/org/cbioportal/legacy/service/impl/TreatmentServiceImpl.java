@@ -6,30 +6,30 @@ import org.cbioportal.legacy.model.ClinicalEventKeyCode;
 import org.cbioportal.legacy.model.ClinicalEventSample;
 import org.cbioportal.legacy.model.PatientTreatmentRow;
 import org.cbioportal.legacy.model.SampleTreatmentRow;
-import org.cbioportal.legacy.model.TemporalRelation;
 import org.cbioportal.legacy.model.Treatment;
 import org.cbioportal.legacy.persistence.TreatmentRepository;
 import org.cbioportal.legacy.service.TreatmentService;
+import org.cbioportal.legacy.service.util.TreatmentRollup;
+import org.cbioportal.legacy.service.util.TreatmentRollupStore;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Service
 public class TreatmentServiceImpl implements TreatmentService {
     @Autowired
     TreatmentRepository treatmentRepository;
+    @Autowired
+    TreatmentRollupStore treatmentRollupStore;
     
     private Pair<List<String>, List<String>> filterIds(List<String> sampleIds, List<String> studyIds, ClinicalEventKeyCode key) {
         if (sampleIds == null || studyIds == null || sampleIds.size() != studyIds.size()) {
             return new ImmutablePair<>(sampleIds, studyIds);
         }
-        Set<String> studiesWithTreatments = studyIds.stream()
-            .distinct()
-            .filter(studyId -> treatmentRepository.hasTreatmentData(Collections.singletonList(studyId), key))
-            .collect(Collectors.toSet());
+        Set<String> studiesWithTreatments = new HashSet<>(
+            treatmentRepository.getStudiesWithTreatmentData(studyIds.stream().distinct().collect(Collectors.toList()), key));
         
         ArrayList<String> filteredSampleIds = new ArrayList<>();
         ArrayList<String> filteredStudyIds = new ArrayList<>();
@@ -46,6 +46,15 @@ public class TreatmentServiceImpl implements TreatmentService {
 
     @Override
     public List<SampleTreatmentRow> getAllSampleTreatmentRows(List<String> sampleIds, List<String> studyIds, ClinicalEventKeyCode key) {
+        Map<String, SampleTreatmentRow> rows = new HashMap<>();
+        Optional<Map<String, TreatmentRollup>> storedRollups = getStoredRollups(studyIds, key);
+        if (storedRollups.isPresent()) {
+            Map<String, BitSet> samplesByStudy = getSamplesByStudy(sampleIds, studyIds, storedRollups.get());
+            storedRollups.get().forEach((studyId, rollup) ->
+                rollup.addSampleTreatmentRows(samplesByStudy.get(studyId), rows));
+            return new ArrayList<>(rows.values());
+        }
+
         Pair<List<String>, List<String>> filteredIds = filterIds(sampleIds, studyIds, key);
         sampleIds = filteredIds.getLeft();
         studyIds = filteredIds.getRight();
@@ -55,149 +64,99 @@ public class TreatmentServiceImpl implements TreatmentService {
         Map<String, List<Treatment>> treatmentsByPatient =
             treatmentRepository.getTreatmentsByPatientId(sampleIds, studyIds, key);
 
-        Stream<SampleTreatmentRow> rows = samplesByPatient.keySet().stream()
-            .flatMap(patientId -> getSampleTreatmentRowsForPatient(patientId, samplesByPatient, treatmentsByPatient))
-            .filter(row -> row.getCount() != 0);
-        return flattenRows(rows);
-    }
-    
-    private Stream<SampleTreatmentRow> getSampleTreatmentRowsForPatient(
-            String patientId,
-            Map<String, List<ClinicalEventSample>> samplesByPatient,
-            Map<String, List<Treatment>> treatmentsByPatient
-    ) {
-        List<Treatment> treatments = treatmentsByPatient.getOrDefault(patientId, new ArrayList<>());
-        List<ClinicalEventSample> samples = samplesByPatient.get(patientId);
-
-        Map<String, TreatmentRowTriplet> rows = new HashMap<>();
-
-        for (Treatment treatment : treatments) {
-            TreatmentRowTriplet triplet;
-            
-            if (!rows.containsKey(treatment.getTreatment())) {
-                triplet = new TreatmentRowTriplet(samples, treatment.getTreatment());
-                rows.put(treatment.getTreatment(), triplet);
-            } else {
-                triplet = rows.get(treatment.getTreatment());
-            }
-            
-            triplet.moveSamplesToPost(treatment);
-        }
-
-        return rows.values().stream().flatMap(TreatmentRowTriplet::toRows);
-    }
-
-    private List<SampleTreatmentRow> flattenRows(Stream<SampleTreatmentRow> rows) {
-        Map<String, SampleTreatmentRow> uniqueRows = new HashMap<>();
-        rows.forEach(rowToAdd -> {
-            if (uniqueRows.containsKey(rowToAdd.key())) {
-                uniqueRows.get(rowToAdd.key()).add(rowToAdd);
-            } else {
-                uniqueRows.put(rowToAdd.key(), rowToAdd);
-            }
-        });
-
-        return new ArrayList<>(uniqueRows.values());
+        // the queried treatments and samples are already those of the requested samples
+        getRollups(flatten(treatmentsByPatient), flatten(samplesByPatient), Collections.emptyList())
+            .forEach(rollup -> rollup.addSampleTreatmentRows(null, rows));
+        return new ArrayList<>(rows.values());
     }
 
-
-    /**
-     * For a given treatment, you can have samples that are taken
-     * before (pre), after (post), or that don't have a date (unknown)
-     * 
-     * This class accepts an initial list of samples and a treatment.
-     * At the start, all samples are considered pre, as there hasn't been
-     * any treatment start / stop times.
-     * 
-     * You then call moveSamplesToPost on this with a series of matching
-     * treatments. Each call will move samples taken 
-     */
-    private static class TreatmentRowTriplet {
-        private final Set<ClinicalEventSample> pre, post;
-        private final String treatment;
-
-        TreatmentRowTriplet(List<ClinicalEventSample> samples, String treatment) {
-            this.treatment = treatment;
-            post = new HashSet<>();
-            pre = samples.stream()
-                .filter(s -> s.getTimeTaken() != null)
-                .collect(Collectors.toSet());
-        }
-
-        /**
-         * Moves any samples marked as pre that were taken after the treatment
-         * started to post.
-         * 
-         * @param treatment a treatment with a start value. It is assumed that
-         *                  the treatment matches the treatment stored in this triplet
-         */
-        void moveSamplesToPost(Treatment treatment) {
-            for (Iterator<ClinicalEventSample> iterator = pre.iterator(); iterator.hasNext(); ) {
-                ClinicalEventSample clinicalEventSample = iterator.next();
-                // edge case: is a sample taken the same day a treatment starts pre or post?
-                // We're saying pre here
-                if (clinicalEventSample.getTimeTaken() > treatment.getStart()) {
-                    iterator.remove();
-                    post.add(clinicalEventSample);
-                }
-            }
-        }
-        
-        Stream<SampleTreatmentRow> toRows() {
-            return Stream.of(
-                    new SampleTreatmentRow(TemporalRelation.Pre, treatment, pre.size(), pre),
-                    new SampleTreatmentRow(TemporalRelation.Post, treatment, post.size(), post)
-                    // We made the decision to filter out unknown rows. I'm leaving this line of code
-                    // to document this decision.
-                    // new SampleTreatmentRow(TemporalRelation.Unknown, treatment, unknown.size(), unknown)
-            );
-        }
-    }
     @Override
     public List<PatientTreatmentRow> getAllPatientTreatmentRows(
         List<String> sampleIds, List<String> studyIds, ClinicalEventKeyCode key
     ) {
+        Map<String, PatientTreatmentRow> rows = new HashMap<>();
+        Optional<Map<String, TreatmentRollup>> storedRollups = getStoredRollups(studyIds, key);
+        if (storedRollups.isPresent()) {
+            Map<String, BitSet> samplesByStudy = getSamplesByStudy(sampleIds, studyIds, storedRollups.get());
+            storedRollups.get().forEach((studyId, rollup) ->
+                rollup.addPatientTreatmentRows(samplesByStudy.get(studyId), rows));
+            return new ArrayList<>(rows.values());
+        }
+
         Pair<List<String>, List<String>> filteredIds = filterIds(sampleIds, studyIds, key);
         sampleIds = filteredIds.getLeft();
         studyIds = filteredIds.getRight();
 
         Map<String, List<ClinicalEventSample>> samplesByPatient = treatmentRepository
             .getShallowSamplesByPatientId(sampleIds, studyIds);
+        List<Treatment> treatments = treatmentRepository.getTreatments(sampleIds, studyIds, key);
 
-        Map<String, List<Treatment>> treatmentSet = treatmentRepository.getTreatments(sampleIds, studyIds, key)
-            .stream()
-            .collect(Collectors.groupingBy(Treatment::getTreatment));
-
-        /*
-            This logic transforms treatmentSet to list of PatientTreatmentRow. transformation steps:
-            - key in treatmentSet is going to be treatment
-            - get all unique patient ids -> this is going to give count
-            - get all clinicalEventSamples using above unique patient ids
-         */
-        return treatmentSet.entrySet()
-            .stream()
-            .map(entry -> {
-                String treatment = entry.getKey();
-                Set<String> patientIds = entry.getValue().stream().map(Treatment::getPatientId).collect(Collectors.toSet());
-                Set<ClinicalEventSample> clinicalEventSamples = patientIds
-                    .stream()
-                    .flatMap(patientId -> samplesByPatient.getOrDefault(patientId, new ArrayList<>()).stream())
-                    .collect(Collectors.toSet());
-                return new PatientTreatmentRow(treatment, patientIds.size(), clinicalEventSamples);
-            })
-            .collect(Collectors.toList());
+        getRollups(treatments, Collections.emptyList(), flatten(samplesByPatient))
+            .forEach(rollup -> rollup.addPatientTreatmentRows(null, rows));
+        return new ArrayList<>(rows.values());
     }
 
     @Override
     public Boolean containsTreatmentData(List<String> studies, ClinicalEventKeyCode key) {
+        Optional<Map<String, TreatmentRollup>> storedRollups = getStoredRollups(studies, key);
+        if (storedRollups.isPresent()) {
+            return storedRollups.get().values().stream().anyMatch(TreatmentRollup::hasTreatments);
+        }
         return treatmentRepository.hasTreatmentData(studies, key);
     }
 
     @Override
     public Boolean containsSampleTreatmentData(List<String> studyIds, ClinicalEventKeyCode key) {
-        studyIds = studyIds.stream()
-            .filter(studyId -> treatmentRepository.hasTreatmentData(Collections.singletonList(studyId), key))
-            .collect(Collectors.toList());
+        Optional<Map<String, TreatmentRollup>> storedRollups = getStoredRollups(studyIds, key);
+        if (storedRollups.isPresent()) {
+            return storedRollups.get().values().stream()
+                .anyMatch(rollup -> rollup.hasTreatments() && rollup.hasTakenSamples());
+        }
+        studyIds = treatmentRepository.getStudiesWithTreatmentData(studyIds, key);
         return studyIds.size() > 0 && treatmentRepository.hasSampleTimelineData(studyIds);
     }
+
+    // the stored rollups cover whole studies, so they are only used when the studies are given
+    private Optional<Map<String, TreatmentRollup>> getStoredRollups(List<String> studyIds, ClinicalEventKeyCode key) {
+        if (studyIds == null) {
+            return Optional.empty();
+        }
+        return treatmentRollupStore.getRollups(studyIds, key);
+    }
+
+    // sample ordinals in the rollup of each study, null for all samples of the study if no samples are given
+    private Map<String, BitSet> getSamplesByStudy(List<String> sampleIds, List<String> studyIds,
+                                                  Map<String, TreatmentRollup> rollups) {
+        Map<String, BitSet> samplesByStudy = new HashMap<>();
+        if (sampleIds == null) {
+            return samplesByStudy;
+        }
+        Map<String, List<String>> sampleIdsByStudy = new HashMap<>();
+        for (int i = 0; i < sampleIds.size(); i++) {
+            sampleIdsByStudy.computeIfAbsent(studyIds.get(i), k -> new ArrayList<>()).add(sampleIds.get(i));
+        }
+        rollups.forEach((studyId, rollup) -> samplesByStudy.put(studyId,
+            rollup.getSampleOrdinals(sampleIdsByStudy.getOrDefault(studyId, Collections.emptyList()))));
+        return samplesByStudy;
+    }
+
+    private Collection<TreatmentRollup> getRollups(List<Treatment> treatments, List<ClinicalEventSample> takenSamples,
+                                                   List<ClinicalEventSample> patientSamples) {
+        Map<String, List<Treatment>> treatmentsByStudy = treatments.stream()
+            .collect(Collectors.groupingBy(Treatment::getStudyId));
+        Map<String, List<ClinicalEventSample>> takenSamplesByStudy = takenSamples.stream()
+            .collect(Collectors.groupingBy(ClinicalEventSample::getStudyId));
+        Map<String, List<ClinicalEventSample>> patientSamplesByStudy = patientSamples.stream()
+            .collect(Collectors.groupingBy(ClinicalEventSample::getStudyId));
+        // only the studies with treatments have rows
+        return treatmentsByStudy.entrySet().stream()
+            .map(entry -> new TreatmentRollup(entry.getValue(),
+                takenSamplesByStudy.getOrDefault(entry.getKey(), Collections.emptyList()),
+                patientSamplesByStudy.getOrDefault(entry.getKey(), Collections.emptyList())))
+            .collect(Collectors.toList());
+    }
+
+    private static <T> List<T> flatten(Map<String, List<T>> valuesByPatient) {
+        return valuesByPatient.values().stream().flatMap(List::stream).collect(Collectors.toList());
+    }
 }
@@ -1,6 +1,5 @@
 package org.cbioportal.legacy.service.util;
 
-import org.apache.commons.math3.stat.inference.ChiSquareTest;
 import org.apache.commons.math3.util.Pair;
 import org.cbioportal.legacy.model.AlterationCountBase;
 import org.cbioportal.legacy.model.AlterationCountByGene;
@@ -75,7 +74,7 @@ public class AlterationEnrichmentUtil<T extends AlterationCountBase> {
                 .collect(Collectors.toList()),
             "ENTREZ_GENE_ID",
             "SUMMARY");
-        return genes
+        List<AlterationEnrichment> alterationEnrichments = genes
             .stream()
             .filter(gene -> {
                 // filter genes where number of altered cases in all groups is 0
@@ -109,54 +108,63 @@ public class AlterationEnrichmentUtil<T extends AlterationCountBase> {
                     groupCasesCount.setProfiledCount(profiledCount);
                     return groupCasesCount;
                 }).collect(Collectors.toList());
-                List<CountSummary> filteredCounts = counts.stream()
-                    .filter(groupCasesCount -> groupCasesCount.getProfiledCount() > 0)
-                    .collect(Collectors.toList());
-
-                // groups where number of altered cases is greater than profiled cases.
-                // This is a temporary fix for https://github.com/cBioPortal/cbioportal/issues/7274
-                // and https://github.com/cBioPortal/cbioportal/issues/7418
-                long invalidDataGroups = filteredCounts
-                    .stream()
-                    .filter(groupCasesCount -> groupCasesCount.getAlteredCount() > groupCasesCount.getProfiledCount())
-                    .count();
-
-                // calculate p-value only if more than one group have profile cases count
-                // greater than 0
-                if (filteredCounts.size() > 1 && invalidDataGroups == 0) {
-                    double pValue;
-                    // if groups size is two do Fisher Exact test else do Chi-Square test
-                    if (groups.size() == 2) {
-
-                        int alteredInNoneCount = counts.get(1).getProfiledCount() - counts.get(1).getAlteredCount();
-                        int alteredOnlyInQueryGenesCount = counts.get(0).getProfiledCount()
-                            - counts.get(0).getAlteredCount();
-
-                        pValue = fisherExactTestCalculator.getTwoTailedPValue(alteredInNoneCount,
-                            counts.get(1).getAlteredCount(), alteredOnlyInQueryGenesCount,
-                            counts.get(0).getAlteredCount());
-                    } else {
-
-                        long[][] array = counts.stream().map(count -> {
-                            return new long[]{count.getAlteredCount(),
-                                count.getProfiledCount() - count.getAlteredCount()};
-                        }).toArray(long[][]::new);
-
-                        ChiSquareTest chiSquareTest = new ChiSquareTest();
-                        pValue = chiSquareTest.chiSquareTest(array);
-
-                        // set p-value to 1 when the cases in all groups are altered
-                        if (Double.isNaN(pValue)) {
-                            pValue = 1;
-                        }
-                    }
-                    alterationEnrichment.setpValue(BigDecimal.valueOf(pValue));
-                }
-
                 alterationEnrichment.setCounts(counts);
                 return alterationEnrichment;
             }).collect(Collectors.toList());
 
+        // the p-values are computed in bulk, which spreads the tests over the available cores for large gene lists
+        List<AlterationEnrichment> testedAlterationEnrichments = new ArrayList<>();
+        for (AlterationEnrichment alterationEnrichment : alterationEnrichments) {
+            List<CountSummary> filteredCounts = alterationEnrichment.getCounts().stream()
+                .filter(groupCasesCount -> groupCasesCount.getProfiledCount() > 0)
+                .collect(Collectors.toList());
+
+            // groups where number of altered cases is greater than profiled cases.
+            // This is a temporary fix for https://github.com/cBioPortal/cbioportal/issues/7274
+            // and https://github.com/cBioPortal/cbioportal/issues/7418
+            long invalidDataGroups = filteredCounts
+                .stream()
+                .filter(groupCasesCount -> groupCasesCount.getAlteredCount() > groupCasesCount.getProfiledCount())
+                .count();
+
+            // calculate p-value only if more than one group have profile cases count
+            // greater than 0
+            if (filteredCounts.size() > 1 && invalidDataGroups == 0) {
+                testedAlterationEnrichments.add(alterationEnrichment);
+            }
+        }
+
+        double[] pValues;
+        // if groups size is two do Fisher Exact test else do Chi-Square test
+        if (groups.size() == 2) {
+            int[][] tables = testedAlterationEnrichments.stream().map(alterationEnrichment -> {
+                List<CountSummary> counts = alterationEnrichment.getCounts();
+                int alteredInNoneCount = counts.get(1).getProfiledCount() - counts.get(1).getAlteredCount();
+                int alteredOnlyInQueryGenesCount = counts.get(0).getProfiledCount()
+                    - counts.get(0).getAlteredCount();
+                return new int[]{alteredInNoneCount, counts.get(1).getAlteredCount(), alteredOnlyInQueryGenesCount,
+                    counts.get(0).getAlteredCount()};
+            }).toArray(int[][]::new);
+            pValues = tables.length == 0 ? new double[0] : fisherExactTestCalculator.getTwoTailedPValues(tables);
+        } else {
+            long[][][] tables = testedAlterationEnrichments.stream().map(alterationEnrichment ->
+                alterationEnrichment.getCounts().stream().map(count -> {
+                    return new long[]{count.getAlteredCount(),
+                        count.getProfiledCount() - count.getAlteredCount()};
+                }).toArray(long[][]::new)
+            ).toArray(long[][][]::new);
+            pValues = ContingencyTableStatistics.getChiSquarePValues(tables);
+        }
+
+        for (int i = 0; i < pValues.length; i++) {
+            double pValue = pValues[i];
+            // set p-value to 1 when the cases in all groups are altered
+            if (Double.isNaN(pValue)) {
+                pValue = 1;
+            }
+            testedAlterationEnrichments.get(i).setpValue(BigDecimal.valueOf(pValue));
+        }
+        return alterationEnrichments;
     }
     
     public long includeFrequencyForSamples(
@@ -0,0 +1,245 @@
+package org.cbioportal.legacy.service.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import jakarta.annotation.PostConstruct;
+import org.cbioportal.legacy.model.ClinicalData;
+import org.cbioportal.legacy.persistence.ClinicalDataRepository;
+import org.cbioportal.legacy.persistence.util.GuavaCacheUtils;
+import org.cbioportal.legacy.service.StaticDataTimestampService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory trigram index of the values that the clinical data table search matches, per study: the sample and
+ * patient ids and the sample and patient clinical data of every sample. A search intersects the samples of the
+ * trigrams of the search term and checks the remaining candidates for the whole term, instead of scanning all
+ * clinical data in the database with LIKE.
+ *
+ * Matching is case insensitive, as with the case insensitive collations of the database. Accented characters only
+ * match themselves, and search terms with LIKE wildcards are left to the database.
+ *
+ * The indexes are built when a study is first searched, kept up to a total size in memory, and rebuilt when the
+ * static data timestamps of the clinical data tables change.
+ */
+@Component
+public class ClinicalDataSearchIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ClinicalDataSearchIndex.class);
+    private static final List<String> TABLES = Arrays.asList("clinical_sample", "clinical_patient", "sample", "patient");
+    private static final int GRAM_LENGTH = 3;
+    // cannot occur in a search term that is not left to the database
+    private static final char VALUE_SEPARATOR = '\u0000';
+
+    @Value("${clinical_data_search.index.enabled:false}")
+    private boolean enabled;
+
+    @Value("${clinical_data_search.index.max_mega_bytes:256}")
+    private long maxMegaBytes;
+
+    @Autowired
+    private ClinicalDataRepository clinicalDataRepository;
+
+    @Autowired
+    private StaticDataTimestampService staticDataTimestampService;
+
+    private Cache<String, StudyIndex> studyIndexes;
+
+    @PostConstruct
+    public void init() {
+        studyIndexes = CacheBuilder.newBuilder()
+            .maximumWeight(maxMegaBytes * 1024 * 1024)
+            .weigher((String studyId, StudyIndex studyIndex) -> studyIndex.estimatedBytes())
+            .build();
+    }
+
+    /**
+     * @return the internal ids of the samples of the studies with a value that contains the search term, or null if
+     * the search has to be done by the database
+     */
+    public BitSet search(Collection<String> studyIds, String searchTerm) {
+        if (!enabled || searchTerm.indexOf('%') >= 0 || searchTerm.indexOf('_') >= 0 ||
+            searchTerm.indexOf(VALUE_SEPARATOR) >= 0) {
+            return null;
+        }
+        String version = staticDataTimestampService.getVersion(TABLES);
+        if (version == null) {
+            return null;
+        }
+        String term = searchTerm.toLowerCase(Locale.ROOT);
+        BitSet sampleInternalIds = new BitSet();
+        for (String studyId : new LinkedHashSet<>(studyIds)) {
+            getStudyIndex(studyId, version).search(term, sampleInternalIds);
+        }
+        return sampleInternalIds;
+    }
+
+    private StudyIndex getStudyIndex(String studyId, String version) {
+        StudyIndex studyIndex = studyIndexes.getIfPresent(studyId);
+        if (studyIndex != null && !studyIndex.version.equals(version)) {
+            studyIndexes.asMap().remove(studyId, studyIndex);
+        }
+        // concurrent searches of a study that is not indexed yet wait for a single build
+        return GuavaCacheUtils.get(studyIndexes, studyId, () -> build(studyId, version));
+    }
+
+    private StudyIndex build(String studyId, String version) {
+        long start = System.currentTimeMillis();
+        // like the database search, which joins both, only samples with sample and patient clinical data are found
+        Map<Integer, Set<String>> sampleValues = new LinkedHashMap<>();
+        for (ClinicalData clinicalData : clinicalDataRepository.getSampleClinicalDataOfStudyBySample(studyId)) {
+            addValues(sampleValues, clinicalData);
+        }
+        Map<Integer, Set<String>> values = new LinkedHashMap<>();
+        for (ClinicalData clinicalData : clinicalDataRepository.getPatientClinicalDataOfStudyBySample(studyId)) {
+            if (sampleValues.containsKey(clinicalData.getInternalId())) {
+                values.computeIfAbsent(clinicalData.getInternalId(), sampleValues::get);
+                addValues(values, clinicalData);
+            }
+        }
+        StudyIndex studyIndex = new StudyIndex(version, values);
+        LOG.info("Built clinical data search index of study {} with {} samples in {} ms", studyId,
+            studyIndex.sampleInternalIds.length, System.currentTimeMillis() - start);
+        return studyIndex;
+    }
+
+    private static void addValues(Map<Integer, Set<String>> values, ClinicalData clinicalData) {
+        Set<String> sampleValues = values.computeIfAbsent(clinicalData.getInternalId(), k -> new LinkedHashSet<>());
+        sampleValues.add(clinicalData.getSampleId());
+        sampleValues.add(clinicalData.getPatientId());
+        if (clinicalData.getAttrValue() != null) {
+            sampleValues.add(clinicalData.getAttrValue());
+        }
+    }
+
+    static class StudyIndex {
+
+        private final String version;
+        private final int[] sampleInternalIds;
+        // the lower case values of each sample, separated so that no match spans two values
+        private final String[] sampleTexts;
+        // the indexes of the samples with each trigram, in ascending order
+        private final Map<Long, int[]> postings;
+
+        StudyIndex(String version, Map<Integer, Set<String>> values) {
+            this.version = version;
+            sampleInternalIds = new int[values.size()];
+            sampleTexts = new String[values.size()];
+            Map<Long, GrowingIntArray> growingPostings = new HashMap<>();
+            int sample = 0;
+            for (Map.Entry<Integer, Set<String>> entry : values.entrySet()) {
+                sampleInternalIds[sample] = entry.getKey();
+                sampleTexts[sample] = String.join(String.valueOf(VALUE_SEPARATOR), entry.getValue())
+                    .toLowerCase(Locale.ROOT);
+                for (long gram : grams(sampleTexts[sample])) {
+                    growingPostings.computeIfAbsent(gram, k -> new GrowingIntArray()).add(sample);
+                }
+                sample++;
+            }
+            postings = new HashMap<>(growingPostings.size() * 4 / 3 + 1);
+            growingPostings.forEach((gram, samples) -> postings.put(gram, samples.toArray()));
+        }
+
+        void search(String term, BitSet sampleInternalIds) {
+            for (int sample : candidates(term)) {
+                if (sampleTexts[sample].contains(term)) {
+                    sampleInternalIds.set(this.sampleInternalIds[sample]);
+                }
+            }
+        }
+
+        private int[] candidates(String term) {
+            if (term.length() < GRAM_LENGTH) {
+                int[] all = new int[sampleTexts.length];
+                Arrays.setAll(all, i -> i);
+                return all;
+            }
+            List<int[]> termPostings = new ArrayList<>();
+            for (long gram : grams(term)) {
+                int[] samples = postings.get(gram);
+                if (samples == null) {
+                    return new int[0];
+                }
+                termPostings.add(samples);
+            }
+            termPostings.sort((a, b) -> Integer.compare(a.length, b.length));
+            int[] candidates = termPostings.getFirst();
+            for (int i = 1; i < termPostings.size() && candidates.length > 0; i++) {
+                candidates = intersect(candidates, termPostings.get(i));
+            }
+            return candidates;
+        }
+
+        int estimatedBytes() {
+            long bytes = (long) sampleInternalIds.length * Integer.BYTES;
+            for (String sampleText : sampleTexts) {
+                bytes += 40L + (long) sampleText.length() * Character.BYTES;
+            }
+            for (int[] samples : postings.values()) {
+                // map entry, boxed key and array header
+                bytes += 80L + (long) samples.length * Integer.BYTES;
+            }
+            return (int) Math.min(Integer.MAX_VALUE, bytes);
+        }
+
+        private static Set<Long> grams(String text) {
+            Set<Long> grams = new LinkedHashSet<>();
+            for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+                long gram = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+                grams.add(gram);
+            }
+            return grams;
+        }
+
+        private static int[] intersect(int[] a, int[] b) {
+            int[] intersection = new int[Math.min(a.length, b.length)];
+            int size = 0;
+            int i = 0;
+            int j = 0;
+            while (i < a.length && j < b.length) {
+                if (a[i] < b[j]) {
+                    i++;
+                } else if (a[i] > b[j]) {
+                    j++;
+                } else {
+                    intersection[size++] = a[i];
+                    i++;
+                    j++;
+                }
+            }
+            return Arrays.copyOf(intersection, size);
+        }
+    }
+
+    private static class GrowingIntArray {
+
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
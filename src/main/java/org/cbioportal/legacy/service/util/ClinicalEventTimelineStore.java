@@ -0,0 +1,401 @@
+package org.cbioportal.legacy.service.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import jakarta.annotation.PostConstruct;
+import org.cbioportal.legacy.model.ClinicalEvent;
+import org.cbioportal.legacy.model.ClinicalEventData;
+import org.cbioportal.legacy.persistence.ClinicalEventRepository;
+import org.cbioportal.legacy.persistence.util.GuavaCacheUtils;
+import org.cbioportal.legacy.service.StaticDataTimestampService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * In-memory copy of the clinical events of each study in primitive columns, so that the timeline queries of survival
+ * plots and the event type counts are answered without the database. The event types, keys and values are stored as
+ * ids of per-study dictionaries, and the events are sorted by patient ordinal with the data of each event next to
+ * each other.
+ *
+ * Event types, keys and values are compared case insensitively, as with the case insensitive collations of the
+ * database.
+ *
+ * The timelines are loaded when a study is first queried, kept up to a total size in memory, and reloaded when the
+ * static data timestamps of the clinical event tables change.
+ */
+@Component
+public class ClinicalEventTimelineStore {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ClinicalEventTimelineStore.class);
+    private static final List<String> TABLES = Arrays.asList("clinical_event", "clinical_event_data", "patient");
+    // stop date of the events without one, which no real date reaches
+    private static final int NO_DATE = Integer.MIN_VALUE;
+
+    @Value("${clinical_event_timeline.store.enabled:false}")
+    private boolean enabled;
+
+    @Value("${clinical_event_timeline.store.max_mega_bytes:256}")
+    private long maxMegaBytes;
+
+    @Autowired
+    private ClinicalEventRepository clinicalEventRepository;
+
+    @Autowired
+    private StaticDataTimestampService staticDataTimestampService;
+
+    private Cache<String, StudyTimelines> studyTimelines;
+
+    @PostConstruct
+    public void init() {
+        studyTimelines = CacheBuilder.newBuilder()
+            .maximumWeight(maxMegaBytes * 1024 * 1024)
+            .weigher((String studyId, StudyTimelines timelines) -> timelines.estimatedBytes())
+            .build();
+    }
+
+    /**
+     * @return the timelines of the studies, which answer all queries of a request with the same data, or null if the
+     * queries have to be done by the database
+     */
+    public Timelines getTimelines(Collection<String> studyIds) {
+        if (!enabled) {
+            return null;
+        }
+        String version = staticDataTimestampService.getVersion(TABLES);
+        if (version == null) {
+            return null;
+        }
+        Map<String, StudyTimelines> timelines = new HashMap<>();
+        for (String studyId : new LinkedHashSet<>(studyIds)) {
+            timelines.put(studyId, getStudyTimelines(studyId, version));
+        }
+        return new Timelines(timelines);
+    }
+
+    private StudyTimelines getStudyTimelines(String studyId, String version) {
+        StudyTimelines timelines = studyTimelines.getIfPresent(studyId);
+        if (timelines != null && !timelines.version.equals(version)) {
+            studyTimelines.asMap().remove(studyId, timelines);
+        }
+        // concurrent queries of a study that is not loaded yet wait for a single load
+        return GuavaCacheUtils.get(studyTimelines, studyId, () -> load(studyId, version));
+    }
+
+    private StudyTimelines load(String studyId, String version) {
+        long start = System.currentTimeMillis();
+        StudyTimelines timelines = new StudyTimelines(version, clinicalEventRepository.getClinicalEventsOfStudy(studyId),
+            clinicalEventRepository.getDataOfClinicalEventsOfStudy(studyId));
+        LOG.info("Loaded clinical event timelines of study {} with {} patients and {} events in {} ms", studyId,
+            timelines.patientIds.size(), timelines.eventTypes.length, System.currentTimeMillis() - start);
+        return timelines;
+    }
+
+    public static class Timelines {
+
+        private final Map<String, StudyTimelines> studyTimelines;
+
+        Timelines(Map<String, StudyTimelines> studyTimelines) {
+            this.studyTimelines = studyTimelines;
+        }
+
+        /**
+         * Same as {@link ClinicalEventRepository#getTimelineEvents}: for every patient with matching events that have
+         * data, the first start date and the last start or stop date of these events.
+         *
+         * @param studyIds the study of each patient, or all studies to query if patientIds is null
+         * @param clinicalEvents the event types to match, with the key and value of the data of which one must match
+         * if attributes are given. All events match if there are none.
+         */
+        public List<ClinicalEvent> getTimelineEvents(List<String> studyIds, List<String> patientIds,
+                                                     List<ClinicalEvent> clinicalEvents) {
+            List<ClinicalEvent> timelineEvents = new ArrayList<>();
+            Map<String, BitSet> patientsByStudy = getPatientsByStudy(studyIds, patientIds);
+            patientsByStudy.forEach((studyId, patients) ->
+                studyTimelines.get(studyId).addTimelineEvents(studyId, patients, clinicalEvents, timelineEvents));
+            return timelineEvents;
+        }
+
+        /**
+         * @return the number of patients with events of each type, like the database which counts patients per event
+         * type whatever the case of the type
+         */
+        public Map<String, Integer> getPatientCountsPerEventType(List<String> studyIds, List<String> patientIds) {
+            Map<String, Integer> counts = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            getPatientsByStudy(studyIds, patientIds).forEach((studyId, patients) ->
+                studyTimelines.get(studyId).addPatientCountsPerEventType(patients, counts));
+            return counts;
+        }
+
+        // patient ordinals to query in each study, all patients of the studies if patientIds is null
+        private Map<String, BitSet> getPatientsByStudy(List<String> studyIds, List<String> patientIds) {
+            Map<String, BitSet> patientsByStudy = new HashMap<>();
+            if (patientIds == null) {
+                for (String studyId : studyIds) {
+                    StudyTimelines timelines = studyTimelines.get(studyId);
+                    BitSet patients = new BitSet(timelines.patientIds.size());
+                    patients.set(0, timelines.patientIds.size());
+                    patientsByStudy.put(studyId, patients);
+                }
+                return patientsByStudy;
+            }
+            for (int i = 0; i < patientIds.size(); i++) {
+                String studyId = studyIds.get(i);
+                StudyTimelines timelines = studyTimelines.get(studyId);
+                Integer patient = timelines.patientIds.find(patientIds.get(i));
+                BitSet patients = patientsByStudy.computeIfAbsent(studyId, k -> new BitSet());
+                // patients without events are not in the study timelines
+                if (patient != null) {
+                    patients.set(patient);
+                }
+            }
+            return patientsByStudy;
+        }
+    }
+
+    static class StudyTimelines {
+
+        private final String version;
+        private final Dictionary patientIds = new Dictionary(false);
+        // one spelling of each event type, key and value, with an id
+        private final Dictionary types = new Dictionary(true);
+        private final Dictionary keys = new Dictionary(true);
+        private final Dictionary values = new Dictionary(true);
+        // the events of patient p are those from patientEventOffsets[p] to patientEventOffsets[p + 1]
+        private final int[] patientEventOffsets;
+        private final int[] eventTypes;
+        private final int[] eventStartDates;
+        private final int[] eventStopDates;
+        // the data of event e is the one from eventDataOffsets[e] to eventDataOffsets[e + 1]
+        private final int[] eventDataOffsets;
+        private final int[] dataKeys;
+        private final int[] dataValues;
+
+        StudyTimelines(String version, List<ClinicalEvent> clinicalEvents, List<ClinicalEventData> clinicalEventData) {
+            this.version = version;
+
+            int eventCount = clinicalEvents.size();
+            Map<Integer, Integer> eventIndexes = new HashMap<>(eventCount * 4 / 3 + 1);
+            int[] eventPatients = new int[eventCount];
+            for (int i = 0; i < eventCount; i++) {
+                ClinicalEvent clinicalEvent = clinicalEvents.get(i);
+                eventIndexes.put(clinicalEvent.getClinicalEventId(), i);
+                eventPatients[i] = patientIds.getId(clinicalEvent.getPatientId());
+            }
+            int patientCount = patientIds.size();
+
+            // counting sort of the events by patient
+            patientEventOffsets = new int[patientCount + 1];
+            for (int patient : eventPatients) {
+                patientEventOffsets[patient + 1]++;
+            }
+            for (int patient = 0; patient < patientCount; patient++) {
+                patientEventOffsets[patient + 1] += patientEventOffsets[patient];
+            }
+            int[] nextEventOfPatient = Arrays.copyOf(patientEventOffsets, patientCount);
+            int[] sortedEvents = new int[eventCount];
+            eventTypes = new int[eventCount];
+            eventStartDates = new int[eventCount];
+            eventStopDates = new int[eventCount];
+            for (int i = 0; i < eventCount; i++) {
+                int event = nextEventOfPatient[eventPatients[i]]++;
+                sortedEvents[i] = event;
+                ClinicalEvent clinicalEvent = clinicalEvents.get(i);
+                eventTypes[event] = types.getId(clinicalEvent.getEventType());
+                eventStartDates[event] = clinicalEvent.getStartDate();
+                eventStopDates[event] = clinicalEvent.getStopDate() == null ? NO_DATE : clinicalEvent.getStopDate();
+            }
+
+            eventDataOffsets = new int[eventCount + 1];
+            int[] dataEvents = new int[clinicalEventData.size()];
+            for (int i = 0; i < dataEvents.length; i++) {
+                Integer eventIndex = eventIndexes.get(clinicalEventData.get(i).getClinicalEventId());
+                // the events may have changed between the two queries
+                dataEvents[i] = eventIndex == null ? -1 : sortedEvents[eventIndex];
+                if (dataEvents[i] >= 0) {
+                    eventDataOffsets[dataEvents[i] + 1]++;
+                }
+            }
+            for (int event = 0; event < eventCount; event++) {
+                eventDataOffsets[event + 1] += eventDataOffsets[event];
+            }
+            int[] nextDataOfEvent = Arrays.copyOf(eventDataOffsets, eventCount);
+            dataKeys = new int[eventDataOffsets[eventCount]];
+            dataValues = new int[eventDataOffsets[eventCount]];
+            for (int i = 0; i < dataEvents.length; i++) {
+                if (dataEvents[i] >= 0) {
+                    int data = nextDataOfEvent[dataEvents[i]]++;
+                    dataKeys[data] = keys.getId(clinicalEventData.get(i).getKey());
+                    dataValues[data] = values.getId(clinicalEventData.get(i).getValue());
+                }
+            }
+        }
+
+        void addTimelineEvents(String studyId, BitSet patients, List<ClinicalEvent> clinicalEvents,
+                               List<ClinicalEvent> timelineEvents) {
+            EventMatcher eventMatcher = new EventMatcher(clinicalEvents);
+            for (int patient = patients.nextSetBit(0); patient >= 0; patient = patients.nextSetBit(patient + 1)) {
+                boolean found = false;
+                int minStartDate = Integer.MAX_VALUE;
+                int maxStartDate = Integer.MIN_VALUE;
+                int maxStopDate = NO_DATE;
+                for (int event = patientEventOffsets[patient]; event < patientEventOffsets[patient + 1]; event++) {
+                    // like the inner join of the database, events without data are left out
+                    if (eventDataOffsets[event] == eventDataOffsets[event + 1] || !eventMatcher.matches(event)) {
+                        continue;
+                    }
+                    found = true;
+                    minStartDate = Math.min(minStartDate, eventStartDates[event]);
+                    maxStartDate = Math.max(maxStartDate, eventStartDates[event]);
+                    maxStopDate = Math.max(maxStopDate, eventStopDates[event]);
+                }
+                if (found) {
+                    ClinicalEvent timelineEvent = new ClinicalEvent();
+                    timelineEvent.setStudyId(studyId);
+                    timelineEvent.setPatientId(patientIds.get(patient));
+                    timelineEvent.setStartDate(minStartDate);
+                    // GREATEST(MAX(START_DATE), COALESCE(MAX(STOP_DATE), 0))
+                    timelineEvent.setStopDate(Math.max(maxStartDate, maxStopDate == NO_DATE ? 0 : maxStopDate));
+                    timelineEvents.add(timelineEvent);
+                }
+            }
+        }
+
+        void addPatientCountsPerEventType(BitSet patients, Map<String, Integer> counts) {
+            BitSet patientTypes = new BitSet(types.size());
+            for (int patient = patients.nextSetBit(0); patient >= 0; patient = patients.nextSetBit(patient + 1)) {
+                patientTypes.clear();
+                for (int event = patientEventOffsets[patient]; event < patientEventOffsets[patient + 1]; event++) {
+                    patientTypes.set(eventTypes[event]);
+                }
+                for (int type = patientTypes.nextSetBit(0); type >= 0; type = patientTypes.nextSetBit(type + 1)) {
+                    counts.merge(types.get(type), 1, Integer::sum);
+                }
+            }
+        }
+
+        int estimatedBytes() {
+            long bytes = (long) Integer.BYTES * (patientEventOffsets.length + eventTypes.length +
+                eventStartDates.length + eventStopDates.length + eventDataOffsets.length + dataKeys.length +
+                dataValues.length);
+            for (Dictionary dictionary : List.of(patientIds, types, keys, values)) {
+                bytes += dictionary.estimatedBytes();
+            }
+            return (int) Math.min(Integer.MAX_VALUE, bytes);
+        }
+
+        private class EventMatcher {
+
+            private final boolean matchesAll;
+            // event types that match whatever their data
+            private final BitSet matchedTypes = new BitSet();
+            // for the event types that match on their data: the pairs of key and value ids that match
+            private final Map<Integer, Set<Long>> matchedData = new HashMap<>();
+
+            EventMatcher(List<ClinicalEvent> clinicalEvents) {
+                matchesAll = clinicalEvents.isEmpty();
+                for (ClinicalEvent clinicalEvent : clinicalEvents) {
+                    Integer type = types.find(clinicalEvent.getEventType());
+                    if (type == null) {
+                        continue;
+                    }
+                    if (clinicalEvent.getAttributes() == null || clinicalEvent.getAttributes().isEmpty()) {
+                        matchedTypes.set(type);
+                        continue;
+                    }
+                    Set<Long> pairs = matchedData.computeIfAbsent(type, k -> new HashSet<>());
+                    for (ClinicalEventData attribute : clinicalEvent.getAttributes()) {
+                        Integer key = keys.find(attribute.getKey());
+                        Integer value = values.find(attribute.getValue());
+                        if (key != null && value != null) {
+                            pairs.add(pair(key, value));
+                        }
+                    }
+                }
+            }
+
+            boolean matches(int event) {
+                if (matchesAll || matchedTypes.get(eventTypes[event])) {
+                    return true;
+                }
+                Set<Long> pairs = matchedData.get(eventTypes[event]);
+                if (pairs == null) {
+                    return false;
+                }
+                for (int data = eventDataOffsets[event]; data < eventDataOffsets[event + 1]; data++) {
+                    if (pairs.contains(pair(dataKeys[data], dataValues[data]))) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            private long pair(int key, int value) {
+                return ((long) key << 32) | value;
+            }
+        }
+    }
+
+    private static class Dictionary {
+
+        private final boolean caseInsensitive;
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        Dictionary(boolean caseInsensitive) {
+            this.caseInsensitive = caseInsensitive;
+        }
+
+        int getId(String value) {
+            String key = toKey(value);
+            Integer id = ids.get(key);
+            if (id == null) {
+                id = values.size();
+                ids.put(key, id);
+                values.add(value);
+            }
+            return id;
+        }
+
+        // null if the dictionary does not have the value
+        Integer find(String value) {
+            return value == null ? null : ids.get(toKey(value));
+        }
+
+        String get(int id) {
+            return values.get(id);
+        }
+
+        int size() {
+            return values.size();
+        }
+
+        long estimatedBytes() {
+            // the value, its key if it differs and the map entry
+            long bytes = 0;
+            for (String value : values) {
+                bytes += 120L + (long) value.length() * Character.BYTES * (caseInsensitive ? 2 : 1);
+            }
+            return bytes;
+        }
+
+        private String toKey(String value) {
+            return caseInsensitive ? value.toLowerCase(Locale.ROOT) : value;
+        }
+    }
+}
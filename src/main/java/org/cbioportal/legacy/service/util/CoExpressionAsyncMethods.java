@@ -8,8 +8,8 @@ import org.apache.commons.math3.linear.Array2DRowRealMatrix;
 import org.apache.commons.math3.linear.RealMatrix;
 import org.apache.commons.math3.stat.correlation.SpearmansCorrelation;
 
+import java.util.Arrays;
 import java.util.List;
-import java.util.ArrayList;
 import java.util.Iterator;
 import java.math.BigDecimal;
 import java.util.concurrent.CompletableFuture;
@@ -20,29 +20,42 @@ public class CoExpressionAsyncMethods {
     @Async
     public CompletableFuture<CoExpression> computeCoExpression(String entityId, List<String> valuesA, List<String> valuesB, Double threshold) {
 
-        List<String> valuesACopy = new ArrayList<>(valuesA);
-        List<String> valuesBCopy = new ArrayList<>(valuesB);
-
-        Iterator<String> itA = valuesACopy.listIterator();
-        Iterator<String> itB = valuesBCopy.listIterator();
-        while (itA.hasNext() && itB.hasNext()) {
-            if (!NumberUtils.isCreatable(itA.next()) | !NumberUtils.isCreatable(itB.next())) {
-                itA.remove();
-                itB.remove();
-            }
+        double[] valuesANumber = new double[Math.min(valuesA.size(), valuesB.size())];
+        double[] valuesBNumber = new double[valuesANumber.length];
+        Iterator<String> itA = valuesA.iterator();
+        Iterator<String> itB = valuesB.iterator();
+        for (int i = 0; i < valuesANumber.length; i++) {
+            valuesANumber[i] = toDouble(itA.next());
+            valuesBNumber[i] = toDouble(itB.next());
         }
 
-        CoExpression coExpression = new CoExpression();
-        coExpression.setGeneticEntityId(entityId);
+        return toFuture(calculateCoExpression(entityId, valuesANumber, valuesBNumber, threshold.doubleValue()));
+    }
+
+    private CoExpression calculateCoExpression(String entityId, double[] valuesA, double[] valuesB, double threshold) {
 
-        double[] valuesBNumber = valuesBCopy.stream().mapToDouble(Double::parseDouble).toArray();
-        double[] valuesANumber = valuesACopy.stream().mapToDouble(Double::parseDouble).toArray();
+        int size = Math.min(valuesA.length, valuesB.length);
+        double[] valuesANumber = new double[size];
+        double[] valuesBNumber = new double[size];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (!Double.isNaN(valuesA[i]) && !Double.isNaN(valuesB[i])) {
+                valuesANumber[count] = valuesA[i];
+                valuesBNumber[count] = valuesB[i];
+                count++;
+            }
+        }
 
-        if (valuesANumber.length <= 2) {
+        if (count <= 2) {
             return null;
         }
+        valuesANumber = Arrays.copyOf(valuesANumber, count);
+        valuesBNumber = Arrays.copyOf(valuesBNumber, count);
 
-        double[][] arrays = new double[2][valuesANumber.length];
+        CoExpression coExpression = new CoExpression();
+        coExpression.setGeneticEntityId(entityId);
+
+        double[][] arrays = new double[2][count];
         arrays[0] = valuesBNumber;
         arrays[1] = valuesANumber;
         SpearmansCorrelation spearmansCorrelation = new SpearmansCorrelation((new Array2DRowRealMatrix(arrays, false)).transpose());
@@ -56,7 +69,15 @@ public class CoExpressionAsyncMethods {
         RealMatrix resultMatrix = spearmansCorrelation.getRankCorrelation().getCorrelationPValues();
         coExpression.setpValue(BigDecimal.valueOf(resultMatrix.getEntry(0, 1)));
 
-        return CompletableFuture.supplyAsync(() -> coExpression);
+        return coExpression;
+    }
+
+    private CompletableFuture<CoExpression> toFuture(CoExpression coExpression) {
+        return coExpression == null ? null : CompletableFuture.completedFuture(coExpression);
+    }
+
+    private double toDouble(String value) {
+        return NumberUtils.isCreatable(value) ? Double.parseDouble(value) : Double.NaN;
     }
 
 }
@@ -0,0 +1,362 @@
+package org.cbioportal.legacy.service.util;
+
+import org.apache.commons.math3.special.Beta;
+import org.apache.commons.math3.util.FastMath;
+import org.cbioportal.legacy.model.CoExpression;
+import org.cbioportal.legacy.model.MolecularAlteration;
+import org.cbioportal.legacy.model.util.NumericValues;
+import org.cbioportal.legacy.utils.concurrent.Workload;
+import org.cbioportal.legacy.utils.concurrent.WorkloadExecutors;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Computes Spearman co-expression of a query gene/geneset against every row of a molecular profile.
+ *
+ * Rows are read from the (cursor backed) iterable on the calling thread and handed over in fixed-size
+ * blocks to the thread pool of the {@link Workload#CO_EXPRESSION} workload. Within a block, rows are ranked
+ * and correlated on primitive arrays and p-values are computed in one pass. The query vector is ranked once;
+ * it is only re-ranked for rows that have missing values, since Spearman's correlation ignores samples where
+ * either value is missing.
+ *
+ * When a pre-ranked {@link CoExpressionIndex.RankMatrix} is available, blocks of rows are read straight from
+ * the matrix in parallel. If the query covers all samples of the profile and the query has no missing values,
+ * the cached ranks of complete rows are used as is and Spearman's correlation reduces to Pearson's correlation
+ * of the cached ranks.
+ */
+@Component
+public class CoExpressionCalculator {
+
+    @Value("${coexpression.block_size:256}")
+    private int blockSize;
+
+    @Autowired
+    private WorkloadExecutors workloadExecutors;
+
+    /**
+     * @param queryValues values of the query gene/geneset, indexed like the genetic_alteration.VALUES column
+     * @param molecularAlterations rows of the molecular profile
+     * @param queryGeneticEntityId stable id of the query gene/geneset, which is skipped
+     * @param includedIndexes indices into the genetic_alteration.VALUES column of the samples in the query
+     * @param threshold minimum absolute correlation to report
+     * @return co-expressions in the order of the molecular alterations
+     */
+    public List<CoExpression> computeCoExpressions(NumericValues queryValues,
+                                                   Iterable<? extends MolecularAlteration> molecularAlterations,
+                                                   String queryGeneticEntityId, int[] includedIndexes,
+                                                   double threshold) {
+
+        // samples without a query value never contribute to a correlation
+        int[] indexes = new int[includedIndexes.length];
+        int size = 0;
+        for (int index : includedIndexes) {
+            if (index < queryValues.size() && !queryValues.isMissing(index)) {
+                indexes[size++] = index;
+            }
+        }
+        List<CoExpression> coExpressions = new ArrayList<>();
+        if (size <= 2) {
+            return coExpressions;
+        }
+
+        double[] query = new double[size];
+        for (int i = 0; i < size; i++) {
+            query[i] = queryValues.get(indexes[i]);
+        }
+        RankedQuery rankedQuery = new RankedQuery(query);
+
+        Deque<CompletableFuture<List<CoExpression>>> pending = new ArrayDeque<>();
+        List<String> blockIds = new ArrayList<>(blockSize);
+        List<double[]> blockRows = new ArrayList<>(blockSize);
+        for (MolecularAlteration ma : molecularAlterations) {
+            String entityId = ma.getStableId();
+            if (entityId.equals(queryGeneticEntityId)) {
+                continue;
+            }
+            NumericValues values = ma.getNumericValues();
+            double[] row = new double[size];
+            for (int i = 0; i < size; i++) {
+                row[i] = indexes[i] < values.size() ? values.get(indexes[i]) : Double.NaN;
+            }
+            blockIds.add(entityId);
+            blockRows.add(row);
+
+            if (blockIds.size() == blockSize) {
+                submit(pending, rankedQuery, blockIds, blockRows, threshold, coExpressions);
+                blockIds = new ArrayList<>(blockSize);
+                blockRows = new ArrayList<>(blockSize);
+            }
+        }
+        if (!blockIds.isEmpty()) {
+            submit(pending, rankedQuery, blockIds, blockRows, threshold, coExpressions);
+        }
+        while (!pending.isEmpty()) {
+            coExpressions.addAll(pending.removeFirst().join());
+        }
+        return coExpressions;
+    }
+
+    /**
+     * @param rankMatrix pre-ranked rows of the molecular profile
+     * @param queryGeneticEntityId stable id of the query gene/geneset, which is skipped
+     * @param includedIndexes indices into the genetic_alteration.VALUES column of the samples in the query
+     * @param threshold minimum absolute correlation to report
+     * @return co-expressions in the order of the rows of the matrix, or null if the query is not in the matrix
+     */
+    public List<CoExpression> computeCoExpressions(CoExpressionIndex.RankMatrix rankMatrix,
+                                                   String queryGeneticEntityId, int[] includedIndexes,
+                                                   double threshold) {
+
+        int queryRow = rankMatrix.indexOf(queryGeneticEntityId);
+        if (queryRow < 0) {
+            return null;
+        }
+        double[] queryRanks = new double[includedIndexes.length];
+        rankMatrix.readRow(queryRow, includedIndexes, includedIndexes.length, queryRanks);
+        int[] indexes = new int[includedIndexes.length];
+        int size = 0;
+        for (int i = 0; i < includedIndexes.length; i++) {
+            if (!Double.isNaN(queryRanks[i])) {
+                indexes[size] = includedIndexes[i];
+                queryRanks[size++] = queryRanks[i];
+            }
+        }
+        List<CoExpression> coExpressions = new ArrayList<>();
+        if (size <= 2) {
+            return coExpressions;
+        }
+
+        RankedQuery rankedQuery = new RankedQuery(Arrays.copyOf(queryRanks, size));
+        // ranks over all samples of the profile are the ranks of the query itself
+        boolean preRanked = size == rankMatrix.getColumns();
+        int querySize = size;
+        Deque<CompletableFuture<List<CoExpression>>> pending = new ArrayDeque<>();
+        for (int start = 0; start < rankMatrix.getRows(); start += blockSize) {
+            int end = Math.min(start + blockSize, rankMatrix.getRows());
+            int blockStart = start;
+            submit(pending, () -> {
+                List<String> blockIds = new ArrayList<>(end - blockStart);
+                List<double[]> blockRows = new ArrayList<>(end - blockStart);
+                for (int row = blockStart; row < end; row++) {
+                    if (row == queryRow) {
+                        continue;
+                    }
+                    double[] ranks = new double[querySize];
+                    rankMatrix.readRow(row, indexes, querySize, ranks);
+                    blockIds.add(rankMatrix.getEntityId(row));
+                    blockRows.add(ranks);
+                }
+                return computeBlock(rankedQuery, blockIds, blockRows, threshold, preRanked);
+            }, coExpressions);
+        }
+        while (!pending.isEmpty()) {
+            coExpressions.addAll(pending.removeFirst().join());
+        }
+        return coExpressions;
+    }
+
+    private void submit(Deque<CompletableFuture<List<CoExpression>>> pending, RankedQuery rankedQuery,
+                        List<String> blockIds, List<double[]> blockRows, double threshold,
+                        List<CoExpression> coExpressions) {
+
+        submit(pending, () -> computeBlock(rankedQuery, blockIds, blockRows, threshold, false), coExpressions);
+    }
+
+    private void submit(Deque<CompletableFuture<List<CoExpression>>> pending, Supplier<List<CoExpression>> block,
+                        List<CoExpression> coExpressions) {
+
+        // bound the number of blocks a request holds in memory and keeps in the queue of the co-expression workload,
+        // which is sized for this number per admitted request
+        int maxPendingBlocks = Math.max(1,
+            WorkloadExecutors.PENDING_TASKS_PER_THREAD * workloadExecutors.getPoolSize(Workload.CO_EXPRESSION));
+        while (pending.size() >= maxPendingBlocks) {
+            coExpressions.addAll(pending.removeFirst().join());
+        }
+        pending.addLast(CompletableFuture.supplyAsync(block, workloadExecutors.executor(Workload.CO_EXPRESSION)));
+    }
+
+    /**
+     * @param preRanked whether complete rows already hold the ranks of the row over the query samples
+     */
+    private List<CoExpression> computeBlock(RankedQuery rankedQuery, List<String> blockIds, List<double[]> blockRows,
+                                            double threshold, boolean preRanked) {
+
+        int rows = blockIds.size();
+        double[] correlations = new double[rows];
+        int[] counts = new int[rows];
+        Ranker ranker = new Ranker(rankedQuery.size());
+        double[] subsetQuery = new double[rankedQuery.size()];
+        double[] subsetRow = new double[rankedQuery.size()];
+
+        for (int r = 0; r < rows; r++) {
+            double[] row = blockRows.get(r);
+            int present = 0;
+            for (double value : row) {
+                if (!Double.isNaN(value)) {
+                    present++;
+                }
+            }
+            counts[r] = present;
+            if (present <= 2) {
+                correlations[r] = Double.NaN;
+            } else if (present == row.length) {
+                double[] rowRanks = preRanked ? row : ranker.rank(row, row.length);
+                correlations[r] = pearson(rankedQuery.ranks, rowRanks, row.length);
+            } else {
+                int n = 0;
+                for (int i = 0; i < row.length; i++) {
+                    if (!Double.isNaN(row[i])) {
+                        subsetQuery[n] = rankedQuery.values[i];
+                        subsetRow[n] = row[i];
+                        n++;
+                    }
+                }
+                double[] queryRanks = ranker.rank(subsetQuery, n).clone();
+                correlations[r] = pearson(queryRanks, ranker.rank(subsetRow, n), n);
+            }
+        }
+
+        List<CoExpression> coExpressions = new ArrayList<>();
+        for (int r = 0; r < rows; r++) {
+            double correlation = correlations[r];
+            if (Double.isNaN(correlation) || Math.abs(correlation) < threshold) {
+                continue;
+            }
+            CoExpression coExpression = new CoExpression();
+            coExpression.setGeneticEntityId(blockIds.get(r));
+            coExpression.setSpearmansCorrelation(BigDecimal.valueOf(correlation));
+            coExpression.setpValue(BigDecimal.valueOf(pValue(correlation, counts[r])));
+            coExpressions.add(coExpression);
+        }
+        return coExpressions;
+    }
+
+    /**
+     * Pearson's correlation of two rank vectors. Average ranks always sum up to n(n+1)/2,
+     * so the mean of both vectors is known up front.
+     */
+    private static double pearson(double[] ranksA, double[] ranksB, int n) {
+
+        double mean = (n + 1) / 2.0;
+        double sumOfProducts = 0;
+        double sumOfSquaresA = 0;
+        double sumOfSquaresB = 0;
+        for (int i = 0; i < n; i++) {
+            double a = ranksA[i] - mean;
+            double b = ranksB[i] - mean;
+            sumOfProducts += a * b;
+            sumOfSquaresA += a * a;
+            sumOfSquaresB += b * b;
+        }
+        if (sumOfSquaresA == 0 || sumOfSquaresB == 0) {
+            return Double.NaN;
+        }
+        double correlation = sumOfProducts / Math.sqrt(sumOfSquaresA * sumOfSquaresB);
+        return Math.max(-1, Math.min(1, correlation));
+    }
+
+    /**
+     * Two-sided p-value of the t-statistic of a correlation, as computed by
+     * PearsonsCorrelation.getCorrelationPValues, without creating a TDistribution per gene.
+     */
+    static double pValue(double correlation, int n) {
+
+        double degreesOfFreedom = n - 2;
+        double t = FastMath.abs(correlation * FastMath.sqrt(degreesOfFreedom / (1 - correlation * correlation)));
+        return Beta.regularizedBeta(degreesOfFreedom / (degreesOfFreedom + t * t), 0.5 * degreesOfFreedom, 0.5);
+    }
+
+    private static final class RankedQuery {
+
+        private final double[] values;
+        private final double[] ranks;
+
+        RankedQuery(double[] values) {
+            this.values = values;
+            this.ranks = new Ranker(values.length).rank(values, values.length).clone();
+        }
+
+        int size() {
+            return values.length;
+        }
+    }
+
+    /**
+     * Assigns 1-based ranks, averaging ties (same as NaturalRanking with TiesStrategy.AVERAGE).
+     * Buffers are reused between calls, so a Ranker must not be shared between threads.
+     */
+    static final class Ranker {
+
+        private final int[] order;
+        private final int[] buffer;
+        private final double[] ranks;
+
+        Ranker(int capacity) {
+            order = new int[capacity];
+            buffer = new int[capacity];
+            ranks = new double[capacity];
+        }
+
+        double[] rank(double[] values, int n) {
+            for (int i = 0; i < n; i++) {
+                order[i] = i;
+            }
+            sort(values, 0, n);
+            int start = 0;
+            while (start < n) {
+                int end = start + 1;
+                while (end < n && Double.compare(values[order[end]], values[order[start]]) == 0) {
+                    end++;
+                }
+                double rank = (start + 1 + end) / 2.0;
+                for (int i = start; i < end; i++) {
+                    ranks[order[i]] = rank;
+                }
+                start = end;
+            }
+            return ranks;
+        }
+
+        // merge sort of the index array by value
+        private void sort(double[] values, int from, int to) {
+            if (to - from < 16) {
+                for (int i = from + 1; i < to; i++) {
+                    int index = order[i];
+                    int j = i - 1;
+                    while (j >= from && Double.compare(values[order[j]], values[index]) > 0) {
+                        order[j + 1] = order[j];
+                        j--;
+                    }
+                    order[j + 1] = index;
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            sort(values, from, middle);
+            sort(values, middle, to);
+            if (Double.compare(values[order[middle - 1]], values[order[middle]]) <= 0) {
+                return;
+            }
+            System.arraycopy(order, from, buffer, from, to - from);
+            int left = from;
+            int right = middle;
+            for (int i = from; i < to; i++) {
+                if (right >= to || (left < middle && Double.compare(values[buffer[left]], values[buffer[right]]) <= 0)) {
+                    order[i] = buffer[left++];
+                } else {
+                    order[i] = buffer[right++];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package org.cbioportal.legacy.service.util;
+
+import jakarta.annotation.PostConstruct;
+import org.cbioportal.legacy.model.MolecularAlteration;
+import org.cbioportal.legacy.model.util.NumericValues;
+import org.cbioportal.legacy.service.StaticDataTimestampService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Memory-mapped, per molecular profile matrix of pre-ranked genetic_alteration values.
+ *
+ * Every row holds the average ranks (as computed by {@link CoExpressionCalculator.Ranker}) of the values
+ * of one gene/geneset over all samples of the profile, in genetic_profile_samples.ORDERED_SAMPLE_LIST
+ * order. Missing values are stored as NaN, which doubles as the per-row missing-value mask. Since ranking
+ * is monotone, ranking a subset of the cached ranks gives the same result as ranking the original values,
+ * so the matrix can serve any sample selection without going back to the database.
+ *
+ * A matrix is stored as two files in the index directory: {@code <profile>.ranks} with the float ranks and
+ * {@code <profile>.meta} with the row ids and the static data timestamps the ranks were computed from.
+ * A matrix is rebuilt when those timestamps change.
+ */
+@Component
+public class CoExpressionIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CoExpressionIndex.class);
+    private static final List<String> TABLES = Arrays.asList("genetic_alteration", "genetic_profile_samples");
+    private static final int MAGIC = 0x43455849;
+    private static final int FORMAT_VERSION = 1;
+    private static final int BYTES_PER_RANK = Float.BYTES;
+
+    @Value("${coexpression.index.enabled:false}")
+    private boolean enabled;
+
+    @Value("${coexpression.index.directory:}")
+    private String directory;
+
+    @Autowired
+    private StaticDataTimestampService staticDataTimestampService;
+
+    private Path indexDirectory;
+    private final Map<String, RankMatrix> rankMatrices = new ConcurrentHashMap<>();
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        indexDirectory = directory == null || directory.isBlank()
+            ? Paths.get(System.getProperty("java.io.tmpdir"), "cbioportal-coexpression-index")
+            : Paths.get(directory);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the rank matrix of a molecular profile if it is in memory or on disk and still up to date.
+     *
+     * @param molecularProfileId stable id of the molecular profile
+     * @param columns number of samples in the molecular profile
+     * @return the rank matrix, or null if it needs to be (re)built or cannot be validated
+     */
+    public RankMatrix getRankMatrix(String molecularProfileId, int columns) {
+        String version = staticDataTimestampService.getVersion(TABLES);
+        if (version == null) {
+            return null;
+        }
+        RankMatrix rankMatrix = rankMatrices.get(molecularProfileId);
+        if (isValid(rankMatrix, version, columns)) {
+            return rankMatrix;
+        }
+        synchronized (lockFor(molecularProfileId)) {
+            rankMatrix = rankMatrices.get(molecularProfileId);
+            if (isValid(rankMatrix, version, columns)) {
+                return rankMatrix;
+            }
+            rankMatrix = load(molecularProfileId);
+            if (isValid(rankMatrix, version, columns)) {
+                rankMatrices.put(molecularProfileId, rankMatrix);
+                return rankMatrix;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Ranks all rows of a molecular profile and stores the result in the index directory.
+     *
+     * @param molecularProfileId stable id of the molecular profile
+     * @param columns number of samples in the molecular profile
+     * @param molecularAlterations all rows of the molecular profile
+     * @return the rank matrix, or null if it cannot be validated or written
+     */
+    public RankMatrix buildRankMatrix(String molecularProfileId, int columns,
+                                      Iterable<? extends MolecularAlteration> molecularAlterations) {
+        String version = staticDataTimestampService.getVersion(TABLES);
+        if (version == null) {
+            return null;
+        }
+        synchronized (lockFor(molecularProfileId)) {
+            // another request may have built it while we were waiting
+            RankMatrix rankMatrix = rankMatrices.get(molecularProfileId);
+            if (isValid(rankMatrix, version, columns)) {
+                return rankMatrix;
+            }
+            try {
+                Files.createDirectories(indexDirectory);
+                write(molecularProfileId, version, columns, molecularAlterations);
+                rankMatrix = load(molecularProfileId);
+            } catch (IOException e) {
+                LOG.warn("Could not build co-expression index for " + molecularProfileId, e);
+                return null;
+            }
+            if (rankMatrix != null) {
+                rankMatrices.put(molecularProfileId, rankMatrix);
+            }
+            return rankMatrix;
+        }
+    }
+
+    private boolean isValid(RankMatrix rankMatrix, String version, int columns) {
+        return rankMatrix != null && rankMatrix.version.equals(version) && rankMatrix.columns == columns;
+    }
+
+    private Object lockFor(String molecularProfileId) {
+        return locks.computeIfAbsent(molecularProfileId, k -> new Object());
+    }
+
+    private Path ranksFile(String molecularProfileId) {
+        return indexDirectory.resolve(fileName(molecularProfileId) + ".ranks");
+    }
+
+    private Path metaFile(String molecularProfileId) {
+        return indexDirectory.resolve(fileName(molecularProfileId) + ".meta");
+    }
+
+    private static String fileName(String molecularProfileId) {
+        return molecularProfileId.replaceAll("[^A-Za-z0-9_.-]", "_");
+    }
+
+    private void write(String molecularProfileId, String version, int columns,
+                       Iterable<? extends MolecularAlteration> molecularAlterations) throws IOException {
+        Path ranksFile = ranksFile(molecularProfileId);
+        Path metaFile = metaFile(molecularProfileId);
+        Path ranksTemp = Files.createTempFile(indexDirectory, fileName(molecularProfileId), ".ranks.tmp");
+        Path metaTemp = Files.createTempFile(indexDirectory, fileName(molecularProfileId), ".meta.tmp");
+        try {
+            List<String> entityIds = new ArrayList<>();
+            double[] row = new double[columns];
+            double[] present = new double[columns];
+            CoExpressionCalculator.Ranker ranker = new CoExpressionCalculator.Ranker(columns);
+            ByteBuffer buffer = ByteBuffer.allocate(columns * BYTES_PER_RANK);
+            try (FileChannel channel = FileChannel.open(ranksTemp, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+                for (MolecularAlteration ma : molecularAlterations) {
+                    NumericValues values = ma.getNumericValues();
+                    int n = 0;
+                    for (int i = 0; i < columns; i++) {
+                        row[i] = i < values.size() ? values.get(i) : Double.NaN;
+                        if (!Double.isNaN(row[i])) {
+                            present[n++] = row[i];
+                        }
+                    }
+                    double[] ranks = ranker.rank(present, n);
+                    buffer.clear();
+                    for (int i = 0, p = 0; i < columns; i++) {
+                        buffer.putFloat(Double.isNaN(row[i]) ? Float.NaN : (float) ranks[p++]);
+                    }
+                    buffer.flip();
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    entityIds.add(ma.getStableId());
+                }
+            }
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(metaTemp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(version);
+                out.writeInt(columns);
+                out.writeInt(entityIds.size());
+                for (String entityId : entityIds) {
+                    out.writeUTF(entityId);
+                }
+            }
+            // the meta file is moved last, so a matrix is only picked up once it is complete
+            Files.move(ranksTemp, ranksFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.move(metaTemp, metaFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(ranksTemp);
+            Files.deleteIfExists(metaTemp);
+        }
+    }
+
+    private RankMatrix load(String molecularProfileId) {
+        Path ranksFile = ranksFile(molecularProfileId);
+        Path metaFile = metaFile(molecularProfileId);
+        if (!Files.exists(metaFile) || !Files.exists(ranksFile)) {
+            return null;
+        }
+        try (InputStream in = Files.newInputStream(metaFile)) {
+            DataInputStream meta = new DataInputStream(new BufferedInputStream(in));
+            if (meta.readInt() != MAGIC || meta.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+            String version = meta.readUTF();
+            int columns = meta.readInt();
+            String[] entityIds = new String[meta.readInt()];
+            for (int i = 0; i < entityIds.length; i++) {
+                entityIds[i] = meta.readUTF();
+            }
+            return new RankMatrix(version, columns, entityIds, map(ranksFile, columns, entityIds.length));
+        } catch (IOException e) {
+            LOG.warn("Could not load co-expression index for " + molecularProfileId, e);
+            return null;
+        }
+    }
+
+    // a single mapping cannot exceed 2GB, so the file is mapped in segments of whole rows
+    private static MappedByteBuffer[] map(Path ranksFile, int columns, int rows) throws IOException {
+        long rowBytes = (long) Math.max(1, columns) * BYTES_PER_RANK;
+        int rowsPerSegment = (int) Math.max(1, Integer.MAX_VALUE / rowBytes);
+        MappedByteBuffer[] segments = new MappedByteBuffer[(rows + rowsPerSegment - 1) / rowsPerSegment];
+        try (FileChannel channel = FileChannel.open(ranksFile, StandardOpenOption.READ)) {
+            if (channel.size() != rows * (long) columns * BYTES_PER_RANK) {
+                throw new IOException("Unexpected size of " + ranksFile);
+            }
+            for (int s = 0; s < segments.length; s++) {
+                long start = s * (long) rowsPerSegment * rowBytes;
+                long size = Math.min(rowsPerSegment, rows - s * (long) rowsPerSegment) * rowBytes;
+                segments[s] = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * Read-only view of the ranks of one molecular profile. Safe for concurrent use.
+     */
+    public static final class RankMatrix {
+
+        private final String version;
+        private final int columns;
+        private final String[] entityIds;
+        private final Map<String, Integer> rowIndex;
+        private final MappedByteBuffer[] segments;
+        private final int rowsPerSegment;
+
+        private RankMatrix(String version, int columns, String[] entityIds, MappedByteBuffer[] segments) {
+            this.version = version;
+            this.columns = columns;
+            this.entityIds = entityIds;
+            this.segments = segments;
+            this.rowsPerSegment = (int) Math.max(1, Integer.MAX_VALUE / ((long) Math.max(1, columns) * BYTES_PER_RANK));
+            this.rowIndex = new HashMap<>(entityIds.length * 2);
+            for (int i = 0; i < entityIds.length; i++) {
+                rowIndex.put(entityIds[i], i);
+            }
+        }
+
+        public int getRows() {
+            return entityIds.length;
+        }
+
+        public int getColumns() {
+            return columns;
+        }
+
+        public String getEntityId(int row) {
+            return entityIds[row];
+        }
+
+        /**
+         * @return the row of the gene/geneset, or -1 if it is not part of the profile
+         */
+        public int indexOf(String entityId) {
+            return rowIndex.getOrDefault(entityId, -1);
+        }
+
+        /**
+         * Copies the ranks of a row at the given columns into target; missing values are NaN.
+         */
+        public void readRow(int row, int[] columnIndexes, int length, double[] target) {
+            MappedByteBuffer segment = segments[row / rowsPerSegment];
+            int offset = (row % rowsPerSegment) * columns;
+            for (int i = 0; i < length; i++) {
+                target[i] = segment.getFloat((offset + columnIndexes[i]) * BYTES_PER_RANK);
+            }
+        }
+    }
+}
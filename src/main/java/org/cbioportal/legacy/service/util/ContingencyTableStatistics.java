@@ -0,0 +1,77 @@
+package org.cbioportal.legacy.service.util;
+
+import org.apache.commons.math3.stat.inference.ChiSquareTest;
+
+import java.util.Arrays;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Shared state and bulk helpers for the tests run on contingency tables by the enrichment analyses.
+ *
+ * The natural logarithms of the factorials used by the Fisher exact test are kept in a single table which grows as
+ * larger tables are tested, instead of being filled again for every gene. The table is only ever replaced by a larger
+ * copy, so readers need no locking.
+ */
+public final class ContingencyTableStatistics {
+
+    // below this number of tables the cost of splitting the work is higher than the work itself
+    static final int PARALLEL_THRESHOLD = 1000;
+
+    // ChiSquareTest has no state and can be shared between threads
+    private static final ChiSquareTest CHI_SQUARE_TEST = new ChiSquareTest();
+
+    private static volatile double[] logFactorials = {0.0};
+
+    private ContingencyTableStatistics() {
+    }
+
+    /**
+     * @return a table whose element j is log(j!) for j from 0 to at least n. It must not be modified.
+     */
+    public static double[] getLogFactorials(int n) {
+        double[] f = logFactorials;
+        if (f.length > n) {
+            return f;
+        }
+        synchronized (ContingencyTableStatistics.class) {
+            f = logFactorials;
+            if (f.length <= n) {
+                // grow geometrically so that a few large tables do not cause many copies
+                double[] grown = Arrays.copyOf(f, Math.max(n + 1, f.length * 2));
+                for (int j = f.length; j < grown.length; j++) {
+                    grown[j] = grown[j - 1] + Math.log(j);
+                }
+                logFactorials = grown;
+                f = grown;
+            }
+            return f;
+        }
+    }
+
+    /**
+     * @param table k×2 table of counts
+     * @return the p-value of the chi-square test, NaN if it cannot be computed e.g. when all cases are altered
+     */
+    public static double getChiSquarePValue(long[][] table) {
+        return CHI_SQUARE_TEST.chiSquareTest(table);
+    }
+
+    /**
+     * @param tables k×2 tables of counts
+     * @return the p-values of the chi-square test in the order of the tables, see {@link #getChiSquarePValue}
+     */
+    public static double[] getChiSquarePValues(long[][][] tables) {
+        return compute(tables.length, i -> getChiSquarePValue(tables[i]));
+    }
+
+    static double[] compute(int size, IntToDoubleFunction pValue) {
+        double[] pValues = new double[size];
+        IntStream indexes = IntStream.range(0, size);
+        if (size >= PARALLEL_THRESHOLD) {
+            indexes = indexes.parallel();
+        }
+        indexes.forEach(i -> pValues[i] = pValue.applyAsDouble(i));
+        return pValues;
+    }
+}
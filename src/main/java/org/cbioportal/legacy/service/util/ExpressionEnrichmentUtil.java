@@ -4,13 +4,13 @@ import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 import org.cbioportal.legacy.model.EnrichmentType;
 import org.cbioportal.legacy.model.ExpressionEnrichment;
@@ -27,10 +27,8 @@ import org.cbioportal.legacy.model.MolecularProfileCaseIdentifier;
 import org.cbioportal.legacy.model.MolecularProfileSamples;
 import org.cbioportal.legacy.model.Sample;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.math.NumberUtils;
 import org.apache.commons.math3.stat.StatUtils;
 import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
-import org.apache.commons.math3.stat.inference.ChiSquareTest;
 import org.apache.commons.math3.stat.inference.OneWayAnova;
 import org.apache.commons.math3.stat.inference.TestUtils;
 import org.cbioportal.legacy.persistence.MolecularDataRepository;
@@ -58,27 +56,25 @@ public class ExpressionEnrichmentUtil {
         Iterable<T> maItr) {
         List<S> expressionEnrichments = new ArrayList<>();
 
-        Map<String, List<Integer>> groupIndicesMap = getGroupIndicesMap(molecularProfileCaseSets, enrichmentType,
-            molecularProfile);
+        Map<String, int[]> groupIndicesMap = new LinkedHashMap<>();
+        getGroupIndicesMap(molecularProfileCaseSets, enrichmentType, molecularProfile)
+            .forEach((group, indices) -> groupIndicesMap.put(group, indices.stream().mapToInt(Integer::intValue).toArray()));
         for (MolecularAlteration ma : maItr) {
             List<GroupStatistics> groupsStatistics = new ArrayList<GroupStatistics>();
             // used for p-value calculation
             List<double[]> groupedValues = new ArrayList<double[]>();
 
-            for (Entry<String, List<Integer>> group : groupIndicesMap.entrySet()) {
+            for (Entry<String, int[]> group : groupIndicesMap.entrySet()) {
 
-                // get expression values to all the indices in the group
-                List<String> molecularDataValues = group.getValue().stream()
-                    .map(sampleIndex -> ma.getSplitValues()[sampleIndex])
-                    .filter(a -> NumberUtils.isNumber(a))
-                    .collect(Collectors.toList());
+                // get numeric expression values to all the indices in the group
+                double[] values = ma.getNumericValues().selectPresent(group.getValue());
 
                 // ignore group if there are less than 2 values
-                if (molecularDataValues.size() < 2) {
+                if (values.length < 2) {
                     continue;
                 }
 
-                double[] values = getAlterationValues(molecularDataValues, molecularProfile.getStableId());
+                transformAlterationValues(values, molecularProfile.getStableId());
 
                 GroupStatistics groupStatistics = new GroupStatistics();
                 double alteredMean = StatUtils.mean(values);
@@ -160,8 +156,7 @@ public class ExpressionEnrichmentUtil {
                 if(array[0].length <= 1) {
                     pValue = 1;
                 } else {
-                    ChiSquareTest chiSquareTest = new ChiSquareTest();
-                    pValue = chiSquareTest.chiSquareTest(array);
+                    pValue = ContingencyTableStatistics.getChiSquarePValue(array);
                 }
 
                 // set p-value to 1 when the cases in all groups are altered
@@ -277,6 +272,16 @@ public class ExpressionEnrichmentUtil {
         }
     }
 
+    private void transformAlterationValues(double[] values, String molecularProfileId) {
+
+        if (molecularProfileId.contains(RNA_SEQ)) {
+            for (int i = 0; i < values.length; i++) {
+                // reset to 0 if there are any negative values and then do log1p
+                values[i] = Math.log1p(values[i] < 0 ? 0 : values[i]) / LOG2;
+            }
+        }
+    }
+
     private long[][] getCategoricalValues(Map<String, Map<String, Integer>> groupCategoryStatistics) {
         // Determine the number of rows and columns
         int numRows = groupCategoryStatistics.size();
@@ -347,11 +352,8 @@ public class ExpressionEnrichmentUtil {
         MolecularProfileSamples commaSeparatedSampleIdsOfMolecularProfile = molecularDataRepository
             .getCommaSeparatedSampleIdsOfMolecularProfile(molecularProfile.getStableId());
 
-        List<Integer> internalSampleIds = Arrays.stream(commaSeparatedSampleIdsOfMolecularProfile.getSplitSampleIds())
-            .mapToInt(Integer::parseInt).boxed().collect(Collectors.toList());
-
-        Map<Integer, Integer> internalSampleIdToIndexMap = IntStream.range(0, internalSampleIds.size()).boxed()
-            .collect(Collectors.toMap(internalSampleIds::get, Function.identity()));
+        Map<Integer, Integer> internalSampleIdToIndexMap = commaSeparatedSampleIdsOfMolecularProfile
+            .getSampleIdToIndexMap();
 
         Map<String, List<Integer>> selectedCaseIdToInternalIdsMap = getCaseIdToInternalIdsMap(molecularProfileCaseSets,
             enrichmentType, molecularProfile);
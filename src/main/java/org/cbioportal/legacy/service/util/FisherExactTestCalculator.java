@@ -19,12 +19,7 @@ public class FisherExactTestCalculator {
         int min, i;
         int n = a + b + c + d;
         double p = 0;
-        double[] f = new double[n + 1];
-        f[0] = 0.0;
-        
-        for (int j = 1; j <= n; j++) {
-            f[j] = f[j - 1] + Math.log(j);
-        }
+        double[] f = ContingencyTableStatistics.getLogFactorials(n);
 
         p += getPValue(a, b, c, d, f);
         if ((a * d) >= (b * c)) {
@@ -48,12 +43,7 @@ public class FisherExactTestCalculator {
         int min, i;
         int n = a + b + c + d;
         double p = 0;
-        double[] f = new double[n + 1];
-        f[0] = 0.0;
-
-        for (int j = 1; j <= n; j++) {
-            f[j] = f[j - 1] + Math.log(j);
-        }
+        double[] f = ContingencyTableStatistics.getLogFactorials(n);
 
         double baseP = getPValue(a, b, c, d, f);
 //         in order for a table under consideration to have its p-value included
@@ -89,6 +79,18 @@ public class FisherExactTestCalculator {
         }
         return p;
     }
+
+    /**
+     * @param tables 2×2 tables given as {a, b, c, d}
+     * @return the two-tailed p-values in the order of the tables, see {@link #getTwoTailedPValue}
+     */
+    public double[] getTwoTailedPValues(int[][] tables) {
+        return ContingencyTableStatistics.compute(tables.length, i -> {
+            int[] table = tables[i];
+            return getTwoTailedPValue(table[0], table[1], table[2], table[3]);
+        });
+    }
+
     public BigDecimal[] calcqValue(BigDecimal[] pValuesInIncreasingOrder) {
         BigDecimal cachedElement = BigDecimal.valueOf(0.0);
         int dataLength = pValuesInIncreasingOrder.length;
@@ -13,6 +13,7 @@ import org.springframework.stereotype.Component;
 
 import java.util.Arrays;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -41,7 +42,10 @@ public class ProfiledCasesCounter<T extends AlterationCountBase> {
 
         ProfiledCaseType profiledCaseType = (caseUniqueIdentifier == patientUniqueIdentifier) ?
             ProfiledCaseType.PATIENT : ProfiledCaseType.SAMPLE;
-        Map<String, Set<String>> casesWithDataInGenePanel = extractCasesWithDataInGenePanel(genePanelDataList, caseUniqueIdentifier);
+        // cases are numbered densely so that sets of cases can be kept as bitmaps
+        Map<String, Integer> caseIndexes = new HashMap<>();
+        Map<String, BitSet> casesWithDataInGenePanel = extractCasesWithDataInGenePanel(genePanelDataList,
+            caseUniqueIdentifier, caseIndexes);
         List<GenePanel> genePanels = new ArrayList<>();
         if (!casesWithDataInGenePanel.isEmpty()) {
             genePanels = genePanelService.fetchGenePanels(new ArrayList<>(casesWithDataInGenePanel.keySet()), "DETAILED");
@@ -65,63 +69,56 @@ public class ProfiledCasesCounter<T extends AlterationCountBase> {
             }
         }
 
-        List<GenePanelData> genePanelData = genePanelDataList
-            .stream()
-            .filter(GenePanelData::getProfiled)
-            .collect(Collectors.toList());
-
-        Set<String> profiledCases = genePanelData
-            .stream()
-            // there can be duplicate patient or sample id, append study id
-            .map(caseUniqueIdentifier)
-            .collect(Collectors.toSet());
-        int profiledCasesCount = profiledCases.size();
-
         // here we look for cases where none of the profiles have gene panel ids
         // a case with at least one profile with gene panel id is considered as a case with gene panel data
         // so a case is considered without panel data only if none of the profiles has a gene panel id
-
-        // first identify cases with gene panel data
-        Set<String> casesWithPanelData = genePanelData
-            .stream()
-            .filter(g -> g.getGenePanelId() != null)
-            // there can be duplicate patient or sample id, append study id
-            .map(caseUniqueIdentifier)
-            .collect(Collectors.toSet());
-
-        // find all unique cases
-        Set<String> casesWithoutPanelData = genePanelData
-            .stream()
-            // there can be duplicate patient or sample id, append study id
-            .map(caseUniqueIdentifier)
-            .collect(Collectors.toSet());
+        BitSet profiledCases = new BitSet(caseIndexes.size());
+        BitSet casesWithPanelData = new BitSet(caseIndexes.size());
+        for (GenePanelData genePanelData : genePanelDataList) {
+            if (genePanelData.getProfiled()) {
+                // there can be duplicate patient or sample id, append study id
+                int caseIndex = getCaseIndex(caseUniqueIdentifier.apply(genePanelData), caseIndexes);
+                profiledCases.set(caseIndex);
+                if (genePanelData.getGenePanelId() != null) {
+                    casesWithPanelData.set(caseIndex);
+                }
+            }
+        }
+        int profiledCasesCount = profiledCases.cardinality();
 
         // removing cases with panel data from all unique cases gives us the cases without panel data
-        casesWithoutPanelData.removeAll(casesWithPanelData);
+        BitSet casesWithoutPanelData = (BitSet) profiledCases.clone();
+        casesWithoutPanelData.andNot(casesWithPanelData);
+
+        // many genes are covered by the same gene panels, so the count is computed once per combination of gene panels
+        Map<Set<String>, Integer> profiledCasesCountByGenePanels = new HashMap<>();
+        Function<Set<String>, Integer> countProfiledCases = genePanelIds -> {
+            if (profiledCaseType == ProfiledCaseType.PATIENT) {
+                BitSet totalProfiledPatients = (BitSet) casesWithoutPanelData.clone();
+                for (String genePanelId : genePanelIds) {
+                    totalProfiledPatients.or(casesWithDataInGenePanel.get(genePanelId));
+                }
+                return totalProfiledPatients.cardinality();
+            } else {
+                // for every gene panel associated containing the gene, use the sum of unique cases
+                // as well as cases without panel data
+                int totalProfiledSamples = casesWithoutPanelData.cardinality();
+                for (String genePanelId : genePanelIds) {
+                    totalProfiledSamples += casesWithDataInGenePanel.get(genePanelId).cardinality();
+                }
+                return totalProfiledSamples;
+            }
+        };
 
         for (T alterationCount : alterationCounts) {
-            Set<String> totalProfiledPatients = new HashSet<>();
             Set<String> allMatchingGenePanelIds = new HashSet<>();
-            int totalProfiledSamples = 0;
             // different calculations depending on if gene is linked to gene panels
             if (alterationIsCoveredByGenePanel(alterationCount, geneToGenePanel)) {
-                // for every gene panel associated containing the gene, use the sum of unique cases
-                // as well as cases without panel data
                 for (GenePanel genePanel : getGenePanelsForAlterationCount(alterationCount, geneToGenePanel)) {
                     allMatchingGenePanelIds.add(genePanel.getStableId());
-                    if (profiledCaseType == ProfiledCaseType.PATIENT) {
-                        totalProfiledPatients.addAll(casesWithDataInGenePanel.get(genePanel.getStableId()));
-                    } else {
-                        totalProfiledSamples += casesWithDataInGenePanel.get(genePanel.getStableId()).size();
-                    }
-                }
-                if (profiledCaseType == ProfiledCaseType.PATIENT) {
-                    totalProfiledPatients.addAll(casesWithoutPanelData);
-                    alterationCount.setNumberOfProfiledCases(totalProfiledPatients.size());
-                } else {
-                    totalProfiledSamples += casesWithoutPanelData.size();
-                    alterationCount.setNumberOfProfiledCases(totalProfiledSamples);
                 }
+                alterationCount.setNumberOfProfiledCases(
+                    profiledCasesCountByGenePanels.computeIfAbsent(allMatchingGenePanelIds, countProfiledCases));
             } else {
                 // we use profiledCasesCount instead of casesWithoutPanelData to
                 // prevent a divide by zero error which can happen for targeted studies
@@ -144,30 +141,15 @@ public class ProfiledCasesCounter<T extends AlterationCountBase> {
                 if (!genesWithAlteration.contains(entrezGeneId)) {
                     AlterationCountByGene alterationCountByGene = new AlterationCountByGene();
 
-                    Set<String> totalProfiledPatients = new HashSet<>();
                     Set<String> allMatchingGenePanelIds = new HashSet<>();
-                    int totalProfiledSamples = 0;
-                    for (GenePanel genePanel : geneToGenePanel.get(new Pair<>(entrezGeneId, hugoGeneSymbol))) {
+                    for (GenePanel genePanel : entry.getValue()) {
                         allMatchingGenePanelIds.add(genePanel.getStableId());
-                        if (profiledCaseType == ProfiledCaseType.PATIENT) {
-                            totalProfiledPatients.addAll(casesWithDataInGenePanel.get(genePanel.getStableId()));
-                        } else {
-                            totalProfiledSamples += casesWithDataInGenePanel.get(genePanel.getStableId()).size();
-                        }
-                    }
-                    if (profiledCaseType == ProfiledCaseType.PATIENT) {
-                        totalProfiledPatients.addAll(casesWithoutPanelData);
-                    } else {
-                        totalProfiledSamples += casesWithoutPanelData.size();
                     }
 
                     alterationCountByGene.setEntrezGeneId(entrezGeneId);
                     alterationCountByGene.setMatchingGenePanelIds(allMatchingGenePanelIds);
-                    if (profiledCaseType == ProfiledCaseType.PATIENT) {
-                        alterationCountByGene.setNumberOfProfiledCases(totalProfiledPatients.size());
-                    } else {
-                        alterationCountByGene.setNumberOfProfiledCases(totalProfiledSamples);
-                    }
+                    alterationCountByGene.setNumberOfProfiledCases(
+                        profiledCasesCountByGenePanels.computeIfAbsent(allMatchingGenePanelIds, countProfiledCases));
                     alterationCountByGene.setNumberOfAlteredCases(0);
                     alterationCountByGene.setTotalCount(0);
                     alterationCountByGene.setHugoGeneSymbol(hugoGeneSymbol);
@@ -178,23 +160,32 @@ public class ProfiledCasesCounter<T extends AlterationCountBase> {
         }
     }
 
-    private Map<String, Set<String>> extractCasesWithDataInGenePanel(
+    private Map<String, BitSet> extractCasesWithDataInGenePanel(
         List<GenePanelData> genePanelDataList,
-        Function<GenePanelData, String> caseUniqueIdentifier) {
+        Function<GenePanelData, String> caseUniqueIdentifier,
+        Map<String, Integer> caseIndexes) {
 
-        Map<String, Set<String>> casesWithDataInGenePanel = new HashMap<>();
+        Map<String, BitSet> casesWithDataInGenePanel = new HashMap<>();
         // loop through all membership records -- ignore any where g.getGenePanelId == null
         for (GenePanelData genePanelDataRecord : genePanelDataList) {
             String associatedGenePanel = genePanelDataRecord.getGenePanelId();
             if (associatedGenePanel != null) {
-                casesWithDataInGenePanel.putIfAbsent(associatedGenePanel, new HashSet<>());
-                Set<String> casesForThisGenePanel = casesWithDataInGenePanel.get(associatedGenePanel);
-                casesForThisGenePanel.add(caseUniqueIdentifier.apply(genePanelDataRecord));
+                casesWithDataInGenePanel.computeIfAbsent(associatedGenePanel, k -> new BitSet())
+                    .set(getCaseIndex(caseUniqueIdentifier.apply(genePanelDataRecord), caseIndexes));
             }
         }
         return casesWithDataInGenePanel;
     }
 
+    private int getCaseIndex(String caseUniqueId, Map<String, Integer> caseIndexes) {
+        Integer caseIndex = caseIndexes.get(caseUniqueId);
+        if (caseIndex == null) {
+            caseIndex = caseIndexes.size();
+            caseIndexes.put(caseUniqueId, caseIndex);
+        }
+        return caseIndex;
+    }
+
     private boolean alterationIsCoveredByGenePanel(T alterationCount, Map<Pair<Integer, String>, List<GenePanel>> entrezIdToGenePanel) {
         return !getGenePanelsForAlterationCount(alterationCount, entrezIdToGenePanel).isEmpty();
     }
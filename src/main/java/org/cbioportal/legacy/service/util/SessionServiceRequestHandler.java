@@ -10,10 +10,12 @@ import java.util.List;
 import com.mongodb.BasicDBObject;
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.lang3.StringUtils;
+import org.cbioportal.legacy.utils.http.OutboundHttpClients;
 import org.cbioportal.legacy.web.parameter.VirtualStudy;
 import org.cbioportal.legacy.web.parameter.VirtualStudyData;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
@@ -38,6 +40,9 @@ public class SessionServiceRequestHandler {
     @Value("${session.service.password:}")
     private String sessionServicePassword;
 
+    @Autowired
+    private OutboundHttpClients outboundHttpClients;
+
     private Boolean isBasicAuthEnabled() {
         return isSessionServiceEnabled() && sessionServicePassword != null && !sessionServicePassword.equals("");
     }
@@ -46,6 +51,13 @@ public class SessionServiceRequestHandler {
         return !StringUtils.isEmpty(sessionServiceURL);
     }
 
+    /**
+     * @return the rest template for the session service, which keeps its connections open between requests
+     */
+    public RestTemplate getRestTemplate() {
+        return outboundHttpClients.restTemplate(OutboundHttpClients.SESSION_SERVICE);
+    }
+
     public HttpHeaders getHttpHeaders() {
 
         return new HttpHeaders() {
@@ -63,7 +75,7 @@ public class SessionServiceRequestHandler {
 
     public String getSessionDataJson(SessionType type, String id) throws Exception {
 
-        RestTemplate restTemplate = new RestTemplate();
+        RestTemplate restTemplate = getRestTemplate();
 
         // add basic authentication in header
         HttpEntity<String> headers = new HttpEntity<>(getHttpHeaders());
@@ -79,7 +91,7 @@ public class SessionServiceRequestHandler {
      * @return virtual study
      */
     public VirtualStudy getVirtualStudyById(String id) {
-        ResponseEntity<VirtualStudy> responseEntity = new RestTemplate()
+        ResponseEntity<VirtualStudy> responseEntity = getRestTemplate()
             .exchange(sessionServiceURL + "/virtual_study/" + id,
                 HttpMethod.GET,
                 new HttpEntity<>(getHttpHeaders()),
@@ -103,7 +115,7 @@ public class SessionServiceRequestHandler {
     public List<VirtualStudy> getVirtualStudiesAccessibleToUser(String username) {
         BasicDBObject basicDBObject = new BasicDBObject();
         basicDBObject.put("data.users", username);
-        ResponseEntity<List<VirtualStudy>> responseEntity = new RestTemplate().exchange(
+        ResponseEntity<List<VirtualStudy>> responseEntity = getRestTemplate().exchange(
             sessionServiceURL + "/virtual_study/query/fetch",
             HttpMethod.POST,
             new HttpEntity<>(basicDBObject.toString(), getHttpHeaders()),
@@ -119,7 +131,7 @@ public class SessionServiceRequestHandler {
      * @return virtual study object with id and the virtualStudyData
      */
     public VirtualStudy createVirtualStudy(VirtualStudyData virtualStudyData) {
-        ResponseEntity<VirtualStudy> responseEntity = new RestTemplate().exchange(
+        ResponseEntity<VirtualStudy> responseEntity = getRestTemplate().exchange(
             sessionServiceURL + "/virtual_study",
             HttpMethod.POST,
             new HttpEntity<>(virtualStudyData, getHttpHeaders()),
@@ -146,7 +158,7 @@ public class SessionServiceRequestHandler {
      * @param virtualStudy - virtual study to update
      */
     public void updateVirtualStudy(VirtualStudy virtualStudy) {
-        new RestTemplate()
+        getRestTemplate()
             .put(sessionServiceURL + "/virtual_study/" + virtualStudy.getId(),
                 new HttpEntity<>(virtualStudy.getData(), getHttpHeaders()));
     }
@@ -0,0 +1,29 @@
+package org.cbioportal.legacy.service.util;
+
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Caches the result of a columnar study view method that takes the filter as a parameter named studyViewFilter.
+ * Results for whole studies are kept in the static repository cache. Results for filters that select part of the
+ * studies are kept in the size-bounded filtered study view cache, if persistence.cache_filtered_queries is set.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Caching(cacheable = {
+    @Cacheable(
+        cacheResolver = "staticRepositoryCacheOneResolver",
+        condition = "@cacheEnabledConfig.getEnabledClickhouse() && @studyViewFilterUtil.isUnfilteredQuery(#studyViewFilter)"
+    ),
+    @Cacheable(
+        cacheResolver = "filteredStudyViewCacheResolver",
+        condition = "@cacheEnabledConfig.getEnabledClickhouse() && @cacheEnabledConfig.isCacheFilteredQueries() && !@studyViewFilterUtil.isUnfilteredQuery(#studyViewFilter)"
+    )
+})
+public @interface StudyViewFilterCacheable {
+}
@@ -0,0 +1,227 @@
+package org.cbioportal.legacy.service.util;
+
+import org.apache.commons.math3.distribution.ChiSquaredDistribution;
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.DecompositionSolver;
+import org.apache.commons.math3.linear.LUDecomposition;
+import org.apache.commons.math3.linear.RealVector;
+import org.cbioportal.legacy.model.SurvivalComparison;
+import org.cbioportal.legacy.model.SurvivalCurve;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Kaplan-Meier curves and log-rank test of groups of patients, computed in a single pass over the survival times of
+ * all groups sorted by time.
+ */
+public final class SurvivalCalculator {
+
+    // two-sided 95% quantile of the standard normal distribution
+    private static final double Z_95 = 1.959963984540054;
+
+    private SurvivalCalculator() {
+    }
+
+    /**
+     * @param months survival time of every patient
+     * @param events whether the survival time of the patient ends with an event, otherwise it is censored
+     * @param groupNames names of the groups
+     * @param groupMembers for every group, the indexes in months and events of its patients
+     */
+    public static SurvivalComparison compare(double[] months, boolean[] events, List<String> groupNames,
+                                             int[][] groupMembers) {
+        int groupCount = groupMembers.length;
+        int entryCount = 0;
+        for (int[] members : groupMembers) {
+            entryCount += members.length;
+        }
+        // a patient in several groups has an entry in each of them
+        double[] entryMonths = new double[entryCount];
+        boolean[] entryEvents = new boolean[entryCount];
+        int[] entryGroups = new int[entryCount];
+        int entry = 0;
+        for (int group = 0; group < groupCount; group++) {
+            for (int patient : groupMembers[group]) {
+                entryMonths[entry] = months[patient];
+                entryEvents[entry] = events[patient];
+                entryGroups[entry] = group;
+                entry++;
+            }
+        }
+        Integer[] order = new Integer[entryCount];
+        for (int i = 0; i < entryCount; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (i, j) -> Double.compare(entryMonths[i], entryMonths[j]));
+
+        int[] atRisk = new int[groupCount];
+        double[] survival = new double[groupCount];
+        CurveBuilder[] curveBuilders = new CurveBuilder[groupCount];
+        for (int group = 0; group < groupCount; group++) {
+            atRisk[group] = groupMembers[group].length;
+            survival[group] = 1;
+            curveBuilders[group] = new CurveBuilder(groupMembers[group].length);
+        }
+        double[] observed = new double[groupCount];
+        double[] expected = new double[groupCount];
+        double[][] covariance = new double[groupCount][groupCount];
+        int[] eventsAtTime = new int[groupCount];
+        int[] censoredAtTime = new int[groupCount];
+
+        int first = 0;
+        while (first < entryCount) {
+            double time = entryMonths[order[first]];
+            Arrays.fill(eventsAtTime, 0);
+            Arrays.fill(censoredAtTime, 0);
+            int next = first;
+            while (next < entryCount && entryMonths[order[next]] == time) {
+                int i = order[next];
+                if (entryEvents[i]) {
+                    eventsAtTime[entryGroups[i]]++;
+                } else {
+                    censoredAtTime[entryGroups[i]]++;
+                }
+                next++;
+            }
+
+            int totalAtRisk = 0;
+            int totalEvents = 0;
+            for (int group = 0; group < groupCount; group++) {
+                totalAtRisk += atRisk[group];
+                totalEvents += eventsAtTime[group];
+            }
+            if (totalEvents > 0) {
+                // hypergeometric mean and covariance of the events of each group at this time
+                double varianceFactor = totalAtRisk > 1 ?
+                    (double) totalEvents * (totalAtRisk - totalEvents) / (totalAtRisk - 1) : 0;
+                for (int group = 0; group < groupCount; group++) {
+                    double share = (double) atRisk[group] / totalAtRisk;
+                    observed[group] += eventsAtTime[group];
+                    expected[group] += totalEvents * share;
+                    for (int other = 0; other < groupCount; other++) {
+                        double otherShare = (double) atRisk[other] / totalAtRisk;
+                        covariance[group][other] += varianceFactor * share * ((group == other ? 1 : 0) - otherShare);
+                    }
+                }
+            }
+
+            for (int group = 0; group < groupCount; group++) {
+                if (eventsAtTime[group] + censoredAtTime[group] > 0) {
+                    if (eventsAtTime[group] > 0) {
+                        survival[group] *= 1 - (double) eventsAtTime[group] / atRisk[group];
+                    }
+                    curveBuilders[group].add(time, survival[group], atRisk[group], eventsAtTime[group],
+                        censoredAtTime[group]);
+                    atRisk[group] -= eventsAtTime[group] + censoredAtTime[group];
+                }
+            }
+            first = next;
+        }
+
+        List<SurvivalCurve> curves = new ArrayList<>();
+        for (int group = 0; group < groupCount; group++) {
+            SurvivalCurve curve = curveBuilders[group].build();
+            curve.setName(groupNames.get(group));
+            curve.setNumberOfPatients(groupMembers[group].length);
+            curve.setNumberOfEvents((int) observed[group]);
+            curve.setExpectedNumberOfEvents(expected[group]);
+            curves.add(curve);
+        }
+        SurvivalComparison survivalComparison = new SurvivalComparison();
+        survivalComparison.setCurves(curves);
+        computeLogRankTest(survivalComparison, groupMembers, observed, expected, covariance);
+        return survivalComparison;
+    }
+
+    private static void computeLogRankTest(SurvivalComparison survivalComparison, int[][] groupMembers,
+                                           double[] observed, double[] expected, double[][] covariance) {
+        // groups without patients do not take part in the test
+        int[] testedGroups = new int[groupMembers.length];
+        int testedGroupCount = 0;
+        for (int group = 0; group < groupMembers.length; group++) {
+            if (groupMembers[group].length > 0) {
+                testedGroups[testedGroupCount++] = group;
+            }
+        }
+        if (testedGroupCount < 2) {
+            return;
+        }
+
+        // the covariance matrix of all groups is singular, so the last group is left out
+        int degreesOfFreedom = testedGroupCount - 1;
+        RealVector difference = new ArrayRealVector(degreesOfFreedom);
+        Array2DRowRealMatrix reducedCovariance = new Array2DRowRealMatrix(degreesOfFreedom, degreesOfFreedom);
+        for (int i = 0; i < degreesOfFreedom; i++) {
+            difference.setEntry(i, observed[testedGroups[i]] - expected[testedGroups[i]]);
+            for (int j = 0; j < degreesOfFreedom; j++) {
+                reducedCovariance.setEntry(i, j, covariance[testedGroups[i]][testedGroups[j]]);
+            }
+        }
+        DecompositionSolver solver = new LUDecomposition(reducedCovariance).getSolver();
+        if (!solver.isNonSingular()) {
+            return;
+        }
+        double chiSquare = difference.dotProduct(solver.solve(difference));
+        survivalComparison.setLogRankChiSquare(chiSquare);
+        survivalComparison.setLogRankPValue(
+            1 - new ChiSquaredDistribution(null, degreesOfFreedom).cumulativeProbability(chiSquare));
+
+        if (testedGroupCount == 2) {
+            // Peto estimate of the hazard ratio of the second group
+            int group = testedGroups[1];
+            double variance = covariance[group][group];
+            double logHazardRatio = (observed[group] - expected[group]) / variance;
+            double halfWidth = Z_95 / Math.sqrt(variance);
+            survivalComparison.setHazardRatio(Math.exp(logHazardRatio));
+            survivalComparison.setHazardRatioLowerBound(Math.exp(logHazardRatio - halfWidth));
+            survivalComparison.setHazardRatioUpperBound(Math.exp(logHazardRatio + halfWidth));
+        }
+    }
+
+    private static class CurveBuilder {
+
+        private final double[] months;
+        private final double[] survivalProbabilities;
+        private final int[] numbersAtRisk;
+        private final int[] numbersOfEvents;
+        private final int[] numbersOfCensored;
+        private int size;
+        private Double medianMonths;
+
+        // there are at most as many steps as patients
+        CurveBuilder(int capacity) {
+            months = new double[capacity];
+            survivalProbabilities = new double[capacity];
+            numbersAtRisk = new int[capacity];
+            numbersOfEvents = new int[capacity];
+            numbersOfCensored = new int[capacity];
+        }
+
+        void add(double time, double survivalProbability, int numberAtRisk, int numberOfEvents,
+                 int numberOfCensored) {
+            months[size] = time;
+            survivalProbabilities[size] = survivalProbability;
+            numbersAtRisk[size] = numberAtRisk;
+            numbersOfEvents[size] = numberOfEvents;
+            numbersOfCensored[size] = numberOfCensored;
+            size++;
+            if (medianMonths == null && survivalProbability <= 0.5) {
+                medianMonths = time;
+            }
+        }
+
+        SurvivalCurve build() {
+            SurvivalCurve curve = new SurvivalCurve();
+            curve.setMonths(Arrays.copyOf(months, size));
+            curve.setSurvivalProbabilities(Arrays.copyOf(survivalProbabilities, size));
+            curve.setNumbersAtRisk(Arrays.copyOf(numbersAtRisk, size));
+            curve.setNumbersOfEvents(Arrays.copyOf(numbersOfEvents, size));
+            curve.setNumbersOfCensored(Arrays.copyOf(numbersOfCensored, size));
+            curve.setMedianMonths(medianMonths);
+            return curve;
+        }
+    }
+}
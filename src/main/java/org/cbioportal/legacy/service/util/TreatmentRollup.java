@@ -0,0 +1,251 @@
+package org.cbioportal.legacy.service.util;
+
+import org.cbioportal.legacy.model.ClinicalEventSample;
+import org.cbioportal.legacy.model.PatientTreatmentRow;
+import org.cbioportal.legacy.model.SampleTreatmentRow;
+import org.cbioportal.legacy.model.TemporalRelation;
+import org.cbioportal.legacy.model.Treatment;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Treatments and samples of the patients of one study, arranged so that the treatment rows of any subset of its
+ * samples are computed in a single pass over sorted arrays.
+ *
+ * For every treatment, the patients who received it are stored with the first start date of the treatment. For every
+ * patient, the samples with a sample acquisition event are stored sorted by the time they were taken, so the samples
+ * taken before and after a treatment are the two sides of a binary search in the samples of the patient.
+ */
+public class TreatmentRollup {
+
+    private final String[] treatments;
+    // the patients who received treatment t are those from treatmentOffsets[t] to treatmentOffsets[t + 1]
+    private final int[] treatmentOffsets;
+    private final int[] treatmentPatients;
+    private final int[] treatmentStarts;
+    // the samples taken from patient p, sorted by time taken, are those from takenSampleOffsets[p] to
+    // takenSampleOffsets[p + 1]
+    private final int[] takenSampleOffsets;
+    private final int[] takenSampleTimes;
+    private final int[] takenSampleOrdinals;
+    private final ClinicalEventSample[] takenSamples;
+    // all samples of patient p, whether their acquisition is known or not
+    private final int[] patientSampleOffsets;
+    private final int[] patientSampleOrdinals;
+    private final ClinicalEventSample[] patientSamples;
+    private final Map<String, Integer> sampleOrdinals = new HashMap<>();
+
+    /**
+     * @param treatments the treatments of the patients of the study, any number of times each
+     * @param takenSamples the samples of the study with the earliest time they were taken
+     * @param patientSamples the samples of the study without the time they were taken
+     */
+    public TreatmentRollup(List<Treatment> treatments, List<ClinicalEventSample> takenSamples,
+                           List<ClinicalEventSample> patientSamples) {
+        Map<String, Integer> patientOrdinals = new HashMap<>();
+        int[] patientSamplePatients = new int[patientSamples.size()];
+        for (int i = 0; i < patientSamples.size(); i++) {
+            patientSamplePatients[i] = getOrdinal(patientOrdinals, patientSamples.get(i).getPatientId());
+            getOrdinal(sampleOrdinals, patientSamples.get(i).getSampleId());
+        }
+        // the samples without time are neither taken before nor after a treatment
+        ClinicalEventSample[] timedSamples = takenSamples.stream()
+            .filter(sample -> sample.getTimeTaken() != null)
+            .toArray(ClinicalEventSample[]::new);
+        int[] takenSamplePatients = new int[timedSamples.length];
+        for (int i = 0; i < timedSamples.length; i++) {
+            takenSamplePatients[i] = getOrdinal(patientOrdinals, timedSamples[i].getPatientId());
+            getOrdinal(sampleOrdinals, timedSamples[i].getSampleId());
+        }
+        // the first start of each treatment of each patient, by treatment and patient
+        Map<String, Integer> treatmentOrdinals = new HashMap<>();
+        Map<Long, Integer> firstStarts = new HashMap<>();
+        for (Treatment treatment : treatments) {
+            if (treatment.getStart() != null) {
+                int ordinal = getOrdinal(treatmentOrdinals, treatment.getTreatment());
+                int patient = getOrdinal(patientOrdinals, treatment.getPatientId());
+                firstStarts.merge(((long) ordinal << 32) | patient, treatment.getStart(), Math::min);
+            }
+        }
+        int patientCount = patientOrdinals.size();
+
+        patientSampleOffsets = getOffsets(patientSamplePatients, patientCount);
+        this.patientSamples = new ClinicalEventSample[patientSamples.size()];
+        patientSampleOrdinals = new int[patientSamples.size()];
+        int[] nextPatientSample = Arrays.copyOf(patientSampleOffsets, patientCount);
+        for (int i = 0; i < patientSamples.size(); i++) {
+            int position = nextPatientSample[patientSamplePatients[i]]++;
+            this.patientSamples[position] = patientSamples.get(i);
+            patientSampleOrdinals[position] = sampleOrdinals.get(patientSamples.get(i).getSampleId());
+        }
+
+        Integer[] takenOrder = new Integer[timedSamples.length];
+        for (int i = 0; i < takenOrder.length; i++) {
+            takenOrder[i] = i;
+        }
+        Arrays.sort(takenOrder, (i, j) -> takenSamplePatients[i] != takenSamplePatients[j] ?
+            Integer.compare(takenSamplePatients[i], takenSamplePatients[j]) :
+            Integer.compare(timedSamples[i].getTimeTaken(), timedSamples[j].getTimeTaken()));
+        takenSampleOffsets = getOffsets(takenSamplePatients, patientCount);
+        this.takenSamples = new ClinicalEventSample[timedSamples.length];
+        takenSampleTimes = new int[timedSamples.length];
+        takenSampleOrdinals = new int[timedSamples.length];
+        for (int position = 0; position < takenOrder.length; position++) {
+            ClinicalEventSample sample = timedSamples[takenOrder[position]];
+            this.takenSamples[position] = sample;
+            takenSampleTimes[position] = sample.getTimeTaken();
+            takenSampleOrdinals[position] = sampleOrdinals.get(sample.getSampleId());
+        }
+
+        this.treatments = new String[treatmentOrdinals.size()];
+        treatmentOrdinals.forEach((treatment, ordinal) -> this.treatments[ordinal] = treatment);
+        // the keys sort by treatment, then by patient
+        long[] treatmentKeys = firstStarts.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        int[] keyTreatments = new int[treatmentKeys.length];
+        treatmentPatients = new int[treatmentKeys.length];
+        treatmentStarts = new int[treatmentKeys.length];
+        for (int i = 0; i < treatmentKeys.length; i++) {
+            keyTreatments[i] = (int) (treatmentKeys[i] >>> 32);
+            treatmentPatients[i] = (int) treatmentKeys[i];
+            treatmentStarts[i] = firstStarts.get(treatmentKeys[i]);
+        }
+        treatmentOffsets = getOffsets(keyTreatments, this.treatments.length);
+    }
+
+    /**
+     * @return the ordinals of the samples to pass as filter, the samples not in the study are left out
+     */
+    public BitSet getSampleOrdinals(Collection<String> sampleIds) {
+        BitSet ordinals = new BitSet(sampleOrdinals.size());
+        for (String sampleId : sampleIds) {
+            Integer ordinal = sampleOrdinals.get(sampleId);
+            if (ordinal != null) {
+                ordinals.set(ordinal);
+            }
+        }
+        return ordinals;
+    }
+
+    public boolean hasTreatments() {
+        return treatments.length > 0;
+    }
+
+    public boolean hasTakenSamples() {
+        return takenSamples.length > 0;
+    }
+
+    /**
+     * Adds the samples taken before and after each treatment to the rows, which are merged by
+     * {@link SampleTreatmentRow#key()} across studies. Rows without samples are not added.
+     *
+     * @param samples ordinals of the samples to count, or null to count all samples
+     */
+    public void addSampleTreatmentRows(BitSet samples, Map<String, SampleTreatmentRow> rows) {
+        for (int treatment = 0; treatment < treatments.length; treatment++) {
+            for (int i = treatmentOffsets[treatment]; i < treatmentOffsets[treatment + 1]; i++) {
+                int patient = treatmentPatients[i];
+                int first = takenSampleOffsets[patient];
+                int last = takenSampleOffsets[patient + 1];
+                // edge case: a sample taken the same day a treatment starts is pre
+                int firstPost = getFirstTakenAfter(first, last, treatmentStarts[i]);
+                for (int sample = first; sample < last; sample++) {
+                    if (samples == null || samples.get(takenSampleOrdinals[sample])) {
+                        TemporalRelation time = sample < firstPost ? TemporalRelation.Pre : TemporalRelation.Post;
+                        getSampleTreatmentRow(rows, time, treatments[treatment]).getSamples().add(takenSamples[sample]);
+                    }
+                }
+            }
+        }
+        rows.values().forEach(row -> row.setCount(row.getSamples().size()));
+    }
+
+    /**
+     * Adds the patients who received each treatment, with their samples, to the rows, which are merged by treatment
+     * across studies.
+     *
+     * @param samples ordinals of the samples to count, or null to count all samples. A patient is counted if one of
+     * its samples is.
+     */
+    public void addPatientTreatmentRows(BitSet samples, Map<String, PatientTreatmentRow> rows) {
+        for (int treatment = 0; treatment < treatments.length; treatment++) {
+            PatientTreatmentRow row = null;
+            for (int i = treatmentOffsets[treatment]; i < treatmentOffsets[treatment + 1]; i++) {
+                int patient = treatmentPatients[i];
+                boolean counted = samples == null;
+                for (int sample = patientSampleOffsets[patient]; sample < patientSampleOffsets[patient + 1]; sample++) {
+                    if (samples == null || samples.get(patientSampleOrdinals[sample])) {
+                        counted = true;
+                        if (row == null) {
+                            row = getPatientTreatmentRow(rows, treatments[treatment]);
+                        }
+                        row.getSamples().add(patientSamples[sample]);
+                    }
+                }
+                if (counted) {
+                    if (row == null) {
+                        row = getPatientTreatmentRow(rows, treatments[treatment]);
+                    }
+                    row.setCount(row.getCount() + 1);
+                }
+            }
+        }
+    }
+
+    public int estimatedBytes() {
+        long bytes = (long) Integer.BYTES * (treatmentOffsets.length + treatmentPatients.length +
+            treatmentStarts.length + takenSampleOffsets.length + takenSampleTimes.length + takenSampleOrdinals.length +
+            patientSampleOffsets.length + patientSampleOrdinals.length);
+        // the samples with their ids, which are mostly shared, and the map entries of the sample ordinals
+        bytes += 120L * (takenSamples.length + patientSamples.length + sampleOrdinals.size());
+        for (String treatment : treatments) {
+            bytes += 40L + (long) treatment.length() * Character.BYTES;
+        }
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    // keyed like SampleTreatmentRow#key()
+    private SampleTreatmentRow getSampleTreatmentRow(Map<String, SampleTreatmentRow> rows, TemporalRelation time,
+                                                     String treatment) {
+        return rows.computeIfAbsent(treatment + time.name(),
+            key -> new SampleTreatmentRow(time, treatment, 0, new HashSet<>()));
+    }
+
+    private PatientTreatmentRow getPatientTreatmentRow(Map<String, PatientTreatmentRow> rows, String treatment) {
+        return rows.computeIfAbsent(treatment, key -> new PatientTreatmentRow(treatment, 0, new HashSet<>()));
+    }
+
+    // first position from first to last with a sample taken after the time, last if there is none
+    private int getFirstTakenAfter(int first, int last, int time) {
+        while (first < last) {
+            int middle = (first + last) >>> 1;
+            if (takenSampleTimes[middle] > time) {
+                last = middle;
+            } else {
+                first = middle + 1;
+            }
+        }
+        return first;
+    }
+
+    private static int getOrdinal(Map<String, Integer> ordinals, String value) {
+        return ordinals.computeIfAbsent(value, key -> ordinals.size());
+    }
+
+    // offsets of the groups of values from 0 to count - 1 once sorted, with the total at the end
+    private static int[] getOffsets(int[] groups, int count) {
+        int[] offsets = new int[count + 1];
+        for (int group : groups) {
+            offsets[group + 1]++;
+        }
+        for (int group = 0; group < count; group++) {
+            offsets[group + 1] += offsets[group];
+        }
+        return offsets;
+    }
+}
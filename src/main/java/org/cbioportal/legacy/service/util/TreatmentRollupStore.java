@@ -0,0 +1,102 @@
+package org.cbioportal.legacy.service.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import jakarta.annotation.PostConstruct;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+import org.cbioportal.legacy.model.ClinicalEventKeyCode;
+import org.cbioportal.legacy.persistence.TreatmentRepository;
+import org.cbioportal.legacy.persistence.util.GuavaCacheUtils;
+import org.cbioportal.legacy.service.StaticDataTimestampService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Treatment rollups of whole studies, so that the treatment rows of the samples selected in the study view are
+ * computed without the database. The rollup of a study and treatment key is built when it is first queried, kept up
+ * to a total size in memory, and rebuilt when the static data timestamps of the tables it is built from change.
+ */
+@Component
+public class TreatmentRollupStore {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TreatmentRollupStore.class);
+    private static final List<String> TABLES = Arrays.asList("clinical_event", "clinical_event_data", "patient",
+        "sample");
+
+    @Value("${treatment_rollup.store.enabled:false}")
+    private boolean enabled;
+
+    @Value("${treatment_rollup.store.max_mega_bytes:256}")
+    private long maxMegaBytes;
+
+    @Autowired
+    private TreatmentRepository treatmentRepository;
+
+    @Autowired
+    private StaticDataTimestampService staticDataTimestampService;
+
+    private Cache<Pair<String, ClinicalEventKeyCode>, VersionedRollup> rollups;
+
+    @PostConstruct
+    public void init() {
+        rollups = CacheBuilder.newBuilder()
+            .maximumWeight(maxMegaBytes * 1024 * 1024)
+            .weigher((Pair<String, ClinicalEventKeyCode> key, VersionedRollup rollup) -> rollup.rollup.estimatedBytes())
+            .build();
+    }
+
+    /**
+     * @return the rollups of the studies by study id, or empty if the treatment rows have to be computed by the
+     * database
+     */
+    public Optional<Map<String, TreatmentRollup>> getRollups(Collection<String> studyIds, ClinicalEventKeyCode key) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        String version = staticDataTimestampService.getVersion(TABLES);
+        if (version == null) {
+            return Optional.empty();
+        }
+        Map<String, TreatmentRollup> studyRollups = new LinkedHashMap<>();
+        for (String studyId : new LinkedHashSet<>(studyIds)) {
+            studyRollups.put(studyId, getRollup(ImmutablePair.of(studyId, key), version));
+        }
+        return Optional.of(studyRollups);
+    }
+
+    private TreatmentRollup getRollup(Pair<String, ClinicalEventKeyCode> studyKey, String version) {
+        VersionedRollup rollup = rollups.getIfPresent(studyKey);
+        if (rollup != null && !rollup.version.equals(version)) {
+            rollups.asMap().remove(studyKey, rollup);
+        }
+        // concurrent queries of a study that is not built yet wait for a single build
+        return GuavaCacheUtils.get(rollups, studyKey, () -> build(studyKey, version)).rollup;
+    }
+
+    private VersionedRollup build(Pair<String, ClinicalEventKeyCode> studyKey, String version) {
+        long start = System.currentTimeMillis();
+        String studyId = studyKey.getLeft();
+        TreatmentRollup rollup = new TreatmentRollup(
+            treatmentRepository.getTreatmentsOfStudy(studyId, studyKey.getRight()),
+            treatmentRepository.getSamplesOfStudy(studyId),
+            treatmentRepository.getShallowSamplesOfStudy(studyId));
+        LOG.info("Built {} treatment rollup of study {} in {} ms", studyKey.getRight().getKey(), studyId,
+            System.currentTimeMillis() - start);
+        return new VersionedRollup(version, rollup);
+    }
+
+    private record VersionedRollup(String version, TreatmentRollup rollup) {
+    }
+}
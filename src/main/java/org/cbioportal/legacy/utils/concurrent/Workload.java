@@ -0,0 +1,34 @@
+package org.cbioportal.legacy.utils.concurrent;
+
+/**
+ * Classes of expensive work that are isolated from each other by {@link WorkloadExecutors}.
+ */
+public enum Workload {
+
+    CO_EXPRESSION("co_expression", false),
+    ENRICHMENT("enrichment", false),
+    SESSION_SERVICE("session_service", true),
+    STUDY_VIEW("study_view", true);
+
+    private final String name;
+    private final boolean blocking;
+
+    Workload(String name, boolean blocking) {
+        this.name = name;
+        this.blocking = blocking;
+    }
+
+    /**
+     * @return the name of the workload in the properties, e.g. workload.co_expression.pool_size
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return whether the tasks of the workload mostly wait for other services, so they run on virtual threads
+     */
+    public boolean isBlocking() {
+        return blocking;
+    }
+}
@@ -0,0 +1,257 @@
+package org.cbioportal.legacy.utils.concurrent;
+
+import jakarta.annotation.PreDestroy;
+import org.cbioportal.legacy.service.exception.TooManyRequestsException;
+import org.springframework.core.env.Environment;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Separate thread pools and admission limits for the classes of expensive work, so that one of them, or one user,
+ * cannot take the threads and memory that every other request needs.
+ *
+ * Each workload has a fixed number of threads and a bounded queue of tasks; a task submitted while the queue is full
+ * fails at once with a {@link RejectedExecutionException} instead of waiting. A request of a workload is admitted
+ * while the number of running requests of the workload, in total and of the same user, is below its limits;
+ * otherwise it fails at once with a {@link RejectedExecutionException} or a {@link TooManyRequestsException}.
+ *
+ * The settings are read per workload, e.g. workload.co_expression.queue_capacity, and otherwise from the defaults for
+ * all workloads, e.g. workload.queue_capacity. Anonymous users only have a limit per user, by their address, if
+ * workload.limit_anonymous_users is true.
+ */
+@Component
+public class WorkloadExecutors {
+
+    private static final String PROPERTY_PREFIX = "workload.";
+    private static final int DEFAULT_QUEUE_CAPACITY = 1000;
+    private static final int DEFAULT_MAX_REQUESTS = 32;
+    private static final int DEFAULT_MAX_REQUESTS_PER_USER = 4;
+    // as many threads as connections to the session service by default
+    private static final int DEFAULT_SESSION_SERVICE_POOL_SIZE = 20;
+    private static final long KEEP_ALIVE_SECONDS = 60;
+    /**
+     * A request of a workload that splits its work into tasks has at most this many tasks per thread of its pool
+     * submitted at once.
+     */
+    public static final int PENDING_TASKS_PER_THREAD = 2;
+
+    private final Environment environment;
+    private final Map<Workload, Pool> pools = new ConcurrentHashMap<>();
+    private final Map<Workload, Admissions> admissions = new ConcurrentHashMap<>();
+    private final boolean limitAnonymousUsers;
+
+    public WorkloadExecutors(Environment environment) {
+        this.environment = environment;
+        this.limitAnonymousUsers = environment.getProperty(PROPERTY_PREFIX + "limit_anonymous_users", Boolean.class,
+            false);
+    }
+
+    /**
+     * @return the executor of the workload, shared by all its callers, so it must not be shut down
+     */
+    public ExecutorService executor(Workload workload) {
+        return getPool(workload).executor;
+    }
+
+    public int getPoolSize(Workload workload) {
+        return getPool(workload).executor.getMaximumPoolSize();
+    }
+
+    /**
+     * Whether anonymous users are told apart by their address to limit their requests. Behind a proxy the address
+     * is only theirs if it is resolved from the forwarded headers, otherwise all of them share the limit of one user.
+     */
+    public boolean isLimitingAnonymousUsers() {
+        return limitAnonymousUsers;
+    }
+
+    /**
+     * Admits a request of the workload, which must be closed when the request completes.
+     *
+     * @param user the name or address of the user making the request, or null to not limit it per user
+     * @throws TooManyRequestsException if the user already has the maximum number of running requests
+     * @throws RejectedExecutionException if the workload already has the maximum number of running requests
+     */
+    public Admission admit(Workload workload, @Nullable String user) {
+        return getAdmissions(workload).admit(user);
+    }
+
+    public String getStatistics() {
+        StringBuilder statistics = new StringBuilder();
+        for (Workload workload : Workload.values()) {
+            Pool pool = pools.get(workload);
+            Admissions workloadAdmissions = admissions.get(workload);
+            if (pool == null && workloadAdmissions == null) {
+                continue;
+            }
+            statistics.append(workload.getName()).append(": ");
+            if (workloadAdmissions != null) {
+                statistics.append(workloadAdmissions.getStatistics());
+            }
+            if (pool != null) {
+                statistics.append(workloadAdmissions != null ? "; " : "").append(pool.getStatistics());
+            }
+            statistics.append("\n");
+        }
+        return statistics.toString();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        pools.values().forEach(pool -> pool.executor.shutdownNow());
+    }
+
+    private Pool getPool(Workload workload) {
+        return pools.computeIfAbsent(workload, this::createPool);
+    }
+
+    private Admissions getAdmissions(Workload workload) {
+        return admissions.computeIfAbsent(workload, key -> new Admissions(key,
+            getProperty(key, "max_requests", DEFAULT_MAX_REQUESTS),
+            getProperty(key, "max_requests_per_user", DEFAULT_MAX_REQUESTS_PER_USER)));
+    }
+
+    private Pool createPool(Workload workload) {
+        int poolSize = Math.max(1, getProperty(workload, "pool_size", getDefaultPoolSize(workload)));
+        int queueCapacity = Math.max(1, getProperty(workload, "queue_capacity", getDefaultQueueCapacity(workload,
+            poolSize)));
+        String threadName = "workload-" + workload.getName() + "-";
+        ThreadFactory threadFactory = workload.isBlocking() ?
+            Thread.ofVirtual().name(threadName, 0).factory() :
+            Thread.ofPlatform().name(threadName, 0).daemon().factory();
+        return new Pool(workload, poolSize, queueCapacity, threadFactory);
+    }
+
+    // the pools that replaced older settings keep their sizes
+    private int getDefaultPoolSize(Workload workload) {
+        int processors = Runtime.getRuntime().availableProcessors();
+        return switch (workload) {
+            case CO_EXPRESSION -> environment.getProperty("multithread.core_pool_size", Integer.class, processors);
+            case STUDY_VIEW -> environment.getProperty("study_view.chart_batch.parallelism", Integer.class, processors);
+            case SESSION_SERVICE -> DEFAULT_SESSION_SERVICE_POOL_SIZE;
+            case ENRICHMENT -> processors;
+        };
+    }
+
+    // the queue of the co-expression tasks holds the pending tasks of as many requests as are admitted, so that an
+    // admitted request does not fail half way through
+    private int getDefaultQueueCapacity(Workload workload, int poolSize) {
+        if (workload != Workload.CO_EXPRESSION) {
+            return DEFAULT_QUEUE_CAPACITY;
+        }
+        int maxRequests = getProperty(workload, "max_requests", DEFAULT_MAX_REQUESTS);
+        return Math.max(DEFAULT_QUEUE_CAPACITY, maxRequests * PENDING_TASKS_PER_THREAD * poolSize);
+    }
+
+    private int getProperty(Workload workload, String name, int defaultValue) {
+        return environment.getProperty(PROPERTY_PREFIX + workload.getName() + "." + name, Integer.class,
+            environment.getProperty(PROPERTY_PREFIX + name, Integer.class, defaultValue));
+    }
+
+    /**
+     * A running request of a workload, which is released when closed.
+     */
+    public interface Admission extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static class Pool {
+
+        private final ThreadPoolExecutor executor;
+        private final int queueCapacity;
+        private final LongAdder rejectedTasks = new LongAdder();
+
+        Pool(Workload workload, int poolSize, int queueCapacity, ThreadFactory threadFactory) {
+            this.queueCapacity = queueCapacity;
+            executor = new ThreadPoolExecutor(poolSize, poolSize, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), threadFactory, (task, rejectingExecutor) -> {
+                    rejectedTasks.increment();
+                    throw new RejectedExecutionException("The " + workload.getName() + " workload is saturated");
+                });
+            executor.allowCoreThreadTimeOut(true);
+        }
+
+        String getStatistics() {
+            return "threads active " + executor.getActiveCount() + " of " + executor.getMaximumPoolSize()
+                + ", tasks queued " + executor.getQueue().size() + " of " + queueCapacity
+                + ", completed " + executor.getCompletedTaskCount() + ", rejected " + rejectedTasks.sum();
+        }
+    }
+
+    private static class Admissions {
+
+        private final Workload workload;
+        private final int maxRequests;
+        private final int maxRequestsPerUser;
+        private final AtomicInteger runningRequests = new AtomicInteger();
+        private final Map<String, AtomicInteger> runningRequestsPerUser = new ConcurrentHashMap<>();
+        private final LongAdder admittedRequests = new LongAdder();
+        private final LongAdder rejectedRequests = new LongAdder();
+        private final LongAdder rejectedUserRequests = new LongAdder();
+
+        Admissions(Workload workload, int maxRequests, int maxRequestsPerUser) {
+            this.workload = workload;
+            this.maxRequests = maxRequests;
+            this.maxRequestsPerUser = maxRequestsPerUser;
+        }
+
+        Admission admit(@Nullable String user) {
+            if (user != null) {
+                // the count of a user is removed with its last request, under the lock of its entry
+                AtomicInteger userRequests = runningRequestsPerUser.compute(user, (key, count) -> {
+                    AtomicInteger userCount = count == null ? new AtomicInteger() : count;
+                    userCount.incrementAndGet();
+                    return userCount;
+                });
+                if (userRequests.get() > maxRequestsPerUser) {
+                    release(user);
+                    rejectedUserRequests.increment();
+                    throw new TooManyRequestsException("Too many " + workload.getName() + " requests of the same " +
+                        "user are running, please try again later");
+                }
+            }
+            if (runningRequests.incrementAndGet() > maxRequests) {
+                runningRequests.decrementAndGet();
+                release(user);
+                rejectedRequests.increment();
+                throw new RejectedExecutionException("Too many " + workload.getName() + " requests are running, " +
+                    "please try again later");
+            }
+            admittedRequests.increment();
+            AtomicBoolean closed = new AtomicBoolean();
+            return () -> {
+                if (!closed.getAndSet(true)) {
+                    runningRequests.decrementAndGet();
+                    release(user);
+                }
+            };
+        }
+
+        private void release(@Nullable String user) {
+            if (user == null) {
+                return;
+            }
+            runningRequestsPerUser.computeIfPresent(user, (key, count) -> count.decrementAndGet() == 0 ? null : count);
+        }
+
+        String getStatistics() {
+            return "requests running " + runningRequests.get() + " of " + maxRequests
+                + ", users " + runningRequestsPerUser.size() + ", admitted " + admittedRequests.sum()
+                + ", rejected " + rejectedRequests.sum() + ", rejected over the limit per user "
+                + rejectedUserRequests.sum();
+        }
+    }
+}
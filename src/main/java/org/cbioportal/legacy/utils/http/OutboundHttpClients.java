@@ -0,0 +1,179 @@
+package org.cbioportal.legacy.utils.http;
+
+import jakarta.annotation.PreDestroy;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.InterceptingClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shared HTTP clients for the calls to other services, such as the session service and the proxied APIs. Each
+ * destination has its own pool of kept-alive connections, so that a slow service cannot take the connections of
+ * another one, and the number of connections of a pool bounds the number of concurrent requests to its
+ * destination. A request that waits longer than the pool timeout for a connection fails.
+ *
+ * The settings are read per destination, e.g. http_client.session_service.read_timeout_ms, and otherwise from the
+ * defaults for all destinations, e.g. http_client.read_timeout_ms.
+ */
+@Component
+public class OutboundHttpClients {
+
+    public static final String SESSION_SERVICE = "session_service";
+    public static final String PROXY = "proxy";
+    public static final String DARWIN = "darwin";
+
+    private static final String PROPERTY_PREFIX = "http_client.";
+    private static final int DEFAULT_MAX_CONNECTIONS = 20;
+    private static final long DEFAULT_CONNECT_TIMEOUT_MS = 5000;
+    private static final long DEFAULT_READ_TIMEOUT_MS = 60000;
+    private static final long DEFAULT_POOL_TIMEOUT_MS = 5000;
+    private static final long IDLE_CONNECTION_TIMEOUT_MS = 30000;
+
+    private final Environment environment;
+    private final Map<String, Destination> destinations = new ConcurrentHashMap<>();
+
+    public OutboundHttpClients(Environment environment) {
+        this.environment = environment;
+    }
+
+    /**
+     * @return the rest template of the destination, shared by all its callers, so it must not be modified
+     */
+    public RestTemplate restTemplate(String destination) {
+        return getDestination(destination).restTemplate;
+    }
+
+    /**
+     * @return the request factory of the destination, for callers that need a rest template of their own
+     */
+    public ClientHttpRequestFactory requestFactory(String destination) {
+        return getDestination(destination).requestFactory;
+    }
+
+    public String getStatistics() {
+        StringBuilder statistics = new StringBuilder();
+        new TreeMap<>(destinations).forEach((name, destination) ->
+            statistics.append(name).append(": ").append(destination.getStatistics()).append("\n"));
+        return statistics.toString();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        destinations.values().forEach(destination -> destination.httpClient.close(CloseMode.GRACEFUL));
+    }
+
+    private Destination getDestination(String destination) {
+        return destinations.computeIfAbsent(destination, this::createDestination);
+    }
+
+    private Destination createDestination(String destination) {
+        int maxConnections = getProperty(destination, "max_connections", Integer.class, DEFAULT_MAX_CONNECTIONS);
+        Timeout readTimeout = Timeout.ofMilliseconds(
+            getProperty(destination, "read_timeout_ms", Long.class, DEFAULT_READ_TIMEOUT_MS));
+
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(maxConnections)
+            .setMaxConnPerRoute(maxConnections)
+            .setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(
+                    getProperty(destination, "connect_timeout_ms", Long.class, DEFAULT_CONNECT_TIMEOUT_MS)))
+                .setSocketTimeout(readTimeout)
+                .build())
+            .build();
+        CloseableHttpClient httpClient = HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .setDefaultRequestConfig(RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(
+                    getProperty(destination, "pool_timeout_ms", Long.class, DEFAULT_POOL_TIMEOUT_MS)))
+                .setResponseTimeout(readTimeout)
+                .build())
+            .evictIdleConnections(TimeValue.ofMilliseconds(IDLE_CONNECTION_TIMEOUT_MS))
+            // the client is shared by all users, so it must not keep the cookies of one for another
+            .disableCookieManagement()
+            .build();
+        return new Destination(connectionManager, httpClient);
+    }
+
+    private <T> T getProperty(String destination, String name, Class<T> type, T defaultValue) {
+        return environment.getProperty(PROPERTY_PREFIX + destination + "." + name, type,
+            environment.getProperty(PROPERTY_PREFIX + name, type, defaultValue));
+    }
+
+    private static class Destination implements ClientHttpRequestInterceptor {
+
+        private final PoolingHttpClientConnectionManager connectionManager;
+        private final CloseableHttpClient httpClient;
+        private final ClientHttpRequestFactory requestFactory;
+        private final RestTemplate restTemplate;
+
+        private final LongAdder requestCount = new LongAdder();
+        private final LongAdder errorCount = new LongAdder();
+        private final LongAdder requestNanos = new LongAdder();
+        private final LongAccumulator maxRequestNanos = new LongAccumulator(Math::max, 0);
+
+        Destination(PoolingHttpClientConnectionManager connectionManager, CloseableHttpClient httpClient) {
+            this.connectionManager = connectionManager;
+            this.httpClient = httpClient;
+            this.requestFactory = new InterceptingClientHttpRequestFactory(
+                new HttpComponentsClientHttpRequestFactory(httpClient), List.of(this));
+            this.restTemplate = new RestTemplate(requestFactory);
+        }
+
+        @Override
+        public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+
+            long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                ClientHttpResponse response = execution.execute(request, body);
+                failed = response.getStatusCode().isError();
+                return response;
+            } finally {
+                long nanos = System.nanoTime() - start;
+                requestCount.increment();
+                requestNanos.add(nanos);
+                maxRequestNanos.accumulate(nanos);
+                if (failed) {
+                    errorCount.increment();
+                }
+            }
+        }
+
+        String getStatistics() {
+            long requests = requestCount.sum();
+            long millis = TimeUnit.NANOSECONDS.toMillis(requestNanos.sum());
+            PoolStats poolStats = connectionManager.getTotalStats();
+            return requests + " requests, " + errorCount.sum() + " errors"
+                + ", avg " + (requests == 0 ? 0 : millis / requests) + " ms"
+                + ", max " + TimeUnit.NANOSECONDS.toMillis(maxRequestNanos.get()) + " ms"
+                + "; connections leased " + poolStats.getLeased() + ", available " + poolStats.getAvailable()
+                + ", max " + poolStats.getMax() + ", requests waiting " + poolStats.getPending();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package org.cbioportal.legacy.utils.metrics;
+
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Latency histograms of the requests per endpoint and phase and of the database statements, and the counts of the
+ * cache lookups per cache kept by the cache implementation in use, exported in the Prometheus text format so that
+ * they can be scraped and aggregated over time and instances.
+ *
+ * The endpoints are identified by their mapped path pattern and the statements by their mapper and method, so the
+ * number of series is bounded by the code and not by the requests.
+ */
+@Component
+public class ApplicationMetrics {
+
+    private static final String REQUEST_METRIC = "cbioportal_request_duration_seconds";
+    private static final String STATEMENT_METRIC = "cbioportal_sql_statement_duration_seconds";
+    private static final String CACHE_METRIC = "cbioportal_cache_lookups_total";
+
+    // keyed by the labels of the series, sorted so that the export is stable
+    private final Map<String, LatencyHistogram> requestHistograms = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> statementHistograms = new ConcurrentHashMap<>();
+    private final List<CacheLookupSource> cacheLookupSources;
+
+    /**
+     * @param cacheLookupSources resolved on the first export, as the caches depend on beans that use these metrics
+     */
+    public ApplicationMetrics(@Lazy List<CacheLookupSource> cacheLookupSources) {
+        this.cacheLookupSources = cacheLookupSources;
+    }
+
+    /**
+     * Records the total time of a request and the time of each of its phases.
+     *
+     * @param endpoint the path pattern the request was mapped to
+     */
+    public void recordRequest(String method, String endpoint, RequestTimer.Timings timings) {
+        String labels = "method=\"" + escape(method) + "\",endpoint=\"" + escape(endpoint) + "\",phase=\"";
+        getHistogram(requestHistograms, labels + "total\"").record(timings.totalNanos());
+        for (RequestTimer.Phase phase : RequestTimer.Phase.values()) {
+            getHistogram(requestHistograms, labels + phase.getName() + "\"").record(timings.getNanos(phase));
+        }
+    }
+
+    /**
+     * @param statement the id of the mapped statement, of which only the mapper and method are kept
+     */
+    public void recordStatement(String database, String statement, long nanos) {
+        int method = statement.lastIndexOf('.');
+        int mapper = method < 0 ? -1 : statement.lastIndexOf('.', method - 1);
+        String labels = "database=\"" + escape(database) + "\",statement=\"" +
+            escape(statement.substring(mapper + 1)) + "\"";
+        getHistogram(statementHistograms, labels).record(nanos);
+    }
+
+    public String getPrometheusText() {
+        StringBuilder output = new StringBuilder();
+        writeHistograms(output, REQUEST_METRIC, "Time of the requests per endpoint, in total and per phase",
+            requestHistograms);
+        writeHistograms(output, STATEMENT_METRIC, "Time of the database statements per mapper method",
+            statementHistograms);
+        output.append("# HELP ").append(CACHE_METRIC)
+            .append(" Lookups of the repository caches per cache and result\n");
+        output.append("# TYPE ").append(CACHE_METRIC).append(" counter\n");
+        List<CacheLookupSource.CacheLookups> cacheLookups = cacheLookupSources.stream()
+            .flatMap(cacheLookupSource -> cacheLookupSource.getCacheLookups().stream())
+            .sorted(Comparator.comparing(CacheLookupSource.CacheLookups::cache))
+            .collect(Collectors.toList());
+        for (CacheLookupSource.CacheLookups lookups : cacheLookups) {
+            writeCacheLookups(output, lookups.cache(), "hit", lookups.hits());
+            writeCacheLookups(output, lookups.cache(), "miss", lookups.misses());
+        }
+        return output.toString();
+    }
+
+    private static void writeCacheLookups(StringBuilder output, String cache, String result, long count) {
+        output.append(CACHE_METRIC).append("{cache=\"").append(escape(cache)).append("\",result=\"").append(result)
+            .append("\"} ").append(count).append('\n');
+    }
+
+    private static void writeHistograms(StringBuilder output, String name, String help,
+                                        Map<String, LatencyHistogram> histograms) {
+        output.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        output.append("# TYPE ").append(name).append(" histogram\n");
+        new TreeMap<>(histograms).forEach((labels, histogram) -> histogram.write(output, name, labels));
+    }
+
+    private static LatencyHistogram getHistogram(Map<String, LatencyHistogram> histograms, String labels) {
+        return histograms.computeIfAbsent(labels, key -> new LatencyHistogram());
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
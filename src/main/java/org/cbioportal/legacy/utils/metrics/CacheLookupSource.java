@@ -0,0 +1,15 @@
+package org.cbioportal.legacy.utils.metrics;
+
+import java.util.List;
+
+/**
+ * The hit and miss counts a cache implementation keeps of its caches. The metrics export these counts, so that they
+ * are the same as the ones of the cache statistics endpoint.
+ */
+public interface CacheLookupSource {
+
+    record CacheLookups(String cache, long hits, long misses) {
+    }
+
+    List<CacheLookups> getCacheLookups();
+}
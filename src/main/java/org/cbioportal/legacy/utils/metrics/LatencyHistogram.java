@@ -0,0 +1,58 @@
+package org.cbioportal.legacy.utils.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts of latencies in fixed buckets from a millisecond to a minute, which are cheap to record from many threads
+ * and can be summed over instances and time by the scraper.
+ */
+public class LatencyHistogram {
+
+    // upper bounds of the buckets in seconds, the last bucket holds everything above
+    static final double[] BOUNDS = {0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60};
+    private static final long[] BOUND_NANOS = new long[BOUNDS.length];
+
+    static {
+        for (int i = 0; i < BOUNDS.length; i++) {
+            BOUND_NANOS[i] = (long) (BOUNDS[i] * TimeUnit.SECONDS.toNanos(1));
+        }
+    }
+
+    private final LongAdder[] buckets = new LongAdder[BOUNDS.length + 1];
+    private final LongAdder sumNanos = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        int bucket = 0;
+        while (bucket < BOUND_NANOS.length && nanos > BOUND_NANOS[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        sumNanos.add(nanos);
+    }
+
+    /**
+     * Appends the histogram in the Prometheus text format, with cumulative buckets.
+     *
+     * @param labels the labels of the series without braces, e.g. database="mysql"
+     */
+    void write(StringBuilder output, String name, String labels) {
+        String prefix = labels.isEmpty() ? "" : labels + ",";
+        long count = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            count += buckets[i].sum();
+            String bound = i < BOUNDS.length ? Double.toString(BOUNDS[i]) : "+Inf";
+            output.append(name).append("_bucket{").append(prefix).append("le=\"").append(bound).append("\"} ")
+                .append(count).append('\n');
+        }
+        output.append(name).append("_sum{").append(labels).append("} ")
+            .append(sumNanos.sum() / (double) TimeUnit.SECONDS.toNanos(1)).append('\n');
+        output.append(name).append("_count{").append(labels).append("} ").append(count).append('\n');
+    }
+}
@@ -0,0 +1,107 @@
+package org.cbioportal.legacy.utils.metrics;
+
+/**
+ * Splits the time a request spends on its thread into phases. At any moment the thread is in exactly one phase, so
+ * the phases add up to the total time of the request: the time in a nested phase, such as a database statement run
+ * while a study view filter is applied, counts for the nested phase only.
+ *
+ * The timer of a request is bound to the thread that handles it. Work done on other threads, e.g. by the workload
+ * executors, counts as the phase the request thread is in while it waits for that work.
+ */
+public final class RequestTimer {
+
+    public enum Phase {
+        // parsing and applying the filters of the request, such as the study view filter
+        FILTER,
+        DATABASE,
+        COMPUTATION,
+        // writing the response body
+        SERIALIZATION;
+
+        public String getName() {
+            return name().toLowerCase();
+        }
+    }
+
+    /**
+     * A nested phase, which returns the thread to the phase it was in when closed.
+     */
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final ThreadLocal<RequestTimer> CURRENT = new ThreadLocal<>();
+    private static final Scope NO_SCOPE = () -> { };
+
+    private final long start;
+    private final long[] phaseNanos = new long[Phase.values().length];
+    private Phase phase;
+    private long phaseStart;
+
+    private RequestTimer(Phase phase, long start) {
+        this.start = start;
+        this.phase = phase;
+        this.phaseStart = start;
+    }
+
+    /**
+     * Starts timing a request on the current thread, in the given phase.
+     */
+    public static void start(Phase phase) {
+        CURRENT.set(new RequestTimer(phase, System.nanoTime()));
+    }
+
+    /**
+     * Moves the request on the current thread to the given phase, if a request is being timed.
+     */
+    public static void switchTo(Phase phase) {
+        RequestTimer timer = CURRENT.get();
+        if (timer != null) {
+            timer.enter(phase, System.nanoTime());
+        }
+    }
+
+    /**
+     * Moves the request on the current thread to the given phase until the scope is closed. Phases entered outside a
+     * timed request, e.g. on a background thread, are not timed.
+     */
+    public static Scope enter(Phase phase) {
+        RequestTimer timer = CURRENT.get();
+        if (timer == null) {
+            return NO_SCOPE;
+        }
+        Phase previous = timer.phase;
+        timer.enter(phase, System.nanoTime());
+        return () -> timer.enter(previous, System.nanoTime());
+    }
+
+    /**
+     * Stops timing the request on the current thread.
+     *
+     * @return the timings of the request, or null if no request was being timed
+     */
+    public static Timings stop() {
+        RequestTimer timer = CURRENT.get();
+        if (timer == null) {
+            return null;
+        }
+        CURRENT.remove();
+        long now = System.nanoTime();
+        timer.enter(timer.phase, now);
+        return new Timings(now - timer.start, timer.phaseNanos.clone());
+    }
+
+    private void enter(Phase next, long now) {
+        phaseNanos[phase.ordinal()] += now - phaseStart;
+        phase = next;
+        phaseStart = now;
+    }
+
+    public record Timings(long totalNanos, long[] phaseNanos) {
+
+        public long getNanos(Phase phase) {
+            return phaseNanos[phase.ordinal()];
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.cbioportal.legacy.web;
 
+import org.cbioportal.legacy.utils.metrics.RequestTimer;
 import org.springframework.core.MethodParameter;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.HttpMessageConverter;
@@ -19,6 +20,8 @@ public class GeneralControllerAdvice implements ResponseBodyAdvice<Object> {
 
     @Override
     public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType, Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request, ServerHttpResponse response) {
+        // the body is written once this returns
+        RequestTimer.switchTo(RequestTimer.Phase.SERIALIZATION);
         ServletServerHttpRequest servletServerRequest = (ServletServerHttpRequest) request;
        
         // report the procesing time of all api endpoints to aid in benchmarking as we transition
@@ -0,0 +1,38 @@
+package org.cbioportal.legacy.web;
+
+import io.swagger.v3.oas.annotations.Hidden;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.cbioportal.legacy.utils.metrics.ApplicationMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@Validated
+@Tag(name = "Metrics", description = " ")
+@Hidden
+public class MetricsController {
+
+    // the version of the Prometheus text format
+    private static final String PROMETHEUS_TEXT = "text/plain;version=0.0.4;charset=utf-8";
+
+    @Autowired
+    private ApplicationMetrics applicationMetrics;
+
+    @RequestMapping(value = "/api/metrics", method = RequestMethod.GET, produces = PROMETHEUS_TEXT)
+    @Operation(description = "Get the latency histograms of the requests and database statements and the cache " +
+        "lookup counts, in the Prometheus text format")
+    @ApiResponse(responseCode = "200", description = "OK",
+        content = @Content(schema = @Schema(implementation = String.class)))
+    public ResponseEntity<String> getMetrics() {
+        return new ResponseEntity<>(applicationMetrics.getPrometheusText(), HttpStatus.OK);
+    }
+}
@@ -1,5 +1,6 @@
 package org.cbioportal.legacy.web;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -7,6 +8,7 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.apache.commons.lang3.math.NumberUtils;
 import org.cbioportal.legacy.model.GeneMolecularData;
@@ -20,6 +22,7 @@ import org.cbioportal.legacy.web.parameter.MolecularDataFilter;
 import org.cbioportal.legacy.web.parameter.MolecularDataMultipleStudyFilter;
 import org.cbioportal.legacy.web.parameter.Projection;
 import org.cbioportal.legacy.web.parameter.SampleMolecularIdentifier;
+import org.cbioportal.legacy.web.util.JsonArrayResponseWriter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -35,11 +38,13 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 @PublicApi
 @RestController()
@@ -51,6 +56,9 @@ public class MolecularDataController {
     @Autowired
     private MolecularDataService molecularDataService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PreAuthorize("hasPermission(#molecularProfileId, 'MolecularProfileId', T(org.cbioportal.legacy.utils.security.AccessLevel).READ)")
     @RequestMapping(value = "/molecular-profiles/{molecularProfileId}/molecular-data", method = RequestMethod.GET,
         produces = MediaType.APPLICATION_JSON_VALUE)
@@ -92,7 +100,27 @@ public class MolecularDataController {
         @Parameter(required = true, description = "List of Sample IDs/Sample List ID and Entrez Gene IDs")
         @Valid @RequestBody MolecularDataFilter molecularDataFilter,
         @Parameter(description = "Level of detail of the response")
-        @RequestParam(defaultValue = "SUMMARY") Projection projection) throws MolecularProfileNotFoundException {
+        @RequestParam(defaultValue = "SUMMARY") Projection projection,
+        @Parameter(description = "Write the data to the response while it is read, ordered by gene instead of by sample")
+        @RequestParam(defaultValue = "false") boolean stream,
+        HttpServletResponse response) throws MolecularProfileNotFoundException, IOException {
+
+        if (stream && projection != Projection.META) {
+            JsonArrayResponseWriter.<NumericGeneMolecularData, MolecularProfileNotFoundException>write(objectMapper,
+                response, consumer -> {
+                    if (molecularDataFilter.getSampleListId() != null) {
+                        molecularDataService.streamMolecularData(molecularProfileId,
+                            molecularDataFilter.getSampleListId(), molecularDataFilter.getEntrezGeneIds(),
+                            projection.name(), numericMolecularData(consumer));
+                    } else {
+                        molecularDataService.streamFetchedMolecularData(molecularProfileId,
+                            molecularDataFilter.getSampleIds(), molecularDataFilter.getEntrezGeneIds(),
+                            projection.name(), numericMolecularData(consumer));
+                    }
+                });
+            // the response has been written already
+            return null;
+        }
 
         List<NumericGeneMolecularData> result;
         if (molecularDataFilter.getSampleListId() != null) {
@@ -127,7 +155,31 @@ public class MolecularDataController {
             "Profile IDs and Entrez Gene IDs")
         @Valid @RequestBody(required = false) MolecularDataMultipleStudyFilter molecularDataMultipleStudyFilter,
         @Parameter(description = "Level of detail of the response")
-        @RequestParam(defaultValue = "SUMMARY") Projection projection) {
+        @RequestParam(defaultValue = "SUMMARY") Projection projection,
+        @Parameter(description = "Write the data to the response while it is read, ordered by molecular profile and " +
+            "gene instead of by sample")
+        @RequestParam(defaultValue = "false") boolean stream,
+        HttpServletResponse response) throws IOException {
+
+        if (stream && projection != Projection.META) {
+            List<String> molecularProfileIds;
+            List<String> sampleIds;
+            if (interceptedMolecularDataMultipleStudyFilter.getMolecularProfileIds() != null) {
+                molecularProfileIds = interceptedMolecularDataMultipleStudyFilter.getMolecularProfileIds();
+                sampleIds = null;
+            } else {
+                molecularProfileIds = new ArrayList<>();
+                sampleIds = new ArrayList<>();
+                extractMolecularProfileAndSampleIds(interceptedMolecularDataMultipleStudyFilter, molecularProfileIds,
+                    sampleIds);
+            }
+            JsonArrayResponseWriter.<NumericGeneMolecularData, RuntimeException>write(objectMapper, response,
+                consumer -> molecularDataService.streamMolecularDataInMultipleMolecularProfiles(molecularProfileIds,
+                    sampleIds, interceptedMolecularDataMultipleStudyFilter.getEntrezGeneIds(), projection.name(),
+                    numericMolecularData(consumer)));
+            // the response has been written already
+            return null;
+        }
 
         List<NumericGeneMolecularData> result;
         if (interceptedMolecularDataMultipleStudyFilter.getMolecularProfileIds() != null) {
@@ -166,7 +218,15 @@ public class MolecularDataController {
     private List<NumericGeneMolecularData> filterNonNumberMolecularData(List<GeneMolecularData> geneMolecularDataList) {
 
         List<NumericGeneMolecularData> result = new ArrayList<>();
-        geneMolecularDataList.forEach(g -> {
+        geneMolecularDataList.forEach(numericMolecularData(result::add));
+
+        return result;
+    }
+
+    // passes on the data with a numeric value only
+    private Consumer<GeneMolecularData> numericMolecularData(Consumer<NumericGeneMolecularData> consumer) {
+
+        return g -> {
             String value = g.getValue();
             if (NumberUtils.isNumber(value)) {
                 NumericGeneMolecularData data = new NumericGeneMolecularData();
@@ -177,10 +237,8 @@ public class MolecularDataController {
                 data.setSampleId(g.getSampleId());
                 data.setStudyId(g.getStudyId());
                 data.setValue(new BigDecimal(g.getValue()));
-                result.add(data);
+                consumer.accept(data);
             }
-        });
-
-        return result;
+        };
     }
 }
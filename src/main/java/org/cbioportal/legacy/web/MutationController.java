@@ -1,5 +1,6 @@
 package org.cbioportal.legacy.web;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -7,6 +8,7 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
@@ -24,6 +26,7 @@ import org.cbioportal.legacy.web.parameter.PagingConstants;
 import org.cbioportal.legacy.web.parameter.Projection;
 import org.cbioportal.legacy.web.parameter.SampleMolecularIdentifier;
 import org.cbioportal.legacy.web.parameter.sort.MutationSortBy;
+import org.cbioportal.legacy.web.util.JsonArrayResponseWriter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -39,6 +42,7 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -54,6 +58,9 @@ public class MutationController {
     @Autowired
     private MutationService mutationService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PreAuthorize("hasPermission(#molecularProfileId, 'MolecularProfileId', T(org.cbioportal.legacy.utils.security.AccessLevel).READ)")
     @RequestMapping(value = "/molecular-profiles/{molecularProfileId}/mutations", method = RequestMethod.GET,
         produces = MediaType.APPLICATION_JSON_VALUE)
@@ -177,7 +184,31 @@ public class MutationController {
         @Parameter(description = "Name of the property that the result list is sorted by")
         @RequestParam(required = false) MutationSortBy sortBy,
         @Parameter(description = "Direction of the sort")
-        @RequestParam(defaultValue = "ASC") Direction direction) {
+        @RequestParam(defaultValue = "ASC") Direction direction,
+        @Parameter(description = "Write all mutations to the response while they are read, ignoring the page size " +
+            "and page number")
+        @RequestParam(defaultValue = "false") boolean stream,
+        HttpServletResponse response) throws IOException {
+
+        if (stream && projection != Projection.META) {
+            List<String> molecularProfileIds;
+            List<String> sampleIds;
+            if (interceptedMutationMultipleStudyFilter.getMolecularProfileIds() != null) {
+                molecularProfileIds = interceptedMutationMultipleStudyFilter.getMolecularProfileIds();
+                sampleIds = null;
+            } else {
+                molecularProfileIds = new ArrayList<>();
+                sampleIds = new ArrayList<>();
+                extractMolecularProfileAndSampleIds(interceptedMutationMultipleStudyFilter, molecularProfileIds,
+                    sampleIds);
+            }
+            JsonArrayResponseWriter.<Mutation, RuntimeException>write(objectMapper, response,
+                consumer -> mutationService.streamMutationsInMultipleMolecularProfiles(molecularProfileIds, sampleIds,
+                    interceptedMutationMultipleStudyFilter.getEntrezGeneIds(), projection.name(),
+                    sortBy == null ? null : sortBy.getOriginalValue(), direction.name(), consumer));
+            // the response has been written already
+            return null;
+        }
 
         if (projection == Projection.META) {
             HttpHeaders responseHeaders = new HttpHeaders();
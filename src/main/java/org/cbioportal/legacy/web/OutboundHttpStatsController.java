@@ -0,0 +1,35 @@
+package org.cbioportal.legacy.web;
+
+import io.swagger.v3.oas.annotations.Hidden;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.cbioportal.legacy.utils.http.OutboundHttpClients;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@Validated
+@Tag(name = "OutboundHttpStats", description = " ")
+@Hidden
+public class OutboundHttpStatsController {
+
+    @Autowired
+    private OutboundHttpClients outboundHttpClients;
+
+    @RequestMapping(value = "/api/outboundHttpStatistics", method = RequestMethod.GET, produces = MediaType.TEXT_PLAIN_VALUE)
+    @Operation(description = "Get latency and connection pool statistics of the calls to other services")
+    @ApiResponse(responseCode = "200", description = "OK",
+        content = @Content(schema = @Schema(implementation = String.class)))
+    public ResponseEntity<String> getOutboundHttpStatistics() {
+        return new ResponseEntity<>(outboundHttpClients.getStatistics(), HttpStatus.OK);
+    }
+}
@@ -116,7 +116,7 @@ public class SessionServiceController {
 
     private PageSettings getRecentlyUpdatePageSettings(String query) {
 
-        RestTemplate restTemplate = new RestTemplate();
+        RestTemplate restTemplate = sessionServiceRequestHandler.getRestTemplate();
 
         HttpEntity<String> httpEntity = new HttpEntity<String>(query, sessionServiceRequestHandler.getHttpHeaders());
 
@@ -200,7 +200,7 @@ public class SessionServiceController {
             // using HashMap because converter is MappingJackson2HttpMessageConverter
             // (Jackson 2 is on classpath)
             // was String when default converter StringHttpMessageConverter was used
-            RestTemplate restTemplate = new RestTemplate();
+            RestTemplate restTemplate = sessionServiceRequestHandler.getRestTemplate();
             ResponseEntity<Session> resp = restTemplate.exchange(sessionServiceURL + type, HttpMethod.POST, httpEntity,
                     Session.class);
 
@@ -298,7 +298,7 @@ public class SessionServiceController {
                 BasicDBObject basicDBObject = new BasicDBObject();
                 basicDBObject.put("data.users", Pattern.compile(userName(), Pattern.CASE_INSENSITIVE));
 
-                RestTemplate restTemplate = new RestTemplate();
+                RestTemplate restTemplate = sessionServiceRequestHandler.getRestTemplate();
 
                 HttpEntity<String> httpEntity = new HttpEntity<>(basicDBObject.toString(), sessionServiceRequestHandler.getHttpHeaders());
                 
@@ -367,7 +367,7 @@ public class SessionServiceController {
                 httpEntity = new HttpEntity<>(virtualStudyData, sessionServiceRequestHandler.getHttpHeaders());
             }
 
-            RestTemplate restTemplate = new RestTemplate();
+            RestTemplate restTemplate = sessionServiceRequestHandler.getRestTemplate();
             restTemplate.put(sessionServiceURL + type + "/" + id, httpEntity);
 
             response.sendError(HttpStatus.OK.value());
@@ -409,7 +409,7 @@ public class SessionServiceController {
 
             BasicDBObject queryDBObject = new BasicDBObject(QUERY_OPERATOR_AND, basicDBObjects);
 
-            RestTemplate restTemplate = new RestTemplate();
+            RestTemplate restTemplate = sessionServiceRequestHandler.getRestTemplate();
 
             HttpEntity<String> httpEntity = new HttpEntity<>(queryDBObject.toString(), sessionServiceRequestHandler.getHttpHeaders());
 
@@ -483,7 +483,7 @@ public class SessionServiceController {
                 body.setOwner(pageSettingsData.getOwner());
                 body.setOrigin(pageSettingsData.getOrigin());
 
-                RestTemplate restTemplate = new RestTemplate();
+                RestTemplate restTemplate = sessionServiceRequestHandler.getRestTemplate();
                 HttpEntity<Object> httpEntity = new HttpEntity<>(body, sessionServiceRequestHandler.getHttpHeaders());
                 
                 Session.SessionType type = pageSettings.getType() == null ? Session.SessionType.settings : pageSettings.getType();
@@ -542,7 +542,7 @@ public class SessionServiceController {
 
             BasicDBObject queryDBObject = new BasicDBObject(QUERY_OPERATOR_AND, basicDBObjects);
 
-            RestTemplate restTemplate = new RestTemplate();
+            RestTemplate restTemplate = sessionServiceRequestHandler.getRestTemplate();
 
             HttpEntity<String> httpEntity = new HttpEntity<>(queryDBObject.toString(),
                     sessionServiceRequestHandler.getHttpHeaders());
@@ -576,7 +576,7 @@ public class SessionServiceController {
             BasicDBObject basicDBObject = new BasicDBObject();
             basicDBObject.put("data.users", Pattern.compile(userName(), Pattern.CASE_INSENSITIVE));
 
-            RestTemplate restTemplate = new RestTemplate();
+            RestTemplate restTemplate = sessionServiceRequestHandler.getRestTemplate();
 
             HttpEntity<String> httpEntity = new HttpEntity<>(basicDBObject.toString(), sessionServiceRequestHandler.getHttpHeaders());
             
@@ -73,6 +73,7 @@ import org.cbioportal.legacy.web.util.StudyViewFilterApplier;
 import org.cbioportal.legacy.web.util.StudyViewFilterUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.context.ApplicationContext;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -1084,7 +1085,7 @@ public class StudyViewController {
     ) {
 
         boolean unfilteredQuery = studyViewFilterUtil.isUnfilteredQuery(interceptedStudyViewFilter);
-        ImmutablePair<SampleClinicalDataCollection, Integer> sampleClinicalData = cachedClinicalDataTableData(
+        ImmutablePair<SampleClinicalDataCollection, Integer> sampleClinicalData = this.getInstance().cachedClinicalDataTableData(
             interceptedStudyViewFilter, unfilteredQuery, pageNumber, pageSize, sortBy, searchTerm, direction.name()
         );
 
@@ -1098,13 +1099,19 @@ public class StudyViewController {
     }
 
     // Only cache when:
-    // 1) the request concerns the entire study
+    // 1) the request concerns the entire study, or filtered queries are cached as well
     // 2) no sorting/searching
     // 3) requesting the first page
-    @Cacheable(
-        cacheResolver = "staticRepositoryCacheOneResolver",
-        condition = "@cacheEnabledConfig.getEnabled() && #unfilteredQuery && (#sortBy == null || #sortBy.isEmpty()) && (#searchTerm == null || #searchTerm.isEmpty()) && #pageNumber == 0"
-    )
+    @Caching(cacheable = {
+        @Cacheable(
+            cacheResolver = "staticRepositoryCacheOneResolver",
+            condition = "@cacheEnabledConfig.getEnabled() && #unfilteredQuery && (#sortBy == null || #sortBy.isEmpty()) && (#searchTerm == null || #searchTerm.isEmpty()) && #pageNumber == 0"
+        ),
+        @Cacheable(
+            cacheResolver = "filteredStudyViewCacheResolver",
+            condition = "@cacheEnabledConfig.getEnabled() && @cacheEnabledConfig.isCacheFilteredQueries() && !#unfilteredQuery && (#sortBy == null || #sortBy.isEmpty()) && (#searchTerm == null || #searchTerm.isEmpty()) && #pageNumber == 0"
+        )
+    })
     public ImmutablePair<SampleClinicalDataCollection, Integer> cachedClinicalDataTableData(
         StudyViewFilter interceptedStudyViewFilter, boolean unfilteredQuery, Integer pageNumber, 
         Integer pageSize, String sortBy, String searchTerm, String sortDirection
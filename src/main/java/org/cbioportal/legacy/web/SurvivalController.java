@@ -9,12 +9,15 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.cbioportal.legacy.model.ClinicalData;
+import org.cbioportal.legacy.model.SurvivalComparison;
 import org.cbioportal.legacy.service.ClinicalEventService;
 import org.cbioportal.legacy.web.config.annotation.InternalApi;
 import org.cbioportal.legacy.web.parameter.PatientIdentifier;
+import org.cbioportal.legacy.web.parameter.SurvivalCurveRequest;
 import org.cbioportal.legacy.web.parameter.SurvivalRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationContext;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -29,6 +32,7 @@ import org.springframework.web.bind.annotation.RestController;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 
 @InternalApi
 @RestController()
@@ -37,10 +41,21 @@ import java.util.List;
 @Tag(name = "Survival", description = " ")
 public class SurvivalController {
     private final ClinicalEventService clinicalEventService;
+    private final ApplicationContext applicationContext;
+    private SurvivalController instance;
 
     @Autowired
-    public SurvivalController(ClinicalEventService clinicalEventService) {
+    public SurvivalController(ClinicalEventService clinicalEventService, ApplicationContext applicationContext) {
         this.clinicalEventService = clinicalEventService;
+        this.applicationContext = applicationContext;
+    }
+
+    // the proxy of this controller, so that the calls of its cached methods go through the cache
+    private SurvivalController getInstance() {
+        if (Objects.isNull(instance)) {
+            instance = applicationContext.getBean(SurvivalController.class);
+        }
+        return instance;
     }
 
     @PreAuthorize("hasPermission(#involvedCancerStudies, 'Collection<CancerStudyId>', T(org.cbioportal.legacy.utils.security.AccessLevel).READ)")
@@ -64,6 +79,27 @@ public class SurvivalController {
                                     HttpStatus.OK);
     }
 
+    @PreAuthorize("hasPermission(#involvedCancerStudies, 'Collection<CancerStudyId>', T(org.cbioportal.legacy.utils.security.AccessLevel).READ)")
+    @RequestMapping(value = "/survival-curves/fetch",
+        method = RequestMethod.POST,
+        consumes = MediaType.APPLICATION_JSON_VALUE,
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(description = "Fetch Kaplan-Meier curves and log-rank statistics of groups of patients")
+    @ApiResponse(responseCode = "200", description = "OK",
+        content = @Content(schema = @Schema(implementation = SurvivalComparison.class)))
+    public ResponseEntity<SurvivalComparison> fetchSurvivalCurves(
+        @Parameter(required = true, description = "Survival Data Request with the groups of patients to compare")
+        @Valid @RequestBody(required = false) SurvivalCurveRequest survivalCurveRequest,
+        @Parameter(hidden = true) // prevent reference to this attribute in the swagger-ui interface
+        @RequestAttribute(required = false, value = "involvedCancerStudies") Collection<String> involvedCancerStudies,
+        @Parameter(hidden = true)
+        // prevent reference to this attribute in the swagger-ui interface. this attribute is needed for the @PreAuthorize tag above.
+        @Valid @RequestAttribute(required = false, value = "interceptedSurvivalCurveRequest") SurvivalCurveRequest interceptedSurvivalCurveRequest) {
+
+        return new ResponseEntity<>(getInstance().cachedSurvivalComparison(interceptedSurvivalCurveRequest),
+                                    HttpStatus.OK);
+    }
+
     @Cacheable(
         cacheResolver = "generalRepositoryCacheResolver",
         condition = "@cacheEnabledConfig.getEnabled()"
@@ -81,4 +117,19 @@ public class SurvivalController {
                                                                          interceptedSurvivalRequest.getAttributeIdPrefix(),
                                                                          interceptedSurvivalRequest);
     }
+
+    @Cacheable(
+        cacheResolver = "generalRepositoryCacheResolver",
+        condition = "@cacheEnabledConfig.getEnabled()"
+    )
+    public SurvivalComparison cachedSurvivalComparison(SurvivalCurveRequest interceptedSurvivalCurveRequest) {
+        List<String> studyIds = new ArrayList<>();
+        List<String> patientIds = new ArrayList<>();
+        for (PatientIdentifier patientIdentifier : interceptedSurvivalCurveRequest.getPatientIdentifiers()) {
+            studyIds.add(patientIdentifier.getStudyId());
+            patientIds.add(patientIdentifier.getPatientId());
+        }
+
+        return clinicalEventService.getSurvivalComparison(studyIds, patientIds, interceptedSurvivalCurveRequest);
+    }
 }
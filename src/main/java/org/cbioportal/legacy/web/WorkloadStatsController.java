@@ -0,0 +1,35 @@
+package org.cbioportal.legacy.web;
+
+import io.swagger.v3.oas.annotations.Hidden;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.cbioportal.legacy.utils.concurrent.WorkloadExecutors;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@Validated
+@Tag(name = "WorkloadStats", description = " ")
+@Hidden
+public class WorkloadStatsController {
+
+    @Autowired
+    private WorkloadExecutors workloadExecutors;
+
+    @RequestMapping(value = "/api/workloadStatistics", method = RequestMethod.GET, produces = MediaType.TEXT_PLAIN_VALUE)
+    @Operation(description = "Get the running requests and the thread pool statistics of the expensive workloads")
+    @ApiResponse(responseCode = "200", description = "OK",
+        content = @Content(schema = @Schema(implementation = String.class)))
+    public ResponseEntity<String> getWorkloadStatistics() {
+        return new ResponseEntity<>(workloadExecutors.getStatistics(), HttpStatus.OK);
+    }
+}
@@ -0,0 +1,82 @@
+package org.cbioportal.legacy.web.columnar;
+
+import jakarta.annotation.PostConstruct;
+import org.cbioportal.legacy.model.StudyViewChartResult;
+import org.cbioportal.legacy.utils.concurrent.Workload;
+import org.cbioportal.legacy.utils.concurrent.WorkloadExecutors;
+import org.cbioportal.legacy.utils.config.annotation.ConditionalOnProperty;
+import org.cbioportal.legacy.web.parameter.StudyViewChartRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Computes the charts of a batch concurrently. The charts mostly wait for the database, so they run on the virtual
+ * threads of the study view workload, whose pool bounds the number of charts computed at once over all batches. The
+ * security context of the request is passed on to the chart threads.
+ */
+@Component
+@ConditionalOnProperty(name = "clickhouse_mode", havingValue = "true")
+public class StudyViewChartFetcher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StudyViewChartFetcher.class);
+
+    @Autowired
+    private WorkloadExecutors workloadExecutors;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        // the pool is shut down by its owner, so the wrapper is never shut down
+        executor = new DelegatingSecurityContextExecutorService(workloadExecutors.executor(Workload.STUDY_VIEW));
+    }
+
+    /**
+     * Passes the results of the charts to the consumer on the calling thread, in the order the charts complete. A
+     * chart that fails gets a result with an error instead of failing the batch. The charts that are still running
+     * when the consumer fails, for instance because the client went away, are cancelled.
+     */
+    public void fetch(List<StudyViewChartRequest> charts, Function<StudyViewChartRequest, Object> chartFetcher,
+                      Consumer<StudyViewChartResult> consumer) throws InterruptedException {
+
+        CompletionService<StudyViewChartResult> completionService = new ExecutorCompletionService<>(executor);
+        List<Future<StudyViewChartResult>> futures = new ArrayList<>();
+        try {
+            for (StudyViewChartRequest chart : charts) {
+                futures.add(completionService.submit(() -> fetch(chart, chartFetcher)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                consumer.accept(completionService.take().get());
+            }
+        } catch (ExecutionException e) {
+            // the charts catch their own failures
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private static StudyViewChartResult fetch(StudyViewChartRequest chart,
+                                              Function<StudyViewChartRequest, Object> chartFetcher) {
+        try {
+            return new StudyViewChartResult(chart.getId(), chartFetcher.apply(chart), null);
+        } catch (RuntimeException e) {
+            LOG.error("exception thrown during fetching of study view chart {} of type {}", chart.getId(),
+                chart.getType(), e);
+            return new StudyViewChartResult(chart.getId(), null, "Could not fetch chart of type " + chart.getType());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.cbioportal.legacy.web.columnar;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Hidden;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -7,6 +8,7 @@ import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.cbioportal.legacy.model.AlterationCountByGene;
 import org.cbioportal.legacy.model.AlterationFilter;
@@ -26,6 +28,7 @@ import org.cbioportal.legacy.model.GenomicDataCount;
 import org.cbioportal.legacy.model.PatientTreatmentReport;
 import org.cbioportal.legacy.model.Sample;
 import org.cbioportal.legacy.model.SampleTreatmentReport;
+import org.cbioportal.legacy.model.StudyViewChartResult;
 import org.cbioportal.legacy.service.ClinicalDataDensityPlotService;
 import org.cbioportal.legacy.model.GenomicDataCountItem;
 import org.cbioportal.legacy.service.CustomDataService;
@@ -50,8 +53,11 @@ import org.cbioportal.legacy.web.parameter.GenomicDataFilter;
 import org.cbioportal.legacy.web.parameter.MutationOption;
 import org.cbioportal.legacy.web.parameter.Projection;
 import org.cbioportal.legacy.web.parameter.SampleIdentifier;
+import org.cbioportal.legacy.web.parameter.StudyViewChartRequest;
+import org.cbioportal.legacy.web.parameter.StudyViewChartsFilter;
 import org.cbioportal.legacy.web.parameter.StudyViewFilter;
 import org.cbioportal.legacy.web.util.DensityPlotParameters;
+import org.cbioportal.legacy.web.util.JsonArrayResponseWriter;
 import org.cbioportal.legacy.web.util.StudyViewFilterUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -66,6 +72,7 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -89,6 +96,8 @@ public class StudyViewColumnStoreController {
     private final CustomDataService customDataService;
     private final StudyViewFilterUtil studyViewFilterUtil;
     private final CustomDataFilterUtil customDataFilterUtil;
+    private final StudyViewChartFetcher studyViewChartFetcher;
+    private final ObjectMapper objectMapper;
     
     @Autowired
     public StudyViewColumnStoreController(StudyViewColumnarService studyViewColumnarService, 
@@ -98,7 +107,9 @@ public class StudyViewColumnStoreController {
                                           ViolinPlotService violinPlotService,
                                           CustomDataService customDataService,
                                           StudyViewFilterUtil studyViewFilterUtil,
-                                          CustomDataFilterUtil customDataFilterUtil
+                                          CustomDataFilterUtil customDataFilterUtil,
+                                          StudyViewChartFetcher studyViewChartFetcher,
+                                          ObjectMapper objectMapper
                                           ) {
         this.studyViewColumnarService = studyViewColumnarService;
         this.clinicalDataBinner = clinicalDataBinner;
@@ -108,6 +119,8 @@ public class StudyViewColumnStoreController {
         this.customDataService = customDataService;
         this.studyViewFilterUtil = studyViewFilterUtil;
         this.customDataFilterUtil = customDataFilterUtil;
+        this.studyViewChartFetcher = studyViewChartFetcher;
+        this.objectMapper = objectMapper;
     }
 
 
@@ -676,4 +689,116 @@ public class StudyViewColumnStoreController {
         );
         return new ResponseEntity<>(genericAssayDataBins, HttpStatus.OK);
     }
+
+    @Hidden // should unhide when we remove legacy controller
+    @PreAuthorize("hasPermission(#involvedCancerStudies, 'Collection<CancerStudyId>', T(org.cbioportal.legacy.utils.security.AccessLevel).READ)")
+    @RequestMapping(value = "/column-store/study-view-charts/fetch", method = RequestMethod.POST,
+        consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(description = "Fetch the data of several study view charts for one study view filter, in the order " +
+        "the charts complete")
+    @ApiResponse(responseCode = "200", description = "OK",
+        content = @Content(array = @ArraySchema(schema = @Schema(implementation = StudyViewChartResult.class))))
+    public void fetchStudyViewCharts(
+        @Parameter(required = true, description = "Study view filter and charts")
+        @Valid @RequestBody(required = false) StudyViewChartsFilter studyViewChartsFilter,
+        @Parameter(hidden = true) // prevent reference to this attribute in the swagger-ui interface. This attribute is needed for the @PreAuthorize tag above.
+        @RequestAttribute(required = false, value = "involvedCancerStudies") Collection<String> involvedCancerStudies,
+        @Parameter(hidden = true) // prevent reference to this attribute in the swagger-ui interface.
+        @Valid @RequestAttribute(required = false, value = "interceptedStudyViewChartsFilter") StudyViewChartsFilter interceptedStudyViewChartsFilter,
+        HttpServletResponse response
+    ) throws IOException, InterruptedException {
+        StudyViewFilter studyViewFilter = interceptedStudyViewChartsFilter.getStudyViewFilter();
+        JsonArrayResponseWriter.write(objectMapper, response, consumer -> studyViewChartFetcher.fetch(
+            interceptedStudyViewChartsFilter.getCharts(),
+            chart -> fetchStudyViewChart(chart, studyViewFilter, involvedCancerStudies),
+            consumer
+        ), true);
+    }
+
+    // The handlers are called directly, so their permission checks are skipped; the charts concern the same
+    // studies as the batch, which are checked once for all of them.
+    private Object fetchStudyViewChart(StudyViewChartRequest chart, StudyViewFilter studyViewFilter,
+                                       Collection<String> involvedCancerStudies) {
+        // each chart gets its own copy of the filter, as some charts remove their own filter from it
+        StudyViewFilter chartStudyViewFilter = objectMapper.convertValue(studyViewFilter, StudyViewFilter.class);
+        try {
+            return switch (chart.getType()) {
+                case MUTATED_GENES -> fetchMutatedGenes(null, involvedCancerStudies, chartStudyViewFilter).getBody();
+                case CNA_GENES -> fetchCnaGenes(null, involvedCancerStudies, chartStudyViewFilter).getBody();
+                case STRUCTURAL_VARIANT_GENES ->
+                    fetchStructuralVariantGenes(null, involvedCancerStudies, chartStudyViewFilter).getBody();
+                case MOLECULAR_PROFILE_SAMPLE_COUNTS ->
+                    fetchMolecularProfileSampleCounts(null, involvedCancerStudies, chartStudyViewFilter).getBody();
+                case SAMPLE_LISTS_COUNTS -> fetchCaseListCounts(null, involvedCancerStudies, chartStudyViewFilter);
+                case CLINICAL_EVENT_TYPE_COUNTS ->
+                    getClinicalEventTypeCounts(null, involvedCancerStudies, chartStudyViewFilter).getBody();
+                case PATIENT_TREATMENT_COUNTS -> fetchPatientTreatmentCounts(ClinicalEventKeyCode.Agent, null,
+                    involvedCancerStudies, chartStudyViewFilter).getBody();
+                case SAMPLE_TREATMENT_COUNTS -> fetchSampleTreatmentCounts(ClinicalEventKeyCode.Agent, null,
+                    involvedCancerStudies, chartStudyViewFilter).getBody();
+                case CLINICAL_DATA_COUNTS -> fetchClinicalDataCounts(null, involvedCancerStudies,
+                    createClinicalDataCountFilter(chart, chartStudyViewFilter)).getBody();
+                case CUSTOM_DATA_COUNTS -> fetchCustomDataCounts(involvedCancerStudies,
+                    createClinicalDataCountFilter(chart, chartStudyViewFilter)).getBody();
+                case CLINICAL_DATA_BIN_COUNTS -> fetchClinicalDataBinCounts(chart.getDataBinMethod(), null,
+                    involvedCancerStudies, createClinicalDataBinCountFilter(chart, chartStudyViewFilter)).getBody();
+                case CUSTOM_DATA_BIN_COUNTS -> fetchCustomDataBinCounts(chart.getDataBinMethod(), null,
+                    involvedCancerStudies, createClinicalDataBinCountFilter(chart, chartStudyViewFilter)).getBody();
+                case GENOMIC_DATA_COUNTS -> fetchGenomicDataCounts(involvedCancerStudies,
+                    createGenomicDataCountFilter(chart, chartStudyViewFilter)).getBody();
+                case MUTATION_DATA_COUNTS -> fetchMutationDataCounts(chart.getProjection(), null,
+                    involvedCancerStudies, createGenomicDataCountFilter(chart, chartStudyViewFilter)).getBody();
+                case GENOMIC_DATA_BIN_COUNTS -> {
+                    GenomicDataBinCountFilter genomicDataBinCountFilter = new GenomicDataBinCountFilter();
+                    genomicDataBinCountFilter.setGenomicDataBinFilters(chart.getGenomicDataBinFilters());
+                    genomicDataBinCountFilter.setStudyViewFilter(chartStudyViewFilter);
+                    yield fetchGenomicDataBinCounts(chart.getDataBinMethod(), null, involvedCancerStudies,
+                        genomicDataBinCountFilter).getBody();
+                }
+                case GENERIC_ASSAY_DATA_COUNTS -> {
+                    GenericAssayDataCountFilter genericAssayDataCountFilter = new GenericAssayDataCountFilter();
+                    genericAssayDataCountFilter.setGenericAssayDataFilters(chart.getGenericAssayDataFilters());
+                    genericAssayDataCountFilter.setStudyViewFilter(chartStudyViewFilter);
+                    yield fetchGenericAssayDataCounts(involvedCancerStudies, genericAssayDataCountFilter).getBody();
+                }
+                case GENERIC_ASSAY_DATA_BIN_COUNTS -> {
+                    GenericAssayDataBinCountFilter genericAssayDataBinCountFilter = new GenericAssayDataBinCountFilter();
+                    genericAssayDataBinCountFilter.setGenericAssayDataBinFilters(chart.getGenericAssayDataBinFilters());
+                    genericAssayDataBinCountFilter.setStudyViewFilter(chartStudyViewFilter);
+                    yield fetchGenericAssayDataBinCounts(chart.getDataBinMethod(), null, involvedCancerStudies,
+                        genericAssayDataBinCountFilter).getBody();
+                }
+            };
+        } catch (StudyNotFoundException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+
+    private ClinicalDataCountFilter createClinicalDataCountFilter(StudyViewChartRequest chart,
+                                                                  StudyViewFilter studyViewFilter) {
+        ClinicalDataCountFilter clinicalDataCountFilter = new ClinicalDataCountFilter();
+        clinicalDataCountFilter.setAttributes(chart.getAttributes().stream().map(attribute -> {
+            ClinicalDataFilter clinicalDataFilter = new ClinicalDataFilter();
+            clinicalDataFilter.setAttributeId(attribute.getAttributeId());
+            return clinicalDataFilter;
+        }).collect(Collectors.toList()));
+        clinicalDataCountFilter.setStudyViewFilter(studyViewFilter);
+        return clinicalDataCountFilter;
+    }
+
+    private ClinicalDataBinCountFilter createClinicalDataBinCountFilter(StudyViewChartRequest chart,
+                                                                        StudyViewFilter studyViewFilter) {
+        ClinicalDataBinCountFilter clinicalDataBinCountFilter = new ClinicalDataBinCountFilter();
+        clinicalDataBinCountFilter.setAttributes(chart.getAttributes());
+        clinicalDataBinCountFilter.setStudyViewFilter(studyViewFilter);
+        return clinicalDataBinCountFilter;
+    }
+
+    private GenomicDataCountFilter createGenomicDataCountFilter(StudyViewChartRequest chart,
+                                                                StudyViewFilter studyViewFilter) {
+        GenomicDataCountFilter genomicDataCountFilter = new GenomicDataCountFilter();
+        genomicDataCountFilter.setGenomicDataFilters(chart.getGenomicDataFilters());
+        genomicDataCountFilter.setStudyViewFilter(studyViewFilter);
+        return genomicDataCountFilter;
+    }
 }
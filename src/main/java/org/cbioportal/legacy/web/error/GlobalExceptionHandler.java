@@ -23,6 +23,7 @@ import org.cbioportal.legacy.service.exception.SampleListNotFoundException;
 import org.cbioportal.legacy.service.exception.SampleNotFoundException;
 import org.cbioportal.legacy.service.exception.StudyNotFoundException;
 import org.cbioportal.legacy.service.exception.TokenNotFoundException;
+import org.cbioportal.legacy.service.exception.TooManyRequestsException;
 import org.springframework.beans.TypeMismatchException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -37,6 +38,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.concurrent.RejectedExecutionException;
 
 
 // TODO
@@ -231,4 +233,16 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorResponse> handleNoSuchElementException(NoSuchElementException ex) {
         return new ResponseEntity<>(new ErrorResponse(ex.getMessage()), HttpStatus.NOT_FOUND);
     }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ErrorResponse> handleTooManyRequests(TooManyRequestsException ex) {
+        return new ResponseEntity<>(new ErrorResponse(ex.getMessage()), HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    // thrown when the threads or the queue of a workload are all taken
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<ErrorResponse> handleRejectedExecution(RejectedExecutionException ex) {
+        return new ResponseEntity<>(new ErrorResponse("The server is too busy to process the request, please try " +
+            "again later"), HttpStatus.SERVICE_UNAVAILABLE);
+    }
 }
@@ -0,0 +1,100 @@
+package org.cbioportal.legacy.web.parameter;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * A chart of a batch, with the parameters of the study view endpoint for its type other than the study view filter.
+ */
+public class StudyViewChartRequest implements Serializable {
+
+    // passed back with the result of the chart, as the results are returned in the order they complete
+    @NotNull
+    private String id;
+    @NotNull
+    private StudyViewChartType type;
+    // clinical and custom data counts and bin counts
+    private List<ClinicalDataBinFilter> attributes;
+    // genomic and mutation data counts
+    private List<GenomicDataFilter> genomicDataFilters;
+    private List<GenomicDataBinFilter> genomicDataBinFilters;
+    private List<GenericAssayDataFilter> genericAssayDataFilters;
+    private List<GenericAssayDataBinFilter> genericAssayDataBinFilters;
+    private DataBinMethod dataBinMethod = DataBinMethod.DYNAMIC;
+    // mutation data counts
+    private Projection projection = Projection.SUMMARY;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public StudyViewChartType getType() {
+        return type;
+    }
+
+    public void setType(StudyViewChartType type) {
+        this.type = type;
+    }
+
+    public List<ClinicalDataBinFilter> getAttributes() {
+        return attributes;
+    }
+
+    public void setAttributes(List<ClinicalDataBinFilter> attributes) {
+        this.attributes = attributes;
+    }
+
+    public List<GenomicDataFilter> getGenomicDataFilters() {
+        return genomicDataFilters;
+    }
+
+    public void setGenomicDataFilters(List<GenomicDataFilter> genomicDataFilters) {
+        this.genomicDataFilters = genomicDataFilters;
+    }
+
+    public List<GenomicDataBinFilter> getGenomicDataBinFilters() {
+        return genomicDataBinFilters;
+    }
+
+    public void setGenomicDataBinFilters(List<GenomicDataBinFilter> genomicDataBinFilters) {
+        this.genomicDataBinFilters = genomicDataBinFilters;
+    }
+
+    public List<GenericAssayDataFilter> getGenericAssayDataFilters() {
+        return genericAssayDataFilters;
+    }
+
+    public void setGenericAssayDataFilters(List<GenericAssayDataFilter> genericAssayDataFilters) {
+        this.genericAssayDataFilters = genericAssayDataFilters;
+    }
+
+    public List<GenericAssayDataBinFilter> getGenericAssayDataBinFilters() {
+        return genericAssayDataBinFilters;
+    }
+
+    public void setGenericAssayDataBinFilters(List<GenericAssayDataBinFilter> genericAssayDataBinFilters) {
+        this.genericAssayDataBinFilters = genericAssayDataBinFilters;
+    }
+
+    public DataBinMethod getDataBinMethod() {
+        return dataBinMethod;
+    }
+
+    public void setDataBinMethod(DataBinMethod dataBinMethod) {
+        this.dataBinMethod = dataBinMethod;
+    }
+
+    public Projection getProjection() {
+        return projection;
+    }
+
+    public void setProjection(Projection projection) {
+        this.projection = projection;
+    }
+}
@@ -0,0 +1,24 @@
+package org.cbioportal.legacy.web.parameter;
+
+/**
+ * The charts that can be fetched in a batch, each with the result of the study view endpoint of the same name.
+ */
+public enum StudyViewChartType {
+    MUTATED_GENES,
+    CNA_GENES,
+    STRUCTURAL_VARIANT_GENES,
+    MOLECULAR_PROFILE_SAMPLE_COUNTS,
+    SAMPLE_LISTS_COUNTS,
+    CLINICAL_EVENT_TYPE_COUNTS,
+    PATIENT_TREATMENT_COUNTS,
+    SAMPLE_TREATMENT_COUNTS,
+    CLINICAL_DATA_COUNTS,
+    CLINICAL_DATA_BIN_COUNTS,
+    CUSTOM_DATA_COUNTS,
+    CUSTOM_DATA_BIN_COUNTS,
+    GENOMIC_DATA_COUNTS,
+    GENOMIC_DATA_BIN_COUNTS,
+    MUTATION_DATA_COUNTS,
+    GENERIC_ASSAY_DATA_COUNTS,
+    GENERIC_ASSAY_DATA_BIN_COUNTS
+}
@@ -0,0 +1,36 @@
+package org.cbioportal.legacy.web.parameter;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.io.Serializable;
+import java.util.List;
+
+public class StudyViewChartsFilter implements Serializable {
+
+    public static final int MAX_CHARTS = 200;
+
+    @Valid
+    @NotNull
+    private StudyViewFilter studyViewFilter;
+    @Valid
+    @Size(min = 1, max = MAX_CHARTS)
+    private List<StudyViewChartRequest> charts;
+
+    public StudyViewFilter getStudyViewFilter() {
+        return studyViewFilter;
+    }
+
+    public void setStudyViewFilter(StudyViewFilter studyViewFilter) {
+        this.studyViewFilter = studyViewFilter;
+    }
+
+    public List<StudyViewChartRequest> getCharts() {
+        return charts;
+    }
+
+    public void setCharts(List<StudyViewChartRequest> charts) {
+        this.charts = charts;
+    }
+}
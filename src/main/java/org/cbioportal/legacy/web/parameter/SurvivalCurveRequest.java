@@ -0,0 +1,27 @@
+package org.cbioportal.legacy.web.parameter;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Survival request whose patients are compared in groups. The groups only select among the patients of the request,
+ * which are the ones checked for access, and a patient may belong to several groups.
+ */
+public class SurvivalCurveRequest extends SurvivalRequest {
+
+    @NotNull
+    @Size(min = 1, max = 100)
+    @Valid
+    private List<PatientGroup> groups;
+
+    public List<PatientGroup> getGroups() {
+        return groups;
+    }
+
+    public void setGroups(List<PatientGroup> groups) {
+        this.groups = groups;
+    }
+}
@@ -1,6 +1,7 @@
 package org.cbioportal.legacy.web.util;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -35,10 +36,24 @@ public abstract class ClinicalDataFilterApplier implements DataFilterApplier<Cli
         boolean negateFilters
     ) {
         if (!clinicalDataFilters.isEmpty() && !sampleIdentifiers.isEmpty()) {
+            SampleIdentifierIndex index = new SampleIdentifierIndex(sampleIdentifiers);
+            return index.toSampleIdentifiers(apply(index, index.all(), clinicalDataFilters, negateFilters));
+        }
+        return sampleIdentifiers;
+    }
+
+    @Override
+    public BitSet apply(
+        SampleIdentifierIndex index,
+        BitSet selection,
+        List<ClinicalDataFilter> clinicalDataFilters,
+        boolean negateFilters
+    ) {
+        if (!clinicalDataFilters.isEmpty() && !selection.isEmpty()) {
             List<String> studyIds = new ArrayList<>();
             List<String> sampleIds = new ArrayList<>();
             
-            studyViewFilterUtil.extractStudyAndSampleIds(sampleIdentifiers, studyIds, sampleIds);
+            studyViewFilterUtil.extractStudyAndSampleIds(index.toSampleIdentifiers(selection), studyIds, sampleIds);
 
             List<Patient> patients = patientService.getPatientsOfSamples(studyIds, sampleIds);
             List<String> patientIds = patients.stream().map(Patient::getStableId).collect(Collectors.toList());
@@ -70,19 +85,20 @@ public abstract class ClinicalDataFilterApplier implements DataFilterApplier<Cli
                         clinicalData.getAttrValue());
             }
 
-            List<SampleIdentifier> newSampleIdentifiers = new ArrayList<>();
-            sampleIdentifiers.forEach(sampleIdentifier -> {
+            BitSet filtered = new BitSet(index.size());
+            for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+                SampleIdentifier sampleIdentifier = index.get(i);
                 int count = apply(clinicalDataFilters, clinicalDataMap, sampleIdentifier.getSampleId(),
                         sampleIdentifier.getStudyId(), negateFilters);
 
                 if (count == clinicalDataFilters.size()) {
-                    newSampleIdentifiers.add(sampleIdentifier);
+                    filtered.set(i);
                 }
-            });
+            }
 
-            return newSampleIdentifiers;
+            return filtered;
         }
-        return sampleIdentifiers;
+        return selection;
     }
 
     // Must be overridden by child classes
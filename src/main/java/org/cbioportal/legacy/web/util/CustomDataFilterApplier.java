@@ -9,6 +9,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -43,6 +44,21 @@ public class CustomDataFilterApplier implements DataFilterApplier<ClinicalDataFi
             return sampleIdentifiers;
         }
 
+        SampleIdentifierIndex index = new SampleIdentifierIndex(sampleIdentifiers);
+        return index.toSampleIdentifiers(apply(index, index.all(), dataFilters, negateFilters));
+    }
+
+    @Override
+    public BitSet apply(
+        SampleIdentifierIndex index,
+        BitSet selection,
+        List<ClinicalDataFilter> dataFilters,
+        boolean negateFilters
+    ) {
+        if (dataFilters.isEmpty() || selection.isEmpty()) {
+            return selection;
+        }
+
         final List<String> attributeIds = dataFilters.stream()
             .map(ClinicalDataFilter::getAttributeId)
             .collect(Collectors.toList());
@@ -80,16 +96,18 @@ public class CustomDataFilterApplier implements DataFilterApplier<ClinicalDataFi
         return filterCustomData(
             dataFilters, 
             negateFilters, 
-            sampleIdentifiers, 
+            index,
+            selection,
             customDataSessionById,
             customDataByStudySampleSession
         );
     }
     
-    private List<SampleIdentifier> filterCustomData(
+    private BitSet filterCustomData(
         List<ClinicalDataFilter> customDataFilters,
         boolean negateFilters,
-        List<SampleIdentifier> sampleIdentifiers,
+        SampleIdentifierIndex index,
+        BitSet selection,
         Map<String, CustomDataSession> customDataSessionById,
         MultiKeyMap<String, String> clinicalDataMap
     ) {
@@ -113,8 +131,9 @@ public class CustomDataFilterApplier implements DataFilterApplier<ClinicalDataFi
             }
         });
 
-        List<SampleIdentifier> filtered = new ArrayList<>();
-        sampleIdentifiers.forEach(sampleIdentifier -> {
+        BitSet filtered = new BitSet(index.size());
+        for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+            SampleIdentifier sampleIdentifier = index.get(i);
             int equalityFilterCount = equalityFilterApplier.apply(equalityFilters, clinicalDataMap,
                 sampleIdentifier.getSampleId(), sampleIdentifier.getStudyId(), negateFilters);
             int intervalFilterCount = intervalFilterApplier.apply(intervalFilters, clinicalDataMap,
@@ -122,9 +141,9 @@ public class CustomDataFilterApplier implements DataFilterApplier<ClinicalDataFi
             if (equalityFilterCount == equalityFilters.size() 
                 && intervalFilterCount == intervalFilters.size()
             ) {
-                filtered.add(sampleIdentifier);
+                filtered.set(i);
             }
-        });
+        }
         
         return filtered;
     }
@@ -0,0 +1,125 @@
+package org.cbioportal.legacy.web.util;
+
+import com.google.common.collect.BoundType;
+import com.google.common.collect.Range;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.cbioportal.legacy.model.Binnable;
+import org.cbioportal.legacy.model.DataBin;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Counts the values of a single attribute per data bin. The values are classified once into numerical values,
+ * special ranges such as "<10" and non-numerical values, and the numbers are kept sorted in primitive arrays, so
+ * that counting a bin is a pair of binary searches instead of a scan over all values.
+ *
+ * The counts are the same as those of checking every value against {@link DataBinHelper#calcRange(DataBin)},
+ * also for overlapping bins, as long as the values do not differ beyond the precision of a double.
+ */
+public class DataBinCounter {
+
+    private final double[] numericalValues;
+    // the values of "<x" and ">x" special ranges
+    private final double[] lessThanValues;
+    private final double[] greaterThanValues;
+    // case insensitive, as the special values of the bins are matched with equalsIgnoreCase
+    private final Map<String, Integer> nonNumericalCounts = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+    public DataBinCounter(List<Binnable> clinicalData) {
+        double[] numerical = new double[clinicalData.size()];
+        double[] lessThan = new double[clinicalData.size()];
+        double[] greaterThan = new double[clinicalData.size()];
+        int numericalCount = 0;
+        int lessThanCount = 0;
+        int greaterThanCount = 0;
+
+        for (Binnable datum : clinicalData) {
+            String value = datum.getAttrValue();
+            if (NumberUtils.isCreatable(value)) {
+                numerical[numericalCount++] = new BigDecimal(value).doubleValue();
+                continue;
+            }
+            String strippedValue = DataBinHelper.stripOperator(value);
+            if (NumberUtils.isCreatable(strippedValue)) {
+                // values with an operator but an invalid number, such as >10PY or <20%, are neither
+                if (value.contains(">") || value.contains("<")) {
+                    double rangeValue = new BigDecimal(strippedValue).doubleValue();
+                    if (DataBinHelper.extractOperator(value).startsWith("<")) {
+                        lessThan[lessThanCount++] = rangeValue;
+                    } else {
+                        greaterThan[greaterThanCount++] = rangeValue;
+                    }
+                }
+            } else if (!DataBinHelper.isNA(value)) {
+                nonNumericalCounts.merge(value, 1, Integer::sum);
+            }
+        }
+
+        numericalValues = sorted(numerical, numericalCount);
+        lessThanValues = sorted(lessThan, lessThanCount);
+        greaterThanValues = sorted(greaterThan, greaterThanCount);
+    }
+
+    /**
+     * @return the number of values in the range of the bin, or the number of values equal to the special value
+     * of the bin if it has no range
+     */
+    public int count(DataBin dataBin) {
+        Range<BigDecimal> range = DataBinHelper.calcRange(dataBin);
+
+        if (range == null) {
+            return dataBin.getSpecialValue() == null ? 0 :
+                nonNumericalCounts.getOrDefault(dataBin.getSpecialValue(), 0);
+        }
+
+        int from = 0;
+        int to = numericalValues.length;
+        if (range.hasLowerBound()) {
+            from = indexOfFirst(numericalValues, range.lowerEndpoint().doubleValue(),
+                range.lowerBoundType() == BoundType.CLOSED);
+        }
+        if (range.hasUpperBound()) {
+            to = indexOfFirst(numericalValues, range.upperEndpoint().doubleValue(),
+                range.upperBoundType() == BoundType.OPEN);
+        }
+        int count = Math.max(0, to - from);
+
+        // a bin encloses "<x" if it is open below and ends at or above x, and likewise for ">x"
+        if (!range.hasLowerBound()) {
+            count += indexOfFirst(lessThanValues, range.upperEndpoint().doubleValue(), false);
+        }
+        if (!range.hasUpperBound()) {
+            count += greaterThanValues.length - indexOfFirst(greaterThanValues, range.lowerEndpoint().doubleValue(), true);
+        }
+
+        return count;
+    }
+
+    private static double[] sorted(double[] values, int length) {
+        double[] sortedValues = Arrays.copyOf(values, length);
+        Arrays.sort(sortedValues);
+        return sortedValues;
+    }
+
+    /**
+     * @return the index of the first sorted value that is at least the bound if inclusive, or greater than the
+     * bound otherwise
+     */
+    private static int indexOfFirst(double[] sortedValues, double bound, boolean inclusive) {
+        int low = 0;
+        int high = sortedValues.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (inclusive ? sortedValues[middle] < bound : sortedValues[middle] <= bound) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
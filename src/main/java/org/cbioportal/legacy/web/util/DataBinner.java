@@ -97,41 +97,14 @@ public class DataBinner {
         List<Binnable> clinicalData,
         Long naCount
     ) {
-        List<BigDecimal> numericalValues = clinicalData == null ?
-            Collections.emptyList() : filterNumericalValues(clinicalData);
-        List<String> nonNumericalValues = clinicalData == null ?
-            Collections.emptyList() : filterNonNumericalValues(clinicalData);
-        List<Range<BigDecimal>> ranges = clinicalData == null ?
-            Collections.emptyList() : filterSpecialRanges(clinicalData);
+        DataBinCounter dataBinCounter = new DataBinCounter(
+            clinicalData == null ? Collections.emptyList() : clinicalData);
 
         for (DataBin dataBin : dataBins) {
-            // reset count
-            dataBin.setCount(0);
-
-            // calculate range
-            Range<BigDecimal> range = DataBinHelper.calcRange(dataBin);
-
-            if (range != null) {
-                for (BigDecimal value : numericalValues) {
-                    if (range.contains(value)) {
-                        dataBin.setCount(dataBin.getCount() + 1);
-                    }
-                }
-
-                for (Range<BigDecimal> r : ranges) {
-                    if (range.encloses(r)) {
-                        dataBin.setCount(dataBin.getCount() + 1);
-                    }
-                }
-            } else { // if no range then it means non numerical data bin
-                for (String value : nonNumericalValues) {
-                    if (value.equalsIgnoreCase(dataBin.getSpecialValue())) {
-                        dataBin.setCount(dataBin.getCount() + 1);
-                    }
-                }
-            }
             if ("NA".equalsIgnoreCase(dataBin.getSpecialValue())) {
                 dataBin.setCount(naCount.intValue());
+            } else {
+                dataBin.setCount(dataBinCounter.count(dataBin));
             }
         }
 
@@ -660,23 +633,20 @@ public class DataBinner {
 
         // Calculate number of patients/samples without clinical data
 
-        Set<String> uniqueClinicalDataIds;
-
-        if (clinicalData != null) {
-            uniqueClinicalDataIds = clinicalData
-                .stream()
-                .filter(Objects::nonNull)
-                .map(datum -> computeUniqueCaseId(datum, clinicalDataType))
-                .collect(Collectors.toSet());
-        } else {
-            uniqueClinicalDataIds = Collections.emptySet();
-        }
-
         Set<String> uniqueInputIds = new HashSet<>(caseIds);
 
         // remove the ids with existing clinical data,
         // size of the difference (of two sets) is the count we need
-        uniqueInputIds.removeAll(uniqueClinicalDataIds);
+        if (clinicalData != null) {
+            for (Binnable datum : clinicalData) {
+                if (uniqueInputIds.isEmpty()) {
+                    break;
+                }
+                if (datum != null) {
+                    uniqueInputIds.remove(computeUniqueCaseId(datum, clinicalDataType));
+                }
+            }
+        }
         count += uniqueInputIds.size();
 
         return count;
@@ -3,6 +3,7 @@ package org.cbioportal.legacy.web.util;
 import org.cbioportal.legacy.web.parameter.DataFilter;
 import org.cbioportal.legacy.web.parameter.SampleIdentifier;
 
+import java.util.BitSet;
 import java.util.List;
 
 public interface DataFilterApplier<T extends DataFilter> {
@@ -12,4 +13,20 @@ public interface DataFilterApplier<T extends DataFilter> {
         List<T> dataFilters,
         boolean negateFilters
     );
+
+    /**
+     * Same as {@link #apply(List, List, boolean)} on the samples selected in the index.
+     *
+     * @return the selected samples that pass the filters
+     */
+    default BitSet apply(
+        SampleIdentifierIndex index,
+        BitSet selection,
+        List<T> dataFilters,
+        boolean negateFilters
+    ) {
+        BitSet filtered = index.select(apply(index.toSampleIdentifiers(selection), dataFilters, negateFilters));
+        filtered.and(selection);
+        return filtered;
+    }
 }
@@ -65,7 +65,9 @@ import org.cbioportal.legacy.web.parameter.SampleFilter;
 import org.cbioportal.legacy.web.parameter.SampleIdentifier;
 import org.cbioportal.legacy.web.parameter.SampleMolecularIdentifier;
 import org.cbioportal.legacy.web.parameter.StructuralVariantFilter;
+import org.cbioportal.legacy.web.parameter.StudyViewChartsFilter;
 import org.cbioportal.legacy.web.parameter.StudyViewFilter;
+import org.cbioportal.legacy.web.parameter.SurvivalCurveRequest;
 import org.cbioportal.legacy.web.parameter.SurvivalRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -118,6 +120,7 @@ public class InvolvedCancerStudyExtractorInterceptor implements HandlerIntercept
     public static final String STUDY_VIEW_SAMPLE_LIST_COUNTS_PATH = "/sample-lists-counts/fetch";
     public static final String STUDY_VIEW_CLINICAL_TABLE_DATA_FETCH_PATH = "/clinical-data-table/fetch";
     public static final String STUDY_VIEW_PROFILE_SAMPLE_COUNTS_PATH = "/molecular-profile-sample-counts/fetch";
+    public static final String STUDY_VIEW_CHARTS_PATH = "/study-view-charts/fetch";
     public static final String CLINICAL_DATA_ENRICHMENT_FETCH_PATH = "/clinical-data-enrichments/fetch";
     public static final String MUTATION_ENRICHMENT_FETCH_PATH = "/mutation-enrichments/fetch";
     public static final String COPY_NUMBER_ENRICHMENT_FETCH_PATH = "/copy-number-enrichments/fetch";
@@ -133,6 +136,7 @@ public class InvolvedCancerStudyExtractorInterceptor implements HandlerIntercept
     public static final String GENERIC_ASSAY_BINARY_ENRICHMENT_FETCH_PATH = "/generic-assay-binary-enrichments/fetch";
     public static final String CLINICAL_EVENT_TYPE_COUNT_FETCH_PATH = "/clinical-event-type-counts/fetch";
     public static final String SURVIVAL_DATA_FETCH_PATH = "/survival-data/fetch";
+    public static final String SURVIVAL_CURVES_FETCH_PATH = "/survival-curves/fetch";
     public static final String CLINICAL_EVENT_META_FETCH_PATH = "/clinical-events-meta/fetch";
     public static final String TREATMENTS_PATIENT_COUNT_FETCH_PATH = "/treatments/patient-counts/fetch";
     public static final String TREATMENTS_SAMPLE_COUNT_FETCH_PATH = "/treatments/sample-counts/fetch";
@@ -184,6 +188,8 @@ public class InvolvedCancerStudyExtractorInterceptor implements HandlerIntercept
             TREATMENTS_PATIENT_COUNT_FETCH_PATH, TREATMENTS_SAMPLE_COUNT_FETCH_PATH
         ).contains(requestPathInfo)) {
             return extractAttributesFromStudyViewFilter(request);
+        } else if (requestPathInfo.equals(STUDY_VIEW_CHARTS_PATH)) {
+            return extractAttributesFromStudyViewChartsFilter(request);
         } else if (requestPathInfo.equals(CLINICAL_DATA_ENRICHMENT_FETCH_PATH)) {
             return extractAttributesFromGroupFilter(request);
         } else if (requestPathInfo.equals(MUTATION_ENRICHMENT_FETCH_PATH) ||
@@ -201,6 +207,8 @@ public class InvolvedCancerStudyExtractorInterceptor implements HandlerIntercept
             return extractAttributesFromGenericAssayDataMultipleStudyFilter(request);
         } else if (requestPathInfo.equals(SURVIVAL_DATA_FETCH_PATH)) {
             return extractCancerStudyIdsFromSurvivalRequest(request);
+        } else if (requestPathInfo.equals(SURVIVAL_CURVES_FETCH_PATH)) {
+            return extractCancerStudyIdsFromSurvivalCurveRequest(request);
         } else if (requestPathInfo.equals(CLINICAL_EVENT_META_FETCH_PATH)) {
             return extractCancerStudyIdsFromClinicalEventAttributeRequest(request);
         }
@@ -628,16 +636,7 @@ public class InvolvedCancerStudyExtractorInterceptor implements HandlerIntercept
     private boolean extractAttributesFromStudyViewFilter(HttpServletRequest request) {
         try {
             StudyViewFilter studyViewFilter = objectMapper.readValue(request.getInputStream(), StudyViewFilter.class);
-            if (studyViewFilter.getAlterationFilter() == null) {
-                // For backwards compatibility an inactive filter is set
-                // when the AlterationFilter is not part of the request.
-                studyViewFilter.setAlterationFilter(new AlterationFilter());
-            }
-            if (studyViewFilter.getStructuralVariantFilters() == null) {
-                // For backwards compatibility an inactive filter is set
-                // when the StructuralVariantFilters are not part of the request.
-                studyViewFilter.setStructuralVariantFilters(new ArrayList<>());
-            }
+            setInactiveStudyViewFilterDefaults(studyViewFilter);
             LOG.debug("extracted studyViewFilter: {}", studyViewFilter);
             LOG.debug("setting interceptedStudyViewFilter to {}", studyViewFilter);
             request.setAttribute("interceptedStudyViewFilter", studyViewFilter);
@@ -653,6 +652,43 @@ public class InvolvedCancerStudyExtractorInterceptor implements HandlerIntercept
         return true;
     }
 
+    private boolean extractAttributesFromStudyViewChartsFilter(HttpServletRequest request) {
+        try {
+            StudyViewChartsFilter studyViewChartsFilter = objectMapper.readValue(request.getInputStream(),
+                StudyViewChartsFilter.class);
+            if (studyViewChartsFilter.getStudyViewFilter() != null) {
+                setInactiveStudyViewFilterDefaults(studyViewChartsFilter.getStudyViewFilter());
+            }
+            LOG.debug("extracted studyViewChartsFilter: {}", studyViewChartsFilter);
+            LOG.debug("setting interceptedStudyViewChartsFilter to {}", studyViewChartsFilter);
+            request.setAttribute("interceptedStudyViewChartsFilter", studyViewChartsFilter);
+            if (cacheMapUtil.hasCacheEnabled()) {
+                Collection<String> cancerStudyIdCollection = studyViewChartsFilter.getStudyViewFilter() != null ?
+                    extractCancerStudyIdsFromStudyViewFilter(studyViewChartsFilter.getStudyViewFilter()) :
+                    new HashSet<>();
+                LOG.debug("setting involvedCancerStudies to {}", cancerStudyIdCollection);
+                request.setAttribute("involvedCancerStudies", cancerStudyIdCollection);
+            }
+        } catch (Exception e) {
+            LOG.error("exception thrown during extraction of studyViewChartsFilter: {}", e.getMessage());
+            return false;
+        }
+        return true;
+    }
+
+    private void setInactiveStudyViewFilterDefaults(StudyViewFilter studyViewFilter) {
+        if (studyViewFilter.getAlterationFilter() == null) {
+            // For backwards compatibility an inactive filter is set
+            // when the AlterationFilter is not part of the request.
+            studyViewFilter.setAlterationFilter(new AlterationFilter());
+        }
+        if (studyViewFilter.getStructuralVariantFilters() == null) {
+            // For backwards compatibility an inactive filter is set
+            // when the StructuralVariantFilters are not part of the request.
+            studyViewFilter.setStructuralVariantFilters(new ArrayList<>());
+        }
+    }
+
     private boolean extractAttributesFromMolecularProfileCasesGroups(HttpServletRequest request) {
         try {
             List<MolecularProfileCasesGroupFilter> molecularProfileCasesGroupFilters = Arrays
@@ -863,6 +899,29 @@ public class InvolvedCancerStudyExtractorInterceptor implements HandlerIntercept
         return true;
     }
 
+    private boolean extractCancerStudyIdsFromSurvivalCurveRequest(HttpServletRequest request) {
+        try {
+            SurvivalCurveRequest survivalCurveRequest = objectMapper.readValue(request.getInputStream(), SurvivalCurveRequest.class);
+            LOG.debug("extracted survivalCurveRequest: {}", survivalCurveRequest);
+            LOG.debug("setting interceptedSurvivalCurveRequest to {}", survivalCurveRequest);
+            request.setAttribute("interceptedSurvivalCurveRequest", survivalCurveRequest);
+            if (cacheMapUtil.hasCacheEnabled()) {
+                // the groups only select among the patients of the request
+                Collection<String> cancerStudyIdCollection = survivalCurveRequest
+                    .getPatientIdentifiers()
+                    .stream()
+                    .map(PatientIdentifier::getStudyId)
+                    .collect(Collectors.toSet());
+                LOG.debug("setting involvedCancerStudies to {}", cancerStudyIdCollection);
+                request.setAttribute("involvedCancerStudies", cancerStudyIdCollection);
+            }
+        } catch (Exception e) {
+            LOG.error("exception thrown during extraction of survivalCurveRequest: {}", e.getMessage());
+            return false;
+        }
+        return true;
+    }
+
     private boolean extractCancerStudyIdsFromClinicalEventAttributeRequest(HttpServletRequest request) {
         try {
             ClinicalEventAttributeRequest clinicalEventAttributeRequest = objectMapper.readValue(request.getInputStream(), ClinicalEventAttributeRequest.class);
@@ -0,0 +1,67 @@
+package org.cbioportal.legacy.web.util;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes a JSON array to the response one element at a time, as a source produces them, so that large results are
+ * never held in memory as a whole. The output is the same as serializing a list of the elements.
+ */
+public class JsonArrayResponseWriter {
+
+    @FunctionalInterface
+    public interface Source<T, E extends Exception> {
+        void forEach(Consumer<T> consumer) throws E;
+    }
+
+    private JsonArrayResponseWriter() {
+    }
+
+    /**
+     * If the source fails, the array is left unterminated, so that clients cannot mistake a partial result for a
+     * complete one. Errors raised before the first few kilobytes are written can still be turned into an error
+     * response.
+     */
+    public static <T, E extends Exception> void write(ObjectMapper objectMapper, HttpServletResponse response,
+                                                      Source<T, E> source) throws IOException, E {
+        write(objectMapper, response, source, false);
+    }
+
+    /**
+     * @param flushEachElement send each element to the client as soon as it is written, for sources whose elements
+     *                         take long to produce
+     */
+    public static <T, E extends Exception> void write(ObjectMapper objectMapper, HttpServletResponse response,
+                                                      Source<T, E> source, boolean flushEachElement)
+        throws IOException, E {
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        ObjectWriter writer = flushEachElement ?
+            objectMapper.writer().with(SerializationFeature.FLUSH_AFTER_WRITE_VALUE) :
+            objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator generator = writer.createGenerator(response.getOutputStream(), JsonEncoding.UTF8);
+        generator.writeStartArray();
+        try {
+            source.forEach(element -> {
+                try {
+                    writer.writeValue(generator, element);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        generator.writeEndArray();
+        generator.close();
+    }
+}
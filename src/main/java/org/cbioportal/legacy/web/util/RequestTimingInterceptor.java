@@ -0,0 +1,49 @@
+package org.cbioportal.legacy.web.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.cbioportal.legacy.utils.metrics.ApplicationMetrics;
+import org.cbioportal.legacy.utils.metrics.RequestTimer;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Times the requests per endpoint and phase. It must be registered before all other interceptors, so that the time
+ * they take to read and resolve the filters of the request counts as the filter phase, and its
+ * {@link #handlerStart()} interceptor after all of them, so that the handler starts in the computation phase.
+ */
+public class RequestTimingInterceptor implements HandlerInterceptor {
+
+    private final ApplicationMetrics applicationMetrics;
+
+    public RequestTimingInterceptor(ApplicationMetrics applicationMetrics) {
+        this.applicationMetrics = applicationMetrics;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestTimer.start(RequestTimer.Phase.FILTER);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        RequestTimer.Timings timings = RequestTimer.stop();
+        if (timings != null) {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            applicationMetrics.recordRequest(request.getMethod(), pattern != null ? pattern.toString() : "unmapped",
+                timings);
+        }
+    }
+
+    public HandlerInterceptor handlerStart() {
+        return new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                RequestTimer.switchTo(RequestTimer.Phase.COMPUTATION);
+                return true;
+            }
+        };
+    }
+}
@@ -0,0 +1,92 @@
+package org.cbioportal.legacy.web.util;
+
+import org.cbioportal.legacy.web.parameter.SampleIdentifier;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dense dictionary of the samples a study view filter starts from. Every distinct sample gets a position in
+ * [0, size), grouped per study, so that intermediate selections can be kept as bitmaps and narrowed with
+ * bitwise intersections. Lookups by study and sample id do not allocate {@link SampleIdentifier}s.
+ */
+public class SampleIdentifierIndex {
+
+    private final List<SampleIdentifier> sampleIdentifiers = new ArrayList<>();
+    private final Map<String, Map<String, Integer>> positionsByStudyId = new HashMap<>();
+
+    public SampleIdentifierIndex(Collection<SampleIdentifier> sampleIdentifiers) {
+        for (SampleIdentifier sampleIdentifier : sampleIdentifiers) {
+            Map<String, Integer> positions = positionsByStudyId
+                .computeIfAbsent(sampleIdentifier.getStudyId(), k -> new HashMap<>());
+            if (!positions.containsKey(sampleIdentifier.getSampleId())) {
+                positions.put(sampleIdentifier.getSampleId(), this.sampleIdentifiers.size());
+                this.sampleIdentifiers.add(sampleIdentifier);
+            }
+        }
+    }
+
+    public int size() {
+        return sampleIdentifiers.size();
+    }
+
+    public SampleIdentifier get(int position) {
+        return sampleIdentifiers.get(position);
+    }
+
+    /**
+     * @return the position of the sample, or -1 if it is not part of the index
+     */
+    public int indexOf(String studyId, String sampleId) {
+        Map<String, Integer> positions = positionsByStudyId.get(studyId);
+        if (positions == null) {
+            return -1;
+        }
+        return positions.getOrDefault(sampleId, -1);
+    }
+
+    /**
+     * @return a selection of all samples in the index
+     */
+    public BitSet all() {
+        BitSet selection = new BitSet(size());
+        selection.set(0, size());
+        return selection;
+    }
+
+    /**
+     * @return a selection of the given samples, ignoring samples that are not part of the index
+     */
+    public BitSet select(Collection<SampleIdentifier> sampleIdentifiers) {
+        BitSet selection = new BitSet(size());
+        for (SampleIdentifier sampleIdentifier : sampleIdentifiers) {
+            set(selection, sampleIdentifier.getStudyId(), sampleIdentifier.getSampleId());
+        }
+        return selection;
+    }
+
+    /**
+     * Adds the sample to the selection if it is part of the index.
+     */
+    public void set(BitSet selection, String studyId, String sampleId) {
+        int position = indexOf(studyId, sampleId);
+        if (position >= 0) {
+            selection.set(position);
+        }
+    }
+
+    /**
+     * @return the selected samples, in index order
+     */
+    public List<SampleIdentifier> toSampleIdentifiers(BitSet selection) {
+        List<SampleIdentifier> result = new ArrayList<>(selection.cardinality());
+        for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+            result.add(sampleIdentifiers.get(i));
+        }
+        return result;
+    }
+}
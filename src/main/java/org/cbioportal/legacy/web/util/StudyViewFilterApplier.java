@@ -24,6 +24,7 @@ import org.cbioportal.legacy.model.MutationFilterOption;
 import org.cbioportal.legacy.model.Sample;
 import org.cbioportal.legacy.model.SampleList;
 import org.cbioportal.legacy.model.UniqueKeyBase;
+import org.cbioportal.legacy.persistence.CacheEnabledConfig;
 import org.cbioportal.legacy.service.ClinicalAttributeService;
 import org.cbioportal.legacy.service.DiscreteCopyNumberService;
 import org.cbioportal.legacy.service.GenePanelService;
@@ -37,6 +38,7 @@ import org.cbioportal.legacy.service.SampleService;
 import org.cbioportal.legacy.service.StructuralVariantService;
 import org.cbioportal.legacy.service.exception.MolecularProfileNotFoundException;
 import org.cbioportal.legacy.service.util.MolecularProfileUtil;
+import org.cbioportal.legacy.utils.metrics.RequestTimer;
 import org.cbioportal.legacy.web.parameter.ClinicalDataFilter;
 import org.cbioportal.legacy.web.parameter.ClinicalDataType;
 import org.cbioportal.legacy.web.parameter.DataBinCountFilter;
@@ -64,6 +66,7 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -122,6 +125,8 @@ public class StudyViewFilterApplier {
     private StructuralVariantService structuralVariantService;
     @Autowired
     private MolecularProfileUtil molecularProfileUtil;
+    @Autowired
+    private CacheEnabledConfig cacheEnabledConfig;
 
 
     private StudyViewFilterApplier getInstance() {
@@ -139,7 +144,9 @@ public class StudyViewFilterApplier {
     };
 
     public List<SampleIdentifier> apply(StudyViewFilter studyViewFilter) {
-        return this.getInstance().cachedApply(studyViewFilter);
+        try (RequestTimer.Scope scope = RequestTimer.enter(RequestTimer.Phase.FILTER)) {
+            return this.getInstance().cachedApply(studyViewFilter);
+        }
     }
 
     @Cacheable(
@@ -147,9 +154,30 @@ public class StudyViewFilterApplier {
         condition = "@cacheEnabledConfig.getEnabled()"
     )
     public List<SampleIdentifier> cachedApply(StudyViewFilter studyViewFilter) {
+        if (studyViewFilter != null && cacheEnabledConfig.isEnabled()) {
+            List<StudyViewFilter> clauses = studyViewFilterUtil.splitByClause(studyViewFilter);
+            if (clauses.size() > 1) {
+                return applyByClause(studyViewFilter, clauses);
+            }
+        }
         return this.apply(studyViewFilter, false);
     }
 
+    // Every clause goes through the cache on its own, keyed by the samples or studies of the filter and the clause.
+    // When a single filter is added to or removed from a study view, only that clause needs to be computed.
+    private List<SampleIdentifier> applyByClause(StudyViewFilter studyViewFilter, List<StudyViewFilter> clauses) {
+        SampleIdentifierIndex index = new SampleIdentifierIndex(
+            this.getInstance().cachedApply(studyViewFilterUtil.getUnfilteredFilter(studyViewFilter)));
+        BitSet selection = index.all();
+        for (StudyViewFilter clause : clauses) {
+            if (selection.isEmpty()) {
+                break;
+            }
+            selection.and(index.select(this.getInstance().cachedApply(clause)));
+        }
+        return index.toSampleIdentifiers(selection);
+    }
+
     public List<SampleIdentifier> apply(StudyViewFilter studyViewFilter, boolean negateFilters) {
 
         List<SampleIdentifier> sampleIdentifiers = new ArrayList<>();
@@ -171,6 +199,11 @@ public class StudyViewFilterApplier {
         List<String> studyIds = sampleIdentifiers.stream().map(SampleIdentifier::getStudyId).distinct()
             .collect(Collectors.toList());
 
+        // intermediate selections are bitmaps over the samples we start from,
+        // they are only converted back to SampleIdentifiers when a filter needs to query them
+        SampleIdentifierIndex index = new SampleIdentifierIndex(sampleIdentifiers);
+        BitSet selection = index.all();
+
         List<ClinicalDataFilter> clinicalDataEqualityFilters = new ArrayList<>();
         List<ClinicalDataFilter> clinicalDataIntervalFilters = new ArrayList<>();
 
@@ -200,15 +233,17 @@ public class StudyViewFilterApplier {
         }
 
         if (!CollectionUtils.isEmpty(clinicalDataEqualityFilters)) {
-            sampleIdentifiers = equalityFilterClinicalData(sampleIdentifiers, clinicalDataEqualityFilters, negateFilters);
+            selection = clinicalDataEqualityFilterApplier.apply(index, selection, clinicalDataEqualityFilters,
+                negateFilters);
         }
 
         if (!CollectionUtils.isEmpty(clinicalDataIntervalFilters)) {
-            sampleIdentifiers = intervalFilterClinicalData(sampleIdentifiers, clinicalDataIntervalFilters, negateFilters);
+            selection = clinicalDataIntervalFilterApplier.apply(index, selection, clinicalDataIntervalFilters,
+                negateFilters);
         }
         
         if (!CollectionUtils.isEmpty(studyViewFilter.getCustomDataFilters())) {
-            sampleIdentifiers = customDataFilterApplier.apply(sampleIdentifiers, studyViewFilter.getCustomDataFilters(),
+            selection = customDataFilterApplier.apply(index, selection, studyViewFilter.getCustomDataFilters(),
                 negateFilters);
         }
 
@@ -247,17 +282,19 @@ public class StudyViewFilterApplier {
         }
 
         if (!CollectionUtils.isEmpty(genomicDataEqualityFilters)) {
-            sampleIdentifiers = equalityFilterExpressionData(sampleIdentifiers, molecularProfiles,
-                genomicDataEqualityFilters, negateFilters);
+            selection = narrow(index, selection, equalityFilterExpressionData(index.toSampleIdentifiers(selection),
+                molecularProfiles, genomicDataEqualityFilters, negateFilters));
         }
 
         if (!CollectionUtils.isEmpty(genomicDataIntervalFilters)) {
-            sampleIdentifiers = intervalFilterExpressionData(sampleIdentifiers, molecularProfiles,
-                genomicDataIntervalFilters, negateFilters);
+            selection = narrow(index, selection, intervalFilterExpressionData(index.toSampleIdentifiers(selection),
+                molecularProfiles, genomicDataIntervalFilters, negateFilters));
         }
 
-        sampleIdentifiers = intervalFilterExpressionData(sampleIdentifiers, molecularProfiles,
-            studyViewFilter.getGenericAssayDataFilters(), negateFilters);
+        if (!CollectionUtils.isEmpty(studyViewFilter.getGenericAssayDataFilters())) {
+            selection = narrow(index, selection, intervalFilterExpressionData(index.toSampleIdentifiers(selection),
+                molecularProfiles, studyViewFilter.getGenericAssayDataFilters(), negateFilters));
+        }
 
         if (!CollectionUtils.isEmpty(studyViewFilter.getGeneFilters())) {
             Map<String, MolecularProfile> molecularProfileMap = molecularProfiles.stream()
@@ -272,14 +309,16 @@ public class StudyViewFilterApplier {
             if ((mutatedGeneFilters.size() + structuralVariantGeneFilters.size() + cnaGeneFilters.size()) == studyViewFilter
                 .getGeneFilters().size()) {
                 if (!mutatedGeneFilters.isEmpty()) {
-                    sampleIdentifiers = filterMutatedGenes(mutatedGeneFilters, molecularProfileMap, sampleIdentifiers);
+                    selection = narrow(index, selection, filterMutatedGenes(mutatedGeneFilters, molecularProfileMap,
+                        index.toSampleIdentifiers(selection)));
                 }
                 if (!structuralVariantGeneFilters.isEmpty()) {
-                    sampleIdentifiers = filterStructuralVariantGenes(structuralVariantGeneFilters, molecularProfileMap,
-                        sampleIdentifiers);
+                    selection = narrow(index, selection, filterStructuralVariantGenes(structuralVariantGeneFilters,
+                        molecularProfileMap, index.toSampleIdentifiers(selection)));
                 }
                 if (!cnaGeneFilters.isEmpty()) {
-                    sampleIdentifiers = filterCNAGenes(cnaGeneFilters, molecularProfileMap, sampleIdentifiers);
+                    selection = narrow(index, selection, filterCNAGenes(cnaGeneFilters, molecularProfileMap,
+                        index.toSampleIdentifiers(selection)));
                 }
 
             } else {
@@ -288,7 +327,8 @@ public class StudyViewFilterApplier {
         }
 
         if (!CollectionUtils.isEmpty(studyViewFilter.getGenomicProfiles())) {
-            Map<String, List<SampleIdentifier>> groupStudySampleIdentifiers = sampleIdentifiers.stream()
+            Map<String, List<SampleIdentifier>> groupStudySampleIdentifiers = index.toSampleIdentifiers(selection)
+                .stream()
                 .collect(Collectors.groupingBy(SampleIdentifier::getStudyId));
 
             Map<String, List<MolecularProfile>> molecularProfileSet = molecularProfileUtil
@@ -325,18 +365,16 @@ public class StudyViewFilterApplier {
                         profileValue -> molecularProfileSet.getOrDefault(profileValue, new ArrayList<>()).stream())
                     .collect(Collectors.toMap(MolecularProfile::getStableId, Function.identity()));
                 
-                Set<SampleIdentifier> filteredSampleIdentifiers = new HashSet<>();
+                BitSet profiledSamples = new BitSet(index.size());
                 
                 // for each sample/profile combo, we need to find out whether
                 // the profileMap contains that profile id
                 genePanelData.forEach(datum -> {
                     if (datum.getProfiled() && profileMap.containsKey(datum.getMolecularProfileId())) {
-                        SampleIdentifier sampleIdentifier =
-                            studyViewFilterUtil.buildSampleIdentifier(datum.getStudyId(), datum.getSampleId());
-                        filteredSampleIdentifiers.add(sampleIdentifier);
+                        index.set(profiledSamples, datum.getStudyId(), datum.getSampleId());
                     }
                 });
-                sampleIdentifiers.retainAll(filteredSampleIdentifiers);
+                selection.and(profiledSamples);
             }
         }
 
@@ -347,17 +385,13 @@ public class StudyViewFilterApplier {
                 .categorizeSampleLists(sampleLists);
 
             for (List<String> sampleListTypes : studyViewFilter.getCaseLists()) {
-                List<SampleIdentifier> filteredSampleIdentifiers = sampleListTypes.stream()
-                    .flatMap(sampleListType -> groupedSampleListByListType
-                        .getOrDefault(sampleListType, new ArrayList<>()).stream().flatMap(sampleList -> {
-                            return sampleList.getSampleIds().stream().map(sampleId ->
-                                studyViewFilterUtil.buildSampleIdentifier(
-                                    sampleList.getCancerStudyIdentifier(),
-                                    sampleId));
-                        }))
-                    .toList();
+                BitSet sampleListSamples = new BitSet(index.size());
+                sampleListTypes.forEach(sampleListType -> groupedSampleListByListType
+                    .getOrDefault(sampleListType, new ArrayList<>())
+                    .forEach(sampleList -> sampleList.getSampleIds().forEach(sampleId ->
+                        index.set(sampleListSamples, sampleList.getCancerStudyIdentifier(), sampleId))));
 
-                sampleIdentifiers.retainAll(filteredSampleIdentifiers);
+                selection.and(sampleListSamples);
             }
         }
 
@@ -377,38 +411,33 @@ public class StudyViewFilterApplier {
         }
 
         if (!CollectionUtils.isEmpty(mutationOptionDataFilters)) {
-            sampleIdentifiers = filterMutationData(sampleIdentifiers, molecularProfiles,
+            selection = filterMutationData(index, selection, molecularProfiles,
                 mutationOptionDataFilters, negateFilters, clinicalDataEqualityFilterApplier);
         }
 
         if (!CollectionUtils.isEmpty(mutationTypeDataFilters)) {
-            sampleIdentifiers = filterMutationData(sampleIdentifiers, molecularProfiles,
+            selection = filterMutationData(index, selection, molecularProfiles,
                 mutationTypeDataFilters, negateFilters, clinicalDataEqualityFilterApplier);
         }
 
-        return chainSubFilters(studyViewFilter, sampleIdentifiers);
+        return index.toSampleIdentifiers(chainSubFilters(studyViewFilter, index, selection));
     }
 
-    private List<SampleIdentifier> chainSubFilters(StudyViewFilter studyViewFilter, List<SampleIdentifier> sampleIdentifiers) {
+    private BitSet chainSubFilters(StudyViewFilter studyViewFilter, SampleIdentifierIndex index, BitSet selection) {
         for (StudyViewSubFilterApplier subFilterApplier : subFilterAppliers) {
-            if (!sampleIdentifiers.isEmpty() && subFilterApplier.shouldApplyFilter(studyViewFilter)) {
-                sampleIdentifiers = subFilterApplier.filter(sampleIdentifiers, studyViewFilter);
+            if (!selection.isEmpty() && subFilterApplier.shouldApplyFilter(studyViewFilter)) {
+                selection = subFilterApplier.filter(index, selection, studyViewFilter);
             }
         }
 
-        return sampleIdentifiers;
-    }
-
-    private List<SampleIdentifier> intervalFilterClinicalData(List<SampleIdentifier> sampleIdentifiers,
-                                                              List<ClinicalDataFilter> clinicalDataIntervalFilters,
-                                                              boolean negateFilters) {
-        return clinicalDataIntervalFilterApplier.apply(sampleIdentifiers, clinicalDataIntervalFilters, negateFilters);
+        return selection;
     }
 
-    private List<SampleIdentifier> equalityFilterClinicalData(List<SampleIdentifier> sampleIdentifiers,
-                                                              List<ClinicalDataFilter> clinicalDataEqualityFilters,
-                                                              boolean negateFilters) {
-        return clinicalDataEqualityFilterApplier.apply(sampleIdentifiers, clinicalDataEqualityFilters, negateFilters);
+    // keeps the selected samples that are in filteredSampleIdentifiers
+    private BitSet narrow(SampleIdentifierIndex index, BitSet selection, List<SampleIdentifier> filteredSampleIdentifiers) {
+        BitSet filtered = index.select(filteredSampleIdentifiers);
+        filtered.and(selection);
+        return filtered;
     }
 
     private List<SampleIdentifier> filterMutatedGenes(List<GeneFilter> mutatedGenefilters,
@@ -624,10 +653,11 @@ public class StudyViewFilterApplier {
         return sampleIdentifiers;
     }
 
-    private List<SampleIdentifier> filterMutationData(List<SampleIdentifier> sampleIdentifiers,
-                                                      List<MolecularProfile> molecularProfiles, List<MutationDataFilter> mutationDataFilters,
-                                                      boolean negateFilters, ClinicalDataFilterApplier clinicalDataFilterApplier) {
-        if (CollectionUtils.isNotEmpty(mutationDataFilters) && CollectionUtils.isNotEmpty(sampleIdentifiers)) {
+    private BitSet filterMutationData(SampleIdentifierIndex index, BitSet selection,
+                                      List<MolecularProfile> molecularProfiles, List<MutationDataFilter> mutationDataFilters,
+                                      boolean negateFilters, ClinicalDataFilterApplier clinicalDataFilterApplier) {
+        if (CollectionUtils.isNotEmpty(mutationDataFilters) && !selection.isEmpty()) {
+            List<SampleIdentifier> sampleIdentifiers = index.toSampleIdentifiers(selection);
             List<ClinicalData> clinicalDatas =
                 fetchMutationDataAndTransformToClinicalDataList(sampleIdentifiers, molecularProfiles, mutationDataFilters);
 
@@ -639,7 +669,7 @@ public class StudyViewFilterApplier {
                 clinicalDataMap = ClinicalDataIntervalFilterApplier.buildClinicalDataMap(clinicalDatas);
             }
 
-            List<SampleIdentifier> newSampleIdentifiers = new ArrayList<>();
+            BitSet newSelection = new BitSet(index.size());
 
             // loop through each mutationDataFilter and filter data
             for (MutationDataFilter mutationDataFilter : mutationDataFilters) {
@@ -652,23 +682,23 @@ public class StudyViewFilterApplier {
                     List<ClinicalDataFilter> attributes = Collections.singletonList(clinicalDataFilter);
 
                     // union selection: filter all samples that have at least one value from a list of DataFilterValue, e.g. Missense_Mutation, In_Shift_Del, ...
-                    List<SampleIdentifier> filteredSampleIdentifiers = filterSampleIdentifiers(
+                    BitSet filteredSelection = index.select(filterSampleIdentifiers(
                         sampleIdentifiers, attributes, clinicalDataMap, clinicalDataFilterApplier, negateFilters
-                    );
+                    ));
 
-                    if (newSampleIdentifiers.isEmpty()) {
-                        newSampleIdentifiers = filteredSampleIdentifiers;
+                    if (newSelection.isEmpty()) {
+                        newSelection = filteredSelection;
                     } else {
                         // intersection selection: retain shared samples from each selection for all mutationDataFilter
-                        newSampleIdentifiers.retainAll(filteredSampleIdentifiers);
+                        newSelection.and(filteredSelection);
                     }
                 }
             }
 
-            return newSampleIdentifiers.stream().distinct().toList();
+            return newSelection;
         }
 
-        return sampleIdentifiers;
+        return selection;
     }
 
     private void splitGeneFiltersByMolecularAlterationType(List<GeneFilter> genefilters,
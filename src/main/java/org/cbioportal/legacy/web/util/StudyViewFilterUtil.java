@@ -28,14 +28,18 @@ import org.cbioportal.legacy.web.parameter.MutationOption;
 import org.cbioportal.legacy.web.parameter.Projection;
 import org.cbioportal.legacy.web.parameter.SampleIdentifier;
 import org.cbioportal.legacy.web.parameter.StudyViewFilter;
+import org.cbioportal.legacy.web.parameter.filter.AndedPatientTreatmentFilters;
+import org.cbioportal.legacy.web.parameter.filter.AndedSampleTreatmentFilters;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -259,6 +263,74 @@ public class StudyViewFilterUtil {
         );
     }
 
+    /**
+     * Splits a filter into filters with a single clause each, on the same samples or studies. Every clause
+     * selects samples on its own, so the samples selected by the filter are the intersection of the samples
+     * selected by its clauses. Mutation data filters and clinical event filters are kept together, their
+     * appliers combine the individual filters themselves.
+     */
+    public List<StudyViewFilter> splitByClause(StudyViewFilter filter) {
+        List<StudyViewFilter> clauses = new ArrayList<>();
+        addClauses(clauses, filter, filter.getClinicalDataFilters(), StudyViewFilter::setClinicalDataFilters);
+        addClauses(clauses, filter, filter.getCustomDataFilters(), StudyViewFilter::setCustomDataFilters);
+        addClauses(clauses, filter, filter.getGenomicDataFilters(), StudyViewFilter::setGenomicDataFilters);
+        addClauses(clauses, filter, filter.getGenericAssayDataFilters(), StudyViewFilter::setGenericAssayDataFilters);
+        addClauses(clauses, filter, filter.getGeneFilters(), StudyViewFilter::setGeneFilters);
+        addClauses(clauses, filter, filter.getGenomicProfiles(), StudyViewFilter::setGenomicProfiles);
+        addClauses(clauses, filter, filter.getCaseLists(), StudyViewFilter::setCaseLists);
+        addClauses(clauses, filter, filter.getStructuralVariantFilters(), StudyViewFilter::setStructuralVariantFilters);
+        addClause(clauses, filter, filter.getMutationDataFilters(), StudyViewFilter::setMutationDataFilters);
+        addClause(clauses, filter, filter.getClinicalEventFilters(), StudyViewFilter::setClinicalEventFilters);
+        addClause(clauses, filter, filter.getSampleTreatmentFilters(), StudyViewFilter::setSampleTreatmentFilters);
+        addClause(clauses, filter, filter.getSampleTreatmentGroupFilters(), StudyViewFilter::setSampleTreatmentGroupFilters);
+        addClause(clauses, filter, filter.getSampleTreatmentTargetFilters(), StudyViewFilter::setSampleTreatmentTargetFilters);
+        addClause(clauses, filter, filter.getPatientTreatmentFilters(), StudyViewFilter::setPatientTreatmentFilters);
+        addClause(clauses, filter, filter.getPatientTreatmentGroupFilters(), StudyViewFilter::setPatientTreatmentGroupFilters);
+        addClause(clauses, filter, filter.getPatientTreatmentTargetFilters(), StudyViewFilter::setPatientTreatmentTargetFilters);
+        return clauses;
+    }
+
+    /**
+     * @return a filter on the same samples or studies as the given filter, without any clauses
+     */
+    public StudyViewFilter getUnfilteredFilter(StudyViewFilter filter) {
+        StudyViewFilter unfiltered = new StudyViewFilter();
+        unfiltered.setStudyIds(filter.getStudyIds());
+        unfiltered.setSampleIdentifiers(filter.getSampleIdentifiers());
+        return unfiltered;
+    }
+
+    private <T> void addClauses(List<StudyViewFilter> clauses, StudyViewFilter filter, List<T> values,
+                                BiConsumer<StudyViewFilter, List<T>> setter) {
+        if (values != null) {
+            for (T value : values) {
+                StudyViewFilter clause = getUnfilteredFilter(filter);
+                setter.accept(clause, new ArrayList<>(Collections.singletonList(value)));
+                clauses.add(clause);
+            }
+        }
+    }
+
+    private <T> void addClause(List<StudyViewFilter> clauses, StudyViewFilter filter, T value,
+                               BiConsumer<StudyViewFilter, T> setter) {
+        if (value != null && !isEmptyClause(value)) {
+            StudyViewFilter clause = getUnfilteredFilter(filter);
+            setter.accept(clause, value);
+            clauses.add(clause);
+        }
+    }
+
+    private static boolean isEmptyClause(Object value) {
+        if (value instanceof Collection<?> collection) {
+            return collection.isEmpty();
+        } else if (value instanceof AndedSampleTreatmentFilters sampleTreatmentFilters) {
+            return sampleTreatmentFilters.getFilters().isEmpty();
+        } else if (value instanceof AndedPatientTreatmentFilters patientTreatmentFilters) {
+            return patientTreatmentFilters.getFilters().isEmpty();
+        }
+        return false;
+    }
+
     public List<Binnable> filterClinicalData(
         List<Binnable> unfilteredClinicalDataForSamples,
         List<Binnable> unfilteredClinicalDataForPatients,
@@ -0,0 +1,53 @@
+package org.cbioportal.legacy.web.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.cbioportal.legacy.utils.concurrent.Workload;
+import org.cbioportal.legacy.utils.concurrent.WorkloadExecutors;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.security.Principal;
+
+/**
+ * Admits the requests of the paths it is registered for as requests of a workload, so that they fail at once when
+ * the user or the whole workload already has too many requests running. The admission is released when the request
+ * completes.
+ */
+public class WorkloadAdmissionInterceptor implements HandlerInterceptor {
+
+    private final WorkloadExecutors workloadExecutors;
+    private final Workload workload;
+    private final String admissionAttribute;
+
+    public WorkloadAdmissionInterceptor(WorkloadExecutors workloadExecutors, Workload workload) {
+        this.workloadExecutors = workloadExecutors;
+        this.workload = workload;
+        this.admissionAttribute = WorkloadAdmissionInterceptor.class.getName() + "." + workload.getName();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(admissionAttribute, workloadExecutors.admit(workload, getUser(request)));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(admissionAttribute) instanceof WorkloadExecutors.Admission admission) {
+            request.removeAttribute(admissionAttribute);
+            admission.close();
+        }
+    }
+
+    // anonymous users are told apart by their address, if at all
+    @Nullable
+    private String getUser(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        if (principal != null) {
+            return principal.getName();
+        }
+        return workloadExecutors.isLimitingAnonymousUsers() ? request.getRemoteAddr() : null;
+    }
+}
@@ -6,9 +6,11 @@ import org.cbioportal.legacy.service.TreatmentService;
 import org.cbioportal.legacy.web.parameter.SampleIdentifier;
 import org.cbioportal.legacy.web.parameter.StudyViewFilter;
 import org.cbioportal.legacy.web.parameter.filter.AndedPatientTreatmentFilters;
+import org.cbioportal.legacy.web.util.SampleIdentifierIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -30,9 +32,35 @@ public abstract class AbstractPatientTreatmentFilter implements StudyViewSubFilt
         if (identifiers == null || identifiers.isEmpty()) {
             return new ArrayList<>();
         }
-        
+
         AndedPatientTreatmentFilters filters = getFilters(filter);
+        Map<String, Set<String>> rows = getRows(identifiers);
+
+        return identifiers.stream()
+            .filter(i -> filters.filter(i, rows))
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public BitSet filter(SampleIdentifierIndex index, BitSet selection, StudyViewFilter filter) {
+
+        if (selection.isEmpty()) {
+            return selection;
+        }
 
+        AndedPatientTreatmentFilters filters = getFilters(filter);
+        Map<String, Set<String>> rows = getRows(index.toSampleIdentifiers(selection));
+
+        BitSet filtered = new BitSet(index.size());
+        for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+            if (filters.filter(index.get(i), rows)) {
+                filtered.set(i);
+            }
+        }
+        return filtered;
+    }
+
+    private Map<String, Set<String>> getRows(List<SampleIdentifier> identifiers) {
         List<String> sampleIds = identifiers.stream()
             .map(SampleIdentifier::getSampleId)
             .collect(Collectors.toList());
@@ -41,14 +69,9 @@ public abstract class AbstractPatientTreatmentFilter implements StudyViewSubFilt
             .map(SampleIdentifier::getStudyId)
             .collect(Collectors.toList());
 
-        Map<String, Set<String>> rows =
-            treatmentService.getAllPatientTreatmentRows(sampleIds, studyIds, getCode())
-                .stream()
-                .collect(Collectors.toMap(PatientTreatmentRow::getTreatment, treatmentRowExtractor::extractSamples));
-
-        return identifiers.stream()
-            .filter(i -> filters.filter(i, rows))
-            .collect(Collectors.toList());
+        return treatmentService.getAllPatientTreatmentRows(sampleIds, studyIds, getCode())
+            .stream()
+            .collect(Collectors.toMap(PatientTreatmentRow::getTreatment, treatmentRowExtractor::extractSamples));
     }
     
     protected abstract AndedPatientTreatmentFilters getFilters(StudyViewFilter filter);
@@ -6,9 +6,11 @@ import org.cbioportal.legacy.service.TreatmentService;
 import org.cbioportal.legacy.web.parameter.SampleIdentifier;
 import org.cbioportal.legacy.web.parameter.StudyViewFilter;
 import org.cbioportal.legacy.web.parameter.filter.AndedSampleTreatmentFilters;
+import org.cbioportal.legacy.web.util.SampleIdentifierIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -32,22 +34,44 @@ public abstract class AbstractSampleTreatmentFilter implements StudyViewSubFilte
         }
 
         AndedSampleTreatmentFilters filters = getFilters(filter);
+        Map<String, Set<String>> rows = getRows(identifiers);
 
+        return identifiers.stream()
+            .filter(i -> filters.filter(i, rows))
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public BitSet filter(SampleIdentifierIndex index, BitSet selection, StudyViewFilter filter) {
+
+        if (selection.isEmpty()) {
+            return selection;
+        }
+
+        AndedSampleTreatmentFilters filters = getFilters(filter);
+        Map<String, Set<String>> rows = getRows(index.toSampleIdentifiers(selection));
+
+        BitSet filtered = new BitSet(index.size());
+        for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+            if (filters.filter(index.get(i), rows)) {
+                filtered.set(i);
+            }
+        }
+        return filtered;
+    }
+
+    private Map<String, Set<String>> getRows(List<SampleIdentifier> identifiers) {
         List<String> sampleIds = identifiers.stream()
             .map(SampleIdentifier::getSampleId)
             .collect(Collectors.toList());
+
         List<String> studyIds = identifiers.stream()
             .map(SampleIdentifier::getStudyId)
             .collect(Collectors.toList());
 
-        Map<String, Set<String>> rows =
-            treatmentService.getAllSampleTreatmentRows(sampleIds, studyIds, getCode())
-                .stream()
-                .collect(Collectors.toMap(SampleTreatmentRow::key, treatmentRowExtractor::extractSamples));
-
-        return identifiers.stream()
-            .filter(id -> filters.filter(id, rows))
-            .collect(Collectors.toList());
+        return treatmentService.getAllSampleTreatmentRows(sampleIds, studyIds, getCode())
+            .stream()
+            .collect(Collectors.toMap(SampleTreatmentRow::key, treatmentRowExtractor::extractSamples));
     }
     
     protected abstract AndedSampleTreatmentFilters getFilters(StudyViewFilter filter);
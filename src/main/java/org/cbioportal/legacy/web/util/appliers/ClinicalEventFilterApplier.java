@@ -5,11 +5,13 @@ import org.cbioportal.legacy.web.parameter.DataFilter;
 import org.cbioportal.legacy.web.parameter.DataFilterValue;
 import org.cbioportal.legacy.web.parameter.SampleIdentifier;
 import org.cbioportal.legacy.web.parameter.StudyViewFilter;
+import org.cbioportal.legacy.web.util.SampleIdentifierIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -31,15 +33,7 @@ public final class ClinicalEventFilterApplier implements StudyViewSubFilterAppli
            return new ArrayList<>();
        }
         
-       List<String> studyIds = toFilter.stream()
-           .map(SampleIdentifier::getStudyId)
-           .collect(Collectors.toList());
-      
-       List<String> sampleIds = toFilter.stream()
-           .map(SampleIdentifier::getSampleId)
-           .collect(Collectors.toList());
-       
-       Map<String, Set<String>> samplesPerEventType = clinicalEventService.getPatientsSamplesPerClinicalEventType(studyIds, sampleIds);
+       Map<String, Set<String>> samplesPerEventType = getSamplesPerEventType(toFilter);
        
        List<ClinicalEventFilter> clinicalEventFilters = filters.getClinicalEventFilters().stream()
            .map(ClinicalEventFilter::new)
@@ -50,6 +44,41 @@ public final class ClinicalEventFilterApplier implements StudyViewSubFilterAppli
             .collect(Collectors.toList());
     }
 
+    @Override
+    public BitSet filter(@NonNull SampleIdentifierIndex index, @NonNull BitSet selection,
+                         @NonNull StudyViewFilter filters) {
+
+        if (selection.isEmpty()) {
+            return selection;
+        }
+
+        Map<String, Set<String>> samplesPerEventType = getSamplesPerEventType(index.toSampleIdentifiers(selection));
+
+        List<ClinicalEventFilter> clinicalEventFilters = filters.getClinicalEventFilters().stream()
+            .map(ClinicalEventFilter::new)
+            .collect(Collectors.toList());
+
+        BitSet filtered = new BitSet(index.size());
+        for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+            if (applyClinicalEventFilter(index.get(i), clinicalEventFilters, samplesPerEventType)) {
+                filtered.set(i);
+            }
+        }
+        return filtered;
+    }
+
+    private Map<String, Set<String>> getSamplesPerEventType(List<SampleIdentifier> toFilter) {
+       List<String> studyIds = toFilter.stream()
+           .map(SampleIdentifier::getStudyId)
+           .collect(Collectors.toList());
+      
+       List<String> sampleIds = toFilter.stream()
+           .map(SampleIdentifier::getSampleId)
+           .collect(Collectors.toList());
+       
+       return clinicalEventService.getPatientsSamplesPerClinicalEventType(studyIds, sampleIds);
+    }
+
     boolean applyClinicalEventFilter(SampleIdentifier sampleIdentifier, List<ClinicalEventFilter> eventFilters, Map<String, Set<String>> samplesPerEventType) {
         for(ClinicalEventFilter eventFilter : eventFilters) {
             if(!eventFilter.filter(sampleIdentifier, samplesPerEventType)){
@@ -7,11 +7,13 @@ import org.cbioportal.legacy.service.MolecularProfileService;
 import org.cbioportal.legacy.service.StructuralVariantService;
 import org.cbioportal.legacy.web.parameter.SampleIdentifier;
 import org.cbioportal.legacy.web.parameter.StudyViewFilter;
+import org.cbioportal.legacy.web.util.SampleIdentifierIndex;
 import org.cbioportal.legacy.web.util.StudyViewFilterUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -32,9 +34,16 @@ public class StructuralVariantSubFilterApplier implements StudyViewSubFilterAppl
     @Override
     public List<SampleIdentifier> filter(List<SampleIdentifier> toFilter, StudyViewFilter filters) {
 
+        SampleIdentifierIndex index = new SampleIdentifierIndex(toFilter);
+        return index.toSampleIdentifiers(filter(index, index.all(), filters));
+    }
+
+    @Override
+    public BitSet filter(SampleIdentifierIndex index, BitSet selection, StudyViewFilter filters) {
+
         final List<StudyViewStructuralVariantFilter> structVarFilters = getStructVarFilters(filters);
 
-        List<String> includedStudyIds = toFilter.stream()
+        List<String> includedStudyIds = index.toSampleIdentifiers(selection).stream()
             .map(SampleIdentifier::getStudyId)
             .distinct()
             .collect(Collectors.toList());
@@ -44,7 +53,7 @@ public class StructuralVariantSubFilterApplier implements StudyViewSubFilterAppl
         Map<String, MolecularProfile> molecularProfileMap = molecularProfiles.stream()
             .collect(Collectors.toMap(MolecularProfile::getStableId, Function.identity()));
 
-        List<SampleIdentifier> remainingSampleIdentifiers = toFilter;
+        BitSet remaining = selection;
         
         for (StudyViewStructuralVariantFilter structuralVariantFilter : structVarFilters) {
 
@@ -63,7 +72,7 @@ public class StructuralVariantSubFilterApplier implements StudyViewSubFilterAppl
 
                 // Remove samples in remainingSampleIdentifiers that belong to a study that is not accessible to the current user
                 // (do not appear in the molecularProfileMap argument). 
-                final List<SampleIdentifier> filteredSampleIdentifiers = remainingSampleIdentifiers.stream()
+                final List<SampleIdentifier> filteredSampleIdentifiers = index.toSampleIdentifiers(remaining).stream()
                     .filter(i -> mapByStudyId.containsKey(i.getStudyId())).collect(Collectors.toList());
 
                 final List<String> molecularProfileIds = filteredSampleIdentifiers.stream()
@@ -76,21 +85,16 @@ public class StructuralVariantSubFilterApplier implements StudyViewSubFilterAppl
                         .collect(Collectors.toList());
 
                 final List<StructuralVariantFilterQuery> entrezIdEnhancedSvQueries = studyViewFilterUtil.resolveEntrezGeneIds(structVarQueries);
-                remainingSampleIdentifiers = structuralVariantService
+                final BitSet matched = new BitSet(index.size());
+                structuralVariantService
                     .fetchStructuralVariantsByStructVarQueries(molecularProfileIds, sampleIds, entrezIdEnhancedSvQueries)
-                    .stream()
-                    .map(m -> {
-                        SampleIdentifier sampleIdentifier = new SampleIdentifier();
-                        sampleIdentifier.setSampleId(m.getSampleId());
-                        sampleIdentifier.setStudyId(m.getStudyId());
-                        return sampleIdentifier;
-                    })
-                    .distinct()
-                    .collect(Collectors.toList());
+                    .forEach(m -> index.set(matched, m.getStudyId(), m.getSampleId()));
+                matched.and(remaining);
+                remaining = matched;
             }
 
         }
-        return remainingSampleIdentifiers;
+        return remaining;
     }
 
     @Override
@@ -2,11 +2,22 @@ package org.cbioportal.legacy.web.util.appliers;
 
 import org.cbioportal.legacy.web.parameter.SampleIdentifier;
 import org.cbioportal.legacy.web.parameter.StudyViewFilter;
+import org.cbioportal.legacy.web.util.SampleIdentifierIndex;
 
+import java.util.BitSet;
 import java.util.List;
 
 public interface StudyViewSubFilterApplier {
     List<SampleIdentifier> filter(List<SampleIdentifier> toFilter, StudyViewFilter filters);
+
+    /**
+     * Same as {@link #filter(List, StudyViewFilter)} on the samples selected in the index.
+     */
+    default BitSet filter(SampleIdentifierIndex index, BitSet selection, StudyViewFilter filters) {
+        BitSet filtered = index.select(filter(index.toSampleIdentifiers(selection), filters));
+        filtered.and(selection);
+        return filtered;
+    }
     
    boolean shouldApplyFilter(StudyViewFilter studyViewFilter);
 }
@@ -0,0 +1,143 @@
+package org.cbioportal.application.security;
+
+import com.google.common.cache.Cache;
+import org.cbioportal.legacy.model.CancerStudy;
+import org.cbioportal.legacy.model.MolecularProfile;
+import org.cbioportal.legacy.persistence.cachemaputil.CacheMapBuilder;
+import org.cbioportal.legacy.persistence.cachemaputil.StaticRefCacheMapUtil;
+import org.cbioportal.legacy.utils.security.AccessLevel;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CancerStudyPermissionEvaluatorTest {
+
+    @Mock
+    private CacheMapBuilder cacheMapBuilder;
+
+    private StaticRefCacheMapUtil cacheMapUtil;
+    private CancerStudyPermissionEvaluator cancerStudyPermissionEvaluator;
+    private final Authentication authentication = new TestingAuthenticationToken("user", null,
+        "public_portal:group_a", "public_portal:all_tcga", "other_portal:group_b");
+
+    @Before
+    public void setUp() {
+        Map<String, CancerStudy> cancerStudyMap = new HashMap<>();
+        cancerStudyMap.put("study_a", createCancerStudy("study_a", "GROUP_A;GROUP_C"));
+        cancerStudyMap.put("brca_tcga", createCancerStudy("brca_tcga", ""));
+        cancerStudyMap.put("study_b", createCancerStudy("study_b", "GROUP_B"));
+        Mockito.when(cacheMapBuilder.buildCancerStudyMap()).thenReturn(cancerStudyMap);
+
+        Map<String, MolecularProfile> molecularProfileMap = new HashMap<>();
+        molecularProfileMap.put("study_a_mutations", createMolecularProfile("study_a"));
+        molecularProfileMap.put("study_b_mutations", createMolecularProfile("study_b"));
+        Mockito.when(cacheMapBuilder.buildMolecularProfileMap()).thenReturn(molecularProfileMap);
+
+        cacheMapUtil = new StaticRefCacheMapUtil();
+        ReflectionTestUtils.setField(cacheMapUtil, "cacheMapBuilder", cacheMapBuilder);
+        cacheMapUtil.initializeCacheMemory();
+        cancerStudyPermissionEvaluator = new CancerStudyPermissionEvaluator("public_portal", "true", null, cacheMapUtil);
+    }
+
+    @Test
+    public void checkStudiesByGroupsAndSuffixes() {
+        Assert.assertTrue(hasAccessToCancerStudy("study_a"));
+        Assert.assertTrue(hasAccessToCancerStudy("brca_tcga"));
+        // group_b is granted for another portal only
+        Assert.assertFalse(hasAccessToCancerStudy("study_b"));
+        Assert.assertFalse(hasAccessToCancerStudy("unknown_study"));
+        Assert.assertTrue(hasAccessToCancerStudy("all"));
+
+        Assert.assertTrue(cancerStudyPermissionEvaluator.hasPermission(authentication,
+            (Serializable) List.of("study_a", "brca_tcga"), "Collection<CancerStudyId>", AccessLevel.READ));
+        Assert.assertFalse(cancerStudyPermissionEvaluator.hasPermission(authentication,
+            (Serializable) List.of("study_a", "study_b"), "Collection<CancerStudyId>", AccessLevel.READ));
+        Assert.assertTrue(cancerStudyPermissionEvaluator.hasPermission(authentication,
+            "study_a_mutations", "MolecularProfileId", AccessLevel.READ));
+        Assert.assertFalse(cancerStudyPermissionEvaluator.hasPermission(authentication,
+            "study_b_mutations", "MolecularProfileId", AccessLevel.READ));
+    }
+
+    @Test
+    public void listAllStudies() {
+        Assert.assertTrue(cancerStudyPermissionEvaluator.hasPermission(authentication,
+            cacheMapUtil.getCancerStudyMap().get("study_b"), AccessLevel.LIST));
+    }
+
+    @Test
+    public void checkStudiesMissingFromCacheMaps() {
+        Assert.assertTrue(cancerStudyPermissionEvaluator.hasPermission(authentication,
+            createCancerStudy("new_study", "GROUP_A"), AccessLevel.READ));
+        Assert.assertFalse(cancerStudyPermissionEvaluator.hasPermission(authentication,
+            createCancerStudy("other_new_study", "GROUP_B"), AccessLevel.READ));
+    }
+
+    @Test
+    public void recheckStudiesWhenCacheMapsAreRefreshed() {
+        Assert.assertFalse(hasAccessToCancerStudy("study_b"));
+
+        Map<String, CancerStudy> cancerStudyMap = new HashMap<>(cacheMapUtil.getCancerStudyMap());
+        cancerStudyMap.put("study_b", createCancerStudy("study_b", "GROUP_A"));
+        Mockito.when(cacheMapBuilder.buildCancerStudyMap()).thenReturn(cancerStudyMap);
+        cacheMapUtil.initializeCacheMemory();
+
+        Assert.assertTrue(hasAccessToCancerStudy("study_b"));
+    }
+
+    @Test
+    public void shareSnapshotsOfEqualGrantedAuthorities() {
+        // same groups for this portal, in another order and with other portals' groups left out
+        Authentication otherAuthentication = new TestingAuthenticationToken("other user", null,
+            "ROLE_public_portal:ALL_TCGA", "public_portal:group_a");
+
+        Assert.assertTrue(hasAccessToCancerStudy("study_a"));
+        Assert.assertTrue(cancerStudyPermissionEvaluator.hasPermission(otherAuthentication, "study_a",
+            "CancerStudyId", AccessLevel.READ));
+        Cache<?, ?> accessSnapshots = (Cache<?, ?>) ReflectionTestUtils.getField(cancerStudyPermissionEvaluator,
+            "accessSnapshots");
+        Assert.assertEquals(1, accessSnapshots.size());
+    }
+
+    @Test
+    public void checkOtherAuthoritiesSeparately() {
+        Authentication otherAuthentication = new TestingAuthenticationToken("other user", null,
+            "public_portal:group_b");
+
+        Assert.assertTrue(hasAccessToCancerStudy("study_a"));
+        Assert.assertFalse(cancerStudyPermissionEvaluator.hasPermission(otherAuthentication, "study_a",
+            "CancerStudyId", AccessLevel.READ));
+        Assert.assertTrue(cancerStudyPermissionEvaluator.hasPermission(otherAuthentication, "study_b",
+            "CancerStudyId", AccessLevel.READ));
+    }
+
+    private boolean hasAccessToCancerStudy(String cancerStudyId) {
+        return cancerStudyPermissionEvaluator.hasPermission(authentication, cancerStudyId, "CancerStudyId",
+            AccessLevel.READ);
+    }
+
+    private CancerStudy createCancerStudy(String cancerStudyId, String groups) {
+        CancerStudy cancerStudy = new CancerStudy();
+        cancerStudy.setCancerStudyIdentifier(cancerStudyId);
+        cancerStudy.setGroups(groups);
+        return cancerStudy;
+    }
+
+    private MolecularProfile createMolecularProfile(String cancerStudyId) {
+        MolecularProfile molecularProfile = new MolecularProfile();
+        molecularProfile.setCancerStudyIdentifier(cancerStudyId);
+        return molecularProfile;
+    }
+}
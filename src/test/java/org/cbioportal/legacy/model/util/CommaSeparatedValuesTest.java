@@ -0,0 +1,67 @@
+package org.cbioportal.legacy.model.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CommaSeparatedValuesTest {
+
+    @Test
+    public void parseIntegersIgnoresTrailingSeparators() {
+
+        int[] result = CommaSeparatedValues.parseIntegers("1,22,-3,2147483647,");
+
+        Assert.assertArrayEquals(new int[]{1, 22, -3, 2147483647}, result);
+    }
+
+    @Test
+    public void parseIntegersOfEmptyString() {
+
+        Assert.assertEquals(0, CommaSeparatedValues.parseIntegers("").length);
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void parseIntegersWithInvalidValue() {
+
+        CommaSeparatedValues.parseIntegers("1,,2");
+    }
+
+    @Test
+    public void parseNumeric() {
+
+        String values = "0.5,-1.25,NA,,3e2,NaN,1234567.891,0x1F,";
+        NumericValues result = CommaSeparatedValues.parseNumeric(values);
+
+        Assert.assertEquals(values.split(",", Integer.MIN_VALUE).length, result.size());
+        Assert.assertEquals(0.5, result.get(0), 0);
+        Assert.assertEquals(-1.25, result.get(1), 0);
+        Assert.assertTrue(result.isMissing(2));
+        Assert.assertTrue(result.isMissing(3));
+        Assert.assertEquals(300, result.get(4), 0);
+        Assert.assertTrue(result.isMissing(5));
+        Assert.assertEquals(1234567.891, result.get(6), 0);
+        Assert.assertTrue(result.isMissing(7));
+        Assert.assertTrue(result.isMissing(8));
+        Assert.assertEquals(5, result.getMissing().cardinality());
+    }
+
+    @Test
+    public void parseNumericMatchesParseDouble() {
+
+        String[] values = {"0.1", "-0.0", "123456789012345678", "1.7976931348623157E308", "4.9E-324",
+            "2.2250738585072014E-308", "0.30000000000000004", "1e22", "1e23", "9007199254740993"};
+        NumericValues result = CommaSeparatedValues.parseNumeric(String.join(",", values));
+
+        for (int i = 0; i < values.length; i++) {
+            Assert.assertEquals(Double.doubleToLongBits(Double.parseDouble(values[i])),
+                Double.doubleToLongBits(result.get(i)));
+        }
+    }
+
+    @Test
+    public void selectPresentSkipsMissingValues() {
+
+        NumericValues result = CommaSeparatedValues.parseNumeric("1,NA,3,4");
+
+        Assert.assertArrayEquals(new double[]{4, 1, 3}, result.selectPresent(new int[]{3, 0, 1, 2, 10}), 0);
+    }
+}
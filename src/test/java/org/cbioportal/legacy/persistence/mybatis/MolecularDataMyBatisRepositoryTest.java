@@ -76,6 +76,23 @@ public class MolecularDataMyBatisRepositoryTest {
         getGeneMolecularAlterationsCommonTest(result);
     }
 
+    @Test
+    @Transactional(readOnly=true)
+    public void getGeneMolecularAlterationsStreamed() throws Exception {
+
+        List<Integer> entrezGeneIds = new ArrayList<>();
+        entrezGeneIds.add(207);
+        entrezGeneIds.add(208);
+
+        List<GeneMolecularAlteration> result = new ArrayList<>();
+        for (GeneMolecularAlteration gma : molecularDataMyBatisRepository.getGeneMolecularAlterationsStreamed(
+            "study_tcga_pub_gistic", entrezGeneIds, "SUMMARY")) {
+            result.add(gma);
+        }
+
+        getGeneMolecularAlterationsCommonTest(result);
+    }
+
     private void getGeneMolecularAlterationsCommonTest(List<GeneMolecularAlteration> result) {
 
         Assert.assertEquals(2, result.size());
@@ -162,6 +162,16 @@ public class TreatmentMyBatisRepositoryTest {
 
     }
 
+    @Test
+    public void getStudiesWithTreatmentData() {
+
+        Assert.assertEquals(Collections.singletonList("study_tcga_pub"), treatmentRepository.getStudiesWithTreatmentData(
+            Arrays.asList("study_tcga_pub", "acc_tcga"), ClinicalEventKeyCode.Agent));
+
+        Assert.assertEquals(Collections.emptyList(), treatmentRepository.getStudiesWithTreatmentData(
+            Collections.singletonList("acc_tcga"), ClinicalEventKeyCode.Agent));
+    }
+
     @Test
     public void hasSampleTimelineData() {
 
@@ -0,0 +1,83 @@
+package org.cbioportal.legacy.persistence.mybatisclickhouse;
+
+import org.cbioportal.legacy.persistence.helper.StudyViewFilterHelper;
+import org.cbioportal.legacy.web.parameter.StudyViewFilter;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class StudyViewFilterSnapshotCacheTest {
+
+    private static final List<String> SAMPLE_UNIQUE_IDS = List.of("study_tcga_sample_1", "study_tcga_sample_2");
+
+    private final AtomicInteger resolutions = new AtomicInteger();
+    private final BiFunction<StudyViewFilterHelper, Integer, List<String>> resolver = (helper, limit) -> {
+        resolutions.incrementAndGet();
+        return SAMPLE_UNIQUE_IDS.subList(0, Math.min(limit, SAMPLE_UNIQUE_IDS.size()));
+    };
+
+    @Test
+    public void resolvesEqualFiltersOnce() {
+        StudyViewFilterSnapshotCache snapshotCache = new StudyViewFilterSnapshotCache(30, 100);
+
+        StudyViewFilterHelper first = snapshotCache.snapshot(createHelper("study_tcga"), resolver);
+        StudyViewFilterHelper second = snapshotCache.snapshot(createHelper("study_tcga"), resolver);
+
+        assertEquals(1, resolutions.get());
+        assertArrayEquals(SAMPLE_UNIQUE_IDS.toArray(), first.resolvedSampleUniqueIds());
+        assertArrayEquals(SAMPLE_UNIQUE_IDS.toArray(), second.resolvedSampleUniqueIds());
+        assertEquals(List.of("study_tcga"), second.studyViewFilter().getStudyIds());
+    }
+
+    @Test
+    public void resolvesDifferentFiltersSeparately() {
+        StudyViewFilterSnapshotCache snapshotCache = new StudyViewFilterSnapshotCache(30, 100);
+
+        snapshotCache.snapshot(createHelper("study_tcga"), resolver);
+        snapshotCache.snapshot(createHelper("study_msk"), resolver);
+
+        assertEquals(2, resolutions.get());
+    }
+
+    @Test
+    public void doesNotSnapshotFiltersWithTooManySamples() {
+        StudyViewFilterSnapshotCache snapshotCache = new StudyViewFilterSnapshotCache(30, 1);
+
+        StudyViewFilterHelper helper = createHelper("study_tcga");
+        assertSame(helper, snapshotCache.snapshot(helper, resolver));
+        assertNull(snapshotCache.snapshot(createHelper("study_tcga"), resolver).resolvedSampleUniqueIds());
+        // the outcome is kept as well, so that the filter is not resolved in vain again
+        assertEquals(1, resolutions.get());
+    }
+
+    @Test
+    public void doesNotSnapshotFiltersWithoutSamples() {
+        StudyViewFilterSnapshotCache snapshotCache = new StudyViewFilterSnapshotCache(30, 100);
+
+        StudyViewFilterHelper helper = createHelper("study_tcga");
+        assertSame(helper, snapshotCache.snapshot(helper, (h, limit) -> new ArrayList<>()));
+    }
+
+    @Test
+    public void doesNothingIfDisabled() {
+        StudyViewFilterSnapshotCache snapshotCache = new StudyViewFilterSnapshotCache(0, 100);
+
+        StudyViewFilterHelper helper = createHelper("study_tcga");
+        assertSame(helper, snapshotCache.snapshot(helper, resolver));
+        assertEquals(0, resolutions.get());
+    }
+
+    private StudyViewFilterHelper createHelper(String studyId) {
+        StudyViewFilter studyViewFilter = new StudyViewFilter();
+        studyViewFilter.setStudyIds(List.of(studyId));
+        return StudyViewFilterHelper.build(studyViewFilter, null, null, List.of(studyId));
+    }
+}
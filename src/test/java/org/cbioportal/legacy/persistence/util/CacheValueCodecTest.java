@@ -0,0 +1,56 @@
+package org.cbioportal.legacy.persistence.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class CacheValueCodecTest {
+
+    @Test
+    public void roundTripWithEverySerializerAndCompression() {
+        Map<String, List<Integer>> value = new HashMap<>();
+        value.put("study_1", new ArrayList<>(Arrays.asList(1, 2, 3)));
+        value.put("study_2", new ArrayList<>());
+
+        for (CacheValueSerializer serializer : Arrays.asList(new JavaCacheValueSerializer(), new KryoCacheValueSerializer())) {
+            for (CacheCompression compression : CacheCompression.values()) {
+                CacheValueCodec codec = new CacheValueCodec(serializer, compression);
+                byte[] bytes = codec.encode(value);
+                Assert.assertNotNull(bytes);
+                Assert.assertEquals(value, codec.decode(bytes));
+                Assert.assertEquals(1, codec.getStatistics().getEncodeCount());
+                Assert.assertEquals(1, codec.getStatistics().getDecodeCount());
+                Assert.assertEquals(bytes.length, codec.getStatistics().getEncodedBytes());
+            }
+        }
+    }
+
+    @Test
+    public void roundTripImmutableCollections() {
+        Map<String, List<Integer>> value = Map.of(
+            "study_1", List.of(1, 2, 3),
+            "study_2", List.of(),
+            "study_3", Stream.of(4, 5).toList(),
+            "study_4", Stream.of(6).collect(Collectors.toUnmodifiableList()));
+
+        for (CacheValueSerializer serializer : Arrays.asList(new JavaCacheValueSerializer(), new KryoCacheValueSerializer())) {
+            CacheValueCodec codec = new CacheValueCodec(serializer, CacheCompression.NONE);
+            Assert.assertEquals(value, codec.decode(codec.encode(value)));
+            Assert.assertEquals(0, codec.getStatistics().getErrorCount());
+        }
+    }
+
+    @Test
+    public void decodeCorruptValueReturnsNull() {
+        CacheValueCodec codec = CacheValueCodec.defaultCodec();
+        Assert.assertNull(codec.decode(new byte[] {1, 2, 3}));
+        Assert.assertEquals(1, codec.getStatistics().getErrorCount());
+    }
+}
@@ -4,6 +4,9 @@ import org.cbioportal.legacy.model.CancerStudy;
 import org.cbioportal.legacy.persistence.CacheEnabledConfig;
 import org.cbioportal.legacy.persistence.StudyRepository;
 import org.cbioportal.legacy.persistence.util.CustomKeyGenerator;
+import org.cbioportal.legacy.web.parameter.ClinicalDataFilter;
+import org.cbioportal.legacy.web.parameter.DataFilterValue;
+import org.cbioportal.legacy.web.parameter.StudyViewFilter;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -13,10 +16,14 @@ import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import java.lang.reflect.Method;
+import java.math.BigDecimal;
 import java.util.Arrays;
+import java.util.Collections;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -95,4 +102,55 @@ public class CustomKeyGeneratorTest {
         Assert.assertTrue(hello instanceof String);
         Assert.assertTrue(((String) hello).contains("test_study_1_test_study_2_22cc100378d5dc33c03fb0f39a61c692"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGenerateCacheEqualKeysForEquivalentStudyViewFilters() throws Exception {
+        Method functionToPass = this.getClass().getMethod("testGenerateCacheSuccessNoParams");
+
+        StudyViewFilter studyViewFilter = createStudyViewFilter(
+            createClinicalDataFilter("AGE", new DataFilterValue(BigDecimal.valueOf(20), BigDecimal.valueOf(40)),
+                new DataFilterValue(BigDecimal.valueOf(40), BigDecimal.valueOf(60))),
+            createClinicalDataFilter("SEX", new DataFilterValue("Male"), new DataFilterValue("Female")));
+        // the same filters in a different order, and with the age ranges merged
+        StudyViewFilter equivalentStudyViewFilter = createStudyViewFilter(
+            createClinicalDataFilter("SEX", new DataFilterValue("Female"), new DataFilterValue("Male")),
+            createClinicalDataFilter("AGE", new DataFilterValue(BigDecimal.valueOf(20), BigDecimal.valueOf(60))));
+        StudyViewFilter otherStudyViewFilter = createStudyViewFilter(
+            createClinicalDataFilter("SEX", new DataFilterValue("Female")));
+
+        Object key = customKeyGenerator.generate(this, functionToPass, studyViewFilter);
+
+        Assert.assertEquals(key, customKeyGenerator.generate(this, functionToPass, equivalentStudyViewFilter));
+        Assert.assertNotEquals(key, customKeyGenerator.generate(this, functionToPass, otherStudyViewFilter));
+        // the filters passed to the cached method are left as they are
+        Assert.assertEquals(2, studyViewFilter.getClinicalDataFilters().get(0).getValues().size());
+        Assert.assertEquals("AGE", studyViewFilter.getClinicalDataFilters().get(0).getAttributeId());
+    }
+
+    @Test
+    public void testGetStudyIdsLoadsStudiesOnce() {
+        Assert.assertEquals(Collections.singleton(studyId2),
+            customKeyGenerator.getStudyIds("StudyRepository_getStudy_\"test_study_2\""));
+        Assert.assertEquals(Collections.emptySet(),
+            customKeyGenerator.getStudyIds("StudyRepository_getAllStudies_null"));
+        verify(studyRepository, times(1)).getAllStudies(any(), any(), any(), any(), any(), any());
+
+        customKeyGenerator.resetStudyIds();
+        customKeyGenerator.getStudyIds("StudyRepository_getAllStudies_null");
+        verify(studyRepository, times(2)).getAllStudies(any(), any(), any(), any(), any(), any());
+    }
+
+    private StudyViewFilter createStudyViewFilter(ClinicalDataFilter... clinicalDataFilters) {
+        StudyViewFilter studyViewFilter = new StudyViewFilter();
+        studyViewFilter.setStudyIds(Arrays.asList(studyId1, studyId2));
+        studyViewFilter.setClinicalDataFilters(Arrays.asList(clinicalDataFilters));
+        return studyViewFilter;
+    }
+
+    private ClinicalDataFilter createClinicalDataFilter(String attributeId, DataFilterValue... values) {
+        ClinicalDataFilter clinicalDataFilter = new ClinicalDataFilter();
+        clinicalDataFilter.setAttributeId(attributeId);
+        clinicalDataFilter.setValues(Arrays.asList(values));
+        return clinicalDataFilter;
+    }
+}
@@ -1,19 +1,27 @@
 package org.cbioportal.legacy.persistence.util;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.cbioportal.legacy.persistence.util.CustomRedisCache;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.redisson.api.RBucket;
 import org.redisson.api.RKeys;
+import org.redisson.api.RSet;
+import org.redisson.api.RTopic;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
 import org.springframework.cache.Cache;
 
 import java.util.concurrent.TimeUnit;
@@ -59,6 +67,8 @@ public class CustomRedisCacheTest {
         Object actual = subject.lookup("57_onions");
 
         assertNull(actual);
+        assertEquals(0, subject.getHitCount());
+        assertEquals(1, subject.getMissCount());
     }
 
     @Test
@@ -72,6 +82,8 @@ public class CustomRedisCacheTest {
         Object actual = subject.lookup("57_onions");
 
         assertEquals("success", actual);
+        assertEquals(1, subject.getHitCount());
+        assertEquals(0, subject.getMissCount());
         // cache is static, so don't refresh
         verify(bucket, times(0)).expireAsync(-1, TimeUnit.MINUTES);
     }
@@ -312,6 +324,150 @@ public class CustomRedisCacheTest {
         assertEquals(toRoundTrip, roundTripped);
     }
     
+    @Test
+    public void shouldLookupObjectFromNearCache() {
+        RBucket bucket = Mockito.mock(RBucket.class);
+        when(bucket.get()).thenReturn(toStoreValue("success"));
+        when(client.getBucket("subject:57_onions"))
+            .thenReturn(bucket);
+        when(client.getTopic(eq("near_cache_invalidation:subject"), any(Codec.class)))
+            .thenReturn(mock(RTopic.class));
+
+        CustomRedisCache subject = new CustomRedisCache("subject", client, -1, CacheValueCodec.defaultCodec(),
+            new NearCache(1024 * 1024, 60));
+
+        assertEquals("success", subject.lookup("57_onions"));
+        assertEquals("success", subject.lookup("57_onions"));
+        verify(bucket, times(1)).get();
+    }
+
+    @Test
+    public void shouldKeepEncodedValuesInNearCache() {
+        byte[] storeValue = (byte[]) toStoreValue(new ArrayList<>(Arrays.asList("success")));
+        RBucket bucket = Mockito.mock(RBucket.class);
+        when(bucket.get()).thenReturn(storeValue);
+        when(client.getBucket("subject:57_onions"))
+            .thenReturn(bucket);
+        when(client.getTopic(eq("near_cache_invalidation:subject"), any(Codec.class)))
+            .thenReturn(mock(RTopic.class));
+        NearCache nearCache = new NearCache(1024 * 1024, 60);
+
+        CustomRedisCache subject = new CustomRedisCache("subject", client, -1, CacheValueCodec.defaultCodec(),
+            nearCache);
+        List<String> value = (List<String>) subject.lookup("57_onions");
+        value.add("changed by the caller");
+
+        // every hit decodes its own copy, and the weight is the heap of the encoded value
+        assertEquals(Arrays.asList("success"), subject.lookup("57_onions"));
+        assertEquals(storeValue.length, nearCache.getWeight());
+        verify(bucket, times(1)).get();
+    }
+
+    @Test
+    public void shouldPublishEvictionAndDropNearCacheEntries() {
+        RBucket bucket = Mockito.mock(RBucket.class);
+        when(bucket.get()).thenReturn(toStoreValue("success"));
+        when(client.getBucket("subject:57_onions"))
+            .thenReturn(bucket);
+        RTopic topic = mock(RTopic.class);
+        when(client.getTopic(eq("near_cache_invalidation:subject"), any(Codec.class)))
+            .thenReturn(topic);
+
+        CustomRedisCache subject = new CustomRedisCache("subject", client, -1, CacheValueCodec.defaultCodec(),
+            new NearCache(1024 * 1024, 60));
+        subject.lookup("57_onions");
+        subject.evict("subject:57_.*");
+        subject.lookup("57_onions");
+
+        verify(topic, times(1)).publish("evict:subject:57_.*");
+        verify(bucket, times(2)).get();
+    }
+
+    @Test
+    public void shouldIndexKeysPerStudy() {
+        RBucket bucket = Mockito.mock(RBucket.class);
+        when(client.getBucket("subject:57_onions")).thenReturn(bucket);
+        when(client.getBucket("subject:58_onions")).thenReturn(bucket);
+        RSet studyIndex = mock(RSet.class);
+        when(client.getSet(eq("subject_study_index:study_1"), any(Codec.class))).thenReturn(studyIndex);
+        RSet noStudyIndex = mock(RSet.class);
+        when(client.getSet(eq("subject_no_study_index"), any(Codec.class))).thenReturn(noStudyIndex);
+
+        CustomRedisCache subject = new CustomRedisCache("subject", client, -1, CacheValueCodec.defaultCodec(), null,
+            key -> key.startsWith("57") ? Collections.singleton("study_1") : Collections.emptySet());
+        subject.put("57_onions", "value");
+        subject.put("58_onions", "value");
+
+        verify(studyIndex, times(1)).addAsync("subject:57_onions");
+        verify(noStudyIndex, times(1)).addAsync("subject:58_onions");
+    }
+
+    @Test
+    public void shouldEvictStudyFromIndex() {
+        RSet studyIndex = mock(RSet.class);
+        when(studyIndex.readAll()).thenReturn(new HashSet<>(Arrays.asList("subject:57_onions")));
+        when(client.getSet(eq("subject_study_index:study_1"), any(Codec.class))).thenReturn(studyIndex);
+        RSet noStudyIndex = mock(RSet.class);
+        when(noStudyIndex.readAll()).thenReturn(new HashSet<>(Arrays.asList("subject:58_onions")));
+        when(client.getSet(eq("subject_no_study_index"), any(Codec.class))).thenReturn(noStudyIndex);
+
+        CustomRedisCache subject = new CustomRedisCache("subject", client, -1, CacheValueCodec.defaultCodec(), null,
+            key -> Collections.emptySet());
+        subject.evictStudy("study_1");
+
+        ArgumentCaptor<String[]> deletedKeys = ArgumentCaptor.forClass(String[].class);
+        verify(mockKeys, times(1)).delete(deletedKeys.capture());
+        assertEquals(new HashSet<>(Arrays.asList("subject:57_onions", "subject:58_onions")),
+            new HashSet<>(Arrays.asList(deletedKeys.getValue())));
+        verify(mockKeys, never()).getKeysStream();
+        verify(studyIndex, times(1)).removeAll(Collections.singleton("subject:57_onions"));
+        verify(noStudyIndex, times(1)).removeAll(Collections.singleton("subject:58_onions"));
+    }
+
+    @Test
+    public void shouldEvictStudyOfKeysThatAreOnlyRead() {
+        // minutes on a fake clock, the study index is empty once its deadline has passed
+        long[] now = {0};
+        long[] indexDeadline = {0};
+        int[] indexExpires = {0};
+        Set<String> indexedKeys = new HashSet<>();
+        RSet studyIndex = mock(RSet.class);
+        when(studyIndex.addAsync(anyString())).thenAnswer(invocation -> {
+            indexedKeys.add(invocation.getArgument(0));
+            return null;
+        });
+        when(studyIndex.expireAsync(anyLong(), any(TimeUnit.class))).thenAnswer(invocation -> {
+            long ttl = invocation.getArgument(0);
+            indexDeadline[0] = now[0] + ttl;
+            indexExpires[0]++;
+            return null;
+        });
+        when(studyIndex.readAll()).thenAnswer(invocation ->
+            now[0] < indexDeadline[0] ? new HashSet<>(indexedKeys) : new HashSet<>());
+        when(client.getSet(eq("subject_study_index:study_1"), any(Codec.class))).thenReturn(studyIndex);
+        when(client.getSet(eq("subject_no_study_index"), any(Codec.class))).thenReturn(mock(RSet.class));
+        RBucket bucket = Mockito.mock(RBucket.class);
+        when(bucket.get()).thenReturn(toStoreValue("value"));
+        when(client.getBucket("subject:57_onions")).thenReturn(bucket);
+
+        CustomRedisCache subject = new CustomRedisCache("subject", client, 100, CacheValueCodec.defaultCodec(), null,
+            key -> Collections.singleton("study_1"), () -> TimeUnit.MINUTES.toNanos(now[0]));
+        subject.put("57_onions", "value");
+        // the value is kept alive by the reads, far past the time-to-live it got when it was put
+        for (now[0] = 10; now[0] <= 300; now[0] += 10) {
+            subject.lookup("57_onions");
+        }
+        // the last read keeps the value until 400
+        now[0] = 390;
+        subject.evictStudy("study_1");
+
+        ArgumentCaptor<String[]> deletedKeys = ArgumentCaptor.forClass(String[].class);
+        verify(mockKeys, times(1)).delete(deletedKeys.capture());
+        assertArrayEquals(new String[] {"subject:57_onions"}, deletedKeys.getValue());
+        // the put and one refresh per half time-to-live, not one per read
+        assertTrue(indexExpires[0] <= 7);
+    }
+
     private Object toStoreValue(Object rawValue) {
         CustomRedisCache converter = new CustomRedisCache("", client, -1);
         return converter.toStoreValue(rawValue);
@@ -11,6 +11,7 @@ import org.mockito.junit.MockitoJUnitRunner;
 import javax.cache.Cache;
 import javax.cache.CacheManager;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.eq;
@@ -27,6 +28,9 @@ public class EhCacheUtilsTest {
 
     @Mock
     private CacheManager cacheManager;
+
+    @Mock
+    private CustomKeyGenerator customKeyGenerator;
     
     private String cacheName = "test_cache";
     
@@ -36,6 +40,7 @@ public class EhCacheUtilsTest {
         List<javax.cache.Cache.Entry<String, Object>> keysInCache = new ArrayList<>();
         keysInCache.add(createEntry("a_study1_a"));
         keysInCache.add(createEntry("a__a"));
+        keysInCache.add(createEntry("a_study2_a"));
         
         when(cache.iterator()).thenReturn(keysInCache.iterator());
         when(cacheManager.getCache(eq(cacheName))).thenReturn(cache);
@@ -67,4 +72,14 @@ public class EhCacheUtilsTest {
         verify(cache, never()).remove(eq("a_study1_a"));
         verify(cache, times(1)).remove(eq("a__a"));
     }
+
+    @Test
+    public void evictByStudyAndKeysWithoutStudy() {
+        when(customKeyGenerator.getStudyIds(eq("a__a"))).thenReturn(Collections.emptySet());
+        when(customKeyGenerator.getStudyIds(eq("a_study2_a"))).thenReturn(Collections.singleton("study2"));
+        ehCacheUtils.evictByStudy(cacheName, "study1");
+        verify(cache, times(1)).remove(eq("a_study1_a"));
+        verify(cache, times(1)).remove(eq("a__a"));
+        verify(cache, never()).remove(eq("a_study2_a"));
+    }
 }
\ No newline at end of file
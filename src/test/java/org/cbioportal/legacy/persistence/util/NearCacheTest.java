@@ -0,0 +1,54 @@
+package org.cbioportal.legacy.persistence.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class NearCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    public void evictLeastRecentlyUsedWhenTooHeavy() {
+        NearCache nearCache = new NearCache(10, 60, clock::get);
+        nearCache.put("key1", "value1", 4);
+        nearCache.put("key2", "value2", 4);
+        nearCache.get("key1");
+        nearCache.put("key3", "value3", 4);
+
+        Assert.assertEquals("value1", nearCache.get("key1"));
+        Assert.assertNull(nearCache.get("key2"));
+        Assert.assertEquals("value3", nearCache.get("key3"));
+        Assert.assertEquals(8, nearCache.getWeight());
+
+        nearCache.put("key4", "value4", 11);
+        Assert.assertNull(nearCache.get("key4"));
+        Assert.assertEquals(2, nearCache.size());
+    }
+
+    @Test
+    public void expireAfterTtl() {
+        NearCache nearCache = new NearCache(10, 60, clock::get);
+        nearCache.put("key1", "value1", 1);
+
+        clock.set(TimeUnit.SECONDS.toNanos(59));
+        Assert.assertEquals("value1", nearCache.get("key1"));
+        clock.set(TimeUnit.SECONDS.toNanos(60));
+        Assert.assertNull(nearCache.get("key1"));
+        Assert.assertEquals(0, nearCache.getWeight());
+    }
+
+    @Test
+    public void removeMatchingKeys() {
+        NearCache nearCache = new NearCache(10, 60, clock::get);
+        nearCache.put("cache:study_1_key", "value1", 1);
+        nearCache.put("cache:study_2_key", "value2", 2);
+        nearCache.removeIf(key -> key.matches(".*study_1.*"));
+
+        Assert.assertNull(nearCache.get("cache:study_1_key"));
+        Assert.assertEquals("value2", nearCache.get("cache:study_2_key"));
+        Assert.assertEquals(2, nearCache.getWeight());
+    }
+}
@@ -60,6 +60,12 @@ public class RedisCacheUtilsTest {
         verify(cache, times(1)).evict(eq(".*"));
     }
 
+    @Test
+    public void evictByStudyClearsCacheWithoutStudyIndex() {
+        redisCacheUtils.evictByStudy(cacheName, "study1");
+        verify(cache, times(1)).clear();
+    }
+
     @Test
     public void getKeysSelectsForCacheName() {
         List<String> keys = redisCacheUtils.getKeys(cacheName);
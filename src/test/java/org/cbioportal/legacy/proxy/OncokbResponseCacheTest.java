@@ -0,0 +1,110 @@
+package org.cbioportal.legacy.proxy;
+
+import org.cbioportal.application.proxy.OncokbResponseCache;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.net.URI;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+public class OncokbResponseCacheTest {
+
+    private static final URI URI_BRAF = URI.create("https://www.oncokb.org/api/v1/annotate/mutations/byProteinChange?hugoSymbol=BRAF&alteration=V600E");
+    private static final URI URI_KRAS = URI.create("https://www.oncokb.org/api/v1/annotate/mutations/byProteinChange?hugoSymbol=KRAS&alteration=G12D");
+
+    private final AtomicInteger exchanges = new AtomicInteger();
+    private final Supplier<String> exchange = () -> "response " + exchanges.incrementAndGet();
+
+    @Test
+    public void cacheIdenticalRequests() {
+        OncokbResponseCache cache = new OncokbResponseCache(600, 64);
+
+        Assert.assertEquals("response 1", cache.get(HttpMethod.GET, URI_BRAF, null, createHeaders("token"), exchange));
+        Assert.assertEquals("response 1", cache.get(HttpMethod.GET, URI_BRAF, null, createHeaders("token"), exchange));
+        Assert.assertEquals("response 2", cache.get(HttpMethod.GET, URI_KRAS, null, createHeaders("token"), exchange));
+        Assert.assertEquals("response 3", cache.get(HttpMethod.POST, URI_BRAF, "[]", createHeaders("token"), exchange));
+        Assert.assertEquals("response 4", cache.get(HttpMethod.POST, URI_BRAF, "[{}]", createHeaders("token"), exchange));
+        Assert.assertEquals("response 3", cache.get(HttpMethod.POST, URI_BRAF, "[]", createHeaders("token"), exchange));
+    }
+
+    @Test
+    public void isolateTokens() {
+        OncokbResponseCache cache = new OncokbResponseCache(600, 64);
+
+        Assert.assertEquals("response 1", cache.get(HttpMethod.GET, URI_BRAF, null, createHeaders("token"), exchange));
+        Assert.assertEquals("response 2", cache.get(HttpMethod.GET, URI_BRAF, null, createHeaders("other token"), exchange));
+        Assert.assertEquals("response 3", cache.get(HttpMethod.GET, URI_BRAF, null, new HttpHeaders(), exchange));
+    }
+
+    @Test
+    public void doNotCacheFailures() {
+        OncokbResponseCache cache = new OncokbResponseCache(600, 64);
+
+        Assert.assertThrows(HttpClientErrorException.class, () -> cache.get(HttpMethod.GET, URI_BRAF, null,
+            createHeaders("token"), () -> {
+                throw new HttpClientErrorException(HttpStatus.TOO_MANY_REQUESTS);
+            }));
+        Assert.assertEquals("response 1", cache.get(HttpMethod.GET, URI_BRAF, null, createHeaders("token"), exchange));
+    }
+
+    @Test
+    public void doNothingIfDisabledOrNotCachedMethod() {
+        OncokbResponseCache disabledCache = new OncokbResponseCache(0, 64);
+        disabledCache.get(HttpMethod.GET, URI_BRAF, null, createHeaders("token"), exchange);
+        disabledCache.get(HttpMethod.GET, URI_BRAF, null, createHeaders("token"), exchange);
+
+        OncokbResponseCache cache = new OncokbResponseCache(600, 64);
+        cache.get(HttpMethod.DELETE, URI_BRAF, null, createHeaders("token"), exchange);
+        cache.get(HttpMethod.DELETE, URI_BRAF, null, createHeaders("token"), exchange);
+
+        Assert.assertEquals(4, exchanges.get());
+    }
+
+    @Test
+    public void coalesceConcurrentRequests() throws Exception {
+        OncokbResponseCache cache = new OncokbResponseCache(600, 64);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<String> slowExchange = () -> {
+            started.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return exchange.get();
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = executor.submit(() ->
+                cache.get(HttpMethod.GET, URI_BRAF, null, createHeaders("token"), slowExchange));
+            started.await(10, TimeUnit.SECONDS);
+            Future<String> second = executor.submit(() ->
+                cache.get(HttpMethod.GET, URI_BRAF, null, createHeaders("token"), slowExchange));
+            release.countDown();
+
+            Assert.assertEquals("response 1", first.get(10, TimeUnit.SECONDS));
+            Assert.assertEquals("response 1", second.get(10, TimeUnit.SECONDS));
+            Assert.assertEquals(1, exchanges.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private HttpHeaders createHeaders(String token) {
+        HttpHeaders httpHeaders = new HttpHeaders();
+        httpHeaders.add(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        return httpHeaders;
+    }
+}
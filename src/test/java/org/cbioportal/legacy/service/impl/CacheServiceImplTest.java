@@ -1,7 +1,5 @@
 package org.cbioportal.legacy.service.impl;
 
-import org.cbioportal.legacy.model.CancerStudy;
-import org.cbioportal.legacy.persistence.StudyRepository;
 import org.cbioportal.legacy.persistence.cachemaputil.StaticRefCacheMapUtil;
 import org.cbioportal.legacy.persistence.util.CacheUtils;
 import org.cbioportal.legacy.service.exception.CacheOperationException;
@@ -39,18 +37,9 @@ public class CacheServiceImplTest {
     private Cache mockCache;
     private String clearAllKeysRegex = ".*";
 
-    @Mock
-    private StudyRepository studyRepository;
-    
     @Before
     public void init() {
         when(cacheManager.getCacheNames()).thenReturn(Arrays.asList("name_1", "name_2"));
-        CancerStudy cancerStudy1 = mock(CancerStudy.class);
-        when(cancerStudy1.getCancerStudyIdentifier()).thenReturn("study1");
-        CancerStudy cancerStudy2 = mock(CancerStudy.class);
-        when(cancerStudy2.getCancerStudyIdentifier()).thenReturn("study2");
-        List<CancerStudy> studies = Arrays.asList(cancerStudy1, cancerStudy2);
-        when(studyRepository.getAllStudies(nullable(String.class), nullable(String.class), nullable(Integer.class), nullable(Integer.class), nullable(String.class), nullable(String.class))).thenReturn(studies);
     }
 
     @Test
@@ -84,34 +73,31 @@ public class CacheServiceImplTest {
 
     @Test
     public void evictCacheForStudySuccess() throws Exception {
-        List<String> studiesInPortal = Arrays.asList("study1", "study2");
         cachingService.clearCachesForStudy("study3", true);
-        verify(cacheUtils, times(2)).evictByPattern(anyString(), eq("^(?=.*study3).*|^(?!.*study3)(?!.*study1)(?!.*study2).*"));
+        verify(cacheUtils, times(1)).evictByStudy(eq("name_1"), eq("study3"));
+        verify(cacheUtils, times(1)).evictByStudy(eq("name_2"), eq("study3"));
         verify(cacheMapUtil, times(1)).initializeCacheMemory();
     }
 
     @Test
     public void evictCacheForStudyNullManager() throws Exception {
         ReflectionTestUtils.setField(cachingService, "cacheManager", null);
-        List<String> studiesInPortal = Arrays.asList("study1", "study2");
         cachingService.clearCachesForStudy("study3", true);
-        verify(cacheUtils, never()).evictByPattern(anyString(), anyString());
+        verify(cacheUtils, never()).evictByStudy(anyString(), anyString());
         verify(cacheMapUtil, times(1)).initializeCacheMemory();
         ReflectionTestUtils.setField(cachingService, "cacheManager", cacheManager);
     }
 
     @Test
     public void evictCacheForStudySkipSpringManagedCache() throws Exception {
-        List<String> studiesInPortal = Arrays.asList("study1", "study2");
         cachingService.clearCachesForStudy("study3", false);
-        verify(cacheUtils, never()).evictByPattern(anyString(), anyString());
+        verify(cacheUtils, never()).evictByStudy(anyString(), anyString());
         verify(cacheMapUtil, times(1)).initializeCacheMemory();
     }
 
     @Test(expected = CacheOperationException.class)
     public void evictCacheForStudyThrowsException() throws Exception {
-        List<String> studiesInPortal = Arrays.asList("study1", "study2");
-        doThrow(RuntimeException.class).when(cacheUtils).evictByPattern(anyString(), anyString());
+        doThrow(RuntimeException.class).when(cacheUtils).evictByStudy(anyString(), anyString());
         cachingService.clearCachesForStudy("study3", true);
     }
     
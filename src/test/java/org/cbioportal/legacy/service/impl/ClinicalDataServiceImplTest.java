@@ -17,6 +17,7 @@ import org.cbioportal.legacy.service.exception.StudyNotFoundException;
 import org.cbioportal.legacy.model.meta.BaseMeta;
 import org.cbioportal.legacy.persistence.ClinicalDataRepository;
 import org.cbioportal.legacy.service.util.ClinicalAttributeUtil;
+import org.cbioportal.legacy.service.util.ClinicalDataSearchIndex;
 import org.cbioportal.legacy.utils.Encoder;
 import org.junit.Assert;
 import org.junit.Before;
@@ -47,6 +48,8 @@ public class ClinicalDataServiceImplTest extends BaseServiceImplTest {
     private SampleService sampleService;
     @Mock
     private ClinicalAttributeService clinicalAttributeService;
+    @Mock
+    private ClinicalDataSearchIndex clinicalDataSearchIndex;
     @Spy
     private ClinicalAttributeUtil clinicalAttributeUtil = new ClinicalAttributeUtil();
     
@@ -414,6 +417,32 @@ public class ClinicalDataServiceImplTest extends BaseServiceImplTest {
         Assert.assertEquals("Study2", clinicalDataCollection.getByUniqueSampleKey().get(uniqueKeySample2).get(0).getStudyId());
     }
     
+    @Test
+    public void fetchSampleClinicalTableSearchedByIndex() {
+
+        BitSet searchedSampleInternalIds = new BitSet();
+        searchedSampleInternalIds.set(1);
+        searchedSampleInternalIds.set(3);
+        when(clinicalDataSearchIndex.search(sampleStudyIds, searchTerm)).thenReturn(searchedSampleInternalIds);
+        when(clinicalDataRepository.getVisibleSampleInternalIdsForClinicalTable(
+            sampleStudyIds, sampleIds, null, null, null, sortBy, direction
+        )).thenReturn(sampleInternalIdsAll);
+
+        when(clinicalDataRepository.getSampleClinicalDataBySampleInternalIds(Arrays.asList(1, 3))).thenReturn(
+            List.of(datum1, datum2)
+        );
+        when(clinicalDataRepository.getPatientClinicalDataBySampleInternalIds(Arrays.asList(1, 3))).thenReturn(
+            List.of(datum1, datum2)
+        );
+
+        ImmutablePair<SampleClinicalDataCollection, Integer> result = clinicalDataService.fetchSampleClinicalTable(
+            sampleStudyIds, sampleIds, pageSize, pageNumber, searchTerm, sortBy, direction
+        );
+
+        Assert.assertEquals(2, (int) result.getRight());
+        Assert.assertEquals(2, result.getLeft().getByUniqueSampleKey().size());
+    }
+    
     @Test
     public void fetchSampleClinicalTableEmptyIdLists() {
         Assert.assertEquals(0, clinicalDataService.fetchSampleClinicalTable(
@@ -9,6 +9,7 @@ import org.cbioportal.legacy.model.meta.BaseMeta;
 import org.cbioportal.legacy.persistence.ClinicalEventRepository;
 import org.cbioportal.legacy.service.PatientService;
 import org.cbioportal.legacy.service.exception.PatientNotFoundException;
+import org.cbioportal.legacy.service.util.ClinicalEventTimelineStore;
 import org.cbioportal.legacy.web.parameter.ClinicalEventRequest;
 import org.cbioportal.legacy.web.parameter.ClinicalEventRequestIdentifier;
 import org.cbioportal.legacy.web.parameter.OccurrencePosition;
@@ -47,6 +48,8 @@ public class ClinicalEventServiceImplTest extends BaseServiceImplTest {
     private ClinicalEventRepository clinicalEventRepository;
     @Mock
     private PatientService patientService;
+    @Mock
+    private ClinicalEventTimelineStore clinicalEventTimelineStore;
     
     @Test
     public void getAllClinicalEventsOfPatientInStudy() throws Exception {
@@ -14,6 +14,8 @@ import org.cbioportal.legacy.service.MolecularDataService;
 import org.cbioportal.legacy.service.GenesetDataService;
 import org.cbioportal.legacy.service.MolecularProfileService;
 import org.cbioportal.legacy.service.util.CoExpressionAsyncMethods;
+import org.cbioportal.legacy.service.util.CoExpressionIndex;
+import org.cbioportal.legacy.utils.concurrent.WorkloadExecutors;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -39,6 +41,8 @@ public class CoExpressionServiceImplTest extends BaseServiceImplTest {
     @Mock
     private CoExpressionAsyncMethods asyncMethods;
     @Mock
+    private CoExpressionIndex coExpressionIndex;
+    @Mock
     private MolecularDataService molecularDataService;
     @Mock 
     private GenesetDataService genesetDataService;
@@ -50,6 +54,8 @@ public class CoExpressionServiceImplTest extends BaseServiceImplTest {
     private MolecularProfileService molecularProfileService;
     @Mock
     private SampleListRepository sampleListRepository;
+    @Mock
+    private WorkloadExecutors workloadExecutors;
     
     @Test
     public void getGeneCorrelationForQueriedGene() throws Exception {
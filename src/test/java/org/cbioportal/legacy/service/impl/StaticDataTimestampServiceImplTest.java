@@ -10,6 +10,7 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 
@@ -36,4 +37,20 @@ public class StaticDataTimestampServiceImplTest extends BaseServiceImplTest {
                 infoService.getTimestamps(Collections.singletonList("gene")),
                 pairs);
     }
+
+    @Test
+    public void TestGetVersion() {
+        TableTimestampPair gene = new TableTimestampPair();
+        gene.setTableName("gene");
+        gene.setUpdateTime("2019-11-11 08:41:15");
+        TableTimestampPair sample = new TableTimestampPair();
+        sample.setTableName("sample");
+
+        Mockito.when(repository.getTimestamps(Mockito.anyList())).thenReturn(Collections.singletonList(gene));
+        Assert.assertEquals("{gene=2019-11-11 08:41:15}", infoService.getVersion(Collections.singletonList("gene")));
+        // a table without update time, or missing altogether, has no version
+        Assert.assertNull(infoService.getVersion(Arrays.asList("gene", "sample")));
+        Mockito.when(repository.getTimestamps(Mockito.anyList())).thenReturn(Arrays.asList(gene, sample));
+        Assert.assertNull(infoService.getVersion(Arrays.asList("gene", "sample")));
+    }
 }
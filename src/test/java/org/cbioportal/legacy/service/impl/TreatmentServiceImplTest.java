@@ -8,6 +8,8 @@ import org.cbioportal.legacy.model.TemporalRelation;
 import org.cbioportal.legacy.model.Treatment;
 import org.cbioportal.legacy.service.impl.TreatmentServiceImpl;
 import org.cbioportal.legacy.persistence.TreatmentRepository;
+import org.cbioportal.legacy.service.util.TreatmentRollup;
+import org.cbioportal.legacy.service.util.TreatmentRollupStore;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -30,6 +32,8 @@ public class TreatmentServiceImplTest {
 
     @Mock
     private TreatmentRepository treatmentRepository;
+    @Mock
+    private TreatmentRollupStore treatmentRollupStore;
     
     @Test
     public void getAllPatientTreatmentRows() {
@@ -244,6 +248,92 @@ public class TreatmentServiceImplTest {
         Assert.assertEquals(new HashSet<>(expected), new HashSet<>(actual));
     }
 
+    @Test
+    public void getAllSampleTreatmentRowsOfStudiesWithTreatments() {
+        Mockito.when(treatmentRepository.getStudiesWithTreatmentData(Arrays.asList(STUDY_ID, "other_study"), ClinicalEventKeyCode.Agent))
+            .thenReturn(Collections.singletonList(STUDY_ID));
+        mockTreatmentsByPatient(
+            makeTreatment("fabricatin", "P0", 10, 20)
+        );
+        mockSamplesByPatient(
+            makeSample("S0", "P0", 5)
+        );
+
+        treatmentService.getAllSampleTreatmentRows(Arrays.asList("S0", "S1", "S2"), Arrays.asList(STUDY_ID, "other_study", STUDY_ID), ClinicalEventKeyCode.Agent);
+
+        // the studies with treatments are queried at once
+        Mockito.verify(treatmentRepository).getStudiesWithTreatmentData(Mockito.anyList(), Mockito.any());
+        Mockito.verify(treatmentRepository).getSamplesByPatientId(Arrays.asList("S0", "S2"), Arrays.asList(STUDY_ID, STUDY_ID));
+    }
+
+    @Test
+    public void getAllSampleTreatmentRowsOfStoredRollups() {
+        mockStoredRollup(
+            Arrays.asList(
+                makeTreatment("fabricatin", "P0", 10, 20),
+                makeTreatment("fabricatin", "P0", 30, 40),
+                makeTreatment("fabricatin", "P1", 10, 20),
+                makeTreatment("fauxan", "P1", 30, 40)
+            ),
+            Arrays.asList(
+                makeSample("S2", "P0", 45),
+                makeSample("S0", "P0", 5),
+                makeSample("S1", "P0", 10),
+                makeSample("S3", "P1", 25),
+                makeSample("S4", "P1", 50)
+            )
+        );
+
+        // a sample taken the day a treatment starts is pre, S1 is not selected
+        SampleTreatmentRow rowA = makeSampleRow(TemporalRelation.Pre, "fabricatin", 1, Collections.singletonList("S0"), Collections.singletonList("P0"));
+        SampleTreatmentRow rowB = makeSampleRow(TemporalRelation.Post, "fabricatin", 3, Arrays.asList("S2", "S3", "S4"), Arrays.asList("P0", "P1", "P1"));
+        SampleTreatmentRow rowC = makeSampleRow(TemporalRelation.Pre, "fauxan", 1, Collections.singletonList("S3"), Collections.singletonList("P1"));
+        SampleTreatmentRow rowD = makeSampleRow(TemporalRelation.Post, "fauxan", 1, Collections.singletonList("S4"), Collections.singletonList("P1"));
+        List<SampleTreatmentRow> expected = Arrays.asList(rowA, rowB, rowC, rowD);
+        List<SampleTreatmentRow> actual = treatmentService.getAllSampleTreatmentRows(
+            Arrays.asList("S0", "S2", "S3", "S4"), Collections.nCopies(4, STUDY_ID), ClinicalEventKeyCode.Agent);
+
+        Assert.assertEquals(new HashSet<>(expected), new HashSet<>(actual));
+    }
+
+    @Test
+    public void getAllPatientTreatmentRowsOfStoredRollups() {
+        mockStoredRollup(
+            Arrays.asList(
+                makeTreatment("fabricatin", "P0", 10, 20),
+                makeTreatment("fabricatin", "P1", 10, 20),
+                makeTreatment("fauxan", "P1", 30, 40),
+                makeTreatment("fauxan", "P2", 30, 40)
+            ),
+            Arrays.asList(
+                makeSample("S0", "P0", 5),
+                makeSample("S1", "P0", 10),
+                makeSample("S2", "P1", 25),
+                makeSample("S3", "P2", 50)
+            )
+        );
+
+        // P2 has no selected sample
+        PatientTreatmentRow rowA = makePatientRow("fabricatin", 2, Arrays.asList("S0", "S2"), Arrays.asList("P0", "P1"));
+        PatientTreatmentRow rowB = makePatientRow("fauxan", 1, Collections.singletonList("S2"), Collections.singletonList("P1"));
+        List<PatientTreatmentRow> expected = Arrays.asList(rowA, rowB);
+        List<PatientTreatmentRow> actual = treatmentService.getAllPatientTreatmentRows(
+            Arrays.asList("S0", "S2"), Arrays.asList(STUDY_ID, STUDY_ID), ClinicalEventKeyCode.Agent);
+
+        Assert.assertEquals(new HashSet<>(expected), new HashSet<>(actual));
+        Mockito.verifyNoInteractions(treatmentRepository);
+    }
+
+    private void mockStoredRollup(List<Treatment> treatments, List<ClinicalEventSample> samples) {
+        List<ClinicalEventSample> shallowSamples = samples.stream()
+            .map(sample -> makeSample(sample.getSampleId(), sample.getPatientId(), null))
+            .collect(Collectors.toList());
+        Map<String, TreatmentRollup> rollups = Collections.singletonMap(STUDY_ID,
+            new TreatmentRollup(treatments, samples, shallowSamples));
+        Mockito.when(treatmentRollupStore.getRollups(Mockito.anyList(), Mockito.eq(ClinicalEventKeyCode.Agent)))
+            .thenReturn(Optional.of(rollups));
+    }
+
     private void mockTreatmentsByPatient(Treatment... treatments) {
         Map<String, List<Treatment>> treatmentsByPatient = Arrays.stream(treatments)
             .collect(Collectors.groupingBy(Treatment::getPatientId));
@@ -0,0 +1,134 @@
+package org.cbioportal.legacy.service.util;
+
+import org.cbioportal.legacy.model.ClinicalData;
+import org.cbioportal.legacy.persistence.ClinicalDataRepository;
+import org.cbioportal.legacy.service.impl.StaticDataTimestampServiceImpl;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ClinicalDataSearchIndexTest {
+
+    private static final String STUDY_ID = "study_tcga";
+
+    @InjectMocks
+    private ClinicalDataSearchIndex clinicalDataSearchIndex;
+
+    @Mock
+    private ClinicalDataRepository clinicalDataRepository;
+    @Spy
+    private StaticDataTimestampServiceImpl staticDataTimestampService;
+
+    private final Map<String, String> timestamps = new HashMap<>();
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(clinicalDataSearchIndex, "enabled", true);
+        ReflectionTestUtils.setField(clinicalDataSearchIndex, "maxMegaBytes", 1L);
+        clinicalDataSearchIndex.init();
+        timestamps.put("clinical_sample", "2024-01-01 00:00:00");
+        timestamps.put("clinical_patient", "2024-01-01 00:00:00");
+        timestamps.put("sample", "2024-01-01 00:00:00");
+        timestamps.put("patient", "2024-01-01 00:00:00");
+        Mockito.lenient().doReturn(timestamps).when(staticDataTimestampService).getTimestamps(Mockito.anyList());
+
+        Mockito.lenient().when(clinicalDataRepository.getSampleClinicalDataOfStudyBySample(STUDY_ID)).thenReturn(List.of(
+            createClinicalData(1, "SAMPLE_1", "PATIENT_1", "Lung Adenocarcinoma"),
+            createClinicalData(1, "SAMPLE_1", "PATIENT_1", "Primary"),
+            createClinicalData(2, "SAMPLE_2", "PATIENT_2", "Breast Invasive Ductal Carcinoma"),
+            createClinicalData(3, "SAMPLE_3", "PATIENT_3", "Lung Squamous Cell Carcinoma")
+        ));
+        // the patient of the third sample has no clinical data
+        Mockito.lenient().when(clinicalDataRepository.getPatientClinicalDataOfStudyBySample(STUDY_ID)).thenReturn(List.of(
+            createClinicalData(1, "SAMPLE_1", "PATIENT_1", "Male"),
+            createClinicalData(2, "SAMPLE_2", "PATIENT_2", "Female")
+        ));
+    }
+
+    @Test
+    public void searchValuesCaseInsensitively() {
+
+        Assert.assertEquals(BitSet.valueOf(new long[]{0b110}), clinicalDataSearchIndex.search(List.of(STUDY_ID), "carcinoma"));
+        Assert.assertEquals(BitSet.valueOf(new long[]{0b10}), clinicalDataSearchIndex.search(List.of(STUDY_ID), "LUNG"));
+        Assert.assertEquals(BitSet.valueOf(new long[]{0b110}), clinicalDataSearchIndex.search(List.of(STUDY_ID), "male"));
+    }
+
+    @Test
+    public void searchSampleAndPatientIds() {
+
+        Assert.assertEquals(BitSet.valueOf(new long[]{0b110}), clinicalDataSearchIndex.search(List.of(STUDY_ID), "patient"));
+        Assert.assertEquals(BitSet.valueOf(new long[]{0b100}), clinicalDataSearchIndex.search(List.of(STUDY_ID), "2"));
+    }
+
+    @Test
+    public void searchShortTerms() {
+
+        Assert.assertEquals(BitSet.valueOf(new long[]{0b110}), clinicalDataSearchIndex.search(List.of(STUDY_ID), "Ma"));
+        Assert.assertEquals(BitSet.valueOf(new long[]{0b10}), clinicalDataSearchIndex.search(List.of(STUDY_ID), "1"));
+    }
+
+    @Test
+    public void doNotMatchAcrossValues() {
+
+        Assert.assertTrue(clinicalDataSearchIndex.search(List.of(STUDY_ID), "primarymale").isEmpty());
+        Assert.assertTrue(clinicalDataSearchIndex.search(List.of(STUDY_ID), "melanoma").isEmpty());
+    }
+
+    @Test
+    public void leaveWildcardsToDatabase() {
+
+        Assert.assertNull(clinicalDataSearchIndex.search(List.of(STUDY_ID), "SAMPLE_1"));
+        Assert.assertNull(clinicalDataSearchIndex.search(List.of(STUDY_ID), "100%"));
+    }
+
+    @Test
+    public void leaveSearchToDatabaseWithoutTimestamps() {
+
+        timestamps.put("clinical_sample", null);
+
+        Assert.assertNull(clinicalDataSearchIndex.search(List.of(STUDY_ID), "lung"));
+    }
+
+    @Test
+    public void leaveSearchToDatabaseIfDisabled() {
+
+        ReflectionTestUtils.setField(clinicalDataSearchIndex, "enabled", false);
+
+        Assert.assertNull(clinicalDataSearchIndex.search(List.of(STUDY_ID), "lung"));
+    }
+
+    @Test
+    public void rebuildIndexWhenTimestampsChange() {
+
+        clinicalDataSearchIndex.search(List.of(STUDY_ID), "lung");
+        clinicalDataSearchIndex.search(List.of(STUDY_ID), "breast");
+        Mockito.verify(clinicalDataRepository, Mockito.times(1)).getSampleClinicalDataOfStudyBySample(STUDY_ID);
+
+        timestamps.put("clinical_sample", "2024-02-01 00:00:00");
+        clinicalDataSearchIndex.search(List.of(STUDY_ID), "lung");
+        Mockito.verify(clinicalDataRepository, Mockito.times(2)).getSampleClinicalDataOfStudyBySample(STUDY_ID);
+    }
+
+    private ClinicalData createClinicalData(int internalId, String sampleId, String patientId, String attrValue) {
+        ClinicalData clinicalData = new ClinicalData();
+        clinicalData.setInternalId(internalId);
+        clinicalData.setSampleId(sampleId);
+        clinicalData.setPatientId(patientId);
+        clinicalData.setStudyId(STUDY_ID);
+        clinicalData.setAttrValue(attrValue);
+        return clinicalData;
+    }
+}
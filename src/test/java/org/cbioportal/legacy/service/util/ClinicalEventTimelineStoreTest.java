@@ -0,0 +1,193 @@
+package org.cbioportal.legacy.service.util;
+
+import org.cbioportal.legacy.model.ClinicalEvent;
+import org.cbioportal.legacy.model.ClinicalEventData;
+import org.cbioportal.legacy.persistence.ClinicalEventRepository;
+import org.cbioportal.legacy.service.impl.StaticDataTimestampServiceImpl;
+import org.cbioportal.legacy.service.util.ClinicalEventTimelineStore.Timelines;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ClinicalEventTimelineStoreTest {
+
+    private static final String STUDY_ID = "study_tcga";
+
+    @InjectMocks
+    private ClinicalEventTimelineStore clinicalEventTimelineStore;
+
+    @Mock
+    private ClinicalEventRepository clinicalEventRepository;
+    @Spy
+    private StaticDataTimestampServiceImpl staticDataTimestampService;
+
+    private final Map<String, String> timestamps = new HashMap<>();
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(clinicalEventTimelineStore, "enabled", true);
+        ReflectionTestUtils.setField(clinicalEventTimelineStore, "maxMegaBytes", 1L);
+        clinicalEventTimelineStore.init();
+        timestamps.put("clinical_event", "2024-01-01 00:00:00");
+        timestamps.put("clinical_event_data", "2024-01-01 00:00:00");
+        timestamps.put("patient", "2024-01-01 00:00:00");
+        Mockito.lenient().doReturn(timestamps).when(staticDataTimestampService).getTimestamps(Mockito.anyList());
+
+        Mockito.lenient().when(clinicalEventRepository.getClinicalEventsOfStudy(STUDY_ID)).thenReturn(List.of(
+            createClinicalEvent(1, "PATIENT_1", "TREATMENT", 10, 50),
+            createClinicalEvent(2, "PATIENT_2", "Status", 30, null),
+            createClinicalEvent(3, "PATIENT_1", "STATUS", 100, null),
+            createClinicalEvent(4, "PATIENT_1", "Treatment", 20, 40),
+            createClinicalEvent(5, "PATIENT_2", "TREATMENT", 5, 15),
+            // the event of the third patient has no data
+            createClinicalEvent(6, "PATIENT_3", "STATUS", 0, null)
+        ));
+        Mockito.lenient().when(clinicalEventRepository.getDataOfClinicalEventsOfStudy(STUDY_ID)).thenReturn(List.of(
+            createClinicalEventData(1, "AGENT", "Cisplatin"),
+            createClinicalEventData(2, "STATUS", "Deceased"),
+            createClinicalEventData(3, "STATUS", "Alive"),
+            createClinicalEventData(4, "AGENT", "Paclitaxel"),
+            createClinicalEventData(4, "SUBTYPE", "Chemo"),
+            createClinicalEventData(5, "AGENT", "cisplatin")
+        ));
+    }
+
+    @Test
+    public void getTimelineEventsOfAllEvents() {
+
+        List<ClinicalEvent> timelineEvents = getTimelines().getTimelineEvents(List.of(STUDY_ID, STUDY_ID, STUDY_ID),
+            List.of("PATIENT_1", "PATIENT_2", "PATIENT_3"), List.of());
+        timelineEvents.sort(Comparator.comparing(ClinicalEvent::getPatientId));
+
+        Assert.assertEquals(2, timelineEvents.size());
+        assertTimelineEvent(timelineEvents.get(0), "PATIENT_1", 10, 100);
+        assertTimelineEvent(timelineEvents.get(1), "PATIENT_2", 5, 30);
+    }
+
+    @Test
+    public void getTimelineEventsOfEventTypeCaseInsensitively() {
+
+        List<ClinicalEvent> timelineEvents = getTimelines().getTimelineEvents(List.of(STUDY_ID), null,
+            List.of(createEventFilter("treatment")));
+        timelineEvents.sort(Comparator.comparing(ClinicalEvent::getPatientId));
+
+        Assert.assertEquals(2, timelineEvents.size());
+        assertTimelineEvent(timelineEvents.get(0), "PATIENT_1", 10, 50);
+        assertTimelineEvent(timelineEvents.get(1), "PATIENT_2", 5, 15);
+    }
+
+    @Test
+    public void getTimelineEventsOfEventData() {
+
+        Timelines timelines = getTimelines();
+        List<ClinicalEvent> timelineEvents = timelines.getTimelineEvents(List.of(STUDY_ID, STUDY_ID),
+            List.of("PATIENT_1", "PATIENT_2"), List.of(createEventFilter("TREATMENT", "agent", "CISPLATIN")));
+        timelineEvents.sort(Comparator.comparing(ClinicalEvent::getPatientId));
+
+        Assert.assertEquals(2, timelineEvents.size());
+        assertTimelineEvent(timelineEvents.get(0), "PATIENT_1", 10, 50);
+        assertTimelineEvent(timelineEvents.get(1), "PATIENT_2", 5, 15);
+
+        timelineEvents = timelines.getTimelineEvents(List.of(STUDY_ID), List.of("PATIENT_1"),
+            List.of(createEventFilter("STATUS", "STATUS", "Alive"), createEventFilter("TREATMENT", "SUBTYPE", "Chemo")));
+
+        Assert.assertEquals(1, timelineEvents.size());
+        // the last start date is after the last stop date
+        assertTimelineEvent(timelineEvents.get(0), "PATIENT_1", 20, 100);
+
+        Assert.assertTrue(timelines.getTimelineEvents(List.of(STUDY_ID), null,
+            List.of(createEventFilter("STATUS", "STATUS", "Unknown"))).isEmpty());
+    }
+
+    @Test
+    public void getPatientCountsPerEventType() {
+
+        Map<String, Integer> counts = getTimelines().getPatientCountsPerEventType(List.of(STUDY_ID, STUDY_ID),
+            List.of("PATIENT_1", "PATIENT_3"));
+
+        Assert.assertEquals(2, counts.size());
+        Assert.assertEquals(Integer.valueOf(1), counts.get("TREATMENT"));
+        Assert.assertEquals(Integer.valueOf(2), counts.get("STATUS"));
+    }
+
+    @Test
+    public void leaveQueriesToDatabaseWithoutTimestamps() {
+
+        timestamps.put("clinical_event_data", null);
+
+        Assert.assertNull(clinicalEventTimelineStore.getTimelines(List.of(STUDY_ID)));
+    }
+
+    @Test
+    public void leaveQueriesToDatabaseIfDisabled() {
+
+        ReflectionTestUtils.setField(clinicalEventTimelineStore, "enabled", false);
+
+        Assert.assertNull(clinicalEventTimelineStore.getTimelines(List.of(STUDY_ID)));
+    }
+
+    @Test
+    public void reloadTimelinesWhenTimestampsChange() {
+
+        getTimelines();
+        getTimelines();
+        Mockito.verify(clinicalEventRepository, Mockito.times(1)).getClinicalEventsOfStudy(STUDY_ID);
+
+        timestamps.put("clinical_event", "2024-02-01 00:00:00");
+        getTimelines();
+        Mockito.verify(clinicalEventRepository, Mockito.times(2)).getClinicalEventsOfStudy(STUDY_ID);
+    }
+
+    private Timelines getTimelines() {
+        return clinicalEventTimelineStore.getTimelines(List.of(STUDY_ID));
+    }
+
+    private void assertTimelineEvent(ClinicalEvent timelineEvent, String patientId, int startDate, int stopDate) {
+        Assert.assertEquals(STUDY_ID, timelineEvent.getStudyId());
+        Assert.assertEquals(patientId, timelineEvent.getPatientId());
+        Assert.assertEquals(Integer.valueOf(startDate), timelineEvent.getStartDate());
+        Assert.assertEquals(Integer.valueOf(stopDate), timelineEvent.getStopDate());
+    }
+
+    private ClinicalEvent createClinicalEvent(int clinicalEventId, String patientId, String eventType, int startDate,
+                                              Integer stopDate) {
+        ClinicalEvent clinicalEvent = new ClinicalEvent();
+        clinicalEvent.setClinicalEventId(clinicalEventId);
+        clinicalEvent.setStudyId(STUDY_ID);
+        clinicalEvent.setPatientId(patientId);
+        clinicalEvent.setEventType(eventType);
+        clinicalEvent.setStartDate(startDate);
+        clinicalEvent.setStopDate(stopDate);
+        return clinicalEvent;
+    }
+
+    private ClinicalEventData createClinicalEventData(int clinicalEventId, String key, String value) {
+        ClinicalEventData clinicalEventData = new ClinicalEventData();
+        clinicalEventData.setClinicalEventId(clinicalEventId);
+        clinicalEventData.setKey(key);
+        clinicalEventData.setValue(value);
+        return clinicalEventData;
+    }
+
+    private ClinicalEvent createEventFilter(String eventType, String... keysAndValues) {
+        ClinicalEvent clinicalEvent = new ClinicalEvent();
+        clinicalEvent.setEventType(eventType);
+        if (keysAndValues.length > 0) {
+            clinicalEvent.setAttributes(List.of(createClinicalEventData(0, keysAndValues[0], keysAndValues[1])));
+        }
+        return clinicalEvent;
+    }
+}
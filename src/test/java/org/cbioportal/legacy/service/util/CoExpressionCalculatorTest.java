@@ -0,0 +1,118 @@
+package org.cbioportal.legacy.service.util;
+
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.stat.correlation.SpearmansCorrelation;
+import org.cbioportal.legacy.model.CoExpression;
+import org.cbioportal.legacy.model.GeneMolecularAlteration;
+import org.cbioportal.legacy.model.util.NumericValues;
+import org.cbioportal.legacy.utils.concurrent.WorkloadExecutors;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class CoExpressionCalculatorTest {
+
+    private CoExpressionCalculator coExpressionCalculator;
+    // two threads, so that a computation keeps at most four blocks pending and waits for the oldest one
+    private final WorkloadExecutors workloadExecutors = new WorkloadExecutors(new MockEnvironment()
+        .withProperty("workload.co_expression.pool_size", "2"));
+
+    @Before
+    public void setUp() {
+        coExpressionCalculator = new CoExpressionCalculator();
+        ReflectionTestUtils.setField(coExpressionCalculator, "blockSize", 4);
+        ReflectionTestUtils.setField(coExpressionCalculator, "workloadExecutors", workloadExecutors);
+    }
+
+    @After
+    public void tearDown() {
+        workloadExecutors.destroy();
+    }
+
+    @Test
+    public void computeCoExpressions() {
+
+        List<GeneMolecularAlteration> alterations = new ArrayList<>();
+        alterations.add(createAlteration(1, "2.1,3,3,NA"));
+        alterations.add(createAlteration(2, "2,3,2,NA"));
+        alterations.add(createAlteration(3, "1.1,5,3,NA"));
+        alterations.add(createAlteration(4, "1,4,0,NA"));
+
+        List<CoExpression> result = coExpressionCalculator.computeCoExpressions(
+            alterations.get(0).getNumericValues(), alterations, "1", new int[]{0, 1, 2, 3}, 0.3);
+
+        Assert.assertEquals(2, result.size());
+        Assert.assertEquals("2", result.get(0).getGeneticEntityId());
+        Assert.assertEquals(0.5, result.get(0).getSpearmansCorrelation().doubleValue(), 1e-12);
+        Assert.assertEquals(0.6666666666666667, result.get(0).getpValue().doubleValue(), 1e-12);
+        Assert.assertEquals("3", result.get(1).getGeneticEntityId());
+        Assert.assertEquals(0.8660254037844386, result.get(1).getSpearmansCorrelation().doubleValue(), 1e-12);
+        Assert.assertEquals(0.3333333333333333, result.get(1).getpValue().doubleValue(), 1e-12);
+    }
+
+    @Test
+    public void computeCoExpressionsMatchesSpearmansCorrelation() {
+
+        Random random = new Random(42);
+        int samples = 60;
+        List<GeneMolecularAlteration> alterations = new ArrayList<>();
+        for (int gene = 1; gene <= 25; gene++) {
+            String values = IntStream.range(0, samples)
+                .mapToObj(i -> random.nextInt(10) == 0 ? "NA" : String.valueOf(random.nextInt(20)))
+                .collect(Collectors.joining(","));
+            alterations.add(createAlteration(gene, values));
+        }
+        int[] includedIndexes = IntStream.range(0, samples).filter(i -> i % 7 != 0).toArray();
+        NumericValues queryValues = alterations.get(0).getNumericValues();
+
+        List<CoExpression> result = coExpressionCalculator.computeCoExpressions(queryValues, alterations, "1",
+            includedIndexes, 0);
+
+        Assert.assertEquals(24, result.size());
+        for (CoExpression coExpression : result) {
+            NumericValues values = alterations.get(Integer.parseInt(coExpression.getGeneticEntityId()) - 1)
+                .getNumericValues();
+            int[] present = Arrays.stream(includedIndexes)
+                .filter(i -> !values.isMissing(i) && !queryValues.isMissing(i)).toArray();
+            double[] a = Arrays.stream(present).mapToDouble(values::get).toArray();
+            double[] b = Arrays.stream(present).mapToDouble(queryValues::get).toArray();
+            SpearmansCorrelation expected = new SpearmansCorrelation(
+                new Array2DRowRealMatrix(new double[][]{a, b}, false).transpose());
+
+            Assert.assertEquals(expected.getCorrelationMatrix().getEntry(0, 1),
+                coExpression.getSpearmansCorrelation().doubleValue(), 1e-12);
+            Assert.assertEquals(expected.getRankCorrelation().getCorrelationPValues().getEntry(0, 1),
+                coExpression.getpValue().doubleValue(), 1e-12);
+        }
+    }
+
+    @Test
+    public void computeCoExpressionsWithTooFewSamples() {
+
+        List<GeneMolecularAlteration> alterations = new ArrayList<>();
+        alterations.add(createAlteration(1, "1,NA,3"));
+        alterations.add(createAlteration(2, "2,3,2"));
+
+        List<CoExpression> result = coExpressionCalculator.computeCoExpressions(
+            alterations.get(0).getNumericValues(), alterations, "1", new int[]{0, 1, 2}, 0);
+
+        Assert.assertTrue(result.isEmpty());
+    }
+
+    private GeneMolecularAlteration createAlteration(int entrezGeneId, String values) {
+        GeneMolecularAlteration alteration = new GeneMolecularAlteration();
+        alteration.setEntrezGeneId(entrezGeneId);
+        alteration.setValues(values);
+        return alteration;
+    }
+}
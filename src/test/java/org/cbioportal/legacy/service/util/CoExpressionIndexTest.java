@@ -0,0 +1,172 @@
+package org.cbioportal.legacy.service.util;
+
+import org.cbioportal.legacy.model.CoExpression;
+import org.cbioportal.legacy.model.GeneMolecularAlteration;
+import org.cbioportal.legacy.service.impl.StaticDataTimestampServiceImpl;
+import org.cbioportal.legacy.utils.concurrent.WorkloadExecutors;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CoExpressionIndexTest {
+
+    private static final String MOLECULAR_PROFILE_ID = "study_mrna";
+    private static final int SAMPLES = 50;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @InjectMocks
+    private CoExpressionIndex coExpressionIndex;
+
+    @Spy
+    private StaticDataTimestampServiceImpl staticDataTimestampService;
+
+    private CoExpressionCalculator coExpressionCalculator;
+    // two threads, so that a computation keeps at most four blocks pending and waits for the oldest one
+    private final WorkloadExecutors workloadExecutors = new WorkloadExecutors(new MockEnvironment()
+        .withProperty("workload.co_expression.pool_size", "2"));
+    private final Map<String, String> timestamps = new HashMap<>();
+
+    @Before
+    public void setUp() throws Exception {
+        ReflectionTestUtils.setField(coExpressionIndex, "enabled", true);
+        ReflectionTestUtils.setField(coExpressionIndex, "directory", temporaryFolder.newFolder().getPath());
+        coExpressionIndex.init();
+        timestamps.put("genetic_alteration", "2024-01-01 00:00:00");
+        timestamps.put("genetic_profile_samples", "2024-01-01 00:00:00");
+        Mockito.doReturn(timestamps).when(staticDataTimestampService).getTimestamps(Mockito.anyList());
+
+        coExpressionCalculator = new CoExpressionCalculator();
+        ReflectionTestUtils.setField(coExpressionCalculator, "blockSize", 4);
+        ReflectionTestUtils.setField(coExpressionCalculator, "workloadExecutors", workloadExecutors);
+    }
+
+    @After
+    public void tearDown() {
+        workloadExecutors.destroy();
+    }
+
+    @Test
+    public void computeCoExpressionsForAllSamples() {
+
+        List<GeneMolecularAlteration> alterations = createAlterations();
+        int[] includedIndexes = IntStream.range(0, SAMPLES).toArray();
+
+        assertSameCoExpressions(alterations, includedIndexes);
+    }
+
+    @Test
+    public void computeCoExpressionsForSubsetOfSamples() {
+
+        List<GeneMolecularAlteration> alterations = createAlterations();
+        int[] includedIndexes = IntStream.range(0, SAMPLES).filter(i -> i % 3 != 0).toArray();
+
+        assertSameCoExpressions(alterations, includedIndexes);
+    }
+
+    @Test
+    public void getRankMatrix() {
+
+        Assert.assertNull(coExpressionIndex.getRankMatrix(MOLECULAR_PROFILE_ID, SAMPLES));
+
+        CoExpressionIndex.RankMatrix rankMatrix = coExpressionIndex.buildRankMatrix(MOLECULAR_PROFILE_ID, SAMPLES,
+            createAlterations());
+
+        Assert.assertEquals(20, rankMatrix.getRows());
+        Assert.assertEquals(SAMPLES, rankMatrix.getColumns());
+        Assert.assertSame(rankMatrix, coExpressionIndex.getRankMatrix(MOLECULAR_PROFILE_ID, SAMPLES));
+        Assert.assertNull(coExpressionIndex.getRankMatrix(MOLECULAR_PROFILE_ID, SAMPLES + 1));
+
+        // a new instance picks up the matrix from disk
+        CoExpressionIndex reloaded = new CoExpressionIndex();
+        ReflectionTestUtils.setField(reloaded, "directory",
+            ReflectionTestUtils.getField(coExpressionIndex, "directory"));
+        ReflectionTestUtils.setField(reloaded, "staticDataTimestampService", staticDataTimestampService);
+        reloaded.init();
+        Assert.assertEquals(20, reloaded.getRankMatrix(MOLECULAR_PROFILE_ID, SAMPLES).getRows());
+
+        timestamps.put("genetic_alteration", "2024-02-01 00:00:00");
+        Assert.assertNull(coExpressionIndex.getRankMatrix(MOLECULAR_PROFILE_ID, SAMPLES));
+        Assert.assertNull(reloaded.getRankMatrix(MOLECULAR_PROFILE_ID, SAMPLES));
+    }
+
+    @Test
+    public void getRankMatrixWithoutTimestamps() {
+
+        timestamps.clear();
+
+        Assert.assertNull(coExpressionIndex.buildRankMatrix(MOLECULAR_PROFILE_ID, SAMPLES, createAlterations()));
+        Assert.assertNull(coExpressionIndex.getRankMatrix(MOLECULAR_PROFILE_ID, SAMPLES));
+    }
+
+    @Test
+    public void computeCoExpressionsForUnknownQuery() {
+
+        CoExpressionIndex.RankMatrix rankMatrix = coExpressionIndex.buildRankMatrix(MOLECULAR_PROFILE_ID, SAMPLES,
+            createAlterations());
+
+        Assert.assertNull(coExpressionCalculator.computeCoExpressions(rankMatrix, "100",
+            IntStream.range(0, SAMPLES).toArray(), 0));
+    }
+
+    private void assertSameCoExpressions(List<GeneMolecularAlteration> alterations, int[] includedIndexes) {
+
+        CoExpressionIndex.RankMatrix rankMatrix = coExpressionIndex.buildRankMatrix(MOLECULAR_PROFILE_ID, SAMPLES,
+            alterations);
+
+        for (String query : new String[]{"1", "2"}) {
+            List<CoExpression> expected = coExpressionCalculator.computeCoExpressions(
+                alterations.get(Integer.parseInt(query) - 1).getNumericValues(), alterations, query,
+                includedIndexes, 0.1);
+            List<CoExpression> result = coExpressionCalculator.computeCoExpressions(rankMatrix, query,
+                includedIndexes, 0.1);
+
+            Assert.assertEquals(expected.size(), result.size());
+            for (int i = 0; i < expected.size(); i++) {
+                Assert.assertEquals(expected.get(i).getGeneticEntityId(), result.get(i).getGeneticEntityId());
+                Assert.assertEquals(expected.get(i).getSpearmansCorrelation().doubleValue(),
+                    result.get(i).getSpearmansCorrelation().doubleValue(), 1e-12);
+                Assert.assertEquals(expected.get(i).getpValue().doubleValue(),
+                    result.get(i).getpValue().doubleValue(), 1e-12);
+            }
+        }
+    }
+
+    // gene 1 has values for all samples, the other genes have some missing values
+    private List<GeneMolecularAlteration> createAlterations() {
+
+        Random random = new Random(7);
+        List<GeneMolecularAlteration> alterations = new ArrayList<>();
+        for (int gene = 1; gene <= 20; gene++) {
+            boolean complete = gene == 1 || gene % 4 == 0;
+            String values = IntStream.range(0, SAMPLES)
+                .mapToObj(i -> !complete && random.nextInt(8) == 0 ? "NA" : String.valueOf(random.nextInt(15) / 2.0))
+                .collect(Collectors.joining(",")) + ",";
+            GeneMolecularAlteration alteration = new GeneMolecularAlteration();
+            alteration.setEntrezGeneId(gene);
+            alteration.setValues(values);
+            alterations.add(alteration);
+        }
+        return alterations;
+    }
+}
@@ -0,0 +1,54 @@
+package org.cbioportal.legacy.service.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FisherExactTestCalculatorTest {
+
+    private final FisherExactTestCalculator fisherExactTestCalculator = new FisherExactTestCalculator();
+
+    @Test
+    public void getTwoTailedPValue() {
+        // tea tasting experiment
+        Assert.assertEquals(0.4857142857142857, fisherExactTestCalculator.getTwoTailedPValue(3, 1, 1, 3), 1e-12);
+        Assert.assertEquals(1.0, fisherExactTestCalculator.getTwoTailedPValue(1, 1, 2, 0), 1e-12);
+        Assert.assertEquals(0.3333333333333333, fisherExactTestCalculator.getTwoTailedPValue(2, 0, 0, 2), 1e-12);
+    }
+
+    @Test
+    public void getTwoTailedPValues() {
+        int[][] tables = new int[ContingencyTableStatistics.PARALLEL_THRESHOLD + 1][];
+        for (int i = 0; i < tables.length; i++) {
+            tables[i] = new int[]{i % 7, 3, 5, i % 11 + 100};
+        }
+
+        double[] pValues = fisherExactTestCalculator.getTwoTailedPValues(tables);
+
+        Assert.assertEquals(tables.length, pValues.length);
+        for (int i = 0; i < tables.length; i++) {
+            Assert.assertEquals(fisherExactTestCalculator.getTwoTailedPValue(tables[i][0], tables[i][1],
+                tables[i][2], tables[i][3]), pValues[i], 0);
+        }
+    }
+
+    @Test
+    public void growLogFactorials() {
+        double[] logFactorials = ContingencyTableStatistics.getLogFactorials(10);
+        Assert.assertEquals(Math.log(3628800), logFactorials[10], 1e-9);
+
+        double[] grownLogFactorials = ContingencyTableStatistics.getLogFactorials(100000);
+        Assert.assertTrue(grownLogFactorials.length > 100000);
+        Assert.assertEquals(logFactorials[10], grownLogFactorials[10], 0);
+        Assert.assertEquals(grownLogFactorials[99999] + Math.log(100000), grownLogFactorials[100000], 1e-6);
+    }
+
+    @Test
+    public void getChiSquarePValues() {
+        long[][][] tables = {{{1, 1}, {0, 2}, {1, 1}}, {{0, 2}, {2, 0}, {2, 0}}};
+
+        double[] pValues = ContingencyTableStatistics.getChiSquarePValues(tables);
+
+        Assert.assertEquals(0.4723665527410149, pValues[0], 1e-12);
+        Assert.assertEquals(0.04978706836786395, pValues[1], 1e-12);
+    }
+}
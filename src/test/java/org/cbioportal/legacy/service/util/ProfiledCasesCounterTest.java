@@ -126,4 +126,68 @@ public class ProfiledCasesCounterTest {
         Assert.assertEquals(Integer.valueOf(4), alterationCounts.get(3).getEntrezGeneId());
 
     }
+
+    @Test
+    public void calculateForGenesSharingGenePanels() throws Exception {
+
+        List<GenePanelData> genePanelDataList = new ArrayList<>();
+        // the same patient id in two studies is counted as two patients
+        genePanelDataList.add(createGenePanelData("study_1", SAMPLE_ID_1, PATIENT_ID_1, GENE_PANEL_ID_1));
+        genePanelDataList.add(createGenePanelData("study_1", SAMPLE_ID_2, PATIENT_ID_1, GENE_PANEL_ID_2));
+        genePanelDataList.add(createGenePanelData("study_2", SAMPLE_ID_1, PATIENT_ID_1, GENE_PANEL_ID_1));
+        genePanelDataList.add(createGenePanelData("study_2", SAMPLE_ID_3, PATIENT_ID_2, null));
+
+        GenePanel genePanel1 = createGenePanel(GENE_PANEL_ID_1, ENTREZ_GENE_ID_1, ENTREZ_GENE_ID_2, ENTREZ_GENE_ID_3);
+        GenePanel genePanel2 = createGenePanel(GENE_PANEL_ID_2, ENTREZ_GENE_ID_1, ENTREZ_GENE_ID_2);
+        Mockito.when(genePanelService.fetchGenePanels(Mockito.anyList(), Mockito.eq("DETAILED")))
+            .thenReturn(Arrays.asList(genePanel1, genePanel2));
+
+        List<AlterationCountByGene> alterationCounts = new ArrayList<>();
+        AlterationCountByGene alterationCount1 = new AlterationCountByGene();
+        alterationCount1.setEntrezGeneId(ENTREZ_GENE_ID_1);
+        alterationCounts.add(alterationCount1);
+        AlterationCountByGene alterationCount3 = new AlterationCountByGene();
+        alterationCount3.setEntrezGeneId(ENTREZ_GENE_ID_3);
+        alterationCounts.add(alterationCount3);
+
+        profiledSamplesCounter.calculate(alterationCounts, genePanelDataList, true, profiledSamplesCounter.sampleUniqueIdentifier);
+
+        Assert.assertEquals(3, alterationCounts.size());
+        Assert.assertEquals(Integer.valueOf(4), alterationCounts.get(0).getNumberOfProfiledCases());
+        Assert.assertEquals(Integer.valueOf(3), alterationCounts.get(1).getNumberOfProfiledCases());
+        Assert.assertEquals(Integer.valueOf(2), alterationCounts.get(2).getEntrezGeneId());
+        Assert.assertEquals(Integer.valueOf(4), alterationCounts.get(2).getNumberOfProfiledCases());
+        Assert.assertEquals(2, alterationCounts.get(2).getMatchingGenePanelIds().size());
+
+        alterationCounts.remove(2);
+        profiledSamplesCounter.calculate(alterationCounts, genePanelDataList, true, profiledSamplesCounter.patientUniqueIdentifier);
+
+        Assert.assertEquals(3, alterationCounts.size());
+        Assert.assertEquals(Integer.valueOf(3), alterationCounts.get(0).getNumberOfProfiledCases());
+        Assert.assertEquals(Integer.valueOf(3), alterationCounts.get(1).getNumberOfProfiledCases());
+        Assert.assertEquals(Integer.valueOf(3), alterationCounts.get(2).getNumberOfProfiledCases());
+    }
+
+    private GenePanelData createGenePanelData(String studyId, String sampleId, String patientId, String genePanelId) {
+        GenePanelData genePanelData = new GenePanelData();
+        genePanelData.setStudyId(studyId);
+        genePanelData.setSampleId(sampleId);
+        genePanelData.setPatientId(patientId);
+        genePanelData.setGenePanelId(genePanelId);
+        genePanelData.setProfiled(true);
+        return genePanelData;
+    }
+
+    private GenePanel createGenePanel(String genePanelId, Integer... entrezGeneIds) {
+        GenePanel genePanel = new GenePanel();
+        genePanel.setStableId(genePanelId);
+        List<GenePanelToGene> genes = new ArrayList<>();
+        for (Integer entrezGeneId : entrezGeneIds) {
+            GenePanelToGene genePanelToGene = new GenePanelToGene();
+            genePanelToGene.setEntrezGeneId(entrezGeneId);
+            genes.add(genePanelToGene);
+        }
+        genePanel.setGenes(genes);
+        return genePanel;
+    }
 }
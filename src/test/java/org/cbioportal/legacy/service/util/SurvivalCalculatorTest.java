@@ -0,0 +1,81 @@
+package org.cbioportal.legacy.service.util;
+
+import org.cbioportal.legacy.model.SurvivalComparison;
+import org.cbioportal.legacy.model.SurvivalCurve;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class SurvivalCalculatorTest {
+
+    // group A: patients 0 to 3, group B: patients 4 to 7, group C: patients 8 and 9
+    private static final double[] MONTHS = {1, 2, 3, 4, 2, 4, 6, 8, 5, 7};
+    private static final boolean[] EVENTS = {true, true, true, true, true, true, true, false, true, false};
+    private static final int[] GROUP_A = {0, 1, 2, 3};
+    private static final int[] GROUP_B = {4, 5, 6, 7};
+    private static final int[] GROUP_C = {8, 9};
+
+    @Test
+    public void compareTwoGroups() {
+        SurvivalComparison result = SurvivalCalculator.compare(MONTHS, EVENTS, List.of("A", "B"),
+            new int[][]{GROUP_A, GROUP_B});
+
+        SurvivalCurve curveA = result.getCurves().get(0);
+        Assert.assertEquals("A", curveA.getName());
+        Assert.assertEquals(4, curveA.getNumberOfPatients());
+        Assert.assertEquals(4, curveA.getNumberOfEvents());
+        Assert.assertArrayEquals(new double[]{1, 2, 3, 4}, curveA.getMonths(), 0);
+        Assert.assertArrayEquals(new double[]{0.75, 0.5, 0.25, 0}, curveA.getSurvivalProbabilities(), 1e-12);
+        Assert.assertArrayEquals(new int[]{4, 3, 2, 1}, curveA.getNumbersAtRisk());
+        Assert.assertEquals(2.0, curveA.getMedianMonths(), 0);
+        Assert.assertEquals(2.257142857142857, curveA.getExpectedNumberOfEvents(), 1e-12);
+
+        SurvivalCurve curveB = result.getCurves().get(1);
+        Assert.assertEquals(3, curveB.getNumberOfEvents());
+        Assert.assertArrayEquals(new double[]{2, 4, 6, 8}, curveB.getMonths(), 0);
+        Assert.assertArrayEquals(new double[]{0.75, 0.5, 0.25, 0.25}, curveB.getSurvivalProbabilities(), 1e-12);
+        Assert.assertArrayEquals(new int[]{4, 3, 2, 1}, curveB.getNumbersAtRisk());
+        Assert.assertArrayEquals(new int[]{1, 1, 1, 0}, curveB.getNumbersOfEvents());
+        Assert.assertArrayEquals(new int[]{0, 0, 0, 1}, curveB.getNumbersOfCensored());
+        Assert.assertEquals(4.0, curveB.getMedianMonths(), 0);
+
+        Assert.assertEquals(2.6455741201564167, result.getLogRankChiSquare(), 1e-9);
+        Assert.assertEquals(0.10383863733578336, result.getLogRankPValue(), 1e-9);
+        Assert.assertEquals(0.21916018810242371, result.getHazardRatio(), 1e-9);
+        Assert.assertEquals(0.035186615851139066, result.getHazardRatioLowerBound(), 1e-9);
+        Assert.assertEquals(1.3650414195070955, result.getHazardRatioUpperBound(), 1e-9);
+    }
+
+    @Test
+    public void compareThreeGroups() {
+        SurvivalComparison result = SurvivalCalculator.compare(MONTHS, EVENTS, List.of("A", "B", "C"),
+            new int[][]{GROUP_A, GROUP_B, GROUP_C});
+
+        Assert.assertEquals(3, result.getCurves().size());
+        Assert.assertNull(result.getCurves().get(2).getMedianMonths());
+        Assert.assertEquals(5.337815856346063, result.getLogRankChiSquare(), 1e-9);
+        Assert.assertEquals(0.06932789502442274, result.getLogRankPValue(), 1e-9);
+        Assert.assertNull(result.getHazardRatio());
+    }
+
+    @Test
+    public void compareWithoutEnoughGroups() {
+        SurvivalComparison result = SurvivalCalculator.compare(MONTHS, EVENTS, List.of("A", "empty"),
+            new int[][]{GROUP_A, {}});
+
+        Assert.assertEquals(0, result.getCurves().get(1).getMonths().length);
+        Assert.assertNull(result.getLogRankPValue());
+        Assert.assertNull(result.getHazardRatio());
+    }
+
+    @Test
+    public void comparePatientsInSeveralGroups() {
+        SurvivalComparison result = SurvivalCalculator.compare(MONTHS, EVENTS, List.of("A", "all"),
+            new int[][]{GROUP_A, {0, 1, 2, 3, 4, 5, 6, 7, 8, 9}});
+
+        Assert.assertEquals(10, result.getCurves().get(1).getNumberOfPatients());
+        Assert.assertArrayEquals(new int[]{1, 2, 1, 2, 1, 1, 0, 0}, result.getCurves().get(1).getNumbersOfEvents());
+        Assert.assertNotNull(result.getLogRankPValue());
+    }
+}
@@ -0,0 +1,114 @@
+package org.cbioportal.legacy.service.util;
+
+import org.cbioportal.legacy.model.ClinicalEventKeyCode;
+import org.cbioportal.legacy.model.ClinicalEventSample;
+import org.cbioportal.legacy.model.Treatment;
+import org.cbioportal.legacy.persistence.TreatmentRepository;
+import org.cbioportal.legacy.service.impl.StaticDataTimestampServiceImpl;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TreatmentRollupStoreTest {
+
+    private static final String STUDY_ID = "study_tcga";
+
+    @InjectMocks
+    private TreatmentRollupStore treatmentRollupStore;
+
+    @Mock
+    private TreatmentRepository treatmentRepository;
+    @Spy
+    private StaticDataTimestampServiceImpl staticDataTimestampService;
+
+    private final Map<String, String> timestamps = new HashMap<>();
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(treatmentRollupStore, "enabled", true);
+        ReflectionTestUtils.setField(treatmentRollupStore, "maxMegaBytes", 1L);
+        treatmentRollupStore.init();
+        timestamps.put("clinical_event", "2024-01-01 00:00:00");
+        timestamps.put("clinical_event_data", "2024-01-01 00:00:00");
+        timestamps.put("patient", "2024-01-01 00:00:00");
+        timestamps.put("sample", "2024-01-01 00:00:00");
+        Mockito.lenient().doReturn(timestamps).when(staticDataTimestampService).getTimestamps(Mockito.anyList());
+
+        Treatment treatment = new Treatment();
+        treatment.setTreatment("fabricatin");
+        treatment.setStudyId(STUDY_ID);
+        treatment.setPatientId("P0");
+        treatment.setStart(10);
+        Mockito.lenient().when(treatmentRepository.getTreatmentsOfStudy(STUDY_ID, ClinicalEventKeyCode.Agent))
+            .thenReturn(List.of(treatment));
+        ClinicalEventSample sample = new ClinicalEventSample();
+        sample.setSampleId("S0");
+        sample.setPatientId("P0");
+        sample.setStudyId(STUDY_ID);
+        Mockito.lenient().when(treatmentRepository.getShallowSamplesOfStudy(STUDY_ID)).thenReturn(List.of(sample));
+    }
+
+    @Test
+    public void getRollupsOfStudies() {
+
+        Optional<Map<String, TreatmentRollup>> rollups = treatmentRollupStore.getRollups(List.of(STUDY_ID, STUDY_ID),
+            ClinicalEventKeyCode.Agent);
+
+        Assert.assertTrue(rollups.isPresent());
+        Assert.assertEquals(1, rollups.get().size());
+        Assert.assertTrue(rollups.get().get(STUDY_ID).hasTreatments());
+        Assert.assertFalse(rollups.get().get(STUDY_ID).hasTakenSamples());
+    }
+
+    @Test
+    public void buildRollupsPerTreatmentKey() {
+
+        treatmentRollupStore.getRollups(List.of(STUDY_ID), ClinicalEventKeyCode.Agent);
+        Optional<Map<String, TreatmentRollup>> rollups = treatmentRollupStore.getRollups(List.of(STUDY_ID),
+            ClinicalEventKeyCode.AgentClass);
+
+        Assert.assertFalse(rollups.get().get(STUDY_ID).hasTreatments());
+        Mockito.verify(treatmentRepository, Mockito.times(2)).getShallowSamplesOfStudy(STUDY_ID);
+    }
+
+    @Test
+    public void leaveRowsToDatabaseWithoutTimestamps() {
+
+        timestamps.put("sample", null);
+
+        Assert.assertFalse(treatmentRollupStore.getRollups(List.of(STUDY_ID), ClinicalEventKeyCode.Agent).isPresent());
+    }
+
+    @Test
+    public void leaveRowsToDatabaseIfDisabled() {
+
+        ReflectionTestUtils.setField(treatmentRollupStore, "enabled", false);
+
+        Assert.assertFalse(treatmentRollupStore.getRollups(List.of(STUDY_ID), ClinicalEventKeyCode.Agent).isPresent());
+    }
+
+    @Test
+    public void rebuildRollupsWhenTimestampsChange() {
+
+        treatmentRollupStore.getRollups(List.of(STUDY_ID), ClinicalEventKeyCode.Agent);
+        treatmentRollupStore.getRollups(List.of(STUDY_ID), ClinicalEventKeyCode.Agent);
+        Mockito.verify(treatmentRepository, Mockito.times(1)).getTreatmentsOfStudy(STUDY_ID, ClinicalEventKeyCode.Agent);
+
+        timestamps.put("clinical_event_data", "2024-02-01 00:00:00");
+        treatmentRollupStore.getRollups(List.of(STUDY_ID), ClinicalEventKeyCode.Agent);
+        Mockito.verify(treatmentRepository, Mockito.times(2)).getTreatmentsOfStudy(STUDY_ID, ClinicalEventKeyCode.Agent);
+    }
+}
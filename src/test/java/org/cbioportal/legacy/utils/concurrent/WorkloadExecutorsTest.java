@@ -0,0 +1,130 @@
+package org.cbioportal.legacy.utils.concurrent;
+
+import org.cbioportal.legacy.service.exception.TooManyRequestsException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class WorkloadExecutorsTest {
+
+    private WorkloadExecutors workloadExecutors;
+    private final MockEnvironment environment = new MockEnvironment();
+
+    @Before
+    public void setUp() {
+        environment.setProperty("workload.max_requests", "3");
+        environment.setProperty("workload.max_requests_per_user", "2");
+        environment.setProperty("workload.co_expression.pool_size", "1");
+        environment.setProperty("workload.co_expression.queue_capacity", "1");
+        workloadExecutors = new WorkloadExecutors(environment);
+    }
+
+    @After
+    public void tearDown() {
+        workloadExecutors.destroy();
+    }
+
+    @Test
+    public void rejectRequestsOverTheLimitPerUser() {
+
+        WorkloadExecutors.Admission first = workloadExecutors.admit(Workload.ENRICHMENT, "user1");
+        workloadExecutors.admit(Workload.ENRICHMENT, "user1");
+        Assert.assertThrows(TooManyRequestsException.class,
+            () -> workloadExecutors.admit(Workload.ENRICHMENT, "user1"));
+        // the limit is per workload
+        workloadExecutors.admit(Workload.CO_EXPRESSION, "user1").close();
+
+        first.close();
+        // closing twice releases the request once
+        first.close();
+        workloadExecutors.admit(Workload.ENRICHMENT, "user1");
+        Assert.assertThrows(TooManyRequestsException.class,
+            () -> workloadExecutors.admit(Workload.ENRICHMENT, "user1"));
+    }
+
+    @Test
+    public void rejectRequestsOverTheLimitOfTheWorkload() {
+
+        workloadExecutors.admit(Workload.ENRICHMENT, "user1");
+        workloadExecutors.admit(Workload.ENRICHMENT, "user2");
+        WorkloadExecutors.Admission third = workloadExecutors.admit(Workload.ENRICHMENT, "user3");
+        Assert.assertThrows(RejectedExecutionException.class,
+            () -> workloadExecutors.admit(Workload.ENRICHMENT, "user4"));
+
+        third.close();
+        workloadExecutors.admit(Workload.ENRICHMENT, "user4");
+        Assert.assertTrue(workloadExecutors.getStatistics().startsWith(
+            "enrichment: requests running 3 of 3, users 3, admitted 4, rejected 1, rejected over the limit per user 0"));
+    }
+
+    @Test
+    public void rejectTasksWhenTheQueueIsFull() throws Exception {
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = workloadExecutors.executor(Workload.CO_EXPRESSION);
+        Assert.assertEquals(1, workloadExecutors.getPoolSize(Workload.CO_EXPRESSION));
+
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ignored) {
+            }
+        });
+        Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+        executor.execute(() -> { });
+        Assert.assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+        Assert.assertEquals("co_expression: threads active 1 of 1, tasks queued 1 of 1, completed 0, rejected 1\n",
+            workloadExecutors.getStatistics());
+        release.countDown();
+    }
+
+    @Test
+    public void keepThePoolSizeOfOlderSettings() {
+
+        environment.setProperty("study_view.chart_batch.parallelism", "3");
+
+        Assert.assertEquals(3, workloadExecutors.getPoolSize(Workload.STUDY_VIEW));
+    }
+
+    @Test
+    public void notLimitAnonymousUsersByDefault() {
+
+        Assert.assertFalse(workloadExecutors.isLimitingAnonymousUsers());
+        workloadExecutors.admit(Workload.ENRICHMENT, null);
+        workloadExecutors.admit(Workload.ENRICHMENT, null);
+        workloadExecutors.admit(Workload.ENRICHMENT, null);
+        // still limited by the workload
+        Assert.assertThrows(RejectedExecutionException.class,
+            () -> workloadExecutors.admit(Workload.ENRICHMENT, null));
+        Assert.assertTrue(workloadExecutors.getStatistics().startsWith(
+            "enrichment: requests running 3 of 3, users 0, admitted 3, rejected 1, rejected over the limit per user 0"));
+    }
+
+    @Test
+    public void sizeTheCoExpressionQueueForTheAdmittedRequests() {
+
+        WorkloadExecutors defaultExecutors = new WorkloadExecutors(new MockEnvironment()
+            .withProperty("workload.co_expression.pool_size", "16")
+            .withProperty("workload.limit_anonymous_users", "true"));
+        try {
+            defaultExecutors.executor(Workload.CO_EXPRESSION);
+            defaultExecutors.executor(Workload.ENRICHMENT);
+
+            Assert.assertTrue(defaultExecutors.isLimitingAnonymousUsers());
+            // 32 requests with 2 pending tasks per thread
+            Assert.assertTrue(defaultExecutors.getStatistics().contains("tasks queued 0 of 1024,"));
+            Assert.assertTrue(defaultExecutors.getStatistics().contains("tasks queued 0 of 1000,"));
+        } finally {
+            defaultExecutors.destroy();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.cbioportal.legacy.utils.http;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+public class OutboundHttpClientsTest {
+
+    private HttpServer server;
+    private OutboundHttpClients outboundHttpClients;
+    private final MockEnvironment environment = new MockEnvironment();
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/ok", exchange -> {
+            byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.createContext("/error", exchange -> {
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(1000);
+            } catch (InterruptedException ignored) {
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+        outboundHttpClients = new OutboundHttpClients(environment);
+    }
+
+    @After
+    public void tearDown() {
+        outboundHttpClients.destroy();
+        server.stop(0);
+    }
+
+    @Test
+    public void shareRestTemplatePerDestination() {
+        Assert.assertSame(outboundHttpClients.restTemplate(OutboundHttpClients.SESSION_SERVICE),
+            outboundHttpClients.restTemplate(OutboundHttpClients.SESSION_SERVICE));
+        Assert.assertNotSame(outboundHttpClients.restTemplate(OutboundHttpClients.SESSION_SERVICE),
+            outboundHttpClients.restTemplate(OutboundHttpClients.PROXY));
+    }
+
+    @Test
+    public void recordRequestsAndErrors() {
+        RestTemplate restTemplate = outboundHttpClients.restTemplate(OutboundHttpClients.SESSION_SERVICE);
+
+        Assert.assertEquals("ok", restTemplate.getForObject(url("/ok"), String.class));
+        Assert.assertEquals("ok", restTemplate.getForObject(url("/ok"), String.class));
+        Assert.assertThrows(HttpServerErrorException.class, () -> restTemplate.getForObject(url("/error"), String.class));
+
+        String statistics = outboundHttpClients.getStatistics();
+        Assert.assertTrue(statistics, statistics.startsWith("session_service: 3 requests, 1 errors"));
+        Assert.assertTrue(statistics, statistics.contains("max 20"));
+    }
+
+    @Test
+    public void readTimeoutPerDestination() {
+        environment.setProperty("http_client.read_timeout_ms", "5000");
+        environment.setProperty("http_client.proxy.read_timeout_ms", "100");
+
+        RestTemplate restTemplate = outboundHttpClients.restTemplate(OutboundHttpClients.PROXY);
+
+        Assert.assertThrows(ResourceAccessException.class, () -> restTemplate.getForObject(url("/slow"), String.class));
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + server.getAddress().getPort() + path;
+    }
+}
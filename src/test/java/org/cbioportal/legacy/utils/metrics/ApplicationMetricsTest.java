@@ -0,0 +1,77 @@
+package org.cbioportal.legacy.utils.metrics;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+public class ApplicationMetricsTest {
+
+    private final ApplicationMetrics applicationMetrics = new ApplicationMetrics(Collections.emptyList());
+
+    @Test
+    public void exportRequestHistogramsPerPhase() {
+
+        long[] phaseNanos = new long[RequestTimer.Phase.values().length];
+        phaseNanos[RequestTimer.Phase.DATABASE.ordinal()] = TimeUnit.MILLISECONDS.toNanos(20);
+        phaseNanos[RequestTimer.Phase.COMPUTATION.ordinal()] = TimeUnit.MILLISECONDS.toNanos(3);
+        applicationMetrics.recordRequest("POST", "/api/study-view/filter",
+            new RequestTimer.Timings(TimeUnit.MILLISECONDS.toNanos(23), phaseNanos));
+
+        String text = applicationMetrics.getPrometheusText();
+
+        Assert.assertTrue(text.contains("# TYPE cbioportal_request_duration_seconds histogram\n"));
+        String labels = "method=\"POST\",endpoint=\"/api/study-view/filter\",phase=";
+        Assert.assertTrue(text.contains("cbioportal_request_duration_seconds_bucket{" + labels +
+            "\"total\",le=\"0.01\"} 0\n"));
+        Assert.assertTrue(text.contains("cbioportal_request_duration_seconds_bucket{" + labels +
+            "\"total\",le=\"0.025\"} 1\n"));
+        Assert.assertTrue(text.contains("cbioportal_request_duration_seconds_bucket{" + labels +
+            "\"database\",le=\"+Inf\"} 1\n"));
+        Assert.assertTrue(text.contains("cbioportal_request_duration_seconds_bucket{" + labels +
+            "\"computation\",le=\"0.005\"} 1\n"));
+        // a phase the request did not spend time in is in the first bucket
+        Assert.assertTrue(text.contains("cbioportal_request_duration_seconds_bucket{" + labels +
+            "\"serialization\",le=\"0.001\"} 1\n"));
+        Assert.assertTrue(text.contains("cbioportal_request_duration_seconds_sum{" + labels + "\"total\"} 0.023\n"));
+        Assert.assertTrue(text.contains("cbioportal_request_duration_seconds_count{" + labels + "\"total\"} 1\n"));
+    }
+
+    @Test
+    public void exportStatementHistogramsPerMapperMethod() {
+
+        applicationMetrics.recordStatement("mysql", "org.cbioportal.legacy.persistence.mybatis.SampleMapper.getSamples",
+            TimeUnit.SECONDS.toNanos(2));
+        applicationMetrics.recordStatement("mysql", "org.cbioportal.legacy.persistence.mybatis.SampleMapper.getSamples",
+            TimeUnit.MILLISECONDS.toNanos(1));
+
+        String text = applicationMetrics.getPrometheusText();
+
+        String labels = "database=\"mysql\",statement=\"SampleMapper.getSamples\"";
+        Assert.assertTrue(text.contains("cbioportal_sql_statement_duration_seconds_bucket{" + labels +
+            ",le=\"0.001\"} 1\n"));
+        Assert.assertTrue(text.contains("cbioportal_sql_statement_duration_seconds_bucket{" + labels +
+            ",le=\"2.5\"} 2\n"));
+        Assert.assertTrue(text.contains("cbioportal_sql_statement_duration_seconds_count{" + labels + "} 2\n"));
+    }
+
+    @Test
+    public void exportCacheLookupsPerCache() {
+
+        CacheLookupSource cacheLookupSource = () -> Arrays.asList(
+            new CacheLookupSource.CacheLookups("StaticRepositoryCacheOne", 5, 0),
+            new CacheLookupSource.CacheLookups("GeneralRepositoryCache", 2, 1));
+
+        String text = new ApplicationMetrics(Collections.singletonList(cacheLookupSource)).getPrometheusText();
+
+        Assert.assertTrue(text.contains("# TYPE cbioportal_cache_lookups_total counter\n"));
+        Assert.assertTrue(text.contains(
+            "cbioportal_cache_lookups_total{cache=\"GeneralRepositoryCache\",result=\"hit\"} 2\n"));
+        Assert.assertTrue(text.contains(
+            "cbioportal_cache_lookups_total{cache=\"GeneralRepositoryCache\",result=\"miss\"} 1\n"));
+        // sorted by cache
+        Assert.assertTrue(text.indexOf("GeneralRepositoryCache") < text.indexOf("StaticRepositoryCacheOne"));
+    }
+}
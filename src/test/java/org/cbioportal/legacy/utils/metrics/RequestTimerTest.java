@@ -0,0 +1,49 @@
+package org.cbioportal.legacy.utils.metrics;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RequestTimerTest {
+
+    @After
+    public void tearDown() {
+        RequestTimer.stop();
+    }
+
+    @Test
+    public void splitTheRequestIntoExclusivePhases() throws Exception {
+
+        RequestTimer.start(RequestTimer.Phase.FILTER);
+        try (RequestTimer.Scope filter = RequestTimer.enter(RequestTimer.Phase.FILTER)) {
+            try (RequestTimer.Scope database = RequestTimer.enter(RequestTimer.Phase.DATABASE)) {
+                Thread.sleep(20);
+            }
+        }
+        RequestTimer.switchTo(RequestTimer.Phase.COMPUTATION);
+        try (RequestTimer.Scope database = RequestTimer.enter(RequestTimer.Phase.DATABASE)) {
+            Thread.sleep(20);
+        }
+        RequestTimer.switchTo(RequestTimer.Phase.SERIALIZATION);
+        RequestTimer.Timings timings = RequestTimer.stop();
+
+        long phaseNanos = 0;
+        for (RequestTimer.Phase phase : RequestTimer.Phase.values()) {
+            phaseNanos += timings.getNanos(phase);
+        }
+        Assert.assertEquals(timings.totalNanos(), phaseNanos);
+        Assert.assertTrue(timings.getNanos(RequestTimer.Phase.DATABASE) >= 40_000_000);
+        Assert.assertTrue(timings.getNanos(RequestTimer.Phase.FILTER) < 20_000_000);
+        Assert.assertNull(RequestTimer.stop());
+    }
+
+    @Test
+    public void ignorePhasesOutsideRequests() {
+
+        try (RequestTimer.Scope database = RequestTimer.enter(RequestTimer.Phase.DATABASE)) {
+            RequestTimer.switchTo(RequestTimer.Phase.SERIALIZATION);
+        }
+
+        Assert.assertNull(RequestTimer.stop());
+    }
+}
@@ -7,6 +7,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 import org.cbioportal.legacy.model.GeneMolecularData;
 import org.cbioportal.legacy.service.MolecularDataService;
 import org.cbioportal.legacy.web.config.TestConfig;
@@ -137,6 +138,42 @@ public class MolecularDataControllerTest {
             .andExpect(MockMvcResultMatchers.jsonPath("$[1].gene").doesNotExist());
     }
 
+    @Test
+    @WithMockUser
+    public void fetchAllMolecularDataInMolecularProfileStreamed() throws Exception {
+
+        List<GeneMolecularData> geneMolecularDataList = createExampleMolecularData();
+        GeneMolecularData nonNumericMolecularData = new GeneMolecularData();
+        nonNumericMolecularData.setValue("NA");
+        geneMolecularDataList.add(1, nonNumericMolecularData);
+
+        Mockito.doAnswer(invocation -> {
+            Consumer<GeneMolecularData> consumer = invocation.getArgument(4);
+            geneMolecularDataList.forEach(consumer);
+            return null;
+        }).when(molecularDataService).streamFetchedMolecularData(Mockito.anyString(), Mockito.anyList(),
+            Mockito.anyList(), Mockito.anyString(), Mockito.any());
+
+        MolecularDataFilter molecularDataFilter = createMolecularDataFilter();
+
+        mockMvc.perform(MockMvcRequestBuilders
+            .post("/api/molecular-profiles/test_molecular_profile_id/molecular-data/fetch").with(csrf())
+            .accept(MediaType.APPLICATION_JSON)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(molecularDataFilter))
+            .param("stream", "true"))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.jsonPath("$", Matchers.hasSize(2)))
+            .andExpect(MockMvcResultMatchers.jsonPath("$[0].sampleId").value(TEST_SAMPLE_STABLE_ID_1))
+            .andExpect(MockMvcResultMatchers.jsonPath("$[0].value").value(2.3))
+            .andExpect(MockMvcResultMatchers.jsonPath("$[1].sampleId").value(TEST_SAMPLE_STABLE_ID_2))
+            .andExpect(MockMvcResultMatchers.jsonPath("$[1].value").value(2.4));
+
+        Mockito.verify(molecularDataService, Mockito.never()).fetchMolecularData(Mockito.anyString(),
+            Mockito.anyList(), Mockito.anyList(), Mockito.anyString());
+    }
+
     @Test
     @WithMockUser
     public void fetchAllMolecularDataInMolecularProfileMetaProjection() throws Exception {
@@ -2,12 +2,16 @@ package org.cbioportal.legacy.web;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.cbioportal.legacy.model.ClinicalData;
+import org.cbioportal.legacy.model.SurvivalComparison;
+import org.cbioportal.legacy.model.SurvivalCurve;
 import org.cbioportal.legacy.service.ClinicalEventService;
 import org.cbioportal.legacy.web.config.TestConfig;
 import org.cbioportal.legacy.web.parameter.ClinicalEventRequest;
 import org.cbioportal.legacy.web.parameter.ClinicalEventRequestIdentifier;
 import org.cbioportal.legacy.web.parameter.OccurrencePosition;
+import org.cbioportal.legacy.web.parameter.PatientGroup;
 import org.cbioportal.legacy.web.parameter.PatientIdentifier;
+import org.cbioportal.legacy.web.parameter.SurvivalCurveRequest;
 import org.cbioportal.legacy.web.parameter.SurvivalRequest;
 import org.hamcrest.Matchers;
 import org.junit.Test;
@@ -106,6 +110,53 @@ public class SurvivalControllerTest {
             .andExpect(MockMvcResultMatchers.jsonPath("$[1].value").value(TEST_CLINICAL_ATTRIBUTE_VALUE_2));
     }
     
+    @Test
+    @WithMockUser
+    public void fetchSurvivalCurves() throws Exception {
+        SurvivalCurve survivalCurve = new SurvivalCurve();
+        survivalCurve.setName("group");
+        survivalCurve.setNumberOfPatients(2);
+        survivalCurve.setMonths(new double[]{1.5, 3});
+        survivalCurve.setSurvivalProbabilities(new double[]{0.5, 0.5});
+        survivalCurve.setNumbersAtRisk(new int[]{2, 1});
+        SurvivalComparison survivalComparison = new SurvivalComparison();
+        survivalComparison.setCurves(List.of(survivalCurve));
+        when(clinicalEventService.getSurvivalComparison(anyList(), anyList(), any()))
+            .thenReturn(survivalComparison);
+
+        PatientIdentifier patientIdentifier = new PatientIdentifier();
+        patientIdentifier.setPatientId(TEST_PATIENT_ID_1);
+        patientIdentifier.setStudyId(TEST_CANCER_STUDY_IDENTIFIER);
+        PatientGroup patientGroup = new PatientGroup();
+        patientGroup.setName("group");
+        patientGroup.setPatientIdentifiers(List.of(patientIdentifier));
+
+        SurvivalCurveRequest survivalCurveRequest = new SurvivalCurveRequest();
+        survivalCurveRequest.setPatientIdentifiers(List.of(patientIdentifier));
+        survivalCurveRequest.setAttributeIdPrefix(TEST_ATTRIBUTE_ID_PREFIX);
+        survivalCurveRequest.setGroups(List.of(patientGroup));
+
+        ClinicalEventRequest clinicalEventRequest = new ClinicalEventRequest();
+        clinicalEventRequest.setEventType(TEST_CLINICAL_EVENT_TYPE);
+        clinicalEventRequest.setAttributes(new ArrayList<>());
+        ClinicalEventRequestIdentifier startEventRequestIdentifier = new ClinicalEventRequestIdentifier();
+        startEventRequestIdentifier.setClinicalEventRequests(Set.of(clinicalEventRequest));
+        startEventRequestIdentifier.setPosition(OccurrencePosition.FIRST);
+        survivalCurveRequest.setStartEventRequestIdentifier(startEventRequestIdentifier);
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/survival-curves/fetch").with(csrf())
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(survivalCurveRequest)))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.curves", Matchers.hasSize(1)))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.curves[0].name").value("group"))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.curves[0].months[0]").value(1.5))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.curves[0].numbersAtRisk[1]").value(1))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.logRankPValue").doesNotExist());
+    }
+
     private List<ClinicalData> createClinicalDataList() {
         List<ClinicalData> clinicalDataList = new ArrayList<>();
         
@@ -0,0 +1,84 @@
+package org.cbioportal.legacy.web.columnar;
+
+import org.cbioportal.legacy.model.StudyViewChartResult;
+import org.cbioportal.legacy.utils.concurrent.WorkloadExecutors;
+import org.cbioportal.legacy.web.parameter.StudyViewChartRequest;
+import org.cbioportal.legacy.web.parameter.StudyViewChartType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class StudyViewChartFetcherTest {
+
+    private final StudyViewChartFetcher studyViewChartFetcher = new StudyViewChartFetcher();
+    private final WorkloadExecutors workloadExecutors = new WorkloadExecutors(
+        new MockEnvironment().withProperty("workload.study_view.pool_size", "4"));
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(studyViewChartFetcher, "workloadExecutors", workloadExecutors);
+        studyViewChartFetcher.init();
+    }
+
+    @After
+    public void tearDown() {
+        workloadExecutors.destroy();
+    }
+
+    @Test
+    public void fetchReturnsChartsInOrderOfCompletion() throws Exception {
+        CountDownLatch fastChartDone = new CountDownLatch(1);
+        List<StudyViewChartResult> results = new ArrayList<>();
+
+        studyViewChartFetcher.fetch(List.of(createChart("slow"), createChart("fast")), chart -> {
+            if (chart.getId().equals("slow")) {
+                try {
+                    assertTrue(fastChartDone.await(10, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            } else {
+                fastChartDone.countDown();
+            }
+            return chart.getId() + "_data";
+        }, results::add);
+
+        assertEquals(2, results.size());
+        assertEquals("fast", results.get(0).getId());
+        assertEquals("fast_data", results.get(0).getData());
+        assertEquals("slow", results.get(1).getId());
+        assertEquals("slow_data", results.get(1).getData());
+    }
+
+    @Test
+    public void fetchReturnsErrorForFailingChart() throws Exception {
+        List<StudyViewChartResult> results = new ArrayList<>();
+
+        studyViewChartFetcher.fetch(List.of(createChart("failing")), chart -> {
+            throw new IllegalArgumentException("no such attribute");
+        }, results::add);
+
+        assertEquals(1, results.size());
+        assertEquals("failing", results.get(0).getId());
+        assertNull(results.get(0).getData());
+        assertEquals("Could not fetch chart of type CLINICAL_DATA_COUNTS", results.get(0).getError());
+    }
+
+    private StudyViewChartRequest createChart(String id) {
+        StudyViewChartRequest chart = new StudyViewChartRequest();
+        chart.setId(id);
+        chart.setType(StudyViewChartType.CLINICAL_DATA_COUNTS);
+        return chart;
+    }
+}
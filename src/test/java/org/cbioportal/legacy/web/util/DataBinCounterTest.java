@@ -0,0 +1,82 @@
+package org.cbioportal.legacy.web.util;
+
+import org.cbioportal.legacy.model.Binnable;
+import org.cbioportal.legacy.model.ClinicalData;
+import org.cbioportal.legacy.model.DataBin;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class DataBinCounterTest {
+
+    private static final List<String> VALUES = Arrays.asList("10", "20", "20", "30", "40.0", "45", "<15", ">40",
+        "<=20", ">=50", "Yes", "yes", "NO", ">10PY", "NA");
+
+    @Test
+    public void countNumericalBins() {
+        DataBinCounter dataBinCounter = new DataBinCounter(createClinicalData(VALUES));
+
+        Assert.assertEquals(1, dataBinCounter.count(createDataBin(null, "20", "30")));
+        Assert.assertEquals(2, dataBinCounter.count(createDataBin(null, "30", "45")));
+        Assert.assertEquals(2, dataBinCounter.count(createDataBin(null, "20", "20")));
+        Assert.assertEquals(0, dataBinCounter.count(createDataBin(null, "50", "60")));
+    }
+
+    @Test
+    public void countOutlierBinsWithSpecialRanges() {
+        DataBinCounter dataBinCounter = new DataBinCounter(createClinicalData(VALUES));
+
+        // 10, 20, 20, <15 and <=20
+        Assert.assertEquals(5, dataBinCounter.count(createDataBin("<=", null, "20")));
+        // 10, <15 and <=20
+        Assert.assertEquals(3, dataBinCounter.count(createDataBin("<", null, "20")));
+        // 45, >40 and >=50
+        Assert.assertEquals(3, dataBinCounter.count(createDataBin(">", "40", null)));
+        // 40.0, 45, >40 and >=50
+        Assert.assertEquals(4, dataBinCounter.count(createDataBin(">=", "40", null)));
+    }
+
+    @Test
+    public void countNonNumericalBins() {
+        DataBinCounter dataBinCounter = new DataBinCounter(createClinicalData(VALUES));
+
+        Assert.assertEquals(2, dataBinCounter.count(createDataBin("YES", null, null)));
+        Assert.assertEquals(1, dataBinCounter.count(createDataBin("no", null, null)));
+        Assert.assertEquals(1, dataBinCounter.count(createDataBin(">10PY", null, null)));
+        Assert.assertEquals(0, dataBinCounter.count(createDataBin("MAYBE", null, null)));
+        Assert.assertEquals(0, dataBinCounter.count(createDataBin("NA", null, null)));
+    }
+
+    @Test
+    public void recalcBinCount() {
+        List<DataBin> dataBins = Arrays.asList(
+            createDataBin("<=", null, "20"),
+            createDataBin(null, "20", "30"),
+            createDataBin("YES", null, null),
+            createDataBin("NA", null, null));
+
+        new DataBinner().recalcBinCount(dataBins, createClinicalData(VALUES), 7L);
+
+        Assert.assertEquals(List.of(5, 1, 2, 7), dataBins.stream().map(DataBin::getCount).collect(Collectors.toList()));
+    }
+
+    private List<Binnable> createClinicalData(List<String> values) {
+        return values.stream().map(value -> {
+            ClinicalData clinicalData = new ClinicalData();
+            clinicalData.setAttrValue(value);
+            return (Binnable) clinicalData;
+        }).collect(Collectors.toList());
+    }
+
+    private DataBin createDataBin(String specialValue, String start, String end) {
+        DataBin dataBin = new DataBin();
+        dataBin.setSpecialValue(specialValue);
+        dataBin.setStart(start == null ? null : new BigDecimal(start));
+        dataBin.setEnd(end == null ? null : new BigDecimal(end));
+        return dataBin;
+    }
+}
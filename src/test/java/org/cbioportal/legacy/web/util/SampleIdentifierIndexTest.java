@@ -0,0 +1,63 @@
+package org.cbioportal.legacy.web.util;
+
+import org.cbioportal.legacy.web.parameter.SampleIdentifier;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+public class SampleIdentifierIndexTest {
+
+    private static final String STUDY_ID_1 = "study_id1";
+    private static final String STUDY_ID_2 = "study_id2";
+    private static final String SAMPLE_ID_1 = "sample_id1";
+    private static final String SAMPLE_ID_2 = "sample_id2";
+
+    @Test
+    public void indexOf() {
+
+        SampleIdentifierIndex index = new SampleIdentifierIndex(Arrays.asList(
+            createSampleIdentifier(STUDY_ID_1, SAMPLE_ID_1),
+            createSampleIdentifier(STUDY_ID_1, SAMPLE_ID_2),
+            createSampleIdentifier(STUDY_ID_2, SAMPLE_ID_1),
+            createSampleIdentifier(STUDY_ID_1, SAMPLE_ID_1)));
+
+        Assert.assertEquals(3, index.size());
+        Assert.assertEquals(0, index.indexOf(STUDY_ID_1, SAMPLE_ID_1));
+        Assert.assertEquals(1, index.indexOf(STUDY_ID_1, SAMPLE_ID_2));
+        Assert.assertEquals(2, index.indexOf(STUDY_ID_2, SAMPLE_ID_1));
+        Assert.assertEquals(-1, index.indexOf(STUDY_ID_2, SAMPLE_ID_2));
+        Assert.assertEquals(-1, index.indexOf("unknown_study", SAMPLE_ID_1));
+    }
+
+    @Test
+    public void selectAndConvertBack() {
+
+        SampleIdentifierIndex index = new SampleIdentifierIndex(Arrays.asList(
+            createSampleIdentifier(STUDY_ID_1, SAMPLE_ID_1),
+            createSampleIdentifier(STUDY_ID_1, SAMPLE_ID_2),
+            createSampleIdentifier(STUDY_ID_2, SAMPLE_ID_1)));
+
+        BitSet selection = index.select(Arrays.asList(
+            createSampleIdentifier(STUDY_ID_2, SAMPLE_ID_1),
+            createSampleIdentifier(STUDY_ID_2, SAMPLE_ID_2),
+            createSampleIdentifier(STUDY_ID_1, SAMPLE_ID_1)));
+        Assert.assertEquals(2, selection.cardinality());
+
+        selection.and(index.all());
+        List<SampleIdentifier> result = index.toSampleIdentifiers(selection);
+        Assert.assertEquals(2, result.size());
+        Assert.assertEquals(createSampleIdentifier(STUDY_ID_1, SAMPLE_ID_1), result.get(0));
+        Assert.assertEquals(createSampleIdentifier(STUDY_ID_2, SAMPLE_ID_1), result.get(1));
+    }
+
+    private SampleIdentifier createSampleIdentifier(String studyId, String sampleId) {
+
+        SampleIdentifier sampleIdentifier = new SampleIdentifier();
+        sampleIdentifier.setStudyId(studyId);
+        sampleIdentifier.setSampleId(sampleId);
+        return sampleIdentifier;
+    }
+}
@@ -16,6 +16,7 @@ import org.cbioportal.legacy.model.Mutation;
 import org.cbioportal.legacy.model.Patient;
 import org.cbioportal.legacy.model.Sample;
 import org.cbioportal.legacy.model.util.Select;
+import org.cbioportal.legacy.persistence.CacheEnabledConfig;
 import org.cbioportal.legacy.service.ClinicalAttributeService;
 import org.cbioportal.legacy.service.ClinicalDataService;
 import org.cbioportal.legacy.service.DiscreteCopyNumberService;
@@ -48,6 +49,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.mockito.Spy;
 import org.springframework.context.ApplicationContext;
@@ -132,6 +134,8 @@ public class StudyViewFilterApplierTest {
     private GenericAssayService genericAssayService;
     @Mock
     private StructuralVariantService structuralVariantService;
+    @Mock
+    private CacheEnabledConfig cacheEnabledConfig;
     // Do not mock utility classes, we also want to test their functionality
     @Spy
     @InjectMocks
@@ -901,6 +905,60 @@ public class StudyViewFilterApplierTest {
         Assert.assertEquals(1, result.size());
     }
 
+    @Test
+    public void applyByClauseWhenCacheIsEnabled() throws Exception {
+        // Create samples:
+        List<SampleIdentifier> sampleIdentifiers = new ArrayList<>();
+        sampleIdentifiers.add(createSampleIdentifier(SAMPLE_ID1));
+        sampleIdentifiers.add(createSampleIdentifier(SAMPLE_ID2));
+        sampleIdentifiers.add(createSampleIdentifier(SAMPLE_ID3));
+        StudyViewFilter studyViewFilter = new StudyViewFilter();
+        studyViewFilter.setSampleIdentifiers(sampleIdentifiers);
+        List<String> sampleIds = sampleIdentifiers
+            .stream()
+            .map(SampleIdentifier::getSampleId)
+            .collect(toList());
+        List<String> studyIds = sampleIdentifiers
+            .stream()
+            .map(SampleIdentifier::getStudyId)
+            .collect(toList());
+        List<Sample> samples = sampleIdentifiers
+            .stream()
+            .map(si -> createSample(si.getSampleId()))
+            .collect(toList());
+
+        // Create two custom dataset interval filters: 0 <= value <= 20 and -5 <= value <= 10
+        ClinicalDataFilter customDataFilter1 = new ClinicalDataFilter();
+        customDataFilter1.setAttributeId(CUSTOM_DATASET_ID);
+        DataFilterValue intervalFilter1 = new DataFilterValue();
+        intervalFilter1.setStart(new BigDecimal("0"));
+        intervalFilter1.setEnd(new BigDecimal("20"));
+        customDataFilter1.setValues(of(intervalFilter1));
+        ClinicalDataFilter customDataFilter2 = new ClinicalDataFilter();
+        customDataFilter2.setAttributeId(CUSTOM_DATASET_ID);
+        DataFilterValue intervalFilter2 = new DataFilterValue();
+        intervalFilter2.setStart(new BigDecimal("-5"));
+        intervalFilter2.setEnd(new BigDecimal("10"));
+        customDataFilter2.setValues(of(intervalFilter2));
+        List<ClinicalDataFilter> customDataFilters = new ArrayList<>();
+        customDataFilters.add(customDataFilter1);
+        customDataFilters.add(customDataFilter2);
+        studyViewFilter.setCustomDataFilters(customDataFilters);
+
+        when(cacheEnabledConfig.isEnabled()).thenReturn(true);
+        when(sampleService.fetchSamples(eq(studyIds), eq(sampleIds), eq("ID"))).thenReturn(samples);
+
+        String customDataset = getFileContents("classpath:numerical-custom-dataset-filter-applier.json");
+        mockCustomDataService(customDataset);
+
+        List<SampleIdentifier> result = studyViewFilterApplier.apply(studyViewFilter);
+
+        Assert.assertEquals(1, result.size());
+        Assert.assertEquals(SAMPLE_ID2, result.get(0).getSampleId());
+        // once for the samples of the filter and once per clause
+        Mockito.verify(sampleService, Mockito.times(3)).fetchSamples(eq(studyIds), eq(sampleIds), eq("ID"));
+    }
+
     @Test
     public void applyCategoricalCustomDataFilter() throws Exception {
         // Create samples: